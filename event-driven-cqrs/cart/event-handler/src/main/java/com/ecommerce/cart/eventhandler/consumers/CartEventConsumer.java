@@ -52,6 +52,7 @@ public class CartEventConsumer {
 
                     repository.findById(cartId).ifPresent(view -> {
                         view.getItems().merge(productId, qty, Integer::sum);
+                        view.setVersion(view.getVersion() + 1);
                         repository.save(view);
                     });
                 }
@@ -62,6 +63,7 @@ public class CartEventConsumer {
 
                     repository.findById(cartId).ifPresent(view -> {
                         view.getItems().put(productId, newQty);
+                        view.setVersion(view.getVersion() + 1);
                         repository.save(view);
                     });
                 }
@@ -71,6 +73,7 @@ public class CartEventConsumer {
 
                     repository.findById(cartId).ifPresent(view -> {
                         view.getItems().remove(productId);
+                        view.setVersion(view.getVersion() + 1);
                         repository.save(view);
                     });
                 }
@@ -79,6 +82,7 @@ public class CartEventConsumer {
 
                     repository.findById(cartId).ifPresent(view -> {
                         view.getItems().clear();
+                        view.setVersion(view.getVersion() + 1);
                         repository.save(view);
                     });
                 }
@@ -2,8 +2,13 @@ package com.ecommerce.cart.queryapi.controllers;
 
 import com.ecommerce.cart.queryapi.models.CartView;
 import com.ecommerce.cart.queryapi.repositories.CartViewRepository;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v1/carts")
@@ -15,10 +20,25 @@ public class CartQueryController {
         this.repository = repository;
     }
 
+    /**
+     * Get a cart by guest token. Supports If-None-Match: a matching ETag is
+     * answered with 304 from a version-only read, without loading the items.
+     */
     @GetMapping("/{guestToken}")
-    public ResponseEntity<CartView> getCart(@PathVariable String guestToken) {
+    public ResponseEntity<CartView> getCart(@PathVariable String guestToken, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<String> current = repository.findVersionByGuestToken(guestToken).map(CartQueryController::etag);
+            if (current.isPresent() && request.checkNotModified(current.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current.get()).build();
+            }
+        }
+
         return repository.findByGuestToken(guestToken)
-                .map(ResponseEntity::ok)
+                .map(view -> ResponseEntity.ok().eTag(etag(view)).body(view))
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    private static String etag(CartView view) {
+        return "\"" + view.getCartId() + "-" + view.getVersion() + "\"";
+    }
 }
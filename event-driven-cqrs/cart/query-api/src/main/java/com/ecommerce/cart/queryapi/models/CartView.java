@@ -16,6 +16,9 @@ public class CartView {
 
     private Map<String, Integer> items;
 
+    // Incremented by the projection on every applied event; backs the ETag
+    private long version;
+
     public CartView() {
     }
 
@@ -23,6 +26,7 @@ public class CartView {
         this.cartId = cartId;
         this.guestToken = guestToken;
         this.items = items;
+        this.version = 1;
     }
 
     public String getCartId() {
@@ -48,4 +52,12 @@ public class CartView {
     public void setItems(Map<String, Integer> items) {
         this.items = items;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
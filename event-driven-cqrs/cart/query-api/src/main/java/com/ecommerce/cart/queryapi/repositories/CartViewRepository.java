@@ -2,6 +2,7 @@ package com.ecommerce.cart.queryapi.repositories;
 
 import com.ecommerce.cart.queryapi.models.CartView;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,4 +10,10 @@ import java.util.Optional;
 @Repository
 public interface CartViewRepository extends MongoRepository<CartView, String> {
     Optional<CartView> findByGuestToken(String guestToken);
+
+    /**
+     * Loads only the id and version of the cart, for conditional requests.
+     */
+    @Query(value = "{ 'guestToken': ?0 }", fields = "{ 'version': 1 }")
+    Optional<CartView> findVersionByGuestToken(String guestToken);
 }
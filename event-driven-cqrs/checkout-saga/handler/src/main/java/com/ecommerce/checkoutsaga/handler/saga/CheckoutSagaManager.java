@@ -1,295 +1,265 @@
 package com.ecommerce.checkoutsaga.handler.saga;
 
-import com.ecommerce.checkoutsaga.handler.saga.contracts.SagaContracts;
 import com.ecommerce.checkoutsaga.handler.saga.contracts.SagaContracts.*;
-import com.ecommerce.checkout.domain.events.CheckoutRequested;
-import com.ecommerce.shared.common.commands.Command;
-import com.ecommerce.shared.common.commands.CommandEnvelope;
 import com.ecommerce.shared.messaging.MessagingConstants;
-import com.ecommerce.shared.messaging.CommandPublisher;
+import com.ecommerce.shared.saga.SagaContext;
+import com.ecommerce.shared.saga.SagaDefinition;
+import com.ecommerce.shared.saga.SagaEngine;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.core.Message;
-import org.springframework.amqp.rabbit.annotation.Exchange;
-import org.springframework.amqp.rabbit.annotation.Queue;
-import org.springframework.amqp.rabbit.annotation.QueueBinding;
-import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
 import java.util.UUID;
-import java.util.Map;
-import java.util.HashMap;
 
+/**
+ * Checkout saga: CheckoutRequested -> cart snapshot -> product snapshots ->
+ * stock validation -> stock deduction -> order creation -> cart clear.
+ * Runs on the shared saga engine, which owns the reply queue, state
+ * persistence, timeouts and metrics.
+ */
 @Component
 public class CheckoutSagaManager {
 
+    public static final String SAGA_TYPE = "checkout";
+
+    public static final String STEP_CART_SNAPSHOT = "cart-snapshot";
+    public static final String STEP_PRODUCT_SNAPSHOTS = "product-snapshots";
+    public static final String STEP_STOCK_VALIDATION = "stock-validation";
+    public static final String STEP_STOCK_DEDUCTION = "stock-deduction";
+    public static final String STEP_STOCK_DEDUCTION_REJECTED = "stock-deduction-rejected";
+    public static final String STEP_ORDER_CREATION = "order-creation";
+    public static final String STEP_ORDER_CREATION_FAILED = "order-creation-failed";
+    public static final String STEP_CART_CLEAR = "cart-clear";
+
     private static final Logger logger = LoggerFactory.getLogger(CheckoutSagaManager.class);
 
-    private final CommandPublisher commandPublisher;
+    private final RabbitTemplate rabbitTemplate;
     private final ObjectMapper objectMapper;
 
-    // In a real system, we'd persist Saga state to DB (MongoDB/SQL).
-    // For MVP, if we stateless-ly chain events, we need to pass context in headers
-    // or payload.
-    // Here we will try to pass context via the events themselves if possible, or
-    // assume stateless execution where
-    // each step has enough info.
-    // However, the events define the contract.
-    // Example: CartSnapshotProvided has orderId.
-    // But we need to keep "Customer Info" and "Address" from the start
-    // (CheckoutRequested) until CreateOrder.
-    // If we don't persist state, we must pass it along.
-    // The current events design doesn't carry all that.
-    // SO: We MUST persist Saga State.
-
-    // Quick MVP workaround: In-memory map (NOT production ready, will fail on
-    // restart).
-    // Or we rely on the fact that we can't easily change the event contracts now?
-    // Wait, I can update the Saga Manager to just use a simple cache or just ...
-    // Let's use a static map for MVP demo.
-    private static final Map<String, SagaState> sagaStore = new HashMap<>();
-
-    public CheckoutSagaManager(CommandPublisher commandPublisher, ObjectMapper objectMapper) {
-        this.commandPublisher = commandPublisher;
+    public CheckoutSagaManager(SagaEngine sagaEngine, RabbitTemplate rabbitTemplate, ObjectMapper objectMapper,
+            @Value("${checkout.saga.timeout-seconds:300}") long timeoutSeconds) {
+        this.rabbitTemplate = rabbitTemplate;
         this.objectMapper = objectMapper;
+        sagaEngine.register(definition(Duration.ofSeconds(timeoutSeconds)));
     }
 
-    // 1. Listen to CheckoutRequested -> Send GetCartSnapshot
-    @RabbitListener(bindings = @QueueBinding(value = @Queue(value = "saga.checkout-requested.queue"), exchange = @Exchange(value = MessagingConstants.EVENTS_EXCHANGE, type = "topic"), key = "order.CheckoutRequested"))
-    public void onCheckoutRequested(Message message) {
-        try {
-            CheckoutRequested event = objectMapper.readValue(message.getBody(), CheckoutRequested.class);
-            logger.info("Saga Started: CheckoutRequested for orderId={}", event.getOrderId());
-
-            // Save initial state
-            SagaState state = new SagaState();
-            state.orderId = event.getOrderId();
-            state.guestToken = event.getGuestToken();
-            // Convert domain event VO to local saga record
-            state.customer = new CustomerInfo(
-                    event.getCustomer().getFirstName(),
-                    event.getCustomer().getLastName(),
-                    event.getCustomer().getEmail(),
-                    event.getCustomer().getPhone());
-            state.address = new ShippingAddress(
-                    event.getAddress().getAddressLine1(),
-                    event.getAddress().getAddressLine2(),
-                    event.getAddress().getCity(),
-                    event.getAddress().getState(),
-                    event.getAddress().getZipCode(),
-                    event.getAddress().getCountry());
-            state.idempotencyKey = event.getIdempotencyKey();
-            sagaStore.put(event.getOrderId(), state);
-
-            // Command: Get Cart
-            GetCartSnapshotCommand cmd = new GetCartSnapshotCommand(UUID.randomUUID().toString(), event.getGuestToken(),
-                    event.getOrderId());
-            sendCommand(MessagingConstants.CART_COMMANDS_QUEUE, cmd, event.getOrderId());
-
-        } catch (Exception e) {
-            logger.error("Error starting saga", e);
-        }
+    private SagaDefinition<CheckoutSagaState> definition(Duration timeout) {
+        return SagaDefinition.builder(SAGA_TYPE, CheckoutSagaState.class, CheckoutSagaState::new)
+                .startsOn("order.CheckoutRequested", CheckoutRequested.class)
+                    .correlatedBy(CheckoutRequested::orderId)
+                    .replacingQueue("saga.checkout-requested.queue")
+                    .handle(this::onCheckoutRequested)
+                .step(STEP_CART_SNAPSHOT, "cart.CartSnapshotProvided", CartSnapshotProvided.class)
+                    .correlatedBy(CartSnapshotProvided::orderId)
+                    .replacingQueue("saga.cart-snapshot.queue")
+                    .handle(this::onCartSnapshotProvided)
+                .step(STEP_PRODUCT_SNAPSHOTS, "productcatalog.ProductSnapshotsProvided",
+                        ProductSnapshotsProvided.class)
+                    .correlatedBy(ProductSnapshotsProvided::orderId)
+                    .replacingQueue("saga.product-snapshots.queue")
+                    .handle(this::onProductSnapshots)
+                .step(STEP_STOCK_VALIDATION, "inventorybatch.StockBatchValidated", StockBatchValidated.class)
+                    .correlatedBy(StockBatchValidated::orderId)
+                    .replacingQueue("saga.stock-validated.queue")
+                    .handle(this::onStockValidated)
+                .step(STEP_STOCK_DEDUCTION, "inventory.StockDeductedForOrder", StockDeductedForOrder.class)
+                    .correlatedBy(StockDeductedForOrder::orderId)
+                    .replacingQueue("saga.stock-deducted.queue")
+                    .handle(this::onStockDeducted)
+                .step(STEP_STOCK_DEDUCTION_REJECTED, "inventory.StockDeductionRejected",
+                        StockDeductionRejected.class)
+                    .correlatedBy(StockDeductionRejected::orderId)
+                    .handle(this::onStockDeductionRejected)
+                .step(STEP_ORDER_CREATION, "order.OrderCreated", OrderCreated.class)
+                    .correlatedBy(OrderCreated::orderId)
+                    .replacingQueue("saga.order-created.queue")
+                    .handle(this::onOrderCreated)
+                .step(STEP_ORDER_CREATION_FAILED, "order.OrderCreationFailed", OrderCreationFailed.class)
+                    .correlatedBy(OrderCreationFailed::orderId)
+                    .handle(this::onOrderCreationFailed)
+                .step(STEP_CART_CLEAR, "cart.CartCleared", CartCleared.class)
+                    .correlatedBy(CartCleared::orderId)
+                    .replacingQueue("saga.cart-cleared.queue")
+                    .handle(this::onCartCleared)
+                .timeout(timeout, this::onTimeout)
+                .build();
     }
 
-    // 2. Listen to CartSnapshotProvided -> Send GetProductSnapshots
-    @RabbitListener(bindings = @QueueBinding(value = @Queue(value = "saga.cart-snapshot.queue"), exchange = @Exchange(value = MessagingConstants.EVENTS_EXCHANGE, type = "topic"), key = "cart.CartSnapshotProvided" // Need
-                                                                                                                                                                                                                     // to
-                                                                                                                                                                                                                     // ensure
-                                                                                                                                                                                                                     // Cart
-                                                                                                                                                                                                                     // emits
-                                                                                                                                                                                                                     // with
-                                                                                                                                                                                                                     // this
-                                                                                                                                                                                                                     // routing
-                                                                                                                                                                                                                     // key?
-                                                                                                                                                                                                                     // AggType
-                                                                                                                                                                                                                     // is
-                                                                                                                                                                                                                     // ShoppingCart.
-    ))
-    public void onCartSnapshotProvided(Message message) {
-        try {
-            CartSnapshotProvided event = objectMapper.readValue(message.getBody(), CartSnapshotProvided.class);
-            logger.info("Saga Step 2: Cart Snapshot received for orderId={}", event.orderId());
+    // 1. CheckoutRequested -> Send GetCartSnapshot
+    private void onCheckoutRequested(CheckoutRequested event, SagaContext<CheckoutSagaState> context) {
+        logger.info("Saga Started: CheckoutRequested for orderId={}", event.orderId());
 
-            SagaState state = sagaStore.get(event.orderId());
-            if (state == null) {
-                logger.warn("Saga state not found for {}", event.orderId());
-                return;
-            }
+        CheckoutSagaState state = context.getState();
+        state.setOrderId(event.orderId());
+        state.setGuestToken(event.guestToken());
+        state.setCustomer(event.customer());
+        state.setAddress(event.address());
+        state.setIdempotencyKey(event.idempotencyKey());
+        state.setReplyTo(event.replyTo());
 
-            state.cartItems = event.items();
+        context.send(MessagingConstants.CART_COMMANDS_QUEUE,
+                new GetCartSnapshotCommand(UUID.randomUUID().toString(), event.guestToken(), event.orderId()));
+    }
 
-            if (state.cartItems.isEmpty()) {
-                logger.error("Cart is empty, aborting saga");
-                // Should send failure/compensation?
-                return;
-            }
+    // 2. CartSnapshotProvided -> Send GetProductSnapshots
+    private void onCartSnapshotProvided(CartSnapshotProvided event, SagaContext<CheckoutSagaState> context) {
+        logger.info("Saga Step 2: Cart Snapshot received for orderId={}", event.orderId());
 
-            // Command: Get Products
-            GetProductSnapshotsCommand cmd = new GetProductSnapshotsCommand(UUID.randomUUID().toString(),
-                    event.orderId(), state.cartItems.keySet().stream().toList());
-            // We need a PRODUCT_CATALOG_COMMANDS_QUEUE. Check constants.
-            sendCommand(MessagingConstants.PRODUCT_CATALOG_COMMANDS_QUEUE, cmd, event.orderId());
+        CheckoutSagaState state = context.getState();
+        state.setCartItems(event.items());
 
-        } catch (Exception e) {
-            logger.error("Error step 2", e);
+        if (state.getCartItems() == null || state.getCartItems().isEmpty()) {
+            logger.error("Cart is empty, aborting saga");
+            reply(state, CheckoutReply.failed(event.orderId(), "Cart is empty"));
+            context.fail("Cart is empty");
+            return;
         }
-    }
 
-    // 3. Listen to ProductSnapshots -> Validate Stock
-    @RabbitListener(bindings = @QueueBinding(value = @Queue(value = "saga.product-snapshots.queue"), exchange = @Exchange(value = MessagingConstants.EVENTS_EXCHANGE, type = "topic"), key = "productcatalog.ProductSnapshotsProvided"))
-    public void onProductSnapshots(Message message) {
-        try {
-            ProductSnapshotsProvided event = objectMapper.readValue(message.getBody(), ProductSnapshotsProvided.class);
-            logger.info("Saga Step 3: Product Snapshots received for orderId={}", event.orderId());
+        context.send(MessagingConstants.PRODUCT_CATALOG_COMMANDS_QUEUE,
+                new GetProductSnapshotsCommand(UUID.randomUUID().toString(), event.orderId(),
+                        state.getCartItems().keySet().stream().toList()));
+    }
 
-            SagaState state = sagaStore.get(event.orderId());
-            if (state == null)
-                return;
+    // 3. ProductSnapshots -> Validate Stock
+    private void onProductSnapshots(ProductSnapshotsProvided event, SagaContext<CheckoutSagaState> context) {
+        logger.info("Saga Step 3: Product Snapshots received for orderId={}", event.orderId());
 
-            state.products = event.products();
+        CheckoutSagaState state = context.getState();
+        state.setProducts(event.products());
 
-            // Validate product details (active, price check?)
-            // For now, store them.
-            // Converting event pojo to local or generic
-            // Ignoring type conversion for brevity, assuming compatible or just storing
-            // logic
+        context.send(MessagingConstants.INVENTORY_COMMANDS_QUEUE,
+                new ValidateStockBatchCommand(UUID.randomUUID().toString(), event.orderId(), state.getCartItems()));
+    }
 
-            // Command: Validate Stock
-            ValidateStockBatchCommand cmd = new ValidateStockBatchCommand(UUID.randomUUID().toString(),
-                    event.orderId(), state.cartItems);
-            sendCommand(MessagingConstants.INVENTORY_COMMANDS_QUEUE, cmd, event.orderId());
+    // 4. StockBatchValidated -> Deduct Stock
+    private void onStockValidated(StockBatchValidated event, SagaContext<CheckoutSagaState> context) {
+        logger.info("Saga Step 4: Stock Validated for orderId={}, success={}", event.orderId(), event.success());
 
-        } catch (Exception e) {
-            logger.error("Error step 3", e);
+        CheckoutSagaState state = context.getState();
+        if (!event.success()) {
+            logger.error("Stock validation failed: {}", event.failureReason());
+            reply(state, CheckoutReply.failed(event.orderId(), event.failureReason()));
+            context.fail(event.failureReason());
+            return;
         }
+
+        context.send(MessagingConstants.INVENTORY_COMMANDS_QUEUE,
+                new DeductStockForOrderCommand(UUID.randomUUID().toString(), event.orderId(), state.getCartItems()));
     }
 
-    // 4. Listen to StockBatchValidated -> Deduct Stock
-    @RabbitListener(bindings = @QueueBinding(value = @Queue(value = "saga.stock-validated.queue"), exchange = @Exchange(value = MessagingConstants.EVENTS_EXCHANGE, type = "topic"), key = "inventorybatch.StockBatchValidated"))
-    public void onStockValidated(Message message) {
-        try {
-            StockBatchValidated event = objectMapper.readValue(message.getBody(), StockBatchValidated.class);
-            logger.info("Saga Step 4: Stock Validated for orderId={}, success={}", event.orderId(),
-                    event.success());
+    // 5. StockDeducted -> Create Order
+    private void onStockDeducted(StockDeductedForOrder event, SagaContext<CheckoutSagaState> context) {
+        logger.info("Saga Step 5: Stock Deducted for orderId={}", event.orderId());
+
+        CheckoutSagaState state = context.getState();
+        List<OrderLineItem> lineItems = state.getProducts().stream()
+                .map(p -> {
+                    Integer qty = state.getCartItems().get(p.id());
+                    return new OrderLineItem(p.id(), p.sku(), p.name(), p.price(), qty != null ? qty : 0);
+                }).toList();
+
+        BigDecimal subtotal = lineItems.stream()
+                .map(OrderLineItem::getLineTotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        context.send(MessagingConstants.ORDER_COMMANDS_QUEUE, new CreateOrderCommand(
+                UUID.randomUUID().toString(),
+                event.orderId(),
+                state.getGuestToken(),
+                state.getCustomer(),
+                state.getAddress(),
+                lineItems,
+                OrderTotals.of(subtotal, BigDecimal.ZERO),
+                state.getIdempotencyKey()));
+    }
 
-            if (!event.success()) {
-                logger.error("Stock validation failed: {}", event.failureReason());
-                return;
-            }
+    // 5b. StockDeductionRejected -> Fail; the deduction is all or nothing, so nothing was taken
+    private void onStockDeductionRejected(StockDeductionRejected event, SagaContext<CheckoutSagaState> context) {
+        logger.error("Stock deduction rejected for orderId={}, productId={}: {}",
+                event.orderId(), event.productId(), event.reason());
 
-            SagaState state = sagaStore.get(event.orderId());
-            if (state == null)
-                return;
+        String reason = event.productId() == null
+                ? "Stock deduction rejected: " + event.reason()
+                : "Stock deduction rejected for product " + event.productId() + ": " + event.reason();
+        reply(context.getState(), CheckoutReply.failed(event.orderId(), reason));
+        context.fail(reason);
+    }
 
-            // Command: Deduct Stock
-            DeductStockForOrderCommand cmd = new DeductStockForOrderCommand(UUID.randomUUID().toString(),
-                    event.orderId(), state.cartItems);
-            // Re-using same queue as validate?
-            sendCommand(MessagingConstants.INVENTORY_COMMANDS_QUEUE, cmd, event.orderId());
+    // 6. OrderCreated -> Clear Cart
+    private void onOrderCreated(OrderCreated event, SagaContext<CheckoutSagaState> context) {
+        logger.info("Saga Step 6: Order Created for orderId={}", event.orderId());
 
-        } catch (Exception e) {
-            logger.error("Error step 4", e);
-        }
-    }
+        CheckoutSagaState state = context.getState();
+        state.setOrderCreated(true);
+        // The order exists now; a waiting caller need not sit through cart cleanup
+        reply(state, CheckoutReply.created(event.orderId(), event.orderNumber()));
 
-    // 5. Listen to StockDeducted -> Create Order
-    @RabbitListener(bindings = @QueueBinding(value = @Queue(value = "saga.stock-deducted.queue"), exchange = @Exchange(value = MessagingConstants.EVENTS_EXCHANGE, type = "topic"), key = "inventory.StockDeductedForOrder"))
-    public void onStockDeducted(Message message) {
-        try {
-            StockDeductedForOrder event = objectMapper.readValue(message.getBody(), StockDeductedForOrder.class);
-            logger.info("Saga Step 5: Stock Deducted for orderId={}", event.orderId());
-
-            SagaState state = sagaStore.get(event.orderId());
-            if (state == null)
-                return;
-
-            // map state.products and state.cartItems to local OrderLineItems
-            java.util.List<OrderLineItem> lineItems = state.products.stream()
-                    .map(p -> {
-                        Integer qty = state.cartItems.get(p.id());
-                        return new OrderLineItem(
-                                p.id(), p.sku(), p.name(), p.price(), qty != null ? qty : 0);
-                    }).toList();
-
-            java.math.BigDecimal subtotal = lineItems.stream()
-                    .map(OrderLineItem::getLineTotal)
-                    .reduce(java.math.BigDecimal.ZERO, java.math.BigDecimal::add);
-
-            OrderTotals totals = OrderTotals.of(subtotal, java.math.BigDecimal.ZERO);
-
-            CreateOrderCommand cmd = new CreateOrderCommand(
-                    UUID.randomUUID().toString(),
-                    event.orderId(),
-                    state.guestToken,
-                    state.customer,
-                    state.address,
-                    lineItems,
-                    totals,
-                    state.idempotencyKey);
-
-            sendCommand(MessagingConstants.ORDER_COMMANDS_QUEUE, cmd, event.orderId());
+        context.send(MessagingConstants.CART_COMMANDS_QUEUE,
+                new ClearCartCommand(UUID.randomUUID().toString(), state.getGuestToken(), event.orderId()));
+    }
 
-        } catch (Exception e) {
-            logger.error("Error step 5", e);
+    // 6b. OrderCreationFailed -> Return Stock, Fail; the stock was deducted in step 5 and is given back
+    private void onOrderCreationFailed(OrderCreationFailed event, SagaContext<CheckoutSagaState> context) {
+        CheckoutSagaState state = context.getState();
+        if (state.isOrderCreated()) {
+            // A redelivered CreateOrderCommand failed after the order was stored
+            logger.info("Ignoring OrderCreationFailed for created orderId={}", event.orderId());
+            return;
         }
-    }
+        logger.error("Order creation failed for orderId={}: {}", event.orderId(), event.reason());
 
-    // 6. Listen to OrderCreated -> Clear Cart
-    @RabbitListener(bindings = @QueueBinding(value = @Queue(value = "saga.order-created.queue"), exchange = @Exchange(value = MessagingConstants.EVENTS_EXCHANGE, type = "topic"), key = "order.OrderCreated"))
-    public void onOrderCreated(Message message) {
-        try {
-            OrderCreated event = objectMapper.readValue(message.getBody(), OrderCreated.class);
-            logger.info("Saga Step 6: Order Created for orderId={}", event.orderId());
+        context.send(MessagingConstants.INVENTORY_COMMANDS_QUEUE,
+                new ReturnStockForOrderCommand(UUID.randomUUID().toString(), event.orderId(),
+                        state.getCartItems().keySet().stream().toList()));
 
-            SagaState state = sagaStore.get(event.orderId());
-            String guestToken = state != null ? state.guestToken : "unknown";
+        String reason = "Order could not be created: " + event.reason();
+        reply(state, CheckoutReply.failed(event.orderId(), reason));
+        context.fail(reason);
+    }
 
-            ClearCartCommand cmd = new ClearCartCommand(UUID.randomUUID().toString(), guestToken, event.orderId());
-            sendCommand(MessagingConstants.CART_COMMANDS_QUEUE, cmd, event.orderId());
+    // 7. CartCleared -> Mark Complete
+    private void onCartCleared(CartCleared event, SagaContext<CheckoutSagaState> context) {
+        logger.info("Saga Final Step: Marking Checkout Completed for orderId={}", event.orderId());
 
-        } catch (Exception e) {
-            logger.error("Error step 6", e);
-        }
+        context.send(MessagingConstants.ORDER_COMMANDS_QUEUE,
+                new MarkCheckoutCompletedCommand(UUID.randomUUID().toString(), event.orderId()));
+        context.complete();
     }
 
-    // 7. Listen to CartCleared -> Mark Complete
-    @RabbitListener(bindings = @QueueBinding(value = @Queue(value = "saga.cart-cleared.queue"), exchange = @Exchange(value = MessagingConstants.EVENTS_EXCHANGE, type = "topic"), key = "cart.CartCleared"))
-    public void onCartCleared(Message message) {
+    private void onTimeout(SagaContext<CheckoutSagaState> context) {
+        reply(context.getState(), CheckoutReply.failed(context.getCorrelationId(), "Checkout timed out"));
+    }
+
+    /**
+     * Answers the caller's direct reply-to address, if any. Replies go through
+     * the default exchange and are correlated by orderId; they are sent at most
+     * once per saga.
+     */
+    private void reply(CheckoutSagaState state, CheckoutReply reply) {
+        if (state.getReplyTo() == null) {
+            return;
+        }
         try {
-            CartCleared event = objectMapper.readValue(message.getBody(), CartCleared.class);
-            String orderId = event.orderId();
-
-            if (orderId != null) {
-                logger.info("Saga Final Step: Marking Checkout Completed for orderId={}", orderId);
-                MarkCheckoutCompletedCommand cmd = new MarkCheckoutCompletedCommand(UUID.randomUUID().toString(),
-                        orderId);
-                sendCommand(MessagingConstants.ORDER_COMMANDS_QUEUE, cmd, orderId);
-
-                // Cleanup Store
-                sagaStore.remove(orderId);
-            }
+            Message message = MessageBuilder
+                    .withBody(objectMapper.writeValueAsBytes(reply))
+                    .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                    .setCorrelationId(state.getOrderId())
+                    .build();
+            rabbitTemplate.send("", state.getReplyTo(), message);
         } catch (Exception e) {
-            logger.error("Error finalizing saga", e);
+            // The caller falls back to polling once its timeout elapses
+            logger.warn("Failed to send checkout reply for orderId={}", state.getOrderId(), e);
+        } finally {
+            state.setReplyTo(null);
         }
     }
-
-    private <T extends Command<?>> void sendCommand(String queue, T commandPayload, String correlationId) {
-        CommandEnvelope<T> envelope = new CommandEnvelope.Builder<>(commandPayload)
-                .correlationId(correlationId)
-                .build();
-
-        commandPublisher.publish(queue, envelope);
-    }
-
-    // Simple In-Memory State
-    static class SagaState {
-        String orderId;
-        String guestToken;
-        CustomerInfo customer;
-        ShippingAddress address;
-        String idempotencyKey;
-        Map<String, Integer> cartItems;
-        java.util.List<ProductSnapshotsProvided.ProductSnapshot> products;
-    }
 }
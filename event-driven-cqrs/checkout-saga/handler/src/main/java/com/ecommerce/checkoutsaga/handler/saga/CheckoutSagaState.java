@@ -0,0 +1,95 @@
+package com.ecommerce.checkoutsaga.handler.saga;
+
+import com.ecommerce.checkoutsaga.handler.saga.contracts.SagaContracts.CustomerInfo;
+import com.ecommerce.checkoutsaga.handler.saga.contracts.SagaContracts.ProductSnapshotsProvided;
+import com.ecommerce.checkoutsaga.handler.saga.contracts.SagaContracts.ShippingAddress;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checkout saga state, persisted by the saga engine between steps.
+ */
+public class CheckoutSagaState {
+    private String orderId;
+    private String guestToken;
+    private CustomerInfo customer;
+    private ShippingAddress address;
+    private String idempotencyKey;
+    private String replyTo;
+    private boolean orderCreated;
+    private Map<String, Integer> cartItems;
+    private List<ProductSnapshotsProvided.ProductSnapshot> products;
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getGuestToken() {
+        return guestToken;
+    }
+
+    public void setGuestToken(String guestToken) {
+        this.guestToken = guestToken;
+    }
+
+    public CustomerInfo getCustomer() {
+        return customer;
+    }
+
+    public void setCustomer(CustomerInfo customer) {
+        this.customer = customer;
+    }
+
+    public ShippingAddress getAddress() {
+        return address;
+    }
+
+    public void setAddress(ShippingAddress address) {
+        this.address = address;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getReplyTo() {
+        return replyTo;
+    }
+
+    public void setReplyTo(String replyTo) {
+        this.replyTo = replyTo;
+    }
+
+    public boolean isOrderCreated() {
+        return orderCreated;
+    }
+
+    public void setOrderCreated(boolean orderCreated) {
+        this.orderCreated = orderCreated;
+    }
+
+    public Map<String, Integer> getCartItems() {
+        return cartItems;
+    }
+
+    public void setCartItems(Map<String, Integer> cartItems) {
+        this.cartItems = cartItems;
+    }
+
+    public List<ProductSnapshotsProvided.ProductSnapshot> getProducts() {
+        return products;
+    }
+
+    public void setProducts(List<ProductSnapshotsProvided.ProductSnapshot> products) {
+        this.products = products;
+    }
+}
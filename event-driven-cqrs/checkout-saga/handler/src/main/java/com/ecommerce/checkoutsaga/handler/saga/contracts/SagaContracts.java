@@ -13,6 +13,10 @@ public class SagaContracts {
 
     // --- External Events ---
 
+    public record CheckoutRequested(String orderId, String guestToken, CustomerInfo customer,
+            ShippingAddress address, String idempotencyKey, String replyTo) {
+    }
+
     public record CartSnapshotProvided(String orderId, String guestToken, Map<String, Integer> items) {
     }
 
@@ -27,6 +31,9 @@ public class SagaContracts {
     public record StockDeductedForOrder(String orderId) {
     }
 
+    public record StockDeductionRejected(String orderId, String productId, String reason) {
+    }
+
     public record CartCleared(String cartId, String orderId) {
     }
 
@@ -63,6 +70,14 @@ public class SagaContracts {
         }
     }
 
+    public record ReturnStockForOrderCommand(String commandId, String orderId, List<String> productIds)
+            implements Command<Void> {
+        @Override
+        public String getCommandId() {
+            return commandId;
+        }
+    }
+
     public record ClearCartCommand(String commandId, String guestToken, String orderId) implements Command<Void> {
         @Override
         public String getCommandId() {
@@ -113,6 +128,24 @@ public class SagaContracts {
         }
     }
 
-    public record OrderCreated(String orderId) {
+    public record OrderCreated(String orderId, String orderNumber) {
     } // Local record for event listener parsing
+
+    public record OrderCreationFailed(String orderId, String reason) {
+    }
+
+    // --- Replies ---
+
+    /**
+     * Outcome sent to a caller waiting on a direct reply-to address.
+     */
+    public record CheckoutReply(String orderId, String status, String orderNumber, String reason) {
+        public static CheckoutReply created(String orderId, String orderNumber) {
+            return new CheckoutReply(orderId, "CREATED", orderNumber, null);
+        }
+
+        public static CheckoutReply failed(String orderId, String reason) {
+            return new CheckoutReply(orderId, "FAILED", null, reason);
+        }
+    }
 }
@@ -0,0 +1,108 @@
+package com.ecommerce.checkoutsaga.handler.saga;
+
+import com.ecommerce.checkoutsaga.handler.saga.contracts.SagaContracts.*;
+import com.ecommerce.shared.common.commands.Command;
+import com.ecommerce.shared.messaging.MessagingConstants;
+import com.ecommerce.shared.saga.SagaContext;
+import com.ecommerce.shared.saga.SagaDefinition;
+import com.ecommerce.shared.saga.SagaEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CheckoutSagaManager, driving the steps of its registered
+ * definition against a mocked saga context.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class CheckoutSagaManagerTest {
+
+    @Mock
+    private SagaEngine sagaEngine;
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+    @Mock
+    private SagaContext<CheckoutSagaState> context;
+
+    private final CheckoutSagaState state = new CheckoutSagaState();
+    private SagaDefinition<CheckoutSagaState> definition;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        new CheckoutSagaManager(sagaEngine, rabbitTemplate, new ObjectMapper(), 300);
+        ArgumentCaptor<SagaDefinition<CheckoutSagaState>> captor = ArgumentCaptor.forClass(SagaDefinition.class);
+        verify(sagaEngine).register(captor.capture());
+        definition = captor.getValue();
+
+        Map<String, Integer> cartItems = new LinkedHashMap<>();
+        cartItems.put("p-1", 2);
+        cartItems.put("p-2", 1);
+        state.setOrderId("order-1");
+        state.setCartItems(cartItems);
+        state.setReplyTo("reply-queue");
+        when(context.getState()).thenReturn(state);
+    }
+
+    @Test
+    void onOrderCreationFailed_shouldReturnTheDeductedStockAndFail() throws Exception {
+        definition.stepFor("order.OrderCreationFailed")
+                .invoke(new OrderCreationFailed("order-1", "duplicate"), context);
+
+        ArgumentCaptor<Command<?>> command = ArgumentCaptor.forClass(Command.class);
+        verify(context).send(eq(MessagingConstants.INVENTORY_COMMANDS_QUEUE), command.capture());
+        assertThat(command.getValue()).isInstanceOfSatisfying(ReturnStockForOrderCommand.class, sent -> {
+            assertThat(sent.orderId()).isEqualTo("order-1");
+            assertThat(sent.productIds()).containsExactly("p-1", "p-2");
+        });
+        verify(context).fail("Order could not be created: duplicate");
+        verify(rabbitTemplate).send(eq(""), eq("reply-queue"), any(Message.class));
+    }
+
+    @Test
+    void onOrderCreationFailed_afterTheOrderWasCreated_shouldChangeNothing() throws Exception {
+        state.setOrderCreated(true);
+
+        definition.stepFor("order.OrderCreationFailed")
+                .invoke(new OrderCreationFailed("order-1", "duplicate"), context);
+
+        verify(context, never()).send(anyString(), any());
+        verify(context, never()).fail(anyString());
+    }
+
+    @Test
+    void onStockDeductionRejected_shouldFailWithoutReturningStock() throws Exception {
+        definition.stepFor("inventory.StockDeductionRejected")
+                .invoke(new StockDeductionRejected("order-1", "p-2", "Insufficient stock"), context);
+
+        verify(context, never()).send(anyString(), any());
+        verify(context).fail("Stock deduction rejected for product p-2: Insufficient stock");
+    }
+
+    @Test
+    void onOrderCreated_shouldReplyAndClearTheCart() throws Exception {
+        state.setGuestToken("guest-1");
+
+        definition.stepFor("order.OrderCreated").invoke(new OrderCreated("order-1", "ORD-1"), context);
+
+        assertThat(state.isOrderCreated()).isTrue();
+        verify(context).send(eq(MessagingConstants.CART_COMMANDS_QUEUE), any(ClearCartCommand.class));
+        verify(rabbitTemplate).send(eq(""), eq("reply-queue"), any(Message.class));
+    }
+}
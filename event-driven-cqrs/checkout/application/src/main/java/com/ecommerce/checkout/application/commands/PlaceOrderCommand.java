@@ -4,20 +4,34 @@ import com.ecommerce.checkout.domain.events.CustomerInfo;
 import com.ecommerce.checkout.domain.events.ShippingAddress;
 import com.ecommerce.shared.common.commands.Command;
 
-public class PlaceOrderCommand implements Command<Void> {
+public class PlaceOrderCommand implements Command<String> {
     private final String commandId;
     private final String guestToken;
     private final CustomerInfo customer;
     private final ShippingAddress address;
     private final String idempotencyKey;
+    private final String orderId;
+    private final String replyTo;
 
     public PlaceOrderCommand(String commandId, String guestToken, CustomerInfo customer, ShippingAddress address,
             String idempotencyKey) {
+        this(commandId, guestToken, customer, address, idempotencyKey, null, null);
+    }
+
+    /**
+     * Creates a command whose order id was allocated by the caller. When
+     * {@code replyTo} is set, the saga answers that address once the order is
+     * created or checkout fails.
+     */
+    public PlaceOrderCommand(String commandId, String guestToken, CustomerInfo customer, ShippingAddress address,
+            String idempotencyKey, String orderId, String replyTo) {
         this.commandId = commandId;
         this.guestToken = guestToken;
         this.customer = customer;
         this.address = address;
         this.idempotencyKey = idempotencyKey;
+        this.orderId = orderId;
+        this.replyTo = replyTo;
     }
 
     @Override
@@ -40,4 +54,12 @@ public class PlaceOrderCommand implements Command<Void> {
     public String getIdempotencyKey() {
         return idempotencyKey;
     }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public String getReplyTo() {
+        return replyTo;
+    }
 }
@@ -9,8 +9,14 @@ import org.springframework.stereotype.Service;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
+/**
+ * Handler for PlaceOrderCommand. Completes with the order id of the checkout.
+ * The command API has already claimed the idempotency key for that order id
+ * before queueing the command, so every command that reaches here starts a
+ * saga.
+ */
 @Service
-public class PlaceOrderCommandHandler implements CommandHandler<PlaceOrderCommand, Void> {
+public class PlaceOrderCommandHandler implements CommandHandler<PlaceOrderCommand, String> {
 
     private final EventPublisher eventPublisher;
 
@@ -19,13 +25,16 @@ public class PlaceOrderCommandHandler implements CommandHandler<PlaceOrderComman
     }
 
     @Override
-    public CompletableFuture<Void> handle(PlaceOrderCommand command) {
+    public CompletableFuture<String> handle(PlaceOrderCommand command) {
         return processOrder(command);
     }
 
-    private CompletableFuture<Void> processOrder(PlaceOrderCommand command) {
-        // Generate Order ID now to track the saga
-        String orderId = UUID.randomUUID().toString();
+    private CompletableFuture<String> processOrder(PlaceOrderCommand command) {
+        // Generate Order ID now to track the saga, unless the caller already
+        // allocated one to correlate a synchronous reply
+        String orderId = command.getOrderId() != null
+                ? command.getOrderId()
+                : UUID.randomUUID().toString();
 
         // Emit CheckoutRequested event to start the Saga
         CheckoutRequested event = new CheckoutRequested(
@@ -33,9 +42,10 @@ public class PlaceOrderCommandHandler implements CommandHandler<PlaceOrderComman
                 command.getGuestToken(),
                 command.getCustomer(),
                 command.getAddress(),
-                command.getIdempotencyKey());
+                command.getIdempotencyKey(),
+                command.getReplyTo());
 
-        return eventPublisher.publish(event);
+        return eventPublisher.publish(event).thenApply(v -> orderId);
     }
 
     @Override
@@ -0,0 +1,42 @@
+package com.ecommerce.checkout.application.idempotency;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded, least-recently-used map of idempotency keys to order ids, so rapid
+ * client retries are answered without a database round trip. The durable
+ * CheckoutIdempotencyStore stays the source of truth.
+ */
+public class RecentIdempotencyKeys {
+
+    public static final int DEFAULT_CAPACITY = 10_000;
+
+    private final Map<String, String> entries;
+
+    public RecentIdempotencyKeys() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public RecentIdempotencyKeys(int capacity) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public synchronized Optional<String> get(String idempotencyKey) {
+        return Optional.ofNullable(entries.get(idempotencyKey));
+    }
+
+    public synchronized void put(String idempotencyKey, String orderId) {
+        entries.put(idempotencyKey, orderId);
+    }
+
+    public synchronized void remove(String idempotencyKey) {
+        entries.remove(idempotencyKey);
+    }
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.checkout.application.ports;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Durable record of idempotency keys that have already started a checkout.
+ */
+public interface CheckoutIdempotencyStore {
+
+    /**
+     * Atomically claims {@code idempotencyKey} for {@code orderId}. Completes
+     * with the order id that already owns the key, or empty if this call won
+     * the claim.
+     */
+    CompletableFuture<Optional<String>> claim(String idempotencyKey, String orderId);
+
+    /**
+     * Gives up a claim made by {@code orderId}, e.g. when the checkout could
+     * not be started, so that a retry is not answered with a dead order id.
+     */
+    CompletableFuture<Void> release(String idempotencyKey, String orderId);
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.checkout.commandapi.config;
+
+import org.springframework.amqp.rabbit.AsyncRabbitTemplate;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Request-reply configuration for synchronous checkouts.
+ */
+@Configuration
+public class CheckoutSyncConfig {
+
+    /**
+     * Uses RabbitMQ direct reply-to ({@code amq.rabbitmq.reply-to}), so no
+     * reply queue is declared and replies are matched by correlation id.
+     */
+    @Bean
+    public AsyncRabbitTemplate checkoutAsyncRabbitTemplate(RabbitTemplate rabbitTemplate,
+            @Value("${checkout.sync.timeout-ms:5000}") long timeoutMs) {
+        AsyncRabbitTemplate template = new AsyncRabbitTemplate(rabbitTemplate);
+        template.setReceiveTimeout(timeoutMs);
+        return template;
+    }
+}
@@ -1,32 +1,110 @@
 package com.ecommerce.checkout.commandapi.controllers;
 
 import com.ecommerce.checkout.application.commands.PlaceOrderCommand;
+import com.ecommerce.checkout.application.idempotency.RecentIdempotencyKeys;
+import com.ecommerce.checkout.application.ports.CheckoutIdempotencyStore;
+import com.ecommerce.checkout.commandapi.dto.CheckoutResultResponse;
 import com.ecommerce.checkout.commandapi.dto.PlaceOrderRequest;
 import com.ecommerce.checkout.domain.events.CustomerInfo;
 import com.ecommerce.checkout.domain.events.ShippingAddress;
 import com.ecommerce.shared.common.commands.CommandEnvelope;
 import com.ecommerce.shared.messaging.MessagingConstants;
 import com.ecommerce.shared.messaging.CommandPublisher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.AsyncRabbitTemplate;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/checkout")
 public class CheckoutCommandController {
 
+        private static final Logger logger = LoggerFactory.getLogger(CheckoutCommandController.class);
+
+        private static final String CHECKOUT_COMMANDS_QUEUE = "checkout.commands.queue";
+
         private final CommandPublisher commandPublisher;
+        private final AsyncRabbitTemplate asyncRabbitTemplate;
+        private final ObjectMapper objectMapper;
+        private final CheckoutIdempotencyStore idempotencyStore;
+        private final RecentIdempotencyKeys recentKeys = new RecentIdempotencyKeys();
 
-        public CheckoutCommandController(CommandPublisher commandPublisher) {
+        public CheckoutCommandController(CommandPublisher commandPublisher, AsyncRabbitTemplate asyncRabbitTemplate,
+                        ObjectMapper objectMapper, CheckoutIdempotencyStore idempotencyStore) {
                 this.commandPublisher = commandPublisher;
+                this.asyncRabbitTemplate = asyncRabbitTemplate;
+                this.objectMapper = objectMapper;
+                this.idempotencyStore = idempotencyStore;
         }
 
+        /**
+         * Places an order. By default the command is queued and 202 is returned
+         * at once; with {@code wait=true} the request is held (without blocking a
+         * servlet thread) until the saga replies, falling back to 202 on timeout.
+         * <p>
+         * The idempotency key is claimed before anything is queued, so a repeated
+         * request is answered with 200 and the original order id instead of a
+         * fresh one that will never exist. Keys seen recently by this instance
+         * are answered from memory, without a claim round trip.
+         */
         @PostMapping
-        public ResponseEntity<CommandEnvelope<PlaceOrderCommand>> placeOrder(@RequestBody PlaceOrderRequest request) {
+        public CompletableFuture<ResponseEntity<?>> placeOrder(@RequestBody PlaceOrderRequest request,
+                        @RequestParam(name = "wait", defaultValue = "false") boolean waitForResult) {
+                // Allocate the order id up front so a synchronous reply can be correlated
+                String orderId = UUID.randomUUID().toString();
+
+                String idempotencyKey = request.idempotencyKey();
+                if (idempotencyKey == null || idempotencyKey.isBlank()) {
+                        return submit(request, orderId, waitForResult);
+                }
+
+                Optional<String> recent = recentKeys.get(idempotencyKey);
+                if (recent.isPresent()) {
+                        return CompletableFuture.completedFuture(duplicate(idempotencyKey, recent.get()));
+                }
+
+                return idempotencyStore.claim(idempotencyKey, orderId)
+                                .thenCompose(existing -> {
+                                        if (existing.isPresent()) {
+                                                recentKeys.put(idempotencyKey, existing.get());
+                                                return CompletableFuture.completedFuture(
+                                                                duplicate(idempotencyKey, existing.get()));
+                                        }
+                                        recentKeys.put(idempotencyKey, orderId);
+                                        try {
+                                                return submit(request, orderId, waitForResult);
+                                        } catch (RuntimeException ex) {
+                                                // Nothing was queued, so let a retry claim the key again
+                                                recentKeys.remove(idempotencyKey);
+                                                idempotencyStore.release(idempotencyKey, orderId);
+                                                throw ex;
+                                        }
+                                });
+        }
+
+        private ResponseEntity<?> duplicate(String idempotencyKey, String orderId) {
+                logger.info("Duplicate checkout for idempotencyKey={}, returning orderId={}", idempotencyKey, orderId);
+                return ResponseEntity.ok(new CheckoutResultResponse(orderId, "DUPLICATE", null, null));
+        }
+
+        private CompletableFuture<ResponseEntity<?>> submit(PlaceOrderRequest request, String orderId,
+                        boolean waitForResult) {
                 PlaceOrderCommand command = new PlaceOrderCommand(
                                 UUID.randomUUID().toString(),
                                 request.guestToken(),
@@ -42,20 +120,63 @@ public class CheckoutCommandController {
                                                 request.address().state(),
                                                 request.address().zipCode(),
                                                 request.address().country()),
-                                request.idempotencyKey());
+                                request.idempotencyKey(),
+                                orderId,
+                                null);
 
                 CommandEnvelope<PlaceOrderCommand> envelope = new CommandEnvelope.Builder<>(command)
                                 .correlationId(UUID.randomUUID().toString())
                                 .build();
 
-                // Checkout commands go to their Own Queue
-                // We'll use the CART_COMMANDS_QUEUE for now or define a CHECKOUT_COMMANDS_QUEUE
-                // in MessagingConstants
-                // Since I can't easily change MessagingConstants now without recompiling
-                // shared,
-                // I'll check what's available.
-                commandPublisher.publish("checkout.commands.queue", envelope);
+                if (!waitForResult) {
+                        // Checkout commands go to their Own Queue
+                        commandPublisher.publish(CHECKOUT_COMMANDS_QUEUE, envelope);
+                        return CompletableFuture.completedFuture(ResponseEntity.accepted().body(envelope));
+                }
+
+                return sendAndAwait(envelope, orderId);
+        }
+
+        private CompletableFuture<ResponseEntity<?>> sendAndAwait(CommandEnvelope<PlaceOrderCommand> envelope,
+                        String orderId) {
+                Message message;
+                try {
+                        message = MessageBuilder
+                                        .withBody(objectMapper.writeValueAsBytes(envelope))
+                                        .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                                        .setMessageId(envelope.getCommand().getCommandId())
+                                        .setCorrelationId(orderId)
+                                        .setHeader("commandType", envelope.getCommandType())
+                                        .setHeader(MessagingConstants.HEADER_CORRELATION_ID,
+                                                        envelope.getCorrelationId())
+                                        .build();
+                } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                }
+
+                // Default exchange straight to the queue; reply-to is set by the template
+                return asyncRabbitTemplate.sendAndReceive("", CHECKOUT_COMMANDS_QUEUE, message)
+                                .<ResponseEntity<?>>thenApply(reply -> toResponse(reply))
+                                .exceptionally(ex -> {
+                                        // Timed out or broker trouble: the saga is still running, so
+                                        // hand back the envelope and let the client poll as before
+                                        logger.info("No checkout reply for orderId={}, falling back to 202: {}",
+                                                        orderId, ex.getMessage());
+                                        return ResponseEntity.accepted().body(envelope);
+                                });
+        }
 
-                return ResponseEntity.accepted().body(envelope);
+        private ResponseEntity<CheckoutResultResponse> toResponse(Message reply) {
+                try {
+                        CheckoutResultResponse result = objectMapper.readValue(reply.getBody(),
+                                        CheckoutResultResponse.class);
+                        HttpStatus status = switch (result.status()) {
+                                case "CREATED" -> HttpStatus.CREATED;
+                                default -> HttpStatus.UNPROCESSABLE_ENTITY;
+                        };
+                        return ResponseEntity.status(status).body(result);
+                } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                }
         }
 }
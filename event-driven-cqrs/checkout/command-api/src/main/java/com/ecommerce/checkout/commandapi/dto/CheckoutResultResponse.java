@@ -0,0 +1,7 @@
+package com.ecommerce.checkout.commandapi.dto;
+
+/**
+ * Outcome of a synchronous checkout, as replied by the checkout saga.
+ */
+public record CheckoutResultResponse(String orderId, String status, String orderNumber, String reason) {
+}
@@ -0,0 +1,111 @@
+package com.ecommerce.checkout.commandapi.controllers;
+
+import com.ecommerce.checkout.application.ports.CheckoutIdempotencyStore;
+import com.ecommerce.checkout.commandapi.dto.CheckoutResultResponse;
+import com.ecommerce.checkout.commandapi.dto.PlaceOrderRequest;
+import com.ecommerce.shared.messaging.CommandPublisher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.amqp.rabbit.AsyncRabbitTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CheckoutCommandController's idempotency gate, against a
+ * mocked idempotency store and command publisher.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class CheckoutCommandControllerTest {
+
+    @Mock
+    private CommandPublisher commandPublisher;
+    @Mock
+    private AsyncRabbitTemplate asyncRabbitTemplate;
+    @Mock
+    private CheckoutIdempotencyStore idempotencyStore;
+
+    private CheckoutCommandController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new CheckoutCommandController(commandPublisher, asyncRabbitTemplate, new ObjectMapper(),
+                idempotencyStore);
+        when(commandPublisher.publish(anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(idempotencyStore.release(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @Test
+    void placeOrder_withAFreshKey_shouldQueueTheCommandOnce() {
+        when(idempotencyStore.claim(eq("key-1"), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+
+        ResponseEntity<?> response = controller.placeOrder(request("key-1"), false).join();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        verify(commandPublisher).publish(eq("checkout.commands.queue"), any());
+    }
+
+    @Test
+    void placeOrder_withAClaimedKey_shouldAnswerTheOriginalOrderWithoutQueueing() {
+        when(idempotencyStore.claim(eq("key-1"), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of("order-1")));
+
+        ResponseEntity<?> response = controller.placeOrder(request("key-1"), false).join();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(((CheckoutResultResponse) response.getBody()).orderId()).isEqualTo("order-1");
+        verifyNoInteractions(commandPublisher);
+    }
+
+    @Test
+    void placeOrder_repeatedOnTheSameInstance_shouldAnswerFromMemoryWithoutClaiming() {
+        when(idempotencyStore.claim(eq("key-1"), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+        controller.placeOrder(request("key-1"), false).join();
+
+        ResponseEntity<?> repeat = controller.placeOrder(request("key-1"), false).join();
+
+        assertThat(repeat.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(((CheckoutResultResponse) repeat.getBody()).status()).isEqualTo("DUPLICATE");
+        verify(idempotencyStore, times(1)).claim(anyString(), anyString());
+        verify(commandPublisher, times(1)).publish(anyString(), any());
+    }
+
+    @Test
+    void placeOrder_whenQueueingFails_shouldReleaseTheKeyForARetry() {
+        when(idempotencyStore.claim(eq("key-1"), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+        when(commandPublisher.publish(anyString(), any())).thenThrow(new IllegalStateException("broker down"));
+
+        CompletableFuture<ResponseEntity<?>> response = controller.placeOrder(request("key-1"), false);
+
+        assertThat(response).isCompletedExceptionally();
+        verify(idempotencyStore).release(eq("key-1"), anyString());
+
+        doReturn(CompletableFuture.completedFuture(null)).when(commandPublisher).publish(anyString(), any());
+        assertThat(controller.placeOrder(request("key-1"), false).join().getStatusCode())
+                .isEqualTo(HttpStatus.ACCEPTED);
+        verify(idempotencyStore, times(2)).claim(eq("key-1"), anyString());
+    }
+
+    private static PlaceOrderRequest request(String idempotencyKey) {
+        return new PlaceOrderRequest("guest-1",
+                new PlaceOrderRequest.CustomerDto("Ada", "Lovelace", "ada@example.com", "555-0100"),
+                new PlaceOrderRequest.AddressDto("1 Main St", null, "Springfield", "IL", "62701", "US"),
+                idempotencyKey);
+    }
+}
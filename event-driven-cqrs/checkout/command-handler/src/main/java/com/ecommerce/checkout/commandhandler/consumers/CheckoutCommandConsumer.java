@@ -2,8 +2,10 @@ package com.ecommerce.checkout.commandhandler.consumers;
 
 import com.ecommerce.checkout.application.commands.PlaceOrderCommand;
 import com.ecommerce.checkout.application.handlers.PlaceOrderCommandHandler;
+import com.ecommerce.checkout.domain.events.CustomerInfo;
+import com.ecommerce.checkout.domain.events.ShippingAddress;
 import com.ecommerce.shared.messaging.MessagingConstants;
-import com.ecommerce.shared.common.commands.CommandEnvelope;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,21 +31,45 @@ public class CheckoutCommandConsumer {
     @RabbitListener(bindings = @QueueBinding(value = @Queue(value = "checkout.commands.queue", durable = "true"), exchange = @Exchange(value = MessagingConstants.COMMANDS_EXCHANGE, type = "topic"), key = "checkout.commandsQueue"))
     public void onCommand(Message message) {
         try {
-            // Check message type via header
-            String type = (String) message.getMessageProperties().getHeaders().get("commandType");
+            // Set by the command API when the caller waits for the outcome
+            // (AMQP direct reply-to); null for fire-and-forget checkouts
+            String replyTo = message.getMessageProperties().getReplyTo();
 
-            // For MVP, we assume all messages in this queue are PlaceOrderCommand or we
-            // parse generically
-            // Re-using CommandEnvelope logic
-            CommandEnvelope<PlaceOrderCommand> envelope = objectMapper.readValue(message.getBody(),
-                    objectMapper.getTypeFactory().constructParametricType(CommandEnvelope.class,
-                            PlaceOrderCommand.class));
+            JsonNode root = objectMapper.readTree(message.getBody());
+            JsonNode payload = root.has("command") ? root.get("command") : root;
+            JsonNode customer = payload.get("customer");
+            JsonNode address = payload.get("address");
 
-            logger.info("Received PlaceOrderCommand for guestToken={}", envelope.getPayload().getGuestToken());
-            placeOrderCommandHandler.handle(envelope.getPayload()).join();
+            PlaceOrderCommand command = new PlaceOrderCommand(
+                    text(payload, "commandId"),
+                    text(payload, "guestToken"),
+                    new CustomerInfo(
+                            text(customer, "firstName"),
+                            text(customer, "lastName"),
+                            text(customer, "phone"),
+                            text(customer, "email")),
+                    new ShippingAddress(
+                            text(address, "addressLine1"),
+                            text(address, "addressLine2"),
+                            text(address, "city"),
+                            text(address, "state"),
+                            text(address, "zipCode"),
+                            text(address, "country")),
+                    text(payload, "idempotencyKey"),
+                    text(payload, "orderId"),
+                    replyTo);
+
+            logger.info("Received PlaceOrderCommand for guestToken={}, sync={}", command.getGuestToken(),
+                    replyTo != null);
+            placeOrderCommandHandler.handle(command).join();
 
         } catch (Exception e) {
             logger.error("Error processing checkout command", e);
         }
     }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node != null ? node.get(field) : null;
+        return value == null || value.isNull() ? null : value.asText();
+    }
 }
@@ -12,16 +12,23 @@ public class CheckoutRequested implements DomainEvent {
     private final CustomerInfo customer;
     private final ShippingAddress address;
     private final String idempotencyKey;
+    private final String replyTo; // Optional direct reply-to address of a waiting caller
     private final Instant occurredAt;
 
     public CheckoutRequested(String orderId, String guestToken, CustomerInfo customer, ShippingAddress address,
             String idempotencyKey) {
+        this(orderId, guestToken, customer, address, idempotencyKey, null);
+    }
+
+    public CheckoutRequested(String orderId, String guestToken, CustomerInfo customer, ShippingAddress address,
+            String idempotencyKey, String replyTo) {
         this.eventId = UUID.randomUUID();
         this.orderId = orderId;
         this.guestToken = guestToken;
         this.customer = customer;
         this.address = address;
         this.idempotencyKey = idempotencyKey;
+        this.replyTo = replyTo;
         this.occurredAt = Instant.now();
     }
 
@@ -69,4 +76,8 @@ public class CheckoutRequested implements DomainEvent {
     public String getIdempotencyKey() {
         return idempotencyKey;
     }
+
+    public String getReplyTo() {
+        return replyTo;
+    }
 }
@@ -0,0 +1,66 @@
+package com.ecommerce.checkout.infrastructure.persistence;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * MongoDB document mapping a checkout idempotency key to the order it started.
+ */
+@Document(collection = "checkout_idempotency")
+public class CheckoutIdempotencyDocument {
+
+    @Id
+    private String id;
+
+    @Indexed(unique = true)
+    private String idempotencyKey;
+
+    private String orderId;
+
+    @Indexed(expireAfter = "7d")
+    private Instant createdAt;
+
+    public CheckoutIdempotencyDocument() {
+    }
+
+    public CheckoutIdempotencyDocument(String idempotencyKey, String orderId) {
+        this.idempotencyKey = idempotencyKey;
+        this.orderId = orderId;
+        this.createdAt = Instant.now();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
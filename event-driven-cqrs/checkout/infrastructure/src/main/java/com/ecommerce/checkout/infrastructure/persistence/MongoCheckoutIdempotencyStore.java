@@ -0,0 +1,61 @@
+package com.ecommerce.checkout.infrastructure.persistence;
+
+import com.ecommerce.checkout.application.ports.CheckoutIdempotencyStore;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Idempotency gate backed by a unique index on checkout_idempotency.idempotencyKey.
+ * The insert itself is the claim; losing the race surfaces as a duplicate key.
+ */
+@Repository
+public class MongoCheckoutIdempotencyStore implements CheckoutIdempotencyStore {
+
+    // Keep in line with @Indexed(expireAfter) on CheckoutIdempotencyDocument.createdAt
+    private static final Duration KEY_RETENTION = Duration.ofDays(7);
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoCheckoutIdempotencyStore(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        // Correctness depends on this index, so don't rely on auto-index-creation
+        mongoTemplate.indexOps(CheckoutIdempotencyDocument.class)
+                .ensureIndex(new Index().on("idempotencyKey", Sort.Direction.ASC).unique());
+        mongoTemplate.indexOps(CheckoutIdempotencyDocument.class)
+                .ensureIndex(new Index().on("createdAt", Sort.Direction.ASC).expire(KEY_RETENTION));
+    }
+
+    @Override
+    public CompletableFuture<Optional<String>> claim(String idempotencyKey, String orderId) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                mongoTemplate.insert(new CheckoutIdempotencyDocument(idempotencyKey, orderId));
+                return Optional.empty();
+            } catch (DuplicateKeyException ex) {
+                CheckoutIdempotencyDocument existing = mongoTemplate.findOne(byKey(idempotencyKey),
+                        CheckoutIdempotencyDocument.class);
+                return Optional.ofNullable(existing).map(CheckoutIdempotencyDocument::getOrderId);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> release(String idempotencyKey, String orderId) {
+        return CompletableFuture.runAsync(() -> mongoTemplate.remove(
+                byKey(idempotencyKey).addCriteria(Criteria.where("orderId").is(orderId)),
+                CheckoutIdempotencyDocument.class));
+    }
+
+    private static Query byKey(String idempotencyKey) {
+        return new Query(Criteria.where("idempotencyKey").is(idempotencyKey));
+    }
+}
@@ -0,0 +1,69 @@
+package com.ecommerce.inventory.application.availability;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short-lived cache of available quantities, keyed by product id.
+ *
+ * Only validation reads from it: a quantity is served for at most
+ * {@code ttl} after it was read, and deductions re-check stock atomically
+ * anyway, so a slightly stale answer can at worst let an order through to
+ * a deduction that is then rejected.
+ */
+@Component
+public class AvailabilityCache {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    public AvailabilityCache(
+            @Value("${inventory.availability-cache.ttl-ms:1000}") long ttlMillis,
+            @Value("${inventory.availability-cache.max-entries:10000}") int maxEntries) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the fresh quantities for the given ids; ids missing from the
+     * result must be read from the repository.
+     */
+    public Map<String, Integer> getAll(Collection<String> productIds) {
+        long now = System.nanoTime();
+        Map<String, Integer> found = new HashMap<>();
+        for (String id : productIds) {
+            Entry entry = entries.get(id);
+            if (entry != null && now - entry.loadedAt() < ttlNanos) {
+                found.put(id, entry.available());
+            }
+        }
+        return found;
+    }
+
+    public void putAll(Map<String, Integer> availableByProduct) {
+        if (entries.size() + availableByProduct.size() > maxEntries) {
+            evictExpired();
+        }
+        long now = System.nanoTime();
+        availableByProduct.forEach((id, available) -> entries.put(id, new Entry(available, now)));
+    }
+
+    private void evictExpired() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> now - entry.loadedAt() >= ttlNanos);
+        if (entries.size() >= maxEntries) {
+            // Everything is still fresh; with a TTL this short a full reload is cheap
+            entries.clear();
+        }
+    }
+
+    private record Entry(int available, long loadedAt) {
+    }
+}
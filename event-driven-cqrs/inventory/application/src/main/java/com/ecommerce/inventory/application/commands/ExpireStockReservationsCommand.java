@@ -0,0 +1,23 @@
+package com.ecommerce.inventory.application.commands;
+
+import com.ecommerce.shared.common.commands.Command;
+import java.util.Collection;
+
+public class ExpireStockReservationsCommand implements Command<Void> {
+    private final String commandId;
+    private final Collection<String> reservationIds;
+
+    public ExpireStockReservationsCommand(String commandId, Collection<String> reservationIds) {
+        this.commandId = commandId;
+        this.reservationIds = reservationIds;
+    }
+
+    @Override
+    public String getCommandId() {
+        return commandId;
+    }
+
+    public Collection<String> getReservationIds() {
+        return reservationIds;
+    }
+}
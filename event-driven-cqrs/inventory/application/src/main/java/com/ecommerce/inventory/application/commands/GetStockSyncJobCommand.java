@@ -0,0 +1,27 @@
+package com.ecommerce.inventory.application.commands;
+
+import com.ecommerce.inventory.application.sync.StockSyncProgress;
+import com.ecommerce.shared.common.commands.Command;
+
+/**
+ * Asks for the progress of a stock sync job; the reply is the job's
+ * progress, or null if there is no job with that id.
+ */
+public class GetStockSyncJobCommand implements Command<StockSyncProgress> {
+    private final String commandId;
+    private final String jobId;
+
+    public GetStockSyncJobCommand(String commandId, String jobId) {
+        this.commandId = commandId;
+        this.jobId = jobId;
+    }
+
+    @Override
+    public String getCommandId() {
+        return commandId;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.inventory.application.commands;
+
+import com.ecommerce.shared.common.commands.Command;
+
+public class ReleaseStockReservationCommand implements Command<Void> {
+    private final String commandId;
+    private final String orderId;
+
+    public ReleaseStockReservationCommand(String commandId, String orderId) {
+        this.commandId = commandId;
+        this.orderId = orderId;
+    }
+
+    @Override
+    public String getCommandId() {
+        return commandId;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+}
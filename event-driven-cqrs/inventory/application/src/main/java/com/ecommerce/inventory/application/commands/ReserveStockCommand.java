@@ -0,0 +1,35 @@
+package com.ecommerce.inventory.application.commands;
+
+import com.ecommerce.shared.common.commands.Command;
+import java.util.Map;
+
+public class ReserveStockCommand implements Command<Void> {
+    private final String commandId;
+    private final String orderId;
+    private final Map<String, Integer> items; // ProductId -> Qty
+    private final int ttlSeconds; // 0 for the configured default
+
+    public ReserveStockCommand(String commandId, String orderId, Map<String, Integer> items, int ttlSeconds) {
+        this.commandId = commandId;
+        this.orderId = orderId;
+        this.items = items;
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    @Override
+    public String getCommandId() {
+        return commandId;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public Map<String, Integer> getItems() {
+        return items;
+    }
+
+    public int getTtlSeconds() {
+        return ttlSeconds;
+    }
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.inventory.application.commands;
+
+import com.ecommerce.shared.common.commands.Command;
+import java.time.Instant;
+
+public class SettleStockReservationsCommand implements Command<Integer> {
+    private final String commandId;
+    private final Instant closedBefore;
+    private final int limit;
+
+    public SettleStockReservationsCommand(String commandId, Instant closedBefore, int limit) {
+        this.commandId = commandId;
+        this.closedBefore = closedBefore;
+        this.limit = limit;
+    }
+
+    @Override
+    public String getCommandId() {
+        return commandId;
+    }
+
+    public Instant getClosedBefore() {
+        return closedBefore;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+}
@@ -0,0 +1,41 @@
+package com.ecommerce.inventory.application.commands;
+
+import com.ecommerce.inventory.application.sync.StockSyncJob;
+import com.ecommerce.shared.common.commands.Command;
+import java.util.Map;
+
+/**
+ * Full stock snapshot from a warehouse system; every listed product is set
+ * to its quantity. Without items, resumes the job with that id from its last
+ * checkpoint.
+ */
+public class SyncStockCommand implements Command<StockSyncJob> {
+    private final String commandId;
+    private final String jobId;
+    private final Map<String, Integer> items; // ProductId -> Qty
+    private final String reason;
+
+    public SyncStockCommand(String commandId, String jobId, Map<String, Integer> items, String reason) {
+        this.commandId = commandId;
+        this.jobId = jobId;
+        this.items = items;
+        this.reason = reason;
+    }
+
+    @Override
+    public String getCommandId() {
+        return commandId;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public Map<String, Integer> getItems() {
+        return items;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
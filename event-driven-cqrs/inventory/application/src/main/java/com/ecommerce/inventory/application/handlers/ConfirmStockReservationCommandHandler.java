@@ -0,0 +1,63 @@
+package com.ecommerce.inventory.application.handlers;
+
+import com.ecommerce.inventory.application.commands.ConfirmStockReservationCommand;
+import com.ecommerce.inventory.application.ports.InventoryRepository;
+import com.ecommerce.inventory.application.ports.ReservationRepository;
+import com.ecommerce.inventory.application.reservations.ReservationExpiryQueue;
+import com.ecommerce.inventory.application.reservations.ReservationStatus;
+import com.ecommerce.inventory.application.reservations.StockReservation;
+import com.ecommerce.shared.common.commands.CommandHandler;
+import com.ecommerce.shared.common.events.EventPublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Handler for ConfirmStockReservationCommand.
+ *
+ * Turns the order's holds into deductions. The holds are closed first, so a
+ * hold that expires at the same moment is either confirmed or released,
+ * never both; see {@link ReservationSettlement} for how closed holds reach
+ * the stock counters.
+ */
+@Service
+public class ConfirmStockReservationCommandHandler implements CommandHandler<ConfirmStockReservationCommand, Void> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfirmStockReservationCommandHandler.class);
+
+    private final InventoryRepository repository;
+    private final ReservationRepository reservationRepository;
+    private final ReservationExpiryQueue expiryQueue;
+    private final EventPublisher eventPublisher;
+
+    public ConfirmStockReservationCommandHandler(InventoryRepository repository,
+            ReservationRepository reservationRepository, ReservationExpiryQueue expiryQueue,
+            EventPublisher eventPublisher) {
+        this.repository = repository;
+        this.reservationRepository = reservationRepository;
+        this.expiryQueue = expiryQueue;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public CompletableFuture<Void> handle(ConfirmStockReservationCommand command) {
+        return reservationRepository.closeForOrder(command.getOrderId(), ReservationStatus.CONFIRMED)
+                .thenCompose(confirmed -> {
+                    if (confirmed.isEmpty()) {
+                        logger.warn("No active stock reservation to confirm for order {}", command.getOrderId());
+                        return CompletableFuture.completedFuture(null);
+                    }
+
+                    confirmed.stream().map(StockReservation::id).forEach(expiryQueue::remove);
+                    return ReservationSettlement.confirm(repository, reservationRepository, eventPublisher,
+                            confirmed);
+                });
+    }
+
+    @Override
+    public Class<ConfirmStockReservationCommand> getCommandType() {
+        return ConfirmStockReservationCommand.class;
+    }
+}
@@ -1,22 +1,41 @@
 package com.ecommerce.inventory.application.handlers;
 
 import com.ecommerce.inventory.application.commands.DeductStockForOrderCommand;
+import com.ecommerce.inventory.application.ports.DeductionResult;
 import com.ecommerce.inventory.application.ports.InventoryRepository;
-import com.ecommerce.inventory.domain.aggregates.InventoryItem;
-import com.ecommerce.inventory.domain.valueobjects.ProductId;
+import com.ecommerce.inventory.domain.events.StockDeductedForOrder;
+import com.ecommerce.inventory.domain.events.StockDeductionRejected;
 import com.ecommerce.inventory.domain.valueobjects.Quantity;
 import com.ecommerce.shared.common.commands.CommandHandler;
 import com.ecommerce.shared.common.domain.DomainEvent;
 import com.ecommerce.shared.common.events.EventPublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
+/**
+ * Handler for DeductStockForOrderCommand.
+ *
+ * All items of the order are deducted together: one read to validate them
+ * and one bulk write of conditional updates, so an order costs a few round
+ * trips however many lines it has, and either every item is deducted or
+ * none is. Each update records the order on the item, so a redelivered
+ * command changes nothing and publishes nothing. The resulting events are
+ * published as one batch, and the command completes once it is confirmed.
+ * An order without items is rejected outright, so the saga waiting on the
+ * outcome fails at once instead of timing out.
+ */
 @Service
 public class DeductStockForOrderCommandHandler implements CommandHandler<DeductStockForOrderCommand, Void> {
 
+    private static final Logger logger = LoggerFactory.getLogger(DeductStockForOrderCommandHandler.class);
+
     private final InventoryRepository repository;
     private final EventPublisher eventPublisher;
 
@@ -27,36 +46,46 @@ public class DeductStockForOrderCommandHandler implements CommandHandler<DeductS
 
     @Override
     public CompletableFuture<Void> handle(DeductStockForOrderCommand command) {
-        List<CompletableFuture<Void>> futures = new ArrayList<>();
-
+        Map<String, Integer> qtyByProduct = new LinkedHashMap<>();
         for (DeductStockForOrderCommand.OrderItem orderItem : command.getItems()) {
-            ProductId pid = ProductId.of(orderItem.getProductId());
+            qtyByProduct.merge(orderItem.getProductId(), Quantity.of(orderItem.getQty()).getValue(), Integer::sum);
+        }
 
-            CompletableFuture<Void> deduction = repository.findById(pid)
-                    .thenCompose(optItem -> {
-                        if (optItem.isPresent()) {
-                            InventoryItem item = optItem.get();
-                            item.deductForOrder(command.getOrderId(), Quantity.of(orderItem.getQty()));
-                            return repository.save(item)
-                                    .thenAccept(saved -> {
-                                        List<DomainEvent> events = saved.getUncommittedEvents();
-                                        for (DomainEvent event : events) {
-                                            eventPublisher.publish(event);
-                                        }
-                                        saved.clearUncommittedEvents();
-                                    });
+        if (qtyByProduct.isEmpty()) {
+            logger.warn("Order {} has no items to deduct, rejecting", command.getOrderId());
+            return eventPublisher.publish(new StockDeductionRejected(
+                    command.getOrderId(), null, 0, 0, "Order has no items"));
+        }
+
+        return repository.tryDeductAll(command.getOrderId(), qtyByProduct)
+                .thenCompose(results -> {
+                    List<DomainEvent> events = new ArrayList<>();
+                    results.forEach((productId, result) -> {
+                        if (result.status() == DeductionResult.Status.DUPLICATE) {
+                            logger.info("Order {} already deducted product {}, ignoring",
+                                    command.getOrderId(), productId);
                         } else {
-                            // Logic: if not found, we should arguably publish StockDeductionRejected for
-                            // that item?
-                            // Need to support creating events without aggregate or on new aggregate?
-                            // For now, skip.
-                            return CompletableFuture.completedFuture(null);
+                            events.add(toEvent(command.getOrderId(), productId, qtyByProduct.get(productId), result));
                         }
                     });
-            futures.add(deduction);
-        }
+                    return events.isEmpty()
+                            ? CompletableFuture.completedFuture(null)
+                            : eventPublisher.publishAll(events);
+                });
+    }
 
-        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    private static DomainEvent toEvent(String orderId, String productId, int qty, DeductionResult result) {
+        return switch (result.status()) {
+            case DEDUCTED -> new StockDeductedForOrder(
+                    orderId, productId, qty, result.quantity() + qty, result.quantity());
+            case INSUFFICIENT -> new StockDeductionRejected(
+                    orderId, productId, qty, result.quantity(), "Insufficient stock");
+            case NOT_FOUND -> new StockDeductionRejected(
+                    orderId, productId, qty, 0, "Product not stocked");
+            case UNSUPPORTED -> new StockDeductionRejected(
+                    orderId, productId, qty, result.quantity(), "Deduction not supported for this product");
+            case DUPLICATE -> throw new IllegalArgumentException("Duplicate deductions publish nothing");
+        };
     }
 
     @Override
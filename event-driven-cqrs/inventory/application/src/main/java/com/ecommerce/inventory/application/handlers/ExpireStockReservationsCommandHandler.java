@@ -0,0 +1,51 @@
+package com.ecommerce.inventory.application.handlers;
+
+import com.ecommerce.inventory.application.commands.ExpireStockReservationsCommand;
+import com.ecommerce.inventory.application.ports.InventoryRepository;
+import com.ecommerce.inventory.application.ports.ReservationRepository;
+import com.ecommerce.shared.common.commands.CommandHandler;
+import com.ecommerce.shared.common.events.EventPublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Handler for ExpireStockReservationsCommand.
+ *
+ * Holds confirmed or released since they were picked for expiry are skipped.
+ */
+@Service
+public class ExpireStockReservationsCommandHandler implements CommandHandler<ExpireStockReservationsCommand, Void> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpireStockReservationsCommandHandler.class);
+
+    private final InventoryRepository repository;
+    private final ReservationRepository reservationRepository;
+    private final EventPublisher eventPublisher;
+
+    public ExpireStockReservationsCommandHandler(InventoryRepository repository,
+            ReservationRepository reservationRepository, EventPublisher eventPublisher) {
+        this.repository = repository;
+        this.reservationRepository = reservationRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public CompletableFuture<Void> handle(ExpireStockReservationsCommand command) {
+        return reservationRepository.expire(command.getReservationIds())
+                .thenCompose(expired -> {
+                    if (!expired.isEmpty()) {
+                        logger.info("Expired {} stock reservation(s)", expired.size());
+                    }
+                    return ReservationSettlement.release(repository, reservationRepository, eventPublisher,
+                            expired, "expired");
+                });
+    }
+
+    @Override
+    public Class<ExpireStockReservationsCommand> getCommandType() {
+        return ExpireStockReservationsCommand.class;
+    }
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.inventory.application.handlers;
+
+import com.ecommerce.inventory.application.commands.GetStockSyncJobCommand;
+import com.ecommerce.inventory.application.ports.StockSyncJobRepository;
+import com.ecommerce.inventory.application.sync.StockSyncJob;
+import com.ecommerce.inventory.application.sync.StockSyncProgress;
+import com.ecommerce.shared.common.commands.CommandHandler;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Handler for GetStockSyncJobCommand. Reads the job as of its last
+ * checkpoint, which is what a running job has saved so far.
+ */
+@Service
+public class GetStockSyncJobCommandHandler implements CommandHandler<GetStockSyncJobCommand, StockSyncProgress> {
+
+    private final StockSyncJobRepository jobRepository;
+
+    public GetStockSyncJobCommandHandler(StockSyncJobRepository jobRepository) {
+        this.jobRepository = jobRepository;
+    }
+
+    @Override
+    public CompletableFuture<StockSyncProgress> handle(GetStockSyncJobCommand command) {
+        return jobRepository.findById(command.getJobId())
+                .thenApply(job -> job.map(StockSyncJob::progress).orElse(null));
+    }
+
+    @Override
+    public Class<GetStockSyncJobCommand> getCommandType() {
+        return GetStockSyncJobCommand.class;
+    }
+}
@@ -0,0 +1,49 @@
+package com.ecommerce.inventory.application.handlers;
+
+import com.ecommerce.inventory.application.commands.ReleaseStockReservationCommand;
+import com.ecommerce.inventory.application.ports.InventoryRepository;
+import com.ecommerce.inventory.application.ports.ReservationRepository;
+import com.ecommerce.inventory.application.reservations.ReservationExpiryQueue;
+import com.ecommerce.inventory.application.reservations.ReservationStatus;
+import com.ecommerce.inventory.application.reservations.StockReservation;
+import com.ecommerce.shared.common.commands.CommandHandler;
+import com.ecommerce.shared.common.events.EventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Handler for ReleaseStockReservationCommand.
+ */
+@Service
+public class ReleaseStockReservationCommandHandler implements CommandHandler<ReleaseStockReservationCommand, Void> {
+
+    private final InventoryRepository repository;
+    private final ReservationRepository reservationRepository;
+    private final ReservationExpiryQueue expiryQueue;
+    private final EventPublisher eventPublisher;
+
+    public ReleaseStockReservationCommandHandler(InventoryRepository repository,
+            ReservationRepository reservationRepository, ReservationExpiryQueue expiryQueue,
+            EventPublisher eventPublisher) {
+        this.repository = repository;
+        this.reservationRepository = reservationRepository;
+        this.expiryQueue = expiryQueue;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public CompletableFuture<Void> handle(ReleaseStockReservationCommand command) {
+        return reservationRepository.closeForOrder(command.getOrderId(), ReservationStatus.RELEASED)
+                .thenCompose(released -> {
+                    released.stream().map(StockReservation::id).forEach(expiryQueue::remove);
+                    return ReservationSettlement.release(repository, reservationRepository, eventPublisher,
+                            released, "released");
+                });
+    }
+
+    @Override
+    public Class<ReleaseStockReservationCommand> getCommandType() {
+        return ReleaseStockReservationCommand.class;
+    }
+}
@@ -0,0 +1,90 @@
+package com.ecommerce.inventory.application.handlers;
+
+import com.ecommerce.inventory.application.ports.DeductionResult;
+import com.ecommerce.inventory.application.ports.InventoryRepository;
+import com.ecommerce.inventory.application.ports.ReservationRepository;
+import com.ecommerce.inventory.application.reservations.StockReservation;
+import com.ecommerce.inventory.domain.events.StockDeductedForOrder;
+import com.ecommerce.inventory.domain.events.StockReservationReleased;
+import com.ecommerce.shared.common.domain.DomainEvent;
+import com.ecommerce.shared.common.events.EventPublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Applies closed holds to the stock counters, shared by confirms, releases,
+ * expiry and the recovery of holds left unsettled.
+ * <p>
+ * A hold is closed first and settled after: its counters are updated, its
+ * events published, and only then is it marked settled. The counter writes
+ * record the hold, so settling a hold again after a crash in between
+ * publishes its events once more but never moves stock twice.
+ */
+final class ReservationSettlement {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationSettlement.class);
+
+    private ReservationSettlement() {
+    }
+
+    static CompletableFuture<Void> release(InventoryRepository repository,
+            ReservationRepository reservationRepository, EventPublisher eventPublisher,
+            List<StockReservation> reservations, String reason) {
+        if (reservations.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return repository.releaseHolds(reservations)
+                .thenCompose(available -> {
+                    List<DomainEvent> events = reservations.stream()
+                            .<DomainEvent>map(reservation -> new StockReservationReleased(
+                                    reservation.id(), reservation.orderId(), reservation.productId(),
+                                    reservation.qty(), available.getOrDefault(reservation.productId(), 0), reason))
+                            .toList();
+                    return eventPublisher.publishAll(events);
+                })
+                .thenCompose(ignored -> reservationRepository.markSettled(ids(reservations)));
+    }
+
+    static CompletableFuture<Void> confirm(InventoryRepository repository,
+            ReservationRepository reservationRepository, EventPublisher eventPublisher,
+            List<StockReservation> reservations) {
+        if (reservations.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        List<CompletableFuture<DeductionResult>> deductions = new ArrayList<>();
+        for (StockReservation reservation : reservations) {
+            deductions.add(repository.confirmReserved(reservation));
+        }
+        return CompletableFuture.allOf(deductions.toArray(new CompletableFuture[0]))
+                .thenCompose(ignored -> {
+                    List<DomainEvent> events = new ArrayList<>();
+                    for (int i = 0; i < reservations.size(); i++) {
+                        StockReservation reservation = reservations.get(i);
+                        DeductionResult result = deductions.get(i).join();
+                        if (result.status() == DeductionResult.Status.NOT_FOUND) {
+                            // Nothing left to retry against; leave it to an operator
+                            logger.error("Confirmed hold {} no longer matches held stock of product {}",
+                                    reservation.id(), reservation.productId());
+                            continue;
+                        }
+                        // Held units were already unavailable, so availability does not move
+                        events.add(new StockDeductedForOrder(reservation.orderId(), reservation.productId(),
+                                reservation.qty(), result.quantity(), result.quantity()));
+                    }
+                    return events.isEmpty()
+                            ? CompletableFuture.<Void>completedFuture(null)
+                            : eventPublisher.publishAll(events);
+                })
+                .thenCompose(ignored -> reservationRepository.markSettled(ids(reservations)));
+    }
+
+    private static List<String> ids(List<StockReservation> reservations) {
+        return reservations.stream().map(StockReservation::id).toList();
+    }
+}
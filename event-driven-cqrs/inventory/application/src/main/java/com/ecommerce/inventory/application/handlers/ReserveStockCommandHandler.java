@@ -0,0 +1,168 @@
+package com.ecommerce.inventory.application.handlers;
+
+import com.ecommerce.inventory.application.commands.ReserveStockCommand;
+import com.ecommerce.inventory.application.ports.DeductionResult;
+import com.ecommerce.inventory.application.ports.InventoryRepository;
+import com.ecommerce.inventory.application.ports.ReservationRepository;
+import com.ecommerce.inventory.application.reservations.ReservationExpiryQueue;
+import com.ecommerce.inventory.application.reservations.StockReservation;
+import com.ecommerce.inventory.domain.events.StockReservationRejected;
+import com.ecommerce.inventory.domain.events.StockReserved;
+import com.ecommerce.inventory.domain.valueobjects.Quantity;
+import com.ecommerce.shared.common.commands.CommandHandler;
+import com.ecommerce.shared.common.domain.DomainEvent;
+import com.ecommerce.shared.common.events.EventPublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Handler for ReserveStockCommand.
+ *
+ * Records the order's holds as PENDING, then applies each with one
+ * conditional update. The order is held as a whole or not at all: when every
+ * item is held its holds become ACTIVE, otherwise they are released and the
+ * order is rejected. Holds left PENDING by a crash are released by the
+ * recovery pass.
+ */
+@Service
+public class ReserveStockCommandHandler implements CommandHandler<ReserveStockCommand, Void> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReserveStockCommandHandler.class);
+
+    private final InventoryRepository repository;
+    private final ReservationRepository reservationRepository;
+    private final ReservationExpiryQueue expiryQueue;
+    private final EventPublisher eventPublisher;
+    private final int defaultTtlSeconds;
+
+    public ReserveStockCommandHandler(InventoryRepository repository, ReservationRepository reservationRepository,
+            ReservationExpiryQueue expiryQueue, EventPublisher eventPublisher,
+            @Value("${inventory.reservations.default-ttl-seconds:900}") int defaultTtlSeconds) {
+        this.repository = repository;
+        this.reservationRepository = reservationRepository;
+        this.expiryQueue = expiryQueue;
+        this.eventPublisher = eventPublisher;
+        this.defaultTtlSeconds = defaultTtlSeconds;
+    }
+
+    @Override
+    public CompletableFuture<Void> handle(ReserveStockCommand command) {
+        return reservationRepository.existsForOrder(command.getOrderId())
+                .thenCompose(exists -> {
+                    if (exists) {
+                        logger.info("Stock already reserved for order {}, ignoring", command.getOrderId());
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    return reserve(command);
+                });
+    }
+
+    private CompletableFuture<Void> reserve(ReserveStockCommand command) {
+        int ttlSeconds = command.getTtlSeconds() > 0 ? command.getTtlSeconds() : defaultTtlSeconds;
+        Instant expiresAt = Instant.now().plusSeconds(ttlSeconds);
+        List<StockReservation> reservations = new ArrayList<>();
+        command.getItems().forEach((productId, qty) -> reservations.add(
+                StockReservation.of(command.getOrderId(), productId, Quantity.of(qty).getValue(), expiresAt)));
+
+        // Record the holds before touching any counter: a hold applied without a record
+        // could never be released, while a record left pending is abandoned by recovery
+        return reservationRepository.insertAll(reservations)
+                .thenCompose(ignored -> apply(reservations))
+                .thenCompose(results -> results.values().stream().allMatch(ReserveStockCommandHandler::isHeld)
+                        ? accept(command, reservations, results)
+                        : reject(command, results));
+    }
+
+    private CompletableFuture<Map<String, DeductionResult>> apply(List<StockReservation> reservations) {
+        Map<String, CompletableFuture<DeductionResult>> attempts = new LinkedHashMap<>();
+        for (StockReservation reservation : reservations) {
+            attempts.put(reservation.productId(), repository.tryReserve(reservation)
+                    .exceptionally(ex -> {
+                        logger.error("Failed to reserve {} of product {}", reservation.qty(),
+                                reservation.productId(), ex);
+                        return DeductionResult.notFound();
+                    }));
+        }
+
+        return CompletableFuture.allOf(attempts.values().toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> {
+                    Map<String, DeductionResult> results = new LinkedHashMap<>();
+                    attempts.forEach((productId, attempt) -> results.put(productId, attempt.join()));
+                    return results;
+                });
+    }
+
+    private CompletableFuture<Void> accept(ReserveStockCommand command, List<StockReservation> reservations,
+            Map<String, DeductionResult> results) {
+        return reservationRepository.activateForOrder(command.getOrderId())
+                .thenCompose(activated -> {
+                    if (activated < reservations.size()) {
+                        // Recovery took the holds for abandoned while they were being applied;
+                        // it releases those, and any it missed expire as usual
+                        logger.warn("Reservation of order {} was abandoned while being applied",
+                                command.getOrderId());
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+                    reservations.forEach(expiryQueue::add);
+
+                    List<DomainEvent> events = new ArrayList<>();
+                    for (StockReservation reservation : reservations) {
+                        events.add(new StockReserved(reservation.id(), reservation.orderId(),
+                                reservation.productId(), reservation.qty(),
+                                results.get(reservation.productId()).quantity(), reservation.expiresAt()));
+                    }
+                    logger.info("Reserved stock for order {} until {}", command.getOrderId(),
+                            reservations.get(0).expiresAt());
+                    return eventPublisher.publishAll(events);
+                });
+    }
+
+    private CompletableFuture<Void> reject(ReserveStockCommand command, Map<String, DeductionResult> results) {
+        List<DomainEvent> events = new ArrayList<>();
+        results.forEach((productId, result) -> {
+            int qty = command.getItems().get(productId);
+            switch (result.status()) {
+                case DEDUCTED, DUPLICATE -> {
+                    // Held; given back below
+                }
+                case INSUFFICIENT -> events.add(new StockReservationRejected(
+                        command.getOrderId(), productId, qty, result.quantity(), "Insufficient stock"));
+                case NOT_FOUND -> events.add(new StockReservationRejected(
+                        command.getOrderId(), productId, qty, 0, "Product not stocked"));
+                case UNSUPPORTED -> events.add(new StockReservationRejected(
+                        command.getOrderId(), productId, qty, result.quantity(),
+                        "Holds not supported for this product"));
+            }
+        });
+
+        // Releasing every hold of the order is safe: only the ones that were applied move stock
+        return reservationRepository.abandonForOrder(command.getOrderId())
+                .thenCompose(abandoned -> {
+                    logger.info("Rejected stock reservation for order {}, releasing {} hold(s)",
+                            command.getOrderId(), abandoned.size());
+                    return repository.releaseHolds(abandoned)
+                            .thenCompose(ignored -> eventPublisher.publishAll(events))
+                            .thenCompose(ignored -> reservationRepository.markSettled(
+                                    abandoned.stream().map(StockReservation::id).toList()));
+                });
+    }
+
+    private static boolean isHeld(DeductionResult result) {
+        // A duplicate is a hold this order already applied
+        return result.isDeducted() || result.status() == DeductionResult.Status.DUPLICATE;
+    }
+
+    @Override
+    public Class<ReserveStockCommand> getCommandType() {
+        return ReserveStockCommand.class;
+    }
+}
@@ -0,0 +1,57 @@
+package com.ecommerce.inventory.application.handlers;
+
+import com.ecommerce.inventory.application.commands.ReturnStockForOrderCommand;
+import com.ecommerce.inventory.application.ports.InventoryRepository;
+import com.ecommerce.inventory.domain.events.StockReturnedForOrder;
+import com.ecommerce.shared.common.commands.CommandHandler;
+import com.ecommerce.shared.common.domain.DomainEvent;
+import com.ecommerce.shared.common.events.EventPublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Handler for ReturnStockForOrderCommand.
+ *
+ * Gives back what an order deducted once the order itself could not be
+ * created. The quantities come from the order's deduction records, each of
+ * which is returned at most once, so a redelivered command changes nothing
+ * and publishes nothing. Products the order never deducted are skipped.
+ */
+@Service
+public class ReturnStockForOrderCommandHandler implements CommandHandler<ReturnStockForOrderCommand, Void> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReturnStockForOrderCommandHandler.class);
+
+    private final InventoryRepository repository;
+    private final EventPublisher eventPublisher;
+
+    public ReturnStockForOrderCommandHandler(InventoryRepository repository, EventPublisher eventPublisher) {
+        this.repository = repository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public CompletableFuture<Void> handle(ReturnStockForOrderCommand command) {
+        return repository.returnDeducted(command.getOrderId(), command.getProductIds())
+                .thenCompose(returned -> {
+                    if (returned.isEmpty()) {
+                        logger.info("Nothing left to return for order {}", command.getOrderId());
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    List<DomainEvent> events = returned.entrySet().stream()
+                            .<DomainEvent>map(entry -> new StockReturnedForOrder(
+                                    command.getOrderId(), entry.getKey(), entry.getValue()))
+                            .toList();
+                    return eventPublisher.publishAll(events);
+                });
+    }
+
+    @Override
+    public Class<ReturnStockForOrderCommand> getCommandType() {
+        return ReturnStockForOrderCommand.class;
+    }
+}
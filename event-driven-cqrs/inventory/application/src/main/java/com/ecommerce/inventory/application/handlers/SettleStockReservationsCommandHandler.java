@@ -0,0 +1,85 @@
+package com.ecommerce.inventory.application.handlers;
+
+import com.ecommerce.inventory.application.commands.SettleStockReservationsCommand;
+import com.ecommerce.inventory.application.ports.InventoryRepository;
+import com.ecommerce.inventory.application.ports.ReservationRepository;
+import com.ecommerce.inventory.application.reservations.ReservationStatus;
+import com.ecommerce.shared.common.commands.CommandHandler;
+import com.ecommerce.shared.common.events.EventPublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Handler for SettleStockReservationsCommand.
+ *
+ * Finishes holds that were closed but whose stock counters were never
+ * updated, e.g. because the process stopped in between, and releases holds
+ * left PENDING by a reservation that never finished. Completes with the
+ * number of holds settled.
+ */
+@Service
+public class SettleStockReservationsCommandHandler implements CommandHandler<SettleStockReservationsCommand, Integer> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SettleStockReservationsCommandHandler.class);
+
+    private final InventoryRepository repository;
+    private final ReservationRepository reservationRepository;
+    private final EventPublisher eventPublisher;
+
+    public SettleStockReservationsCommandHandler(InventoryRepository repository,
+            ReservationRepository reservationRepository, EventPublisher eventPublisher) {
+        this.repository = repository;
+        this.reservationRepository = reservationRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public CompletableFuture<Integer> handle(SettleStockReservationsCommand command) {
+        return abandonPending(command)
+                .thenCombine(settle(ReservationStatus.CONFIRMED, command), Integer::sum)
+                .thenCombine(settle(ReservationStatus.RELEASED, command), Integer::sum)
+                .thenCombine(settle(ReservationStatus.EXPIRED, command), Integer::sum);
+    }
+
+    private CompletableFuture<Integer> abandonPending(SettleStockReservationsCommand command) {
+        return reservationRepository.abandonPending(command.getClosedBefore(), command.getLimit())
+                .thenCompose(abandoned -> {
+                    if (abandoned.isEmpty()) {
+                        return CompletableFuture.completedFuture(0);
+                    }
+                    // Whichever of these holds were applied are given back; the others move nothing
+                    logger.warn("Releasing {} stock reservation(s) left pending", abandoned.size());
+                    return ReservationSettlement.release(repository, reservationRepository, eventPublisher,
+                                    abandoned, "abandoned")
+                            .thenApply(ignored -> abandoned.size());
+                });
+    }
+
+    private CompletableFuture<Integer> settle(ReservationStatus status, SettleStockReservationsCommand command) {
+        return reservationRepository.findUnsettled(status, command.getClosedBefore(), command.getLimit())
+                .thenCompose(unsettled -> {
+                    if (unsettled.isEmpty()) {
+                        return CompletableFuture.completedFuture(0);
+                    }
+                    logger.warn("Settling {} {} stock reservation(s) left unsettled", unsettled.size(), status);
+                    CompletableFuture<Void> settled = switch (status) {
+                        case CONFIRMED -> ReservationSettlement.confirm(repository, reservationRepository,
+                                eventPublisher, unsettled);
+                        case RELEASED -> ReservationSettlement.release(repository, reservationRepository,
+                                eventPublisher, unsettled, "released");
+                        case EXPIRED -> ReservationSettlement.release(repository, reservationRepository,
+                                eventPublisher, unsettled, "expired");
+                        case PENDING, ACTIVE -> throw new IllegalArgumentException("Open holds are not settled");
+                    };
+                    return settled.thenApply(ignored -> unsettled.size());
+                });
+    }
+
+    @Override
+    public Class<SettleStockReservationsCommand> getCommandType() {
+        return SettleStockReservationsCommand.class;
+    }
+}
@@ -0,0 +1,252 @@
+package com.ecommerce.inventory.application.handlers;
+
+import com.ecommerce.inventory.application.commands.SyncStockCommand;
+import com.ecommerce.inventory.application.ports.InventoryRepository;
+import com.ecommerce.inventory.application.ports.QuantityChange;
+import com.ecommerce.inventory.application.ports.QuantitySetResult;
+import com.ecommerce.inventory.application.ports.StockSyncJobRepository;
+import com.ecommerce.inventory.application.sync.StockSyncJob;
+import com.ecommerce.inventory.domain.events.StockSet;
+import com.ecommerce.inventory.domain.valueobjects.ProductId;
+import com.ecommerce.inventory.domain.valueobjects.Quantity;
+import com.ecommerce.shared.common.commands.CommandHandler;
+import com.ecommerce.shared.common.domain.DomainEvent;
+import com.ecommerce.shared.common.events.EventPublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Handler for SyncStockCommand.
+ *
+ * Handling the command only saves the snapshot as a job; the job itself runs
+ * on a dedicated executor, so the command is acknowledged only once the
+ * snapshot is stored, and progress can be followed through the saved job.
+ *
+ * A run reads current quantities in one streamed pass over the stock
+ * records, then applies the snapshot in id-ordered chunks. Each chunk writes
+ * only the products that changed or are new, with one bulk write, followed by
+ * one batch of StockSet events and a checkpoint of the job's progress.
+ * Products missing from the snapshot are left alone.
+ *
+ * Each write applies only while the quantity is still the one read in the
+ * pass; products that moved in between are diffed again against their new
+ * quantity, for a bounded number of rounds. A resumed job also re-sends
+ * StockSet for products of its first chunk that already have their snapshot
+ * quantity, since the interrupted run may have written them without
+ * publishing.
+ */
+@Service
+public class SyncStockCommandHandler implements CommandHandler<SyncStockCommand, StockSyncJob> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncStockCommandHandler.class);
+
+    private static final int MAX_ROUNDS = 3;
+
+    private final InventoryRepository repository;
+    private final StockSyncJobRepository jobRepository;
+    private final EventPublisher eventPublisher;
+    private final Executor jobExecutor;
+    private final int chunkSize;
+    // Jobs running on this instance, so a resume sent mid-run does not start a second runner
+    private final Set<String> activeJobs = ConcurrentHashMap.newKeySet();
+
+    public SyncStockCommandHandler(InventoryRepository repository, StockSyncJobRepository jobRepository,
+            EventPublisher eventPublisher, @Qualifier("stockSyncExecutor") Executor jobExecutor,
+            @Value("${inventory.stock-sync.chunk-size:1000}") int chunkSize) {
+        this.repository = repository;
+        this.jobRepository = jobRepository;
+        this.eventPublisher = eventPublisher;
+        this.jobExecutor = jobExecutor;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Saves a new or resumed job and starts it in the background.
+     *
+     * @return the job as saved, before any chunk has run
+     */
+    @Override
+    public CompletableFuture<StockSyncJob> handle(SyncStockCommand command) {
+        return jobRepository.findById(command.getJobId())
+                .thenCompose(existing -> {
+                    StockSyncJob job = existing.orElseGet(() -> start(command));
+                    if (job.isCompleted()) {
+                        logger.info("Stock sync job already completed: jobId={}", job.getJobId());
+                        return CompletableFuture.completedFuture(job);
+                    }
+                    if (activeJobs.contains(job.getJobId())) {
+                        logger.info("Stock sync job already running: jobId={}", job.getJobId());
+                        return CompletableFuture.completedFuture(job);
+                    }
+                    // A job saved before may have written a chunk it did not get to publish
+                    boolean interrupted = existing.isPresent();
+                    job.resume();
+                    return jobRepository.save(job).thenApply(saved -> {
+                        runInBackground(job.getJobId(), interrupted);
+                        return job;
+                    });
+                });
+    }
+
+    private static StockSyncJob start(SyncStockCommand command) {
+        if (command.getItems() == null) {
+            throw new IllegalArgumentException("Unknown stock sync job: " + command.getJobId());
+        }
+        Map<String, Integer> items = new LinkedHashMap<>();
+        command.getItems().forEach((productId, qty) -> items.put(productId, Quantity.of(qty).getValue()));
+        return StockSyncJob.start(command.getJobId(), command.getReason(), items);
+    }
+
+    private void runInBackground(String jobId, boolean interrupted) {
+        if (!activeJobs.add(jobId)) {
+            return;
+        }
+        try {
+            jobExecutor.execute(() -> {
+                try {
+                    // Run a fresh copy; the saved one is handed back to the caller
+                    jobRepository.findById(jobId).join().ifPresent(job -> run(job, interrupted));
+                } catch (RuntimeException ex) {
+                    logger.error("Could not load stock sync job: jobId={}", jobId, ex);
+                } finally {
+                    activeJobs.remove(jobId);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            activeJobs.remove(jobId);
+            throw ex;
+        }
+    }
+
+    private void run(StockSyncJob job, boolean interrupted) {
+        try {
+            NavigableMap<String, Integer> remaining = job.remaining();
+            Map<String, Integer> onHand = new HashMap<>();
+            repository.forEachQuantity((productId, qty) -> {
+                if (remaining.containsKey(productId)) {
+                    onHand.put(productId, qty);
+                }
+            }).join();
+            logger.info("Stock sync job {}: {} of {} products left to apply, after={}",
+                    job.getJobId(), remaining.size(), job.getItems().size(), job.getLastProductId());
+
+            boolean republish = interrupted;
+            List<Map.Entry<String, Integer>> chunk = new ArrayList<>(chunkSize);
+            for (Map.Entry<String, Integer> item : remaining.entrySet()) {
+                chunk.add(item);
+                if (chunk.size() == chunkSize) {
+                    processChunk(job, chunk, onHand, republish);
+                    republish = false;
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                processChunk(job, chunk, onHand, republish);
+            }
+
+            job.complete();
+            jobRepository.save(job).join();
+            logger.info("Stock sync job completed: jobId={}, updated={}, unsettled={}",
+                    job.getJobId(), job.getUpdated(), job.getUnsettled());
+        } catch (RuntimeException ex) {
+            // The checkpoint is intact; the job can be resumed from it
+            logger.error("Stock sync job failed: jobId={}, after={}", job.getJobId(), job.getLastProductId(), ex);
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            job.fail(cause.getMessage());
+            try {
+                jobRepository.save(job).join();
+            } catch (RuntimeException saveEx) {
+                logger.error("Could not record failure of stock sync job: jobId={}", job.getJobId(), saveEx);
+            }
+        }
+    }
+
+    private void processChunk(StockSyncJob job, List<Map.Entry<String, Integer>> chunk, Map<String, Integer> onHand,
+            boolean republish) {
+        List<QuantityChange> pending = new ArrayList<>();
+        List<String> unchanged = new ArrayList<>();
+        for (Map.Entry<String, Integer> item : chunk) {
+            // Null when the product has no stock record yet
+            Integer currentQty = onHand.get(item.getKey());
+            if (currentQty == null || currentQty.intValue() != item.getValue()) {
+                pending.add(new QuantityChange(item.getKey(), currentQty, item.getValue()));
+            } else {
+                unchanged.add(item.getKey());
+            }
+        }
+
+        List<DomainEvent> events = new ArrayList<>();
+        int updated = 0;
+        int unsettled = 0;
+        for (int round = 1; !pending.isEmpty(); round++) {
+            QuantitySetResult result = repository.setQuantities(pending).join();
+            List<QuantityChange> rediffed = new ArrayList<>();
+            for (QuantityChange change : pending) {
+                Integer available = result.available().get(change.productId());
+                if (available != null) {
+                    events.add(new StockSet(change.productId(), change.oldQty(), change.newQty(), available,
+                            job.getReason()));
+                    updated++;
+                    continue;
+                }
+                // Moved since the pass; null means the record is still missing
+                Integer currentQty = result.moved().get(change.productId());
+                if (currentQty == null || currentQty != change.newQty()) {
+                    rediffed.add(new QuantityChange(change.productId(), currentQty, change.newQty()));
+                }
+            }
+            if (!rediffed.isEmpty() && round >= MAX_ROUNDS) {
+                logger.warn("Stock sync job {}: {} products kept moving and were not updated: {}", job.getJobId(),
+                        rediffed.size(), rediffed.stream().map(QuantityChange::productId).toList());
+                unsettled = rediffed.size();
+                break;
+            }
+            pending = rediffed;
+        }
+
+        int republished = 0;
+        if (republish && !unchanged.isEmpty()) {
+            Map<String, Integer> available = repository.findQuantities(
+                    unchanged.stream().map(ProductId::of).toList()).join();
+            for (String productId : unchanged) {
+                Integer availableQty = available.get(productId);
+                if (availableQty != null) {
+                    int qty = onHand.get(productId);
+                    events.add(new StockSet(productId, qty, qty, availableQty, job.getReason()));
+                    republished++;
+                }
+            }
+        }
+
+        if (!events.isEmpty()) {
+            eventPublisher.publishAll(events).join();
+        }
+        job.chunkProcessed(chunk.get(chunk.size() - 1).getKey(), chunk.size(), updated, republished, unsettled);
+        jobRepository.save(job).join();
+
+        logger.info("Stock sync job progress: jobId={}, processed={}/{}, updated={}, republished={}, unsettled={}",
+                job.getJobId(), job.getProcessed(), job.getItems().size(), job.getUpdated(), job.getRepublished(),
+                job.getUnsettled());
+    }
+
+    @Override
+    public Class<SyncStockCommand> getCommandType() {
+        return SyncStockCommand.class;
+    }
+}
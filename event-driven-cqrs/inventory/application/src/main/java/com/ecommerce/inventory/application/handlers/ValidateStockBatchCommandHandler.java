@@ -1,5 +1,6 @@
 package com.ecommerce.inventory.application.handlers;
 
+import com.ecommerce.inventory.application.availability.AvailabilityCache;
 import com.ecommerce.inventory.application.commands.ValidateStockBatchCommand;
 import com.ecommerce.inventory.application.ports.InventoryRepository;
 import com.ecommerce.inventory.domain.events.StockBatchValidated;
@@ -8,84 +9,64 @@ import com.ecommerce.shared.common.commands.CommandHandler;
 import com.ecommerce.shared.common.events.EventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
+/**
+ * Handler for ValidateStockBatchCommand.
+ *
+ * Checks stock without deducting it. Quantities come from the availability
+ * cache, and whatever it misses is read with one projected query for the
+ * whole batch; no aggregate is loaded.
+ */
 @Service
 public class ValidateStockBatchCommandHandler implements CommandHandler<ValidateStockBatchCommand, Void> {
 
     private final InventoryRepository repository;
+    private final AvailabilityCache availabilityCache;
     private final EventPublisher eventPublisher;
 
-    public ValidateStockBatchCommandHandler(InventoryRepository repository, EventPublisher eventPublisher) {
+    public ValidateStockBatchCommandHandler(InventoryRepository repository, AvailabilityCache availabilityCache,
+            EventPublisher eventPublisher) {
         this.repository = repository;
+        this.availabilityCache = availabilityCache;
         this.eventPublisher = eventPublisher;
     }
 
     @Override
     public CompletableFuture<Void> handle(ValidateStockBatchCommand command) {
-        // Just checking stock, NOT deducting.
-        // We iterate and check. If any fail, the whole batch fails.
-        // Parallel check using CompletableFuture
-
-        // This logic mimics the order check but purely on inventory side.
-
-        // In real app we might want to check snapshots, but here we query live
-        // inventory.
-
-        // Issue: repository typically returns Optional<InventoryItem> by ID.
-        // We can do this in parallel.
-
-        return CompletableFuture.supplyAsync(() -> {
-            // For simplicity in MVP, we do sequential read or parallel if possible.
-            boolean allAvailable = true;
-            String failedProduct = null;
-
-            for (Map.Entry<String, Integer> entry : command.getItems().entrySet()) {
-                String productId = entry.getKey();
-                int requestedQty = entry.getValue();
-
-                // Repository call (blocking in this lambda scope but lambda is async)
-                // Wait, repo is async. We need to chain properly.
-                // Let's defer to a helper.
-                return checkAll(command);
+        Map<String, Integer> items = command.getItems();
+        Map<String, Integer> available = new HashMap<>(availabilityCache.getAll(items.keySet()));
+
+        List<ProductId> missing = items.keySet().stream()
+                .filter(productId -> !available.containsKey(productId))
+                .map(ProductId::of)
+                .toList();
+        CompletableFuture<Map<String, Integer>> loaded = missing.isEmpty()
+                ? CompletableFuture.completedFuture(Map.of())
+                : repository.findQuantities(missing);
+
+        return loaded.thenCompose(quantities -> {
+            availabilityCache.putAll(quantities);
+            available.putAll(quantities);
+
+            String failure = null;
+            for (Map.Entry<String, Integer> entry : items.entrySet()) {
+                Integer qty = available.get(entry.getKey());
+                if (qty == null) {
+                    failure = "Product " + entry.getKey() + " not found";
+                    break;
+                }
+                if (qty < entry.getValue()) {
+                    failure = "Insufficient stock for " + entry.getKey();
+                    break;
+                }
             }
-            return null;
-        }).thenCompose(res -> res);
-    }
-
-    private CompletableFuture<Void> checkAll(ValidateStockBatchCommand command) {
-        // Collect futures
-        List<CompletableFuture<String>> checks = command.getItems().entrySet().stream()
-                .map(entry -> repository.findById(ProductId.of(entry.getKey()))
-                        .thenApply(optItem -> {
-                            if (optItem.isEmpty())
-                                return "Product " + entry.getKey() + " not found";
-                            if (optItem.get().getQuantityAvailable().getValue() < entry.getValue())
-                                return "Insufficient stock for " + entry.getKey();
-                            return "OK";
-                        }))
-                .collect(java.util.stream.Collectors.toList());
-
-        return CompletableFuture.allOf(checks.toArray(new CompletableFuture[0]))
-                .thenCompose(v -> {
-                    // Check results
-                    String failure = null;
-                    for (var future : checks) {
-                        String res = future.join();
-                        if (!"OK".equals(res)) {
-                            failure = res;
-                            break;
-                        }
-                    }
 
-                    StockBatchValidated event = new StockBatchValidated(
-                            command.getOrderId(),
-                            failure == null,
-                            failure);
-                    return eventPublisher.publish(event);
-                });
+            return eventPublisher.publish(new StockBatchValidated(command.getOrderId(), failure == null, failure));
+        });
     }
 
     @Override
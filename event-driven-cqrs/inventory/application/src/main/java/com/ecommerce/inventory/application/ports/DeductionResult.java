@@ -0,0 +1,44 @@
+package com.ecommerce.inventory.application.ports;
+
+/**
+ * Outcome of an atomic stock deduction or hold.
+ *
+ * @param quantity the quantity left after the deduction or hold, or the
+ *                 quantity that was available when it was rejected
+ */
+public record DeductionResult(Status status, int quantity) {
+
+    public enum Status {
+        DEDUCTED,
+        INSUFFICIENT,
+        NOT_FOUND,
+        // The order was already deducted from this item; nothing changed
+        DUPLICATE,
+        // The item is stocked but cannot be held, e.g. a hot product
+        UNSUPPORTED
+    }
+
+    public static DeductionResult deducted(int remainingQty) {
+        return new DeductionResult(Status.DEDUCTED, remainingQty);
+    }
+
+    public static DeductionResult insufficient(int availableQty) {
+        return new DeductionResult(Status.INSUFFICIENT, availableQty);
+    }
+
+    public static DeductionResult notFound() {
+        return new DeductionResult(Status.NOT_FOUND, 0);
+    }
+
+    public static DeductionResult duplicate(int availableQty) {
+        return new DeductionResult(Status.DUPLICATE, availableQty);
+    }
+
+    public static DeductionResult unsupported(int availableQty) {
+        return new DeductionResult(Status.UNSUPPORTED, availableQty);
+    }
+
+    public boolean isDeducted() {
+        return status == Status.DEDUCTED;
+    }
+}
@@ -1,10 +1,15 @@
 package com.ecommerce.inventory.application.ports;
 
+import com.ecommerce.inventory.application.reservations.StockReservation;
 import com.ecommerce.inventory.domain.aggregates.InventoryItem;
 import com.ecommerce.inventory.domain.valueobjects.ProductId;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.ObjIntConsumer;
 
 public interface InventoryRepository {
     CompletableFuture<Optional<InventoryItem>> findById(ProductId id);
@@ -12,4 +17,84 @@ public interface InventoryRepository {
     CompletableFuture<InventoryItem> save(InventoryItem inventoryItem);
 
     CompletableFuture<Boolean> exists(ProductId id);
+
+    /**
+     * Available quantity (on hand less holds) of each stocked product, read
+     * with one projected query. Products without stock records are absent.
+     */
+    CompletableFuture<Map<String, Integer>> findQuantities(Collection<ProductId> ids);
+
+    /**
+     * Streams the on-hand quantity of every stocked product in one pass,
+     * without holding them all in memory.
+     */
+    CompletableFuture<Void> forEachQuantity(ObjIntConsumer<String> action);
+
+    /**
+     * Sets absolute on-hand quantities with one bulk write. Each product is
+     * written only if it still has the quantity the change expects, and a
+     * stock record is only created for a product expected to have none.
+     * Holds are left untouched.
+     */
+    CompletableFuture<QuantitySetResult> setQuantities(List<QuantityChange> changes);
+
+    /**
+     * Deducts {@code qty} for an order with a conditional write that only
+     * applies while at least {@code qty} is available (on hand less holds)
+     * and the order has not already deducted this item, so concurrent
+     * deductions never conflict, never oversell and never double-apply.
+     * Equivalent to {@link #tryDeductAll} with a single item.
+     */
+    CompletableFuture<DeductionResult> tryDeduct(ProductId id, String orderId, int qty);
+
+    /**
+     * Deducts every item of an order, or none of them. Items are checked with
+     * one read and applied with one bulk write that re-checks each item's
+     * condition; if any item loses a race in between, the items this call
+     * applied are restored. Writes of a concurrent call for the same order
+     * are left alone. Every deducted item is recorded per order, so an order
+     * redelivered at any time within the retention of those records is
+     * reported as a duplicate instead of being deducted again.
+     *
+     * @return the outcome per product; when the order is rejected only the
+     *         items that caused it are included
+     */
+    CompletableFuture<Map<String, DeductionResult>> tryDeductAll(String orderId, Map<String, Integer> qtyByProduct);
+
+    /**
+     * Gives back what an order deducted from the given products, e.g. when
+     * the rest of the order could not be taken. The quantities come from the
+     * order's deduction records, and each record is returned at most once,
+     * so returning again changes nothing.
+     *
+     * @return available quantity of each returned product afterwards
+     */
+    CompletableFuture<Map<String, Integer>> returnDeducted(String orderId, Collection<String> productIds);
+
+    /**
+     * Applies a recorded hold if its quantity is available, in one
+     * conditional write that also records the hold on the item, so applying
+     * it again completes as a duplicate without holding twice. The result
+     * quantity is what remains available.
+     */
+    CompletableFuture<DeductionResult> tryReserve(StockReservation hold);
+
+    /**
+     * Turns a closed, applied hold into a deduction: on hand and held both
+     * drop by its quantity. The hold is recorded in the same write, so
+     * confirming it again completes as a duplicate without changing anything.
+     * The result quantity is what remains available, which the confirm leaves
+     * unchanged since the units were already held.
+     */
+    CompletableFuture<DeductionResult> confirmReserved(StockReservation hold);
+
+    /**
+     * Returns the units of closed holds to availability in one bulk write.
+     * Only holds {@link #tryReserve} applied are returned, and each is
+     * recorded in the same write as its counter, so releasing a hold again,
+     * or one that was never applied, changes nothing.
+     *
+     * @return available quantity of each product afterwards
+     */
+    CompletableFuture<Map<String, Integer>> releaseHolds(List<StockReservation> holds);
 }
@@ -0,0 +1,18 @@
+package com.ecommerce.inventory.application.ports;
+
+/**
+ * An absolute on-hand quantity to write, conditional on the quantity the
+ * caller last read.
+ *
+ * @param expectedQty the on-hand quantity read, or null if the product had
+ *                    no stock record
+ */
+public record QuantityChange(String productId, Integer expectedQty, int newQty) {
+
+    /**
+     * The quantity replaced, as reported in StockSet; 0 for a new record.
+     */
+    public int oldQty() {
+        return expectedQty != null ? expectedQty : 0;
+    }
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.inventory.application.ports;
+
+import java.util.Map;
+
+/**
+ * Outcome of a conditional bulk quantity write.
+ *
+ * @param available available quantity of each product that was written
+ * @param moved     current on-hand quantity of each product that was skipped
+ *                  because it no longer had the expected quantity; a product
+ *                  in neither map has no stock record
+ */
+public record QuantitySetResult(Map<String, Integer> available, Map<String, Integer> moved) {
+}
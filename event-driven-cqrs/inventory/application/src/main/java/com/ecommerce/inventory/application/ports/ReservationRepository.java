@@ -0,0 +1,77 @@
+package com.ecommerce.inventory.application.ports;
+
+import com.ecommerce.inventory.application.reservations.ReservationStatus;
+import com.ecommerce.inventory.application.reservations.StockReservation;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface ReservationRepository {
+
+    CompletableFuture<Boolean> existsForOrder(String orderId);
+
+    /**
+     * Records new holds as PENDING, before any stock counter is touched.
+     */
+    CompletableFuture<Void> insertAll(List<StockReservation> reservations);
+
+    /**
+     * Moves the order's pending holds to ACTIVE once all their counters are
+     * applied.
+     *
+     * @return the number of holds moved; fewer than recorded if the recovery
+     *         pass abandoned them first
+     */
+    CompletableFuture<Integer> activateForOrder(String orderId);
+
+    /**
+     * Moves the order's pending holds to RELEASED, unsettled, when not all of
+     * them could be applied.
+     *
+     * @return the holds this call moved
+     */
+    CompletableFuture<List<StockReservation>> abandonForOrder(String orderId);
+
+    /**
+     * Moves holds left PENDING since before {@code createdBefore} to RELEASED,
+     * unsettled, e.g. because the process stopped while applying them.
+     *
+     * @return the holds this call moved
+     */
+    CompletableFuture<List<StockReservation>> abandonPending(Instant createdBefore, int limit);
+
+    /**
+     * Moves the order's active holds to {@code status}. Closed holds stay
+     * unsettled until {@link #markSettled} records that their stock counters
+     * were updated.
+     *
+     * @return the holds this call moved; holds closed concurrently elsewhere are not included
+     */
+    CompletableFuture<List<StockReservation>> closeForOrder(String orderId, ReservationStatus status);
+
+    /**
+     * Moves the given holds to EXPIRED if they are still active.
+     *
+     * @return the holds this call expired
+     */
+    CompletableFuture<List<StockReservation>> expire(Collection<String> reservationIds);
+
+    /**
+     * Active holds expiring before {@code before}, soonest first.
+     */
+    CompletableFuture<List<StockReservation>> findActiveExpiringBefore(Instant before, int limit);
+
+    /**
+     * Records that the stock counters of the given closed holds were updated.
+     */
+    CompletableFuture<Void> markSettled(Collection<String> reservationIds);
+
+    /**
+     * Holds moved to {@code status} before {@code closedBefore} and never
+     * settled, e.g. because the process stopped between the two writes.
+     */
+    CompletableFuture<List<StockReservation>> findUnsettled(ReservationStatus status, Instant closedBefore,
+            int limit);
+}
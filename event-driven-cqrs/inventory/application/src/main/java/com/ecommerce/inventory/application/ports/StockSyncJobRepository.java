@@ -0,0 +1,17 @@
+package com.ecommerce.inventory.application.ports;
+
+import com.ecommerce.inventory.application.sync.StockSyncJob;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Stores stock sync snapshots and their progress so interrupted jobs can
+ * resume.
+ */
+public interface StockSyncJobRepository {
+
+    CompletableFuture<Optional<StockSyncJob>> findById(String jobId);
+
+    CompletableFuture<Void> save(StockSyncJob job);
+}
@@ -0,0 +1,67 @@
+package com.ecommerce.inventory.application.reservations;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory expiry order of the active holds known to this instance.
+ * Draining only ever touches holds that are already due, so expiry needs
+ * no scan of the reservations collection. Holds confirmed or released in
+ * the meantime are dropped lazily when they come due.
+ */
+@Component
+public class ReservationExpiryQueue {
+
+    private final DelayQueue<Hold> queue = new DelayQueue<>();
+    private final Set<String> active = ConcurrentHashMap.newKeySet();
+
+    public void add(StockReservation reservation) {
+        if (active.add(reservation.id())) {
+            queue.add(new Hold(reservation.id(), reservation.expiresAt()));
+        }
+    }
+
+    public void remove(String reservationId) {
+        active.remove(reservationId);
+    }
+
+    /**
+     * Removes and returns up to {@code max} holds that have expired.
+     */
+    public List<String> drainExpired(int max) {
+        List<Hold> due = new ArrayList<>();
+        queue.drainTo(due, max);
+        List<String> expired = new ArrayList<>(due.size());
+        for (Hold hold : due) {
+            if (active.remove(hold.reservationId())) {
+                expired.add(hold.reservationId());
+            }
+        }
+        return expired;
+    }
+
+    public int size() {
+        return active.size();
+    }
+
+    private record Hold(String reservationId, Instant expiresAt) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(expiresAt.toEpochMilli() - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return expiresAt.compareTo(((Hold) other).expiresAt);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.inventory.application.reservations;
+
+public enum ReservationStatus {
+    // Recorded, while its stock counters are being applied
+    PENDING,
+    ACTIVE,
+    CONFIRMED,
+    RELEASED,
+    EXPIRED
+}
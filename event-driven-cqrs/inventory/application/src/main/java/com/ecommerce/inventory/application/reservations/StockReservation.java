@@ -0,0 +1,14 @@
+package com.ecommerce.inventory.application.reservations;
+
+import java.time.Instant;
+
+/**
+ * A time-limited hold of {@code qty} units of one product for an order.
+ */
+public record StockReservation(String id, String orderId, String productId, int qty, Instant expiresAt) {
+
+    public static StockReservation of(String orderId, String productId, int qty, Instant expiresAt) {
+        // One hold per order and product; the id makes a redelivered reserve a duplicate
+        return new StockReservation(orderId + ":" + productId, orderId, productId, qty, expiresAt);
+    }
+}
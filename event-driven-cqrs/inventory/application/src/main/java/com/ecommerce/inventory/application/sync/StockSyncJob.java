@@ -0,0 +1,160 @@
+package com.ecommerce.inventory.application.sync;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * A warehouse stock snapshot being applied, and how far it got. The snapshot
+ * is kept with the job, so a job interrupted by a crash can be resumed.
+ * Products are applied in id order, so {@code lastProductId} is the
+ * checkpoint a resumed job continues after.
+ */
+public class StockSyncJob {
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String jobId;
+    private final String reason;
+    private final NavigableMap<String, Integer> items;
+    private final Instant startedAt;
+    private State state;
+    private String lastProductId;
+    private long processed;
+    private long updated;
+    private long republished;
+    private long unsettled;
+    private String failure;
+    private Instant updatedAt;
+
+    public StockSyncJob(String jobId, String reason, Map<String, Integer> items, Instant startedAt, State state,
+            String lastProductId, long processed, long updated, long republished, long unsettled, String failure,
+            Instant updatedAt) {
+        this.jobId = jobId;
+        this.reason = reason;
+        this.items = new TreeMap<>(items);
+        this.startedAt = startedAt;
+        this.state = state;
+        this.lastProductId = lastProductId;
+        this.processed = processed;
+        this.updated = updated;
+        this.republished = republished;
+        this.unsettled = unsettled;
+        this.failure = failure;
+        this.updatedAt = updatedAt;
+    }
+
+    public static StockSyncJob start(String jobId, String reason, Map<String, Integer> items) {
+        Instant now = Instant.now();
+        return new StockSyncJob(jobId, reason, items, now, State.RUNNING, null, 0, 0, 0, 0, null, now);
+    }
+
+    /**
+     * The products of the snapshot not yet applied, in id order.
+     */
+    public NavigableMap<String, Integer> remaining() {
+        return lastProductId == null ? items : items.tailMap(lastProductId, false);
+    }
+
+    /**
+     * Records a finished chunk and moves the checkpoint past it.
+     *
+     * @param republished products already at their snapshot quantity whose
+     *                    StockSet was sent again, since an interrupted run
+     *                    may have written them without publishing
+     * @param unsettled   products that kept moving and were left as they were
+     */
+    public void chunkProcessed(String lastProductId, int processed, int updated, int republished, int unsettled) {
+        this.lastProductId = lastProductId;
+        this.processed += processed;
+        this.updated += updated;
+        this.republished += republished;
+        this.unsettled += unsettled;
+        this.updatedAt = Instant.now();
+    }
+
+    public void complete() {
+        this.state = State.COMPLETED;
+        this.updatedAt = Instant.now();
+    }
+
+    /**
+     * Stops the job at its last checkpoint; resuming continues from there.
+     */
+    public void fail(String failure) {
+        this.state = State.FAILED;
+        this.failure = failure;
+        this.updatedAt = Instant.now();
+    }
+
+    public void resume() {
+        this.state = State.RUNNING;
+        this.failure = null;
+        this.updatedAt = Instant.now();
+    }
+
+    public boolean isCompleted() {
+        return state == State.COMPLETED;
+    }
+
+    public StockSyncProgress progress() {
+        return new StockSyncProgress(jobId, state.name(), items.size(), processed, updated, republished, unsettled,
+                lastProductId, failure, startedAt, updatedAt);
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public Map<String, Integer> getItems() {
+        return items;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public String getLastProductId() {
+        return lastProductId;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public long getRepublished() {
+        return republished;
+    }
+
+    public long getUnsettled() {
+        return unsettled;
+    }
+
+    /**
+     * Why the job stopped, while it is FAILED.
+     */
+    public String getFailure() {
+        return failure;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+}
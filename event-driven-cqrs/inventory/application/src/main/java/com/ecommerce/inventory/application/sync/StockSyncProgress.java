@@ -0,0 +1,21 @@
+package com.ecommerce.inventory.application.sync;
+
+import java.time.Instant;
+
+/**
+ * Progress of a stock sync job as of its last checkpoint, without the
+ * snapshot itself, which can run to tens of thousands of entries.
+ */
+public record StockSyncProgress(
+        String jobId,
+        String state,
+        long total,
+        long processed,
+        long updated,
+        long republished,
+        long unsettled,
+        String lastProductId,
+        String failure,
+        Instant startedAt,
+        Instant updatedAt) {
+}
@@ -0,0 +1,52 @@
+package com.ecommerce.inventory.application.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for AvailabilityCache.
+ */
+class AvailabilityCacheTest {
+
+    @Test
+    void getAll_shouldReturnFreshEntriesOnly() {
+        AvailabilityCache cache = new AvailabilityCache(60_000, 100);
+        cache.putAll(Map.of("p-1", 5, "p-2", 0));
+
+        Map<String, Integer> found = cache.getAll(List.of("p-1", "p-2", "p-3"));
+
+        assertThat(found).containsOnly(entry("p-1", 5), entry("p-2", 0));
+    }
+
+    @Test
+    void getAll_withExpiredEntries_shouldReturnNothing() {
+        AvailabilityCache cache = new AvailabilityCache(0, 100);
+        cache.putAll(Map.of("p-1", 5));
+
+        assertThat(cache.getAll(List.of("p-1"))).isEmpty();
+    }
+
+    @Test
+    void putAll_shouldReplaceEarlierQuantity() {
+        AvailabilityCache cache = new AvailabilityCache(60_000, 100);
+        cache.putAll(Map.of("p-1", 5));
+
+        cache.putAll(Map.of("p-1", 3));
+
+        assertThat(cache.getAll(List.of("p-1"))).containsOnly(entry("p-1", 3));
+    }
+
+    @Test
+    void putAll_whenFullOfFreshEntries_shouldStartOver() {
+        AvailabilityCache cache = new AvailabilityCache(60_000, 2);
+        cache.putAll(Map.of("p-1", 1, "p-2", 2));
+
+        cache.putAll(Map.of("p-3", 3));
+
+        assertThat(cache.getAll(List.of("p-1", "p-2", "p-3"))).containsOnly(entry("p-3", 3));
+    }
+}
@@ -0,0 +1,144 @@
+package com.ecommerce.inventory.application.handlers;
+
+import com.ecommerce.inventory.application.commands.DeductStockForOrderCommand;
+import com.ecommerce.inventory.application.ports.DeductionResult;
+import com.ecommerce.inventory.application.ports.InventoryRepository;
+import com.ecommerce.inventory.domain.events.StockDeductedForOrder;
+import com.ecommerce.inventory.domain.events.StockDeductionRejected;
+import com.ecommerce.shared.common.domain.DomainEvent;
+import com.ecommerce.shared.common.events.EventPublisher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DeductStockForOrderCommandHandler.
+ */
+@ExtendWith(MockitoExtension.class)
+class DeductStockForOrderCommandHandlerTest {
+
+    @Mock
+    private InventoryRepository repository;
+
+    @Mock
+    private EventPublisher eventPublisher;
+
+    @Test
+    void handle_shouldMergeLinesOfTheSameProductIntoOneDeduction() {
+        when(repository.tryDeductAll(eq("order-1"), anyMap()))
+                .thenReturn(CompletableFuture.completedFuture(Map.of("p-1", DeductionResult.deducted(5))));
+        when(eventPublisher.publishAll(any())).thenReturn(CompletableFuture.completedFuture(null));
+        DeductStockForOrderCommandHandler handler = new DeductStockForOrderCommandHandler(repository, eventPublisher);
+
+        handler.handle(command("order-1", new DeductStockForOrderCommand.OrderItem("p-1", 2),
+                new DeductStockForOrderCommand.OrderItem("p-1", 3))).join();
+
+        verify(repository).tryDeductAll("order-1", Map.of("p-1", 5));
+        List<DomainEvent> events = publishedBatch();
+        assertThat(events).singleElement().isInstanceOfSatisfying(StockDeductedForOrder.class, event -> {
+            assertThat(event.getQty()).isEqualTo(5);
+            assertThat(event.getNewQty()).isEqualTo(5);
+        });
+    }
+
+    @Test
+    void handle_whenAnItemIsShort_shouldPublishOnlyTheRejection() {
+        Map<String, DeductionResult> results = new LinkedHashMap<>();
+        results.put("p-2", DeductionResult.insufficient(1));
+        when(repository.tryDeductAll(eq("order-1"), anyMap()))
+                .thenReturn(CompletableFuture.completedFuture(results));
+        when(eventPublisher.publishAll(any())).thenReturn(CompletableFuture.completedFuture(null));
+        DeductStockForOrderCommandHandler handler = new DeductStockForOrderCommandHandler(repository, eventPublisher);
+
+        handler.handle(command("order-1", new DeductStockForOrderCommand.OrderItem("p-1", 1),
+                new DeductStockForOrderCommand.OrderItem("p-2", 3))).join();
+
+        assertThat(publishedBatch()).singleElement().isInstanceOfSatisfying(StockDeductionRejected.class, event -> {
+            assertThat(event.getProductId()).isEqualTo("p-2");
+            assertThat(event.getRequestedQty()).isEqualTo(3);
+            assertThat(event.getAvailableQty()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void handle_shouldReportTheQuantityBeforeAndAfterTheDeduction() {
+        when(repository.tryDeductAll(eq("order-1"), anyMap()))
+                .thenReturn(CompletableFuture.completedFuture(Map.of("p-1", DeductionResult.deducted(7))));
+        when(eventPublisher.publishAll(any())).thenReturn(CompletableFuture.completedFuture(null));
+        DeductStockForOrderCommandHandler handler = new DeductStockForOrderCommandHandler(repository, eventPublisher);
+
+        handler.handle(command("order-1", new DeductStockForOrderCommand.OrderItem("p-1", 3))).join();
+
+        assertThat(publishedBatch()).singleElement().isInstanceOfSatisfying(StockDeductedForOrder.class, event -> {
+            assertThat(event.getOldQty()).isEqualTo(10);
+            assertThat(event.getNewQty()).isEqualTo(7);
+        });
+    }
+
+    @Test
+    void handle_withUnknownProduct_shouldRejectIt() {
+        when(repository.tryDeductAll(eq("order-1"), anyMap()))
+                .thenReturn(CompletableFuture.completedFuture(Map.of("p-9", DeductionResult.notFound())));
+        when(eventPublisher.publishAll(any())).thenReturn(CompletableFuture.completedFuture(null));
+        DeductStockForOrderCommandHandler handler = new DeductStockForOrderCommandHandler(repository, eventPublisher);
+
+        handler.handle(command("order-1", new DeductStockForOrderCommand.OrderItem("p-9", 1))).join();
+
+        assertThat(publishedBatch()).singleElement().isInstanceOfSatisfying(StockDeductionRejected.class, event -> {
+            assertThat(event.getProductId()).isEqualTo("p-9");
+            assertThat(event.getReason()).isEqualTo("Product not stocked");
+        });
+    }
+
+    @Test
+    void handle_whenRedelivered_shouldPublishNothing() {
+        when(repository.tryDeductAll(eq("order-1"), anyMap()))
+                .thenReturn(CompletableFuture.completedFuture(Map.of("p-1", DeductionResult.duplicate(4))));
+        DeductStockForOrderCommandHandler handler = new DeductStockForOrderCommandHandler(repository, eventPublisher);
+
+        handler.handle(command("order-1", new DeductStockForOrderCommand.OrderItem("p-1", 1))).join();
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void handle_withoutItems_shouldRejectTheOrder() {
+        when(eventPublisher.publish(any())).thenReturn(CompletableFuture.completedFuture(null));
+        DeductStockForOrderCommandHandler handler = new DeductStockForOrderCommandHandler(repository, eventPublisher);
+
+        handler.handle(command("order-1")).join();
+
+        ArgumentCaptor<DomainEvent> captor = ArgumentCaptor.forClass(DomainEvent.class);
+        verify(eventPublisher).publish(captor.capture());
+        assertThat(captor.getValue()).isInstanceOfSatisfying(StockDeductionRejected.class, event -> {
+            assertThat(event.getOrderId()).isEqualTo("order-1");
+            assertThat(event.getReason()).isEqualTo("Order has no items");
+        });
+        verify(repository, never()).tryDeductAll(anyString(), anyMap());
+    }
+
+    private static DeductStockForOrderCommand command(String orderId, DeductStockForOrderCommand.OrderItem... items) {
+        return new DeductStockForOrderCommand("cmd-1", orderId, List.of(items));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<DomainEvent> publishedBatch() {
+        ArgumentCaptor<List<DomainEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(eventPublisher).publishAll(captor.capture());
+        return captor.getValue();
+    }
+}
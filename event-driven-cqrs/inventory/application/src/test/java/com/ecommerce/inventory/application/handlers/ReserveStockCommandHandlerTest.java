@@ -0,0 +1,139 @@
+package com.ecommerce.inventory.application.handlers;
+
+import com.ecommerce.inventory.application.commands.ReserveStockCommand;
+import com.ecommerce.inventory.application.ports.DeductionResult;
+import com.ecommerce.inventory.application.ports.InventoryRepository;
+import com.ecommerce.inventory.application.ports.ReservationRepository;
+import com.ecommerce.inventory.application.reservations.ReservationExpiryQueue;
+import com.ecommerce.inventory.application.reservations.StockReservation;
+import com.ecommerce.inventory.domain.events.StockReservationRejected;
+import com.ecommerce.inventory.domain.events.StockReserved;
+import com.ecommerce.shared.common.domain.DomainEvent;
+import com.ecommerce.shared.common.events.EventPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReserveStockCommandHandler, against mocked stock and
+ * reservation repositories.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ReserveStockCommandHandlerTest {
+
+    @Mock
+    private InventoryRepository repository;
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Mock
+    private EventPublisher eventPublisher;
+
+    private final ReservationExpiryQueue expiryQueue = new ReservationExpiryQueue();
+    private ReserveStockCommandHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        when(reservationRepository.existsForOrder(anyString())).thenReturn(CompletableFuture.completedFuture(false));
+        when(reservationRepository.insertAll(anyList())).thenReturn(CompletableFuture.completedFuture(null));
+        when(reservationRepository.markSettled(anyCollection())).thenReturn(CompletableFuture.completedFuture(null));
+        when(eventPublisher.publishAll(any())).thenReturn(CompletableFuture.completedFuture(null));
+        handler = new ReserveStockCommandHandler(repository, reservationRepository, expiryQueue, eventPublisher, 900);
+    }
+
+    @Test
+    void handle_shouldRecordTheHoldsBeforeApplyingThemAndActivateThemAfter() {
+        givenHeld("p-1", 8);
+        givenHeld("p-2", 4);
+        when(reservationRepository.activateForOrder("order-1")).thenReturn(CompletableFuture.completedFuture(2));
+
+        handler.handle(command("order-1", "p-1", 2, "p-2", 1)).join();
+
+        InOrder order = inOrder(reservationRepository, repository);
+        order.verify(reservationRepository).insertAll(anyList());
+        order.verify(repository, times(2)).tryReserve(any());
+        order.verify(reservationRepository).activateForOrder("order-1");
+        assertThat(publishedEvents()).extracting(event -> ((StockReserved) event).getAvailableQty())
+                .containsExactly(8, 4);
+        assertThat(expiryQueue.size()).isEqualTo(2);
+    }
+
+    @Test
+    void handle_whenAnItemIsShort_shouldReleaseTheOrdersHoldsAndReject() {
+        givenHeld("p-1", 8);
+        when(repository.tryReserve(argThat(hold -> hold.productId().equals("p-2"))))
+                .thenReturn(CompletableFuture.completedFuture(DeductionResult.insufficient(0)));
+        List<StockReservation> abandoned = List.of(
+                new StockReservation("order-1:p-1", "order-1", "p-1", 2, null),
+                new StockReservation("order-1:p-2", "order-1", "p-2", 1, null));
+        when(reservationRepository.abandonForOrder("order-1"))
+                .thenReturn(CompletableFuture.completedFuture(abandoned));
+        when(repository.releaseHolds(abandoned)).thenReturn(CompletableFuture.completedFuture(Map.of("p-1", 10)));
+
+        handler.handle(command("order-1", "p-1", 2, "p-2", 1)).join();
+
+        verify(reservationRepository, never()).activateForOrder(anyString());
+        verify(repository).releaseHolds(abandoned);
+        verify(reservationRepository).markSettled(List.of("order-1:p-1", "order-1:p-2"));
+        assertThat(publishedEvents()).singleElement().isInstanceOfSatisfying(StockReservationRejected.class,
+                event -> assertThat(event.getProductId()).isEqualTo("p-2"));
+        assertThat(expiryQueue.size()).isZero();
+    }
+
+    @Test
+    void handle_whenRecoveryAbandonedTheHoldsMeanwhile_shouldNotReportThemReserved() {
+        givenHeld("p-1", 8);
+        when(reservationRepository.activateForOrder("order-1")).thenReturn(CompletableFuture.completedFuture(0));
+
+        handler.handle(command("order-1", "p-1", 2)).join();
+
+        verify(eventPublisher, never()).publishAll(any());
+        assertThat(expiryQueue.size()).isZero();
+    }
+
+    @Test
+    void handle_whenTheRecordsCannotBeWritten_shouldNotTouchTheCounters() {
+        when(reservationRepository.insertAll(anyList()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("mongo down")));
+
+        CompletableFuture<Void> result = handler.handle(command("order-1", "p-1", 2));
+
+        assertThatThrownBy(result::join).hasCauseInstanceOf(IllegalStateException.class);
+        verify(repository, never()).tryReserve(any());
+    }
+
+    private void givenHeld(String productId, int available) {
+        when(repository.tryReserve(argThat(hold -> hold != null && hold.productId().equals(productId))))
+                .thenReturn(CompletableFuture.completedFuture(DeductionResult.deducted(available)));
+    }
+
+    private static ReserveStockCommand command(String orderId, Object... productsAndQuantities) {
+        Map<String, Integer> items = new LinkedHashMap<>();
+        for (int i = 0; i < productsAndQuantities.length; i += 2) {
+            items.put((String) productsAndQuantities[i], (Integer) productsAndQuantities[i + 1]);
+        }
+        return new ReserveStockCommand("cmd-1", orderId, items, 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<DomainEvent> publishedEvents() {
+        ArgumentCaptor<List<DomainEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(eventPublisher).publishAll(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,69 @@
+package com.ecommerce.inventory.application.handlers;
+
+import com.ecommerce.inventory.application.commands.ReturnStockForOrderCommand;
+import com.ecommerce.inventory.application.ports.InventoryRepository;
+import com.ecommerce.inventory.domain.events.StockReturnedForOrder;
+import com.ecommerce.shared.common.domain.DomainEvent;
+import com.ecommerce.shared.common.events.EventPublisher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ReturnStockForOrderCommandHandler.
+ */
+@ExtendWith(MockitoExtension.class)
+class ReturnStockForOrderCommandHandlerTest {
+
+    @Mock
+    private InventoryRepository repository;
+
+    @Mock
+    private EventPublisher eventPublisher;
+
+    @Test
+    void handle_shouldPublishTheAvailabilityOfEachReturnedProduct() {
+        when(repository.returnDeducted("order-1", List.of("p-1", "p-2")))
+                .thenReturn(CompletableFuture.completedFuture(Map.of("p-1", 9)));
+        when(eventPublisher.publishAll(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        handler().handle(new ReturnStockForOrderCommand("cmd-1", "order-1", List.of("p-1", "p-2"))).join();
+
+        assertThat(publishedBatch()).singleElement().isInstanceOfSatisfying(StockReturnedForOrder.class, event -> {
+            assertThat(event.getOrderId()).isEqualTo("order-1");
+            assertThat(event.getProductId()).isEqualTo("p-1");
+            assertThat(event.getAvailableQty()).isEqualTo(9);
+        });
+    }
+
+    @Test
+    void handle_whenNothingIsLeftToReturn_shouldPublishNothing() {
+        when(repository.returnDeducted(eq("order-1"), anyCollection()))
+                .thenReturn(CompletableFuture.completedFuture(Map.of()));
+
+        handler().handle(new ReturnStockForOrderCommand("cmd-1", "order-1", List.of("p-1"))).join();
+
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private ReturnStockForOrderCommandHandler handler() {
+        return new ReturnStockForOrderCommandHandler(repository, eventPublisher);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<DomainEvent> publishedBatch() {
+        ArgumentCaptor<List<DomainEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(eventPublisher).publishAll(captor.capture());
+        return captor.getValue();
+    }
+}
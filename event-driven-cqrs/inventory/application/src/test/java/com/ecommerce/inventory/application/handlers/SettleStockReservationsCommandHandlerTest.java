@@ -0,0 +1,96 @@
+package com.ecommerce.inventory.application.handlers;
+
+import com.ecommerce.inventory.application.commands.SettleStockReservationsCommand;
+import com.ecommerce.inventory.application.ports.InventoryRepository;
+import com.ecommerce.inventory.application.ports.ReservationRepository;
+import com.ecommerce.inventory.application.reservations.ReservationStatus;
+import com.ecommerce.inventory.application.reservations.StockReservation;
+import com.ecommerce.inventory.domain.events.StockReservationReleased;
+import com.ecommerce.shared.common.domain.DomainEvent;
+import com.ecommerce.shared.common.events.EventPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SettleStockReservationsCommandHandler, against mocked stock
+ * and reservation repositories.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class SettleStockReservationsCommandHandlerTest {
+
+    private static final Instant CUTOFF = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Mock
+    private InventoryRepository repository;
+    @Mock
+    private ReservationRepository reservationRepository;
+    @Mock
+    private EventPublisher eventPublisher;
+
+    private SettleStockReservationsCommandHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        when(reservationRepository.abandonPending(any(), anyInt()))
+                .thenReturn(CompletableFuture.completedFuture(List.of()));
+        when(reservationRepository.findUnsettled(any(), any(), anyInt()))
+                .thenReturn(CompletableFuture.completedFuture(List.of()));
+        when(reservationRepository.markSettled(anyCollection())).thenReturn(CompletableFuture.completedFuture(null));
+        when(eventPublisher.publishAll(any())).thenReturn(CompletableFuture.completedFuture(null));
+        handler = new SettleStockReservationsCommandHandler(repository, reservationRepository, eventPublisher);
+    }
+
+    @Test
+    void handle_shouldReleaseHoldsLeftPendingAndMarkThemSettled() {
+        List<StockReservation> pending = List.of(new StockReservation("order-1:p-1", "order-1", "p-1", 2, CUTOFF));
+        when(reservationRepository.abandonPending(CUTOFF, 50)).thenReturn(CompletableFuture.completedFuture(pending));
+        when(repository.releaseHolds(pending)).thenReturn(CompletableFuture.completedFuture(Map.of("p-1", 10)));
+
+        int settled = handler.handle(new SettleStockReservationsCommand("cmd-1", CUTOFF, 50)).join();
+
+        assertThat(settled).isEqualTo(1);
+        verify(repository).releaseHolds(pending);
+        verify(reservationRepository).markSettled(List.of("order-1:p-1"));
+        assertThat(publishedEvents()).singleElement().isInstanceOfSatisfying(StockReservationReleased.class,
+                event -> assertThat(event.getAvailableQty()).isEqualTo(10));
+    }
+
+    @Test
+    void handle_shouldSettleClosedHoldsOfEveryStatus() {
+        StockReservation expired = new StockReservation("order-2:p-1", "order-2", "p-1", 1, CUTOFF);
+        when(reservationRepository.findUnsettled(ReservationStatus.EXPIRED, CUTOFF, 50))
+                .thenReturn(CompletableFuture.completedFuture(List.of(expired)));
+        when(repository.releaseHolds(List.of(expired)))
+                .thenReturn(CompletableFuture.completedFuture(Map.of("p-1", 3)));
+
+        int settled = handler.handle(new SettleStockReservationsCommand("cmd-1", CUTOFF, 50)).join();
+
+        assertThat(settled).isEqualTo(1);
+        verify(reservationRepository).findUnsettled(ReservationStatus.CONFIRMED, CUTOFF, 50);
+        verify(reservationRepository).findUnsettled(ReservationStatus.RELEASED, CUTOFF, 50);
+        verify(reservationRepository).markSettled(List.of("order-2:p-1"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<DomainEvent> publishedEvents() {
+        ArgumentCaptor<List<DomainEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(eventPublisher, atLeastOnce()).publishAll(captor.capture());
+        return captor.getAllValues().stream().flatMap(List::stream).toList();
+    }
+}
@@ -0,0 +1,187 @@
+package com.ecommerce.inventory.application.handlers;
+
+import com.ecommerce.inventory.application.commands.SyncStockCommand;
+import com.ecommerce.inventory.application.ports.InventoryRepository;
+import com.ecommerce.inventory.application.ports.QuantityChange;
+import com.ecommerce.inventory.application.ports.QuantitySetResult;
+import com.ecommerce.inventory.application.ports.StockSyncJobRepository;
+import com.ecommerce.inventory.application.sync.StockSyncJob;
+import com.ecommerce.inventory.domain.events.StockSet;
+import com.ecommerce.shared.common.domain.DomainEvent;
+import com.ecommerce.shared.common.events.EventPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.ObjIntConsumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SyncStockCommandHandler, against a mocked inventory
+ * repository and a job store kept in memory.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class SyncStockCommandHandlerTest {
+
+    @Mock
+    private InventoryRepository repository;
+    @Mock
+    private StockSyncJobRepository jobRepository;
+    @Mock
+    private EventPublisher eventPublisher;
+
+    private final Map<String, StockSyncJob> jobs = new HashMap<>();
+    private final Map<String, Integer> onHand = new LinkedHashMap<>();
+    private final List<StockSyncJob.State> savedStates = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(jobRepository.findById(anyString())).thenAnswer(inv ->
+                CompletableFuture.completedFuture(Optional.ofNullable(jobs.get(inv.<String>getArgument(0)))));
+        when(jobRepository.save(any())).thenAnswer(inv -> {
+            StockSyncJob job = inv.getArgument(0);
+            jobs.put(job.getJobId(), job);
+            savedStates.add(job.getState());
+            return CompletableFuture.completedFuture(null);
+        });
+        when(repository.forEachQuantity(any())).thenAnswer(inv -> {
+            ObjIntConsumer<String> action = inv.getArgument(0);
+            onHand.forEach(action::accept);
+            return CompletableFuture.completedFuture(null);
+        });
+        when(eventPublisher.publishAll(any())).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @Test
+    void handle_shouldSaveTheSnapshotBeforeWritingAndOnlyWriteChangedProducts() {
+        onHand.put("p-1", 5);
+        onHand.put("p-2", 3);
+        when(repository.setQuantities(anyList())).thenAnswer(inv -> {
+            assertThat(savedStates).as("snapshot saved before any write").isNotEmpty();
+            return CompletableFuture.completedFuture(new QuantitySetResult(Map.of("p-1", 8), Map.of()));
+        });
+
+        StockSyncJob saved = handler(10).handle(sync("job-1", "p-1", 8, "p-2", 3)).join();
+
+        assertThat(saved.getJobId()).isEqualTo("job-1");
+        verify(repository).setQuantities(List.of(new QuantityChange("p-1", 5, 8)));
+        assertThat(publishedEvents()).singleElement().isInstanceOfSatisfying(StockSet.class, event -> {
+            assertThat(event.getOldQty()).isEqualTo(5);
+            assertThat(event.getNewQty()).isEqualTo(8);
+        });
+        StockSyncJob job = jobs.get("job-1");
+        assertThat(job.getState()).isEqualTo(StockSyncJob.State.COMPLETED);
+        assertThat(job.getProcessed()).isEqualTo(2);
+        assertThat(job.getUpdated()).isEqualTo(1);
+    }
+
+    @Test
+    void handle_whenAChunkFails_shouldStopAtTheCheckpointAndResumeAfterIt() {
+        onHand.put("p-1", 1);
+        onHand.put("p-2", 2);
+        onHand.put("p-3", 3);
+        when(repository.setQuantities(anyList()))
+                .thenReturn(CompletableFuture.completedFuture(new QuantitySetResult(Map.of("p-1", 10), Map.of())))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("mongo down")));
+        SyncStockCommandHandler handler = handler(1);
+
+        handler.handle(sync("job-1", "p-1", 10, "p-2", 20, "p-3", 30)).join();
+
+        StockSyncJob failed = jobs.get("job-1");
+        assertThat(failed.getState()).isEqualTo(StockSyncJob.State.FAILED);
+        assertThat(failed.getLastProductId()).isEqualTo("p-1");
+        assertThat(failed.getFailure()).isEqualTo("mongo down");
+
+        // p-2 was written before the failure was noticed, but its event never went out
+        onHand.put("p-1", 10);
+        onHand.put("p-2", 20);
+        when(repository.setQuantities(anyList()))
+                .thenReturn(CompletableFuture.completedFuture(new QuantitySetResult(Map.of("p-3", 30), Map.of())));
+        when(repository.findQuantities(anyCollection()))
+                .thenReturn(CompletableFuture.completedFuture(Map.of("p-2", 18)));
+        reset(eventPublisher);
+        when(eventPublisher.publishAll(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        handler.handle(new SyncStockCommand("cmd-2", "job-1", null, null)).join();
+
+        verify(repository).setQuantities(List.of(new QuantityChange("p-3", 3, 30)));
+        List<StockSet> events = publishedEvents().stream().map(StockSet.class::cast).toList();
+        assertThat(events).extracting(StockSet::getProductId).containsExactly("p-2", "p-3");
+        assertThat(events.get(0).getAvailableQty()).isEqualTo(18);
+        StockSyncJob resumed = jobs.get("job-1");
+        assertThat(resumed.getState()).isEqualTo(StockSyncJob.State.COMPLETED);
+        assertThat(resumed.getProcessed()).isEqualTo(3);
+        assertThat(resumed.getRepublished()).isEqualTo(1);
+    }
+
+    @Test
+    void handle_whenAProductMovesDuringTheWrite_shouldDiffItAgainstItsNewQuantity() {
+        onHand.put("p-1", 5);
+        when(repository.setQuantities(anyList()))
+                .thenReturn(CompletableFuture.completedFuture(new QuantitySetResult(Map.of(), Map.of("p-1", 7))))
+                .thenReturn(CompletableFuture.completedFuture(new QuantitySetResult(Map.of("p-1", 9), Map.of())));
+
+        handler(10).handle(sync("job-1", "p-1", 9)).join();
+
+        verify(repository).setQuantities(List.of(new QuantityChange("p-1", 7, 9)));
+        assertThat(publishedEvents()).singleElement().isInstanceOfSatisfying(StockSet.class,
+                event -> assertThat(event.getOldQty()).isEqualTo(7));
+    }
+
+    @Test
+    void handle_resumeOfAnUnknownJob_shouldFail() {
+        CompletableFuture<StockSyncJob> result = handler(10)
+                .handle(new SyncStockCommand("cmd-1", "job-x", null, null));
+
+        assertThatThrownBy(result::join).hasCauseInstanceOf(IllegalArgumentException.class);
+        verify(jobRepository, never()).save(any());
+    }
+
+    @Test
+    void handle_ofACompletedJob_shouldNotRunItAgain() {
+        onHand.put("p-1", 4);
+        SyncStockCommandHandler handler = handler(10);
+        handler.handle(sync("job-1", "p-1", 4)).join();
+
+        handler.handle(sync("job-1", "p-1", 4)).join();
+
+        verify(repository, times(1)).forEachQuantity(any());
+        verify(repository, never()).setQuantities(anyList());
+    }
+
+    private SyncStockCommandHandler handler(int chunkSize) {
+        // Runs jobs on the calling thread, so a handled command has run to the end
+        return new SyncStockCommandHandler(repository, jobRepository, eventPublisher, Runnable::run, chunkSize);
+    }
+
+    private static SyncStockCommand sync(String jobId, Object... productsAndQuantities) {
+        Map<String, Integer> items = new LinkedHashMap<>();
+        for (int i = 0; i < productsAndQuantities.length; i += 2) {
+            items.put((String) productsAndQuantities[i], (Integer) productsAndQuantities[i + 1]);
+        }
+        return new SyncStockCommand("cmd-1", jobId, items, "warehouse");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<DomainEvent> publishedEvents() {
+        ArgumentCaptor<List<DomainEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(eventPublisher, atLeastOnce()).publishAll(captor.capture());
+        return captor.getAllValues().stream().flatMap(List::stream).toList();
+    }
+}
@@ -0,0 +1,64 @@
+package com.ecommerce.inventory.application.reservations;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for ReservationExpiryQueue.
+ */
+class ReservationExpiryQueueTest {
+
+    private final ReservationExpiryQueue queue = new ReservationExpiryQueue();
+
+    @Test
+    void drainExpired_shouldReturnOnlyDueHoldsOldestFirst() {
+        queue.add(hold("order-1", Duration.ofSeconds(-5)));
+        queue.add(hold("order-2", Duration.ofSeconds(-10)));
+        queue.add(hold("order-3", Duration.ofMinutes(5)));
+
+        assertThat(queue.drainExpired(10)).containsExactly("order-2:p-1", "order-1:p-1");
+        assertThat(queue.size()).isEqualTo(1);
+    }
+
+    @Test
+    void drainExpired_shouldStopAtMax() {
+        queue.add(hold("order-1", Duration.ofSeconds(-3)));
+        queue.add(hold("order-2", Duration.ofSeconds(-2)));
+        queue.add(hold("order-3", Duration.ofSeconds(-1)));
+
+        assertThat(queue.drainExpired(2)).containsExactly("order-1:p-1", "order-2:p-1");
+        assertThat(queue.drainExpired(2)).containsExactly("order-3:p-1");
+    }
+
+    @Test
+    void drainExpired_shouldSkipHoldsRemovedMeanwhile() {
+        StockReservation released = hold("order-1", Duration.ofSeconds(-1));
+        queue.add(released);
+        queue.add(hold("order-2", Duration.ofSeconds(-1)));
+
+        queue.remove(released.id());
+
+        assertThat(queue.drainExpired(10)).containsExactly("order-2:p-1");
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    void add_withKnownHold_shouldNotQueueItTwice() {
+        StockReservation reservation = hold("order-1", Duration.ofSeconds(-1));
+
+        queue.add(reservation);
+        queue.add(reservation);
+
+        assertThat(queue.size()).isEqualTo(1);
+        assertThat(queue.drainExpired(10)).containsExactly("order-1:p-1");
+        assertThat(queue.drainExpired(10)).isEmpty();
+    }
+
+    private static StockReservation hold(String orderId, Duration expiresIn) {
+        return StockReservation.of(orderId, "p-1", 1, Instant.now().plus(expiresIn));
+    }
+}
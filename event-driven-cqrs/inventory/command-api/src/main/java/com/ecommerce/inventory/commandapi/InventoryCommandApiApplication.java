@@ -4,9 +4,7 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
 @SpringBootApplication(scanBasePackages = {
-        "com.ecommerce.inventory.commandapi",
-        "com.ecommerce.inventory.application", // access to commands if needed
-        "com.ecommerce.shared.messaging" // access to CommandPublisher
+        "com.ecommerce.inventory.commandapi"
 })
 public class InventoryCommandApiApplication {
     public static void main(String[] args) {
@@ -0,0 +1,92 @@
+package com.ecommerce.inventory.commandapi.config;
+
+import com.ecommerce.shared.common.commands.Command;
+import com.ecommerce.shared.common.commands.CommandEnvelope;
+import com.ecommerce.shared.messaging.CommandPublisher;
+import com.ecommerce.shared.messaging.MessagingConstants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.AsyncRabbitTemplate;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * RabbitMQ configuration for Command API.
+ */
+@Configuration
+public class RabbitMQConfig {
+
+    @Bean
+    public ObjectMapper objectMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        return mapper;
+    }
+
+    @Bean
+    public Jackson2JsonMessageConverter messageConverter(ObjectMapper objectMapper) {
+        return new Jackson2JsonMessageConverter(objectMapper);
+    }
+
+    @Bean
+    public DirectExchange commandsExchange() {
+        return new DirectExchange(MessagingConstants.COMMANDS_EXCHANGE);
+    }
+
+    @Bean
+    public Queue inventoryCommandsQueue() {
+        return QueueBuilder.durable(MessagingConstants.INVENTORY_COMMANDS_QUEUE)
+                .withArgument("x-dead-letter-exchange", MessagingConstants.DEAD_LETTER_EXCHANGE)
+                .build();
+    }
+
+    @Bean
+    public Binding inventoryCommandsBinding() {
+        return BindingBuilder
+                .bind(inventoryCommandsQueue())
+                .to(commandsExchange())
+                .with(MessagingConstants.INVENTORY_COMMANDS_QUEUE);
+    }
+
+    /**
+     * Uses RabbitMQ direct reply-to, so stock sync progress comes back
+     * without declaring a reply queue.
+     */
+    @Bean
+    public AsyncRabbitTemplate asyncRabbitTemplate(RabbitTemplate rabbitTemplate,
+            @Value("${inventory.stock-sync.status-timeout-ms:5000}") long timeoutMs) {
+        AsyncRabbitTemplate template = new AsyncRabbitTemplate(rabbitTemplate);
+        template.setReceiveTimeout(timeoutMs);
+        return template;
+    }
+
+    @Bean
+    public CommandPublisher commandPublisher(RabbitTemplate rabbitTemplate) {
+        return new CommandPublisher() {
+            @Override
+            public <T extends Command<?>> CompletableFuture<Void> publish(String queueName,
+                    CommandEnvelope<T> envelope) {
+                return CompletableFuture.runAsync(() -> {
+                    rabbitTemplate.convertAndSend(
+                            MessagingConstants.COMMANDS_EXCHANGE,
+                            queueName,
+                            envelope,
+                            message -> {
+                                // The command handler dispatches on this header
+                                message.getMessageProperties().setHeader(
+                                        MessagingConstants.HEADER_COMMAND_TYPE, envelope.getCommandType());
+                                message.getMessageProperties().setHeader(
+                                        MessagingConstants.HEADER_CORRELATION_ID, envelope.getCorrelationId());
+                                return message;
+                            });
+                });
+            }
+        };
+    }
+}
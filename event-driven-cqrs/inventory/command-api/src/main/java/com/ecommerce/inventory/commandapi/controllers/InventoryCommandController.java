@@ -2,26 +2,40 @@ package com.ecommerce.inventory.commandapi.controllers;
 
 import com.ecommerce.inventory.commandapi.dto.DeductStockRequest;
 import com.ecommerce.inventory.commandapi.dto.SetStockRequest;
+import com.ecommerce.inventory.commandapi.dto.StockSyncJobResponse;
+import com.ecommerce.inventory.commandapi.dto.StockSyncRequest;
+import com.ecommerce.inventory.commandapi.sync.StockSyncJobQueries;
 import com.ecommerce.inventory.application.commands.DeductStockForOrderCommand;
 import com.ecommerce.inventory.application.commands.SetStockCommand;
+import com.ecommerce.inventory.application.commands.SyncStockCommand;
+import com.ecommerce.shared.common.commands.CommandEnvelope;
+import com.ecommerce.shared.messaging.CommandPublisher;
 import com.ecommerce.shared.messaging.MessagingConstants;
-import com.ecommerce.shared.messaging.commands.CommandEnvelope;
-import com.ecommerce.shared.messaging.commands.CommandPublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/v1/inventory")
 public class InventoryCommandController {
 
+    private static final Logger logger = LoggerFactory.getLogger(InventoryCommandController.class);
+
     private final CommandPublisher commandPublisher;
+    private final StockSyncJobQueries stockSyncJobQueries;
 
-    public InventoryCommandController(CommandPublisher commandPublisher) {
+    public InventoryCommandController(CommandPublisher commandPublisher, StockSyncJobQueries stockSyncJobQueries) {
         this.commandPublisher = commandPublisher;
+        this.stockSyncJobQueries = stockSyncJobQueries;
     }
 
     @PostMapping("/products/{productId}")
@@ -40,10 +54,7 @@ public class InventoryCommandController {
                 .build();
 
         // Send to Inventory Queue
-        commandPublisher.publish(
-                MessagingConstants.COMMANDS_EXCHANGE,
-                MessagingConstants.INVENTORY_COMMANDS_QUEUE,
-                envelope);
+        commandPublisher.publish(MessagingConstants.INVENTORY_COMMANDS_QUEUE, envelope);
 
         return ResponseEntity.accepted().body(envelope);
     }
@@ -69,11 +80,75 @@ public class InventoryCommandController {
                 .correlationId(UUID.randomUUID().toString())
                 .build();
 
-        commandPublisher.publish(
-                MessagingConstants.COMMANDS_EXCHANGE,
-                MessagingConstants.INVENTORY_COMMANDS_QUEUE,
-                envelope);
+        commandPublisher.publish(MessagingConstants.INVENTORY_COMMANDS_QUEUE, envelope);
 
         return ResponseEntity.accepted().body(envelope);
     }
+
+    /**
+     * Bulk stock sync for warehouse systems: sets every listed product to its
+     * quantity in one command. Later entries for the same product win.
+     * Runs as a chunked job in the command handler; the body is the job id,
+     * and {@code GET /stock-sync/{jobId}} reports its progress.
+     */
+    @PostMapping("/stock-sync")
+    public ResponseEntity<String> syncStock(@RequestBody StockSyncRequest request) {
+        if (request.items() == null || request.items().isEmpty()) {
+            return ResponseEntity.badRequest().body("items must not be empty");
+        }
+
+        Map<String, Integer> items = new LinkedHashMap<>();
+        for (StockSyncRequest.StockLevel level : request.items()) {
+            if (level.productId() == null || level.productId().isBlank() || level.qty() < 0) {
+                return ResponseEntity.badRequest().body("Invalid stock level for product " + level.productId());
+            }
+            items.put(level.productId(), level.qty());
+        }
+
+        String jobId = UUID.randomUUID().toString();
+        SyncStockCommand command = new SyncStockCommand(UUID.randomUUID().toString(), jobId, items,
+                request.reason());
+
+        CommandEnvelope<SyncStockCommand> envelope = new CommandEnvelope.Builder<>(command)
+                .correlationId(UUID.randomUUID().toString())
+                .build();
+
+        commandPublisher.publish(MessagingConstants.INVENTORY_COMMANDS_QUEUE, envelope);
+
+        // The snapshot itself is not echoed back; it can run to tens of thousands of entries
+        return ResponseEntity.accepted().body(jobId);
+    }
+
+    /**
+     * Progress of a stock sync job as of its last checkpoint.
+     */
+    @GetMapping("/stock-sync/{jobId}")
+    public ResponseEntity<StockSyncJobResponse> getStockSync(@PathVariable String jobId) {
+        String correlationId = UUID.randomUUID().toString();
+        try {
+            return stockSyncJobQueries.findJob(jobId, correlationId).join()
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (CompletionException ex) {
+            logger.warn("No progress for stock sync job: correlationId={}, jobId={}: {}",
+                    correlationId, jobId, ex.getMessage());
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+        }
+    }
+
+    /**
+     * Resume an interrupted or failed stock sync job from its last checkpoint.
+     */
+    @PostMapping("/stock-sync/{jobId}/resume")
+    public ResponseEntity<String> resumeStockSync(@PathVariable String jobId) {
+        SyncStockCommand command = new SyncStockCommand(UUID.randomUUID().toString(), jobId, null, null);
+
+        CommandEnvelope<SyncStockCommand> envelope = new CommandEnvelope.Builder<>(command)
+                .correlationId(UUID.randomUUID().toString())
+                .build();
+
+        commandPublisher.publish(MessagingConstants.INVENTORY_COMMANDS_QUEUE, envelope);
+
+        return ResponseEntity.accepted().body(jobId);
+    }
 }
@@ -0,0 +1,26 @@
+package com.ecommerce.inventory.commandapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.time.Instant;
+
+/**
+ * Progress of a stock sync job as of its last checkpoint.
+ * {@code republished} counts products a resumed job found already synced,
+ * whose StockSet was sent again; {@code unsettled} counts products that kept
+ * moving and were left as they were.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record StockSyncJobResponse(
+        String jobId,
+        String state,
+        long total,
+        long processed,
+        long updated,
+        long republished,
+        long unsettled,
+        String lastProductId,
+        String failure,
+        Instant startedAt,
+        Instant updatedAt) {
+}
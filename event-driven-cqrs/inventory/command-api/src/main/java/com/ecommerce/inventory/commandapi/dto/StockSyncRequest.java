@@ -0,0 +1,8 @@
+package com.ecommerce.inventory.commandapi.dto;
+
+import java.util.List;
+
+public record StockSyncRequest(String reason, List<StockLevel> items) {
+    public record StockLevel(String productId, int qty) {
+    }
+}
@@ -2,12 +2,14 @@ package com.ecommerce.inventory.commandhandler;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
 
 @SpringBootApplication(scanBasePackages = {
         "com.ecommerce.inventory.commandhandler",
         "com.ecommerce.inventory.application",
         "com.ecommerce.inventory.infrastructure"
 })
+@EnableMongoRepositories(basePackages = "com.ecommerce.inventory.infrastructure.persistence")
 public class InventoryCommandHandlerApplication {
     public static void main(String[] args) {
         SpringApplication.run(InventoryCommandHandlerApplication.class, args);
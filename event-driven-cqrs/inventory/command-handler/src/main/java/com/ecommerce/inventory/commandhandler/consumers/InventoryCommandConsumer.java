@@ -1,33 +1,63 @@
 package com.ecommerce.inventory.commandhandler.consumers;
 
+import com.ecommerce.inventory.application.commands.ConfirmStockReservationCommand;
 import com.ecommerce.inventory.application.commands.DeductStockForOrderCommand;
+import com.ecommerce.inventory.application.commands.GetStockSyncJobCommand;
+import com.ecommerce.inventory.application.commands.ReleaseStockReservationCommand;
+import com.ecommerce.inventory.application.commands.ReserveStockCommand;
+import com.ecommerce.inventory.application.commands.ReturnStockForOrderCommand;
 import com.ecommerce.inventory.application.commands.SetStockCommand;
+import com.ecommerce.inventory.application.commands.SyncStockCommand;
 import com.ecommerce.inventory.application.commands.ValidateStockBatchCommand;
+import com.ecommerce.inventory.application.handlers.ConfirmStockReservationCommandHandler;
 import com.ecommerce.inventory.application.handlers.DeductStockForOrderCommandHandler;
+import com.ecommerce.inventory.application.handlers.GetStockSyncJobCommandHandler;
+import com.ecommerce.inventory.application.handlers.ReleaseStockReservationCommandHandler;
+import com.ecommerce.inventory.application.handlers.ReserveStockCommandHandler;
+import com.ecommerce.inventory.application.handlers.ReturnStockForOrderCommandHandler;
 import com.ecommerce.inventory.application.handlers.SetStockCommandHandler;
+import com.ecommerce.inventory.application.handlers.SyncStockCommandHandler;
 import com.ecommerce.inventory.application.handlers.ValidateStockBatchCommandHandler;
+import com.ecommerce.inventory.commandhandler.ledger.HotCommandRouter;
+import com.ecommerce.inventory.commandhandler.ledger.LedgerNotOwnedException;
 import com.ecommerce.shared.messaging.MessagingConstants;
-import com.ecommerce.shared.messaging.commands.CommandEnvelope;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
 import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.annotation.Queue;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Component
 public class InventoryCommandConsumer {
 
     private static final Logger logger = LoggerFactory.getLogger(InventoryCommandConsumer.class);
 
-    private final SetStockCommandHandler setStockCommandHandler;
-    private final DeductStockForOrderCommandHandler deductStockForOrderCommandHandler;
+    private final SetStockCommandHandler setHandler;
+    private final DeductStockForOrderCommandHandler deductHandler;
+    private final ReturnStockForOrderCommandHandler returnHandler;
+    private final ValidateStockBatchCommandHandler validateHandler;
+    private final ReserveStockCommandHandler reserveHandler;
+    private final ConfirmStockReservationCommandHandler confirmHandler;
+    private final ReleaseStockReservationCommandHandler releaseHandler;
+    private final SyncStockCommandHandler syncHandler;
+    private final GetStockSyncJobCommandHandler syncJobHandler;
+    private final RabbitTemplate rabbitTemplate;
     private final ObjectMapper objectMapper;
+    private final HotCommandRouter hotCommandRouter;
 
     // Use specific queue for inventory commands
     // Note: MessagingConstants might need update to include
@@ -39,12 +69,28 @@ public class InventoryCommandConsumer {
     public InventoryCommandConsumer(
             SetStockCommandHandler setHandler,
             DeductStockForOrderCommandHandler deductHandler,
+            ReturnStockForOrderCommandHandler returnHandler,
             ValidateStockBatchCommandHandler validateHandler,
-            ObjectMapper objectMapper) {
+            ReserveStockCommandHandler reserveHandler,
+            ConfirmStockReservationCommandHandler confirmHandler,
+            ReleaseStockReservationCommandHandler releaseHandler,
+            SyncStockCommandHandler syncHandler,
+            GetStockSyncJobCommandHandler syncJobHandler,
+            RabbitTemplate rabbitTemplate,
+            ObjectMapper objectMapper,
+            ObjectProvider<HotCommandRouter> hotCommandRouter) {
         this.setHandler = setHandler;
         this.deductHandler = deductHandler;
+        this.returnHandler = returnHandler;
         this.validateHandler = validateHandler;
+        this.reserveHandler = reserveHandler;
+        this.confirmHandler = confirmHandler;
+        this.releaseHandler = releaseHandler;
+        this.syncHandler = syncHandler;
+        this.syncJobHandler = syncJobHandler;
+        this.rabbitTemplate = rabbitTemplate;
         this.objectMapper = objectMapper;
+        this.hotCommandRouter = hotCommandRouter.getIfAvailable();
     }
 
     @RabbitListener(queues = MessagingConstants.INVENTORY_COMMANDS_QUEUE)
@@ -62,6 +108,10 @@ public class InventoryCommandConsumer {
             JsonNode root = objectMapper.readTree(message.getBody());
             JsonNode payload = root.get("command");
 
+            if (hotCommandRouter != null && hotCommandRouter.forward(commandType, payload, message)) {
+                return;
+            }
+
             switch (commandType) {
                 case "SetStockCommand" -> {
                     SetStockCommand command = new SetStockCommand(
@@ -69,33 +119,126 @@ public class InventoryCommandConsumer {
                             payload.get("productId").asText(),
                             payload.get("newQty").asInt(),
                             payload.has("reason") ? payload.get("reason").asText() : null);
-                    setStockCommandHandler.handle(command).join();
+                    setHandler.handle(command).join();
                 }
                 case "DeductStockForOrderCommand" -> {
                     List<DeductStockForOrderCommand.OrderItem> items = new ArrayList<>();
-                    if (payload.has("items") && payload.get("items").isArray()) {
-                        for (JsonNode itemNode : payload.get("items")) {
-                            items.add(new DeductStockForOrderCommand.OrderItem(
-                                    itemNode.get("productId").asText(),
-                                    itemNode.get("qty").asInt()));
-                        }
-                    }
+                    readItems(payload).forEach((productId, qty) ->
+                            items.add(new DeductStockForOrderCommand.OrderItem(productId, qty)));
 
                     DeductStockForOrderCommand command = new DeductStockForOrderCommand(
                             commandId,
                             payload.get("orderId").asText(),
                             items);
-                    deductStockForOrderCommandHandler.handle(command).join();
+                    deductHandler.handle(command).join();
                 }
+                case "ReturnStockForOrderCommand" -> {
+                    List<String> productIds = new ArrayList<>();
+                    payload.get("productIds").forEach(productId -> productIds.add(productId.asText()));
+                    returnHandler.handle(new ReturnStockForOrderCommand(
+                            commandId, payload.get("orderId").asText(), productIds)).join();
+                }
+                case "SyncStockCommand" -> {
+                    // Without items, resumes the job from its checkpoint
+                    SyncStockCommand command = new SyncStockCommand(
+                            commandId,
+                            payload.get("jobId").asText(),
+                            payload.hasNonNull("items") ? readItems(payload) : null,
+                            payload.hasNonNull("reason") ? payload.get("reason").asText() : null);
+                    // Only waits for the snapshot to be saved; the job runs on the stock sync executor
+                    syncHandler.handle(command).join();
+                }
+                case "GetStockSyncJobCommand" -> reply(message, syncJobHandler.handle(
+                        new GetStockSyncJobCommand(commandId, payload.get("jobId").asText())).join());
+                case "ValidateStockBatchCommand" -> {
+                    ValidateStockBatchCommand command = new ValidateStockBatchCommand(
+                            commandId,
+                            payload.get("orderId").asText(),
+                            readItems(payload));
+                    validateHandler.handle(command).join();
+                }
+                case "ReserveStockCommand" -> {
+                    ReserveStockCommand command = new ReserveStockCommand(
+                            commandId,
+                            payload.get("orderId").asText(),
+                            readItems(payload),
+                            payload.has("ttlSeconds") ? payload.get("ttlSeconds").asInt() : 0);
+                    reserveHandler.handle(command).join();
+                }
+                case "ConfirmStockReservationCommand" -> confirmHandler.handle(
+                        new ConfirmStockReservationCommand(commandId, payload.get("orderId").asText())).join();
+                case "ReleaseStockReservationCommand" -> releaseHandler.handle(
+                        new ReleaseStockReservationCommand(commandId, payload.get("orderId").asText())).join();
                 default -> logger.warn("Unknown command type: {}", commandType);
             }
 
             logger.info("Command processed successfully: commandId={}, type={}", commandId, commandType);
+        } catch (ImmediateRequeueAmqpException e) {
+            throw e;
         } catch (Exception ex) {
+            if (causedByLostLedger(ex)) {
+                // Ledger ownership moved while this command was in flight; the next delivery is forwarded
+                throw new ImmediateRequeueAmqpException("Hot stock ledger is owned elsewhere", ex);
+            }
             logger.error("Command failed: commandId={}, error={}", commandId, ex.getMessage(), ex);
             // Handle DLQ or retries
         } finally {
             MDC.remove("correlationId");
         }
     }
+
+    /**
+     * Consumes the commands other instances forward for hot products; only
+     * started while this instance owns the hot stock ledger.
+     */
+    @RabbitListener(id = HotCommandRouter.LISTENER_ID, autoStartup = "false",
+            queuesToDeclare = @Queue(MessagingConstants.INVENTORY_HOT_COMMANDS_QUEUE))
+    public void handleHotCommand(Message message) {
+        handleCommand(message);
+    }
+
+    /**
+     * Sends the handler's result back when the sender is waiting on a reply queue.
+     */
+    private void reply(Message request, Object result) throws Exception {
+        String replyTo = request.getMessageProperties().getReplyTo();
+        if (replyTo == null) {
+            return;
+        }
+        Message reply = MessageBuilder
+                .withBody(objectMapper.writeValueAsBytes(result))
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setCorrelationId(request.getMessageProperties().getCorrelationId())
+                .build();
+        rabbitTemplate.send("", replyTo, reply);
+    }
+
+    private static boolean causedByLostLedger(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof LedgerNotOwnedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads {@code items} as productId to qty, given either as an object
+     * (as the checkout saga sends it) or as an array of {productId, qty}.
+     */
+    private static Map<String, Integer> readItems(JsonNode payload) {
+        Map<String, Integer> items = new LinkedHashMap<>();
+        JsonNode itemsNode = payload.get("items");
+        if (itemsNode == null) {
+            return items;
+        }
+        if (itemsNode.isObject()) {
+            itemsNode.fields().forEachRemaining(field -> items.put(field.getKey(), field.getValue().asInt()));
+        } else if (itemsNode.isArray()) {
+            for (JsonNode itemNode : itemsNode) {
+                items.merge(itemNode.get("productId").asText(), itemNode.get("qty").asInt(), Integer::sum);
+            }
+        }
+        return items;
+    }
 }
@@ -0,0 +1,91 @@
+package com.ecommerce.inventory.commandhandler.ledger;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * One durable deduction taken by the hot stock ledger. Entries newer than
+ * the {@code ledgerSeq} of their inventory document are replayed on
+ * recovery, order ids included. Older ones are stamped {@code flushedAt} and
+ * kept for the configured retention, so the unique {productId, orderId}
+ * index refuses a redelivered order long after it left the in-memory window.
+ */
+@Document(collection = "inventory_deduction_log")
+@CompoundIndex(name = "productId_orderId", def = "{'productId': 1, 'orderId': 1}", unique = true)
+public class DeductionLogDocument {
+
+    @Id
+    private long seq;
+
+    @Indexed
+    private String productId;
+
+    private String orderId;
+    private int qty;
+    private Instant createdAt;
+    // Set once the deduction is reflected in the inventory document; the TTL runs from here
+    private Instant flushedAt;
+
+    public DeductionLogDocument() {
+    }
+
+    public DeductionLogDocument(long seq, String productId, String orderId, int qty, Instant createdAt) {
+        this.seq = seq;
+        this.productId = productId;
+        this.orderId = orderId;
+        this.qty = qty;
+        this.createdAt = createdAt;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public int getQty() {
+        return qty;
+    }
+
+    public void setQty(int qty) {
+        this.qty = qty;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getFlushedAt() {
+        return flushedAt;
+    }
+
+    public void setFlushedAt(Instant flushedAt) {
+        this.flushedAt = flushedAt;
+    }
+}
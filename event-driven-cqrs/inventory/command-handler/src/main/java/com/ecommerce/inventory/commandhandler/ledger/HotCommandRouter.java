@@ -0,0 +1,100 @@
+package com.ecommerce.inventory.commandhandler.ledger;
+
+import com.ecommerce.shared.messaging.MessagingConstants;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Gets commands that write hot products to the instance owning the ledger.
+ * Every instance consumes the shared command queue; one that does not own
+ * the ledger passes such commands on to a queue that only the owner
+ * consumes, and the owner starts consuming it when it takes the ledger over.
+ */
+public class HotCommandRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotCommandRouter.class);
+
+    public static final String LISTENER_ID = "inventory-hot-commands";
+
+    // Commands that write stock; the others only read it or touch holds, which hot products never have
+    private static final Set<String> WRITE_COMMANDS = Set.of(
+            "SetStockCommand", "DeductStockForOrderCommand", "SyncStockCommand", "ReserveStockCommand");
+
+    private final HotStockLedger ledger;
+    private final RabbitTemplate rabbitTemplate;
+    private final RabbitListenerEndpointRegistry listenerRegistry;
+
+    public HotCommandRouter(HotStockLedger ledger, RabbitTemplate rabbitTemplate,
+            RabbitListenerEndpointRegistry listenerRegistry) {
+        this.ledger = ledger;
+        this.rabbitTemplate = rabbitTemplate;
+        this.listenerRegistry = listenerRegistry;
+        ledger.onOwnershipChange(this::ownershipChanged);
+    }
+
+    /**
+     * Forwards the command to the ledger owner if it writes a hot product and
+     * this instance is not the owner.
+     *
+     * @return true if forwarded, in which case it must not be handled here
+     */
+    public boolean forward(String commandType, JsonNode payload, Message message) {
+        if (ledger.isOwner() || !WRITE_COMMANDS.contains(commandType) || !writesHotProduct(payload)) {
+            return false;
+        }
+        try {
+            // The default exchange routes straight to the queue of that name
+            rabbitTemplate.send("", MessagingConstants.INVENTORY_HOT_COMMANDS_QUEUE, message);
+        } catch (AmqpException ex) {
+            throw new ImmediateRequeueAmqpException("Could not forward hot product command", ex);
+        }
+        logger.info("Forwarded {} to the hot stock ledger owner", commandType);
+        return true;
+    }
+
+    private boolean writesHotProduct(JsonNode payload) {
+        if (payload.hasNonNull("productId") && ledger.isHot(payload.get("productId").asText())) {
+            return true;
+        }
+        JsonNode items = payload.get("items");
+        if (items == null) {
+            return false;
+        }
+        if (items.isObject()) {
+            for (Iterator<String> productIds = items.fieldNames(); productIds.hasNext(); ) {
+                if (ledger.isHot(productIds.next())) {
+                    return true;
+                }
+            }
+        } else if (items.isArray()) {
+            for (JsonNode item : items) {
+                if (item.hasNonNull("productId") && ledger.isHot(item.get("productId").asText())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void ownershipChanged(boolean owned) {
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(LISTENER_ID);
+        if (container == null) {
+            return;
+        }
+        if (owned) {
+            container.start();
+        } else {
+            container.stop();
+        }
+    }
+}
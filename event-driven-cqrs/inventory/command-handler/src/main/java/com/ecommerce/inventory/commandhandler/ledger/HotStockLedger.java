@@ -0,0 +1,753 @@
+package com.ecommerce.inventory.commandhandler.ledger;
+
+import com.ecommerce.inventory.application.ports.DeductionResult;
+import com.ecommerce.inventory.commandhandler.ledger.StripedStock.Reservation;
+import com.ecommerce.inventory.domain.aggregates.InventoryItem;
+import com.ecommerce.inventory.infrastructure.persistence.InventoryDocument;
+import com.mongodb.ErrorCategory;
+import com.mongodb.bulk.BulkWriteError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SequencedSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Authoritative in-memory stock for designated hot products.
+ * <p>
+ * Deductions reserve units from a {@link StripedStock} and are acknowledged
+ * once their entry in the deduction log is durable. A single writer thread
+ * inserts log entries in batches, so thousands of deductions per second
+ * become a few inserts instead of updates to one contended document. The
+ * consolidated quantity is written behind to the inventory document on a
+ * fixed delay, stamped with the last logged sequence; on start-up each hot
+ * product is recovered from its document plus the log entries after that
+ * sequence.
+ * <p>
+ * The ledger owns its products exclusively. Only the instance holding the
+ * lease in {@link LedgerLeaseDocument} serves them; it renews the lease on a
+ * third of its duration and stops serving, failing whatever is not yet
+ * logged, once it can no longer be sure of holding it. Other instances stay
+ * on standby, refuse writes to the hot products and take the lease over,
+ * recovering from the documents and the log, when it expires. Redelivered deductions
+ * are recognised from a window of recent orders per product. The logged part
+ * of that window is written behind with the quantity and rebuilt on recovery
+ * from the document plus the replayed log entries, so it survives a restart.
+ * Past the window, the log's unique {productId, orderId} index refuses the
+ * entry; flushed entries are kept for {@code logRetention} for that reason.
+ */
+public class HotStockLedger implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotStockLedger.class);
+
+    static final String LEASE_ID = "hot-stock-ledger";
+
+    private final MongoTemplate mongoTemplate;
+    private final Set<String> productIds;
+    private final int stripes;
+    private final int logBatchSize;
+    private final long flushIntervalMillis;
+    private final Duration logRetention;
+    private final String instanceId;
+    private final Duration leaseDuration;
+    private final List<Consumer<Boolean>> ownershipListeners = new CopyOnWriteArrayList<>();
+
+    private final Map<String, HotProduct> products = new ConcurrentHashMap<>();
+    // Deductions waiting for the log writer; the deductions of one call are queued together
+    private final BlockingQueue<List<PendingDeduction>> pending = new LinkedBlockingQueue<>();
+    private final Object commitLock = new Object();
+    private final Object flushLock = new Object();
+
+    // Last sequence handed out; written by the log writer thread only
+    private long sequence;
+    // Highest sequence whose batch is durable; guarded by commitLock
+    private long committedSeq;
+
+    private ScheduledExecutorService leaseKeeper;
+    private ScheduledExecutorService flusher;
+    private Thread logWriter;
+    private volatile boolean running;
+    private volatile boolean owner;
+    // System.nanoTime() up to which the lease is certainly still held
+    private volatile long leaseValidUntil;
+
+    public HotStockLedger(MongoTemplate mongoTemplate, Collection<String> productIds, int stripes,
+            int logBatchSize, long flushIntervalMillis, Duration logRetention, String instanceId,
+            Duration leaseDuration) {
+        this.mongoTemplate = mongoTemplate;
+        this.productIds = Set.copyOf(productIds);
+        this.stripes = stripes;
+        this.logBatchSize = logBatchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.logRetention = logRetention;
+        this.instanceId = instanceId;
+        this.leaseDuration = leaseDuration;
+    }
+
+    /**
+     * Whether the product is one of the hot products, whichever instance
+     * serves them.
+     */
+    public boolean isHot(String productId) {
+        return productIds.contains(productId);
+    }
+
+    /**
+     * Whether this instance holds the lease and serves the hot products.
+     */
+    public boolean isOwner() {
+        return owner;
+    }
+
+    /**
+     * Registers a callback told when this instance takes the ledger over
+     * ({@code true}) or stops serving it ({@code false}).
+     */
+    public void onOwnershipChange(Consumer<Boolean> listener) {
+        ownershipListeners.add(listener);
+    }
+
+    public long available(String productId) {
+        return product(productId).stock.available();
+    }
+
+    private HotProduct product(String productId) {
+        HotProduct product = owner ? products.get(productId) : null;
+        if (product == null) {
+            throw new LedgerNotOwnedException(productId);
+        }
+        return product;
+    }
+
+    /**
+     * Deducts from a hot product. Completes once the deduction is logged, or
+     * straight away when there is not enough stock or the order recently
+     * deducted this product. An order deducted longer ago completes as a
+     * duplicate once the log refuses its entry.
+     */
+    public CompletableFuture<DeductionResult> tryDeduct(String productId, String orderId, int qty) {
+        Hold hold = hold(productId, orderId, qty);
+        return hold.isHeld()
+                ? log(List.of(hold)).thenApply(results -> results.get(productId))
+                : CompletableFuture.completedFuture(hold.result());
+    }
+
+    /**
+     * Takes units from a hot product for an order without logging them yet,
+     * so they can still be given back with {@link #cancel}. Stock updates of
+     * the product wait until the hold is logged or cancelled, so a hold
+     * should be short.
+     *
+     * @return the hold; when nothing could be held, its result says why
+     */
+    public Hold hold(String productId, String orderId, int qty) {
+        HotProduct product = product(productId);
+        if (!product.claim(orderId)) {
+            return new Hold(productId, orderId, null, null,
+                    DeductionResult.duplicate((int) product.stock.available()));
+        }
+        StripedStock stock = product.enter();
+        Reservation reservation = stock.reserve(qty);
+        if (reservation == null) {
+            product.exit();
+            product.unclaim(orderId);
+            return new Hold(productId, orderId, null, null, DeductionResult.insufficient((int) stock.available()));
+        }
+        return new Hold(productId, orderId, product, reservation,
+                DeductionResult.deducted((int) stock.available()));
+    }
+
+    /**
+     * Gives the units of a hold back, as if it had never been taken.
+     */
+    public void cancel(Hold hold) {
+        if (!hold.isHeld()) {
+            return;
+        }
+        hold.reservation.stock().release(hold.reservation);
+        hold.product.exit();
+        hold.product.unclaim(hold.orderId);
+    }
+
+    /**
+     * Logs holds as deductions. The holds go into the same insert, so a log
+     * write that fails gives every one of them back.
+     *
+     * @return the outcome per product once logged; fails if an entry could
+     *         not be written
+     */
+    public CompletableFuture<Map<String, DeductionResult>> log(List<Hold> holds) {
+        List<PendingDeduction> group = new ArrayList<>(holds.size());
+        for (Hold hold : holds) {
+            group.add(new PendingDeduction(hold.productId, hold.orderId, hold.product, hold.reservation,
+                    new CompletableFuture<>()));
+        }
+        pending.add(group);
+        if (!owner) {
+            // The log writer may be gone already
+            failPending(new LedgerNotOwnedException(group.get(0).productId()));
+        }
+        return CompletableFuture.allOf(group.stream().map(PendingDeduction::result).toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    Map<String, DeductionResult> results = new LinkedHashMap<>();
+                    group.forEach(deduction -> results.put(deduction.productId(), deduction.result().join()));
+                    return results;
+                });
+    }
+
+    /**
+     * Replaces the stock of a hot product. Deductions are held while in-flight
+     * ones drain and everything logged so far is flushed, so the new quantity
+     * is never undercut by an older deduction on recovery.
+     */
+    public void setStock(String productId, int newQty) {
+        replaceStock(productId, null, newQty);
+    }
+
+    /**
+     * Replaces the stock of a hot product only while it is still
+     * {@code expectedQty}, checked once in-flight deductions have drained.
+     * Returns false, leaving the stock as is, if it has moved.
+     */
+    public boolean setStockIf(String productId, long expectedQty, int newQty) {
+        return replaceStock(productId, expectedQty, newQty);
+    }
+
+    private boolean replaceStock(String productId, Long expectedQty, int newQty) {
+        HotProduct product = product(productId);
+        product.freeze();
+        try {
+            synchronized (flushLock) {
+                if (expectedQty != null && product.stock.available() != expectedQty) {
+                    return false;
+                }
+                flush();
+                long watermark;
+                List<String> orders;
+                synchronized (commitLock) {
+                    watermark = committedSeq;
+                    orders = List.copyOf(product.loggedOrderIds);
+                }
+                persist(productId, newQty, watermark, orders);
+                product.stock = new StripedStock(newQty, stripes);
+                product.flushedQty = newQty;
+            }
+        } finally {
+            product.unfreeze();
+        }
+        logger.info("Hot stock set: productId={}, qty={}", productId, newQty);
+        return true;
+    }
+
+    /**
+     * Starts serving the hot products if the lease can be taken; otherwise
+     * stays on standby and keeps trying.
+     */
+    @Override
+    public synchronized void start() {
+        // Duplicate deductions are refused by these, so don't rely on auto-index-creation
+        IndexOperations indexes = mongoTemplate.indexOps(DeductionLogDocument.class);
+        indexes.ensureIndex(new Index().named("productId_orderId")
+                .on("productId", Sort.Direction.ASC)
+                .on("orderId", Sort.Direction.ASC)
+                .unique());
+        indexes.ensureIndex(new Index().on("flushedAt", Sort.Direction.ASC).expire(logRetention));
+
+        running = true;
+        if (acquireLease()) {
+            takeOver();
+        } else {
+            logger.warn("Hot stock ledger lease is held by another instance; {} is on standby", instanceId);
+        }
+        leaseKeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "inventory-ledger-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long renewMillis = leaseDuration.toMillis() / 3;
+        leaseKeeper.scheduleWithFixedDelay(this::keepLease, renewMillis, renewMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (leaseKeeper != null) {
+            leaseKeeper.shutdownNow();
+        }
+        if (owner) {
+            giveUp(true);
+            releaseLease();
+        }
+    }
+
+    private synchronized void keepLease() {
+        if (!running) {
+            return;
+        }
+        try {
+            if (acquireLease()) {
+                if (!owner) {
+                    takeOver();
+                }
+            } else if (owner) {
+                logger.error("Hot stock ledger lease was taken over by another instance");
+                giveUp(false);
+            }
+        } catch (Exception ex) {
+            logger.warn("Hot stock ledger lease could not be renewed", ex);
+            if (owner && System.nanoTime() - leaseValidUntil >= 0) {
+                giveUp(false);
+            }
+        }
+    }
+
+    /**
+     * Takes or renews the lease; false if another instance holds it.
+     */
+    private boolean acquireLease() {
+        long requested = System.nanoTime();
+        Instant now = Instant.now();
+        Query claimable = new Query(Criteria.where("_id").is(LEASE_ID).orOperator(
+                Criteria.where("owner").is(instanceId),
+                Criteria.where("expiresAt").lt(now)));
+        Update claim = new Update()
+                .set("owner", instanceId)
+                .set("expiresAt", now.plus(leaseDuration));
+        try {
+            // While another instance holds it, the upsert tries to insert a second lease and is refused
+            mongoTemplate.upsert(claimable, claim, LedgerLeaseDocument.class);
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+        // Counted from before the request and cut short, to allow for clock drift between instances
+        leaseValidUntil = requested + leaseDuration.toNanos() * 4 / 5;
+        return true;
+    }
+
+    private void releaseLease() {
+        try {
+            mongoTemplate.remove(new Query(Criteria.where("_id").is(LEASE_ID).and("owner").is(instanceId)),
+                    LedgerLeaseDocument.class);
+        } catch (Exception ex) {
+            logger.warn("Hot stock ledger lease not released; it will expire", ex);
+        }
+    }
+
+    private void takeOver() {
+        products.clear();
+        recover();
+
+        logWriter = new Thread(this::writeLog, "inventory-ledger-log");
+        logWriter.setDaemon(true);
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "inventory-ledger-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        owner = true;
+        logWriter.start();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis,
+                TimeUnit.MILLISECONDS);
+        logger.info("Hot stock ledger taken over by {}", instanceId);
+        ownershipListeners.forEach(listener -> listener.accept(true));
+    }
+
+    /**
+     * Stops serving the hot products. On an orderly stop what is pending is
+     * still logged and the stock flushed; once the lease is lost neither is
+     * safe any more, so pending deductions fail instead.
+     */
+    private void giveUp(boolean orderly) {
+        owner = false;
+        if (!orderly) {
+            leaseValidUntil = System.nanoTime();
+        }
+        ownershipListeners.forEach(listener -> listener.accept(false));
+        try {
+            logWriter.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flusher.shutdownNow();
+        if (orderly) {
+            flushQuietly();
+        }
+        failPending(new IllegalStateException("Hot stock ledger stopped"));
+        logger.info("Hot stock ledger given up by {}", instanceId);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before, and stops after, the command listeners.
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private void recover() {
+        Query last = new Query().with(Sort.by(Sort.Direction.DESC, "seq")).limit(1);
+        DeductionLogDocument lastEntry = mongoTemplate.findOne(last, DeductionLogDocument.class);
+        long maxSeq = lastEntry != null ? lastEntry.getSeq() : 0;
+
+        for (String productId : productIds) {
+            InventoryDocument doc = mongoTemplate.findById(productId, InventoryDocument.class);
+            long qty = doc != null ? doc.getQuantity() : 0;
+            long since = doc != null && doc.getLedgerSeq() != null ? doc.getLedgerSeq() : 0;
+            maxSeq = Math.max(maxSeq, since);
+
+            Query unflushed = new Query(Criteria.where("productId").is(productId).and("seq").gt(since))
+                    .with(Sort.by(Sort.Direction.ASC, "seq"));
+            unflushed.fields().include("qty", "orderId");
+            List<DeductionLogDocument> entries = mongoTemplate.find(unflushed, DeductionLogDocument.class);
+            long replayed = entries.stream()
+                    .mapToLong(DeductionLogDocument::getQty)
+                    .sum();
+
+            // Orders flushed with the document, then the ones logged after it
+            List<String> recentOrders = new ArrayList<>();
+            if (doc != null && doc.getRecentOrderIds() != null) {
+                recentOrders.addAll(doc.getRecentOrderIds());
+            }
+            entries.stream()
+                    .map(DeductionLogDocument::getOrderId)
+                    .filter(Objects::nonNull)
+                    .forEach(recentOrders::add);
+
+            HotProduct product = new HotProduct(new StripedStock(Math.max(qty - replayed, 0), stripes),
+                    recentOrders);
+            products.put(productId, product);
+            logger.info("Hot stock recovered: productId={}, persisted={}, replayed={}", productId, qty, replayed);
+        }
+
+        sequence = maxSeq;
+        committedSeq = maxSeq;
+    }
+
+    private void writeLog() {
+        List<PendingDeduction> batch = new ArrayList<>(logBatchSize);
+        while (owner || !pending.isEmpty()) {
+            try {
+                List<PendingDeduction> group = pending.poll(100, TimeUnit.MILLISECONDS);
+                if (group == null) {
+                    continue;
+                }
+                batch.addAll(group);
+                while (batch.size() < logBatchSize && (group = pending.poll()) != null) {
+                    batch.addAll(group);
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingDeduction> batch) {
+        Instant now = Instant.now();
+        List<DeductionLogDocument> entries = new ArrayList<>(batch.size());
+        for (PendingDeduction deduction : batch) {
+            entries.add(new DeductionLogDocument(++sequence, deduction.productId(), deduction.orderId(),
+                    deduction.reservation().qty(), now));
+        }
+
+        if (System.nanoTime() - leaseValidUntil >= 0) {
+            failBatch(batch, new IllegalStateException("Hot stock ledger lease expired"));
+            return;
+        }
+
+        // Unordered, so one refused entry does not hold back the rest of the batch
+        Map<Integer, BulkWriteError> refused = new HashMap<>();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DeductionLogDocument.class)
+                    .insert(entries)
+                    .execute();
+        } catch (BulkOperationException ex) {
+            ex.getErrors().forEach(error -> refused.put(error.getIndex(), error));
+            logger.warn("{} of {} hot stock deductions not logged", refused.size(), batch.size());
+        } catch (Exception ex) {
+            logger.error("Failed to log {} hot stock deductions", batch.size(), ex);
+            failBatch(batch, ex);
+            return;
+        }
+
+        synchronized (commitLock) {
+            for (int i = 0; i < batch.size(); i++) {
+                if (!refused.containsKey(i)) {
+                    PendingDeduction deduction = batch.get(i);
+                    deduction.reservation().stock().commit(deduction.reservation().qty());
+                    deduction.product().logged(deduction.orderId());
+                }
+            }
+            committedSeq = sequence;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            PendingDeduction deduction = batch.get(i);
+            StripedStock stock = deduction.reservation().stock();
+            BulkWriteError error = refused.get(i);
+            if (error == null) {
+                deduction.product().exit();
+                deduction.result().complete(DeductionResult.deducted((int) stock.available()));
+                continue;
+            }
+            stock.release(deduction.reservation());
+            deduction.product().exit();
+            if (ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY) {
+                // Logged before, outside the in-memory window; the claim stays, as it is genuine
+                deduction.result().complete(DeductionResult.duplicate((int) stock.available()));
+            } else {
+                deduction.product().unclaim(deduction.orderId());
+                deduction.result().completeExceptionally(
+                        new IllegalStateException("Hot stock deduction not logged: " + error.getMessage()));
+            }
+        }
+    }
+
+    private static void failBatch(List<PendingDeduction> batch, Exception cause) {
+        for (PendingDeduction deduction : batch) {
+            deduction.reservation().stock().release(deduction.reservation());
+            deduction.product().exit();
+            deduction.product().unclaim(deduction.orderId());
+            deduction.result().completeExceptionally(cause);
+        }
+    }
+
+    private void failPending(Exception cause) {
+        List<PendingDeduction> batch = new ArrayList<>();
+        List<PendingDeduction> group;
+        while ((group = pending.poll()) != null) {
+            batch.addAll(group);
+        }
+        failBatch(batch, cause);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception ex) {
+            logger.error("Hot stock flush failed; the deduction log is kept for recovery", ex);
+        }
+    }
+
+    /**
+     * Writes the durable quantity of every changed product, then stamps the
+     * log entries that are now reflected in the documents, which starts
+     * their retention.
+     */
+    private void flush() {
+        synchronized (flushLock) {
+            long watermark;
+            Map<String, Long> quantities = new HashMap<>();
+            Map<String, List<String>> orders = new HashMap<>();
+            synchronized (commitLock) {
+                watermark = committedSeq;
+                products.forEach((productId, product) -> {
+                    quantities.put(productId, product.stock.durableQty());
+                    orders.put(productId, List.copyOf(product.loggedOrderIds));
+                });
+            }
+
+            quantities.forEach((productId, qty) -> {
+                HotProduct product = products.get(productId);
+                if (qty != product.flushedQty) {
+                    persist(productId, qty, watermark, orders.get(productId));
+                    product.flushedQty = qty;
+                }
+            });
+
+            mongoTemplate.updateMulti(
+                    new Query(Criteria.where("seq").lte(watermark).and("flushedAt").exists(false)),
+                    new Update().set("flushedAt", Instant.now()), DeductionLogDocument.class);
+        }
+    }
+
+    private void persist(String productId, long qty, long watermark, List<String> recentOrderIds) {
+        Update update = new Update()
+                .set("quantity", qty)
+                .set("ledgerSeq", watermark)
+                .set("recentOrderIds", recentOrderIds)
+                .set("updatedAt", Instant.now())
+                .setOnInsert("createdAt", Instant.now())
+                .inc("version", 1);
+        mongoTemplate.upsert(new Query(Criteria.where("productId").is(productId)), update, InventoryDocument.class);
+    }
+
+    /**
+     * Ledger state of one hot product. {@code frozen} holds new deductions
+     * while the stock is replaced; {@code inFlight} counts reservations not
+     * yet logged, striped so that it is not a contention point itself.
+     */
+    private static final class HotProduct {
+
+        private volatile StripedStock stock;
+        private volatile boolean frozen;
+        private final LongAdder inFlight = new LongAdder();
+        // Orders deducted most recently, oldest first; guarded by itself
+        private final SequencedSet<String> recentOrderIds = new LinkedHashSet<>();
+        // The same window limited to logged deductions, as flushed; guarded by commitLock
+        private final SequencedSet<String> loggedOrderIds = new LinkedHashSet<>();
+        // Quantity last written to the document; -1 forces the first flush
+        private long flushedQty = -1;
+
+        private HotProduct(StripedStock stock, List<String> recentOrders) {
+            this.stock = stock;
+            recentOrders.forEach(orderId -> {
+                claim(orderId);
+                logged(orderId);
+            });
+        }
+
+        boolean claim(String orderId) {
+            synchronized (recentOrderIds) {
+                if (!recentOrderIds.add(orderId)) {
+                    return false;
+                }
+                if (recentOrderIds.size() > InventoryItem.RECENT_ORDERS_LIMIT) {
+                    recentOrderIds.removeFirst();
+                }
+                return true;
+            }
+        }
+
+        void unclaim(String orderId) {
+            synchronized (recentOrderIds) {
+                recentOrderIds.remove(orderId);
+            }
+        }
+
+        void logged(String orderId) {
+            loggedOrderIds.add(orderId);
+            if (loggedOrderIds.size() > InventoryItem.RECENT_ORDERS_LIMIT) {
+                loggedOrderIds.removeFirst();
+            }
+        }
+
+        StripedStock enter() {
+            while (true) {
+                if (frozen) {
+                    synchronized (this) {
+                        while (frozen) {
+                            try {
+                                wait();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                throw new IllegalStateException("Interrupted waiting for stock update", e);
+                            }
+                        }
+                    }
+                }
+                inFlight.increment();
+                if (!frozen) {
+                    return stock;
+                }
+                exit();
+            }
+        }
+
+        void exit() {
+            inFlight.decrement();
+            if (frozen) {
+                synchronized (this) {
+                    notifyAll();
+                }
+            }
+        }
+
+        synchronized void freeze() {
+            frozen = true;
+            while (inFlight.sum() > 0) {
+                try {
+                    wait(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    frozen = false;
+                    notifyAll();
+                    throw new IllegalStateException("Interrupted draining deductions", e);
+                }
+            }
+        }
+
+        synchronized void unfreeze() {
+            frozen = false;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Units held from a hot product for an order, not yet logged.
+     */
+    public static final class Hold {
+
+        private final String productId;
+        private final String orderId;
+        private final HotProduct product;
+        private final Reservation reservation;
+        private final DeductionResult result;
+
+        private Hold(String productId, String orderId, HotProduct product, Reservation reservation,
+                DeductionResult result) {
+            this.productId = productId;
+            this.orderId = orderId;
+            this.product = product;
+            this.reservation = reservation;
+            this.result = result;
+        }
+
+        public String productId() {
+            return productId;
+        }
+
+        public boolean isHeld() {
+            return reservation != null;
+        }
+
+        /**
+         * DEDUCTED with the quantity left when held, otherwise why nothing was.
+         */
+        public DeductionResult result() {
+            return result;
+        }
+    }
+
+    private record PendingDeduction(String productId, String orderId, HotProduct product, Reservation reservation,
+            CompletableFuture<DeductionResult> result) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.ecommerce.inventory.commandhandler.ledger;
+
+import com.ecommerce.inventory.application.ports.InventoryRepository;
+import com.ecommerce.inventory.infrastructure.persistence.InventoryRepositoryImpl;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Enables the in-memory ledger for the products listed in
+ * {@code inventory.hot-ledger.product-ids}, e.g. for a flash sale.
+ */
+@Configuration
+@ConditionalOnProperty(name = "inventory.hot-ledger.enabled", havingValue = "true")
+public class HotStockLedgerConfig {
+
+    @Bean
+    public HotStockLedger hotStockLedger(
+            MongoTemplate mongoTemplate,
+            @Value("${inventory.hot-ledger.product-ids:}") List<String> productIds,
+            @Value("${inventory.hot-ledger.stripes:16}") int stripes,
+            @Value("${inventory.hot-ledger.log-batch-size:500}") int logBatchSize,
+            @Value("${inventory.hot-ledger.flush-interval-ms:500}") long flushIntervalMillis,
+            @Value("${inventory.deductions.retention-days:30}") int retentionDays,
+            @Value("${inventory.hot-ledger.instance-id:}") String instanceId,
+            @Value("${inventory.hot-ledger.lease-ms:15000}") long leaseMillis) {
+        List<String> hot = productIds.stream().map(String::trim).filter(id -> !id.isEmpty()).toList();
+        String owner = instanceId.isBlank() ? UUID.randomUUID().toString() : instanceId;
+        return new HotStockLedger(mongoTemplate, hot, stripes, logBatchSize, flushIntervalMillis,
+                Duration.ofDays(retentionDays), owner, Duration.ofMillis(leaseMillis));
+    }
+
+    @Bean
+    public HotCommandRouter hotCommandRouter(HotStockLedger hotStockLedger, RabbitTemplate rabbitTemplate,
+            RabbitListenerEndpointRegistry rabbitListenerEndpointRegistry) {
+        return new HotCommandRouter(hotStockLedger, rabbitTemplate, rabbitListenerEndpointRegistry);
+    }
+
+    @Bean
+    @Primary
+    public InventoryRepository ledgerInventoryRepository(InventoryRepositoryImpl inventoryRepositoryImpl,
+            HotStockLedger hotStockLedger) {
+        return new LedgerInventoryRepository(inventoryRepositoryImpl, hotStockLedger);
+    }
+}
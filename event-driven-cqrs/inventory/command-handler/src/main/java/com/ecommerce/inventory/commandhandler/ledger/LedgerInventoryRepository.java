@@ -0,0 +1,252 @@
+package com.ecommerce.inventory.commandhandler.ledger;
+
+import com.ecommerce.inventory.application.ports.DeductionResult;
+import com.ecommerce.inventory.application.ports.InventoryRepository;
+import com.ecommerce.inventory.application.ports.QuantityChange;
+import com.ecommerce.inventory.application.ports.QuantitySetResult;
+import com.ecommerce.inventory.application.reservations.StockReservation;
+import com.ecommerce.inventory.domain.aggregates.InventoryItem;
+import com.ecommerce.inventory.domain.valueobjects.ProductId;
+import com.ecommerce.inventory.domain.valueobjects.Quantity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Routes hot products to the {@link HotStockLedger} and everything else to
+ * the Mongo repository, so the command handlers need not know which
+ * products are hot. On an instance that does not own the ledger, reads of
+ * hot products fall back to their stored documents and writes to them fail
+ * with {@link LedgerNotOwnedException}.
+ */
+public class LedgerInventoryRepository implements InventoryRepository {
+
+    private final InventoryRepository delegate;
+    private final HotStockLedger ledger;
+
+    public LedgerInventoryRepository(InventoryRepository delegate, HotStockLedger ledger) {
+        this.delegate = delegate;
+        this.ledger = ledger;
+    }
+
+    private boolean served(String productId) {
+        return ledger.isHot(productId) && ledger.isOwner();
+    }
+
+    @Override
+    public CompletableFuture<Optional<InventoryItem>> findById(ProductId id) {
+        if (!served(id.getValue())) {
+            return delegate.findById(id);
+        }
+        InventoryItem item = InventoryItem.reconstitute(id, Quantity.of((int) ledger.available(id.getValue())), 0);
+        return CompletableFuture.completedFuture(Optional.of(item));
+    }
+
+    /**
+     * For a hot product the only change a save can carry is an absolute
+     * stock set, which replaces the ledger's counter.
+     */
+    @Override
+    public CompletableFuture<InventoryItem> save(InventoryItem inventoryItem) {
+        String productId = inventoryItem.getId().getValue();
+        if (!ledger.isHot(productId)) {
+            return delegate.save(inventoryItem);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            ledger.setStock(productId, inventoryItem.getQuantity().getValue());
+            return inventoryItem;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Boolean> exists(ProductId id) {
+        return served(id.getValue()) ? CompletableFuture.completedFuture(true) : delegate.exists(id);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Integer>> findQuantities(Collection<ProductId> ids) {
+        List<ProductId> cold = ids.stream().filter(id -> !served(id.getValue())).toList();
+        CompletableFuture<Map<String, Integer>> stored = cold.isEmpty()
+                ? CompletableFuture.completedFuture(Map.of())
+                : delegate.findQuantities(cold);
+        return stored.thenApply(quantities -> {
+            Map<String, Integer> all = new HashMap<>(quantities);
+            ids.stream()
+                    .filter(id -> served(id.getValue()))
+                    .forEach(id -> all.put(id.getValue(), (int) ledger.available(id.getValue())));
+            return all;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> forEachQuantity(ObjIntConsumer<String> action) {
+        // Stored quantities of hot products trail the ledger by up to one flush
+        return delegate.forEachQuantity((productId, qty) ->
+                action.accept(productId, served(productId) ? (int) ledger.available(productId) : qty));
+    }
+
+    /**
+     * A hot product counts as having no record at zero stock, as the ledger
+     * cannot tell the two apart.
+     */
+    @Override
+    public CompletableFuture<QuantitySetResult> setQuantities(List<QuantityChange> changes) {
+        List<QuantityChange> cold = new ArrayList<>();
+        List<QuantityChange> hot = new ArrayList<>();
+        changes.forEach(change -> (ledger.isHot(change.productId()) ? hot : cold).add(change));
+        return delegate.setQuantities(cold)
+                .thenApplyAsync(stored -> {
+                    Map<String, Integer> available = new HashMap<>(stored.available());
+                    Map<String, Integer> moved = new HashMap<>(stored.moved());
+                    // The ledger keeps no holds, so what is set is what is available
+                    for (QuantityChange change : hot) {
+                        if (ledger.setStockIf(change.productId(), change.oldQty(), change.newQty())) {
+                            available.put(change.productId(), change.newQty());
+                        } else {
+                            moved.put(change.productId(), (int) ledger.available(change.productId()));
+                        }
+                    }
+                    return new QuantitySetResult(available, moved);
+                });
+    }
+
+    @Override
+    public CompletableFuture<DeductionResult> tryDeduct(ProductId id, String orderId, int qty) {
+        if (!ledger.isHot(id.getValue())) {
+            return delegate.tryDeduct(id, orderId, qty);
+        }
+        try {
+            return ledger.tryDeduct(id.getValue(), orderId, qty);
+        } catch (LedgerNotOwnedException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    /**
+     * Orders without hot products go to the bulk path. Otherwise the hot
+     * items are held in the ledger first, the cold items are deducted with
+     * the bulk path, and only then are the holds logged, so that either
+     * every item is deducted or none is. A rejected cold item cancels the
+     * holds; a log write that fails gives the cold items back.
+     */
+    @Override
+    public CompletableFuture<Map<String, DeductionResult>> tryDeductAll(String orderId,
+            Map<String, Integer> qtyByProduct) {
+        if (qtyByProduct.keySet().stream().noneMatch(ledger::isHot)) {
+            return delegate.tryDeductAll(orderId, qtyByProduct);
+        }
+
+        Map<String, Integer> cold = new LinkedHashMap<>();
+        List<HotStockLedger.Hold> holds = new ArrayList<>();
+        Map<String, DeductionResult> results = new LinkedHashMap<>();
+        Map<String, DeductionResult> rejected = new LinkedHashMap<>();
+        try {
+            qtyByProduct.forEach((productId, qty) -> {
+                if (!ledger.isHot(productId)) {
+                    cold.put(productId, qty);
+                    return;
+                }
+                HotStockLedger.Hold hold = ledger.hold(productId, orderId, qty);
+                if (hold.isHeld()) {
+                    holds.add(hold);
+                } else if (hold.result().status() == DeductionResult.Status.DUPLICATE) {
+                    results.put(productId, hold.result());
+                } else {
+                    rejected.put(productId, hold.result());
+                }
+            });
+        } catch (LedgerNotOwnedException ex) {
+            holds.forEach(ledger::cancel);
+            return CompletableFuture.failedFuture(ex);
+        }
+        if (!rejected.isEmpty()) {
+            holds.forEach(ledger::cancel);
+            return CompletableFuture.completedFuture(rejected);
+        }
+
+        CompletableFuture<Map<String, DeductionResult>> coldDeduction = cold.isEmpty()
+                ? CompletableFuture.completedFuture(Map.of())
+                : delegate.tryDeductAll(orderId, cold);
+        return coldDeduction
+                .whenComplete((coldResults, ex) -> {
+                    if (ex != null || !allApplied(cold.keySet(), coldResults)) {
+                        holds.forEach(ledger::cancel);
+                    }
+                })
+                .thenCompose(coldResults -> {
+                    if (!allApplied(cold.keySet(), coldResults)) {
+                        return CompletableFuture.completedFuture(coldResults);
+                    }
+                    results.putAll(coldResults);
+                    if (holds.isEmpty()) {
+                        return CompletableFuture.completedFuture(results);
+                    }
+                    return ledger.log(holds)
+                            .handle((hotResults, ex) -> {
+                                if (ex == null) {
+                                    results.putAll(hotResults);
+                                    return CompletableFuture.completedFuture(results);
+                                }
+                                List<String> deducted = coldResults.entrySet().stream()
+                                        .filter(entry -> entry.getValue().isDeducted())
+                                        .map(Map.Entry::getKey)
+                                        .toList();
+                                return delegate.returnDeducted(orderId, deducted)
+                                        .thenCompose(ignored ->
+                                                CompletableFuture.<Map<String, DeductionResult>>failedFuture(ex));
+                            })
+                            .thenCompose(Function.identity());
+                });
+    }
+
+    private static boolean allApplied(Collection<String> productIds, Map<String, DeductionResult> results) {
+        return productIds.stream().allMatch(productId -> {
+            DeductionResult result = results.get(productId);
+            return result != null && (result.isDeducted() || result.status() == DeductionResult.Status.DUPLICATE);
+        });
+    }
+
+    /**
+     * Hot products are only ever deducted together with their log entry,
+     * which cannot be taken back here; only cold products are returned.
+     */
+    @Override
+    public CompletableFuture<Map<String, Integer>> returnDeducted(String orderId, Collection<String> productIds) {
+        return delegate.returnDeducted(orderId,
+                productIds.stream().filter(productId -> !ledger.isHot(productId)).toList());
+    }
+
+    /**
+     * Hot products sell by direct deduction only; the ledger keeps no holds,
+     * so a hold on one is rejected as unsupported.
+     */
+    @Override
+    public CompletableFuture<DeductionResult> tryReserve(StockReservation hold) {
+        if (ledger.isHot(hold.productId())) {
+            if (!ledger.isOwner()) {
+                return CompletableFuture.failedFuture(new LedgerNotOwnedException(hold.productId()));
+            }
+            int available = (int) ledger.available(hold.productId());
+            return CompletableFuture.completedFuture(DeductionResult.unsupported(available));
+        }
+        return delegate.tryReserve(hold);
+    }
+
+    @Override
+    public CompletableFuture<DeductionResult> confirmReserved(StockReservation hold) {
+        return delegate.confirmReserved(hold);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Integer>> releaseHolds(List<StockReservation> holds) {
+        return delegate.releaseHolds(holds);
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.inventory.commandhandler.ledger;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * The right to run the hot stock ledger. One instance holds it at a time
+ * and renews it well before {@code expiresAt}; another may take it over
+ * once it has expired.
+ */
+@Document(collection = "inventory_ledger_lease")
+public class LedgerLeaseDocument {
+
+    @Id
+    private String id;
+    private String owner;
+    private Instant expiresAt;
+
+    public LedgerLeaseDocument() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
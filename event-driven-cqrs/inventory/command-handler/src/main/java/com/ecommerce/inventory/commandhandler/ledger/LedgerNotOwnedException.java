@@ -0,0 +1,12 @@
+package com.ecommerce.inventory.commandhandler.ledger;
+
+/**
+ * Thrown when a hot product is written on an instance that does not hold
+ * the ledger lease; the command belongs to the instance that does.
+ */
+public class LedgerNotOwnedException extends IllegalStateException {
+
+    public LedgerNotOwnedException(String productId) {
+        super("Hot product " + productId + " is owned by another ledger instance");
+    }
+}
@@ -0,0 +1,125 @@
+package com.ecommerce.inventory.commandhandler.ledger;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Stock of one hot product split across independent stripes, in the spirit
+ * of LongAdder: each thread decrements its home stripe with a CAS and only
+ * touches others when its own runs short, so concurrent deductions rarely
+ * contend on the same cache line. Unlike a LongAdder, a stripe never goes
+ * below zero.
+ *
+ * A counter is one generation of a product's stock: an absolute stock set
+ * replaces it with a new one.
+ */
+final class StripedStock {
+
+    // Longs per stripe: keeps each stripe on its own 64-byte cache line
+    private static final int PAD = 8;
+
+    private final AtomicLongArray cells;
+    private final int stripes;
+    private final long baseQty;
+
+    // Units whose deduction log entry is durable; guarded by the ledger's commit lock
+    private long committed;
+
+    StripedStock(long qty, int stripes) {
+        this.stripes = stripes;
+        this.baseQty = qty;
+        this.cells = new AtomicLongArray(stripes * PAD);
+        long share = qty / stripes;
+        long remainder = qty % stripes;
+        for (int i = 0; i < stripes; i++) {
+            cells.set(i * PAD, share + (i < remainder ? 1 : 0));
+        }
+    }
+
+    /**
+     * Takes {@code qty} units, starting at the calling thread's home stripe.
+     *
+     * @return the reservation, or null if there is not enough stock left
+     */
+    Reservation reserve(int qty) {
+        int home = (int) (mix(Thread.currentThread().threadId()) % stripes);
+        long[] taken = null;
+        long needed = qty;
+
+        for (int i = 0; i < stripes && needed > 0; i++) {
+            int stripe = (home + i) % stripes;
+            int index = stripe * PAD;
+            while (true) {
+                long current = cells.get(index);
+                if (current <= 0) {
+                    break;
+                }
+                long take = Math.min(current, needed);
+                if (cells.compareAndSet(index, current, current - take)) {
+                    if (taken == null) {
+                        taken = new long[stripes];
+                    }
+                    taken[stripe] += take;
+                    needed -= take;
+                    break;
+                }
+            }
+        }
+
+        if (needed > 0) {
+            if (taken != null) {
+                giveBack(taken);
+            }
+            return null;
+        }
+        return new Reservation(this, qty, taken);
+    }
+
+    /**
+     * Returns the units of a reservation whose log entry could not be written.
+     */
+    void release(Reservation reservation) {
+        giveBack(reservation.taken());
+    }
+
+    /**
+     * Units currently available; a moving target while deductions run.
+     */
+    long available() {
+        long sum = 0;
+        for (int i = 0; i < stripes; i++) {
+            sum += cells.get(i * PAD);
+        }
+        return sum;
+    }
+
+    void commit(int qty) {
+        committed += qty;
+    }
+
+    /**
+     * Stock to persist: the starting quantity less every durable deduction.
+     * Reservations still waiting for their log entry are not subtracted.
+     */
+    long durableQty() {
+        return baseQty - committed;
+    }
+
+    private void giveBack(long[] taken) {
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            if (taken[stripe] > 0) {
+                cells.addAndGet(stripe * PAD, taken[stripe]);
+            }
+        }
+    }
+
+    private static long mix(long threadId) {
+        long h = threadId * 0x9E3779B97F4A7C15L;
+        return (h ^ (h >>> 32)) & Long.MAX_VALUE;
+    }
+
+    /**
+     * Units taken from a counter, held until the deduction is logged.
+     */
+    record Reservation(StripedStock stock, int qty, long[] taken) {
+    }
+}
@@ -0,0 +1,139 @@
+package com.ecommerce.inventory.commandhandler.reservations;
+
+import com.ecommerce.inventory.application.commands.ExpireStockReservationsCommand;
+import com.ecommerce.inventory.application.commands.SettleStockReservationsCommand;
+import com.ecommerce.inventory.application.handlers.ExpireStockReservationsCommandHandler;
+import com.ecommerce.inventory.application.handlers.SettleStockReservationsCommandHandler;
+import com.ecommerce.inventory.application.ports.ReservationRepository;
+import com.ecommerce.inventory.application.reservations.ReservationExpiryQueue;
+import com.ecommerce.inventory.application.reservations.StockReservation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Releases stock holds once they expire.
+ * <p>
+ * Due holds are taken from the in-memory {@link ReservationExpiryQueue} and
+ * expired in batches, so a sweep costs nothing while nothing is due. Holds
+ * taken by another instance, or by this one before a restart, are caught by
+ * a less frequent indexed query for active holds past their expiry. The
+ * same pass settles holds that were closed more than one recovery interval
+ * ago but whose stock counters were never updated, and releases holds
+ * recorded that long ago that are still pending.
+ */
+@Component
+public class ReservationExpirySweeper implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationExpirySweeper.class);
+
+    private final ReservationExpiryQueue expiryQueue;
+    private final ReservationRepository reservationRepository;
+    private final ExpireStockReservationsCommandHandler expireHandler;
+    private final SettleStockReservationsCommandHandler settleHandler;
+    private final long sweepIntervalMillis;
+    private final long recoveryIntervalMillis;
+    private final int batchSize;
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public ReservationExpirySweeper(ReservationExpiryQueue expiryQueue,
+            ReservationRepository reservationRepository,
+            ExpireStockReservationsCommandHandler expireHandler,
+            SettleStockReservationsCommandHandler settleHandler,
+            @Value("${inventory.reservations.sweep-interval-ms:1000}") long sweepIntervalMillis,
+            @Value("${inventory.reservations.recovery-interval-ms:60000}") long recoveryIntervalMillis,
+            @Value("${inventory.reservations.batch-size:500}") int batchSize) {
+        this.expiryQueue = expiryQueue;
+        this.reservationRepository = reservationRepository;
+        this.expireHandler = expireHandler;
+        this.settleHandler = settleHandler;
+        this.sweepIntervalMillis = sweepIntervalMillis;
+        this.recoveryIntervalMillis = recoveryIntervalMillis;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public synchronized void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "inventory-reservation-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        scheduler.scheduleWithFixedDelay(this::sweep, sweepIntervalMillis, sweepIntervalMillis,
+                TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::recover, 0, recoveryIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void sweep() {
+        try {
+            List<String> due;
+            while (!(due = expiryQueue.drainExpired(batchSize)).isEmpty()) {
+                expire(due);
+            }
+        } catch (Exception ex) {
+            logger.error("Reservation expiry sweep failed", ex);
+        }
+    }
+
+    /**
+     * Expires holds this instance does not track: those past their expiry
+     * that are still active, in batches until none are left.
+     */
+    private void recover() {
+        try {
+            List<StockReservation> due;
+            do {
+                due = reservationRepository.findActiveExpiringBefore(Instant.now(), batchSize).join();
+                if (!due.isEmpty()) {
+                    expire(due.stream().map(StockReservation::id).toList());
+                }
+            } while (due.size() == batchSize);
+        } catch (Exception ex) {
+            logger.error("Reservation expiry recovery failed", ex);
+        }
+        settleUnsettled();
+    }
+
+    private void settleUnsettled() {
+        try {
+            Instant closedBefore = Instant.now().minusMillis(recoveryIntervalMillis);
+            int settled;
+            do {
+                settled = settleHandler.handle(new SettleStockReservationsCommand(UUID.randomUUID().toString(),
+                        closedBefore, batchSize)).join();
+            } while (settled > 0);
+        } catch (Exception ex) {
+            logger.error("Settling closed stock reservations failed", ex);
+        }
+    }
+
+    private void expire(List<String> reservationIds) {
+        expireHandler.handle(new ExpireStockReservationsCommand(UUID.randomUUID().toString(), reservationIds))
+                .join();
+    }
+}
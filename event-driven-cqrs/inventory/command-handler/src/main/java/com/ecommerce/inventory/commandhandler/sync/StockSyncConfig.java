@@ -0,0 +1,27 @@
+package com.ecommerce.inventory.commandhandler.sync;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs warehouse stock sync jobs off the command listener threads, which
+ * only store the snapshot and move on.
+ */
+@Configuration
+public class StockSyncConfig {
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService stockSyncExecutor(@Value("${inventory.stock-sync.threads:1}") int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "stock-sync-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,128 @@
+package com.ecommerce.inventory.commandhandler.ledger;
+
+import com.ecommerce.shared.messaging.MessagingConstants;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for HotCommandRouter, against a mocked ledger and RabbitTemplate.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class HotCommandRouterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Message message = new Message(new byte[0], new MessageProperties());
+
+    @Mock
+    private HotStockLedger ledger;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private RabbitListenerEndpointRegistry listenerRegistry;
+
+    @Mock
+    private MessageListenerContainer hotListener;
+
+    private HotCommandRouter router;
+
+    @BeforeEach
+    void setUp() {
+        when(ledger.isHot("hot-1")).thenReturn(true);
+        when(listenerRegistry.getListenerContainer(HotCommandRouter.LISTENER_ID)).thenReturn(hotListener);
+        router = new HotCommandRouter(ledger, rabbitTemplate, listenerRegistry);
+    }
+
+    @Test
+    void forward_withoutTheLease_shouldSendHotOrderToTheOwner() throws Exception {
+        boolean forwarded = router.forward("DeductStockForOrderCommand",
+                json("{\"orderId\":\"order-1\",\"items\":{\"cold-1\":1,\"hot-1\":2}}"), message);
+
+        assertThat(forwarded).isTrue();
+        verify(rabbitTemplate).send("", MessagingConstants.INVENTORY_HOT_COMMANDS_QUEUE, message);
+    }
+
+    @Test
+    void forward_withItemsArray_shouldFindTheHotProduct() throws Exception {
+        boolean forwarded = router.forward("ReserveStockCommand",
+                json("{\"orderId\":\"order-1\",\"items\":[{\"productId\":\"hot-1\",\"qty\":2}]}"), message);
+
+        assertThat(forwarded).isTrue();
+    }
+
+    @Test
+    void forward_withColdProductsOnly_shouldHandleLocally() throws Exception {
+        boolean forwarded = router.forward("SetStockCommand", json("{\"productId\":\"cold-1\",\"newQty\":5}"), message);
+
+        assertThat(forwarded).isFalse();
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    @Test
+    void forward_asOwner_shouldHandleLocally() throws Exception {
+        when(ledger.isOwner()).thenReturn(true);
+
+        boolean forwarded = router.forward("SetStockCommand", json("{\"productId\":\"hot-1\",\"newQty\":5}"), message);
+
+        assertThat(forwarded).isFalse();
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    @Test
+    void forward_withReadOnlyCommand_shouldHandleLocally() throws Exception {
+        boolean forwarded = router.forward("ValidateStockBatchCommand",
+                json("{\"orderId\":\"order-1\",\"items\":{\"hot-1\":2}}"), message);
+
+        assertThat(forwarded).isFalse();
+    }
+
+    @Test
+    void forward_whenSendFails_shouldRequeue() throws Exception {
+        doThrow(new AmqpConnectException(new RuntimeException("down")))
+                .when(rabbitTemplate).send(anyString(), anyString(), any(Message.class));
+
+        assertThatThrownBy(() -> router.forward("SetStockCommand",
+                json("{\"productId\":\"hot-1\",\"newQty\":5}"), message))
+                .isInstanceOf(ImmediateRequeueAmqpException.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void ownershipChange_shouldStartAndStopTheHotListener() {
+        ArgumentCaptor<Consumer<Boolean>> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(ledger).onOwnershipChange(listener.capture());
+
+        listener.getValue().accept(true);
+        verify(hotListener).start();
+
+        listener.getValue().accept(false);
+        verify(hotListener).stop();
+    }
+
+    private JsonNode json(String body) throws Exception {
+        return objectMapper.readTree(body);
+    }
+}
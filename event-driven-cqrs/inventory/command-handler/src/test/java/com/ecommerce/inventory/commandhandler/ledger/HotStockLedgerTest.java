@@ -0,0 +1,298 @@
+package com.ecommerce.inventory.commandhandler.ledger;
+
+import com.ecommerce.inventory.application.ports.DeductionResult;
+import com.ecommerce.inventory.infrastructure.persistence.InventoryDocument;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for HotStockLedger, against a mocked MongoTemplate.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class HotStockLedgerTest {
+
+    private static final String PRODUCT_ID = "hot-1";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private IndexOperations indexOperations;
+
+    @Mock
+    private BulkOperations logInserts;
+
+    private HotStockLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.indexOps(DeductionLogDocument.class)).thenReturn(indexOperations);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DeductionLogDocument.class))
+                .thenReturn(logInserts);
+        when(logInserts.insert(anyList())).thenReturn(logInserts);
+        ledger = new HotStockLedger(mongoTemplate, List.of(PRODUCT_ID), 4, 100, 60_000, Duration.ofDays(30),
+                "instance-1", Duration.ofSeconds(30));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (ledger.isRunning()) {
+            ledger.stop();
+        }
+    }
+
+    @Test
+    void start_shouldRecoverPersistedQuantityLessUnflushedDeductions() {
+        givenDocument(50, 7L, List.of());
+        givenLogEntries(new DeductionLogDocument(8, PRODUCT_ID, "order-1", 3, Instant.now()),
+                new DeductionLogDocument(9, PRODUCT_ID, "order-2", 2, Instant.now()));
+
+        ledger.start();
+
+        assertThat(ledger.isHot(PRODUCT_ID)).isTrue();
+        assertThat(ledger.isHot("cold-1")).isFalse();
+        assertThat(ledger.available(PRODUCT_ID)).isEqualTo(45);
+    }
+
+    @Test
+    void tryDeduct_shouldCompleteOnceLogged() throws Exception {
+        givenDocument(10, null, List.of());
+        ledger.start();
+
+        DeductionResult result = ledger.tryDeduct(PRODUCT_ID, "order-1", 4).get(5, TimeUnit.SECONDS);
+
+        assertThat(result).isEqualTo(DeductionResult.deducted(6));
+        assertThat(ledger.available(PRODUCT_ID)).isEqualTo(6);
+        verify(logInserts).execute();
+    }
+
+    @Test
+    void tryDeduct_withInsufficientStock_shouldRejectWithoutLogging() throws Exception {
+        givenDocument(3, null, List.of());
+        ledger.start();
+
+        DeductionResult result = ledger.tryDeduct(PRODUCT_ID, "order-1", 4).get(5, TimeUnit.SECONDS);
+
+        assertThat(result).isEqualTo(DeductionResult.insufficient(3));
+        verify(logInserts, never()).execute();
+    }
+
+    @Test
+    void tryDeduct_withRedeliveredOrder_shouldReportDuplicate() throws Exception {
+        givenDocument(10, null, List.of());
+        ledger.start();
+        ledger.tryDeduct(PRODUCT_ID, "order-1", 4).get(5, TimeUnit.SECONDS);
+
+        DeductionResult result = ledger.tryDeduct(PRODUCT_ID, "order-1", 4).get(5, TimeUnit.SECONDS);
+
+        assertThat(result).isEqualTo(DeductionResult.duplicate(6));
+    }
+
+    @Test
+    void tryDeduct_withOrderRecoveredFromLogOrDocument_shouldReportDuplicate() throws Exception {
+        givenDocument(10, 1L, List.of("flushed-order"));
+        givenLogEntries(new DeductionLogDocument(2, PRODUCT_ID, "logged-order", 1, Instant.now()));
+        ledger.start();
+
+        assertThat(ledger.tryDeduct(PRODUCT_ID, "flushed-order", 1).get(5, TimeUnit.SECONDS).status())
+                .isEqualTo(DeductionResult.Status.DUPLICATE);
+        assertThat(ledger.tryDeduct(PRODUCT_ID, "logged-order", 1).get(5, TimeUnit.SECONDS).status())
+                .isEqualTo(DeductionResult.Status.DUPLICATE);
+    }
+
+    @Test
+    void tryDeduct_withOrderRefusedByLog_shouldGiveUnitsBackAndReportDuplicate() throws Exception {
+        givenDocument(10, null, List.of());
+        when(logInserts.execute()).thenThrow(refused(0, 11000));
+        ledger.start();
+
+        DeductionResult result = ledger.tryDeduct(PRODUCT_ID, "old-order", 4).get(5, TimeUnit.SECONDS);
+
+        assertThat(result).isEqualTo(DeductionResult.duplicate(10));
+        assertThat(ledger.available(PRODUCT_ID)).isEqualTo(10);
+    }
+
+    @Test
+    void tryDeduct_whenLogRefusesEntryForAnotherReason_shouldGiveUnitsBackAndFail() {
+        givenDocument(10, null, List.of());
+        when(logInserts.execute()).thenThrow(refused(0, 2));
+        ledger.start();
+
+        assertThatThrownBy(() -> ledger.tryDeduct(PRODUCT_ID, "order-1", 4).get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(ledger.available(PRODUCT_ID)).isEqualTo(10);
+    }
+
+    @Test
+    void setStock_shouldStampFlushedLogEntriesInsteadOfRemovingThem() {
+        givenDocument(10, null, List.of());
+        ledger.start();
+
+        ledger.setStock(PRODUCT_ID, 25);
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, atLeastOnce()).updateMulti(any(Query.class), update.capture(),
+                eq(DeductionLogDocument.class));
+        assertThat(update.getValue().getUpdateObject().get("$set", Document.class)).containsKey("flushedAt");
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(DeductionLogDocument.class));
+    }
+
+    @Test
+    void start_shouldEnsureTheUniqueOrderIndex() {
+        givenDocument(10, null, List.of());
+
+        ledger.start();
+
+        ArgumentCaptor<IndexDefinition> index = ArgumentCaptor.forClass(IndexDefinition.class);
+        verify(indexOperations, times(2)).ensureIndex(index.capture());
+        assertThat(index.getAllValues())
+                .anySatisfy(definition -> assertThat(definition.getIndexOptions().getBoolean("unique")).isTrue());
+    }
+
+    @Test
+    void tryDeduct_whenLogWriteFails_shouldGiveUnitsBackAndFail() {
+        givenDocument(10, null, List.of());
+        when(logInserts.execute()).thenThrow(new IllegalStateException("mongo down"));
+        ledger.start();
+
+        assertThatThrownBy(() -> ledger.tryDeduct(PRODUCT_ID, "order-1", 4).get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasRootCauseMessage("mongo down");
+        assertThat(ledger.available(PRODUCT_ID)).isEqualTo(10);
+    }
+
+    @Test
+    void setStock_shouldReplaceStockAndPersistIt() {
+        givenDocument(10, null, List.of());
+        ledger.start();
+
+        ledger.setStock(PRODUCT_ID, 25);
+
+        assertThat(ledger.available(PRODUCT_ID)).isEqualTo(25);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, atLeastOnce()).upsert(any(Query.class), update.capture(), eq(InventoryDocument.class));
+        assertThat(update.getAllValues())
+                .anySatisfy(u -> assertThat(u.getUpdateObject().get("$set", Document.class)
+                        .get("quantity")).isEqualTo(25L));
+    }
+
+    @Test
+    void setStockIf_whenStockMoved_shouldLeaveItAsIs() {
+        givenDocument(10, null, List.of());
+        ledger.start();
+
+        boolean applied = ledger.setStockIf(PRODUCT_ID, 9, 25);
+
+        assertThat(applied).isFalse();
+        assertThat(ledger.available(PRODUCT_ID)).isEqualTo(10);
+    }
+
+    @Test
+    void setStockIf_whenStockUnchanged_shouldReplaceIt() {
+        givenDocument(10, null, List.of());
+        ledger.start();
+
+        boolean applied = ledger.setStockIf(PRODUCT_ID, 10, 25);
+
+        assertThat(applied).isTrue();
+        assertThat(ledger.available(PRODUCT_ID)).isEqualTo(25);
+    }
+
+    @Test
+    void start_whenLeaseHeldElsewhere_shouldStayOnStandbyAndRefuseHotProducts() {
+        givenDocument(10, null, List.of());
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(LedgerLeaseDocument.class)))
+                .thenThrow(new DuplicateKeyException("lease held"));
+
+        ledger.start();
+
+        assertThat(ledger.isOwner()).isFalse();
+        assertThat(ledger.isHot(PRODUCT_ID)).isTrue();
+        assertThatThrownBy(() -> ledger.available(PRODUCT_ID)).isInstanceOf(LedgerNotOwnedException.class);
+        assertThatThrownBy(() -> ledger.hold(PRODUCT_ID, "order-1", 1))
+                .isInstanceOf(LedgerNotOwnedException.class);
+        verify(mongoTemplate, never()).findById(PRODUCT_ID, InventoryDocument.class);
+    }
+
+    @Test
+    void start_withLease_shouldServeAndNotifyOwnership() {
+        givenDocument(10, null, List.of());
+        List<Boolean> changes = new ArrayList<>();
+        ledger.onOwnershipChange(changes::add);
+
+        ledger.start();
+
+        assertThat(ledger.isOwner()).isTrue();
+        assertThat(changes).containsExactly(true);
+    }
+
+    @Test
+    void stop_shouldFlushAndReleaseTheLease() {
+        givenDocument(10, null, List.of());
+        List<Boolean> changes = new ArrayList<>();
+        ledger.onOwnershipChange(changes::add);
+        ledger.start();
+
+        ledger.stop();
+
+        assertThat(ledger.isOwner()).isFalse();
+        assertThat(changes).containsExactly(true, false);
+        verify(mongoTemplate).remove(any(Query.class), eq(LedgerLeaseDocument.class));
+    }
+
+    private void givenDocument(int quantity, Long ledgerSeq, List<String> recentOrderIds) {
+        InventoryDocument doc = new InventoryDocument();
+        doc.setProductId(PRODUCT_ID);
+        doc.setQuantity(quantity);
+        doc.setLedgerSeq(ledgerSeq);
+        doc.setRecentOrderIds(recentOrderIds);
+        when(mongoTemplate.findById(PRODUCT_ID, InventoryDocument.class)).thenReturn(doc);
+    }
+
+    private static BulkOperationException refused(int index, int code) {
+        BulkWriteError error = new BulkWriteError(code, "refused", new BsonDocument(), index);
+        MongoBulkWriteException cause = new MongoBulkWriteException(
+                BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of()), List.of(error), null,
+                new ServerAddress(), Set.of());
+        return new BulkOperationException("refused", cause);
+    }
+
+    private void givenLogEntries(DeductionLogDocument... entries) {
+        when(mongoTemplate.find(any(Query.class), eq(DeductionLogDocument.class))).thenReturn(List.of(entries));
+    }
+}
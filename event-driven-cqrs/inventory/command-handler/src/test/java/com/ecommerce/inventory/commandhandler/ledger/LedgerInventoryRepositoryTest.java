@@ -0,0 +1,190 @@
+package com.ecommerce.inventory.commandhandler.ledger;
+
+import com.ecommerce.inventory.application.ports.DeductionResult;
+import com.ecommerce.inventory.application.ports.InventoryRepository;
+import com.ecommerce.inventory.domain.aggregates.InventoryItem;
+import com.ecommerce.inventory.domain.valueobjects.ProductId;
+import com.ecommerce.inventory.domain.valueobjects.Quantity;
+import com.ecommerce.inventory.infrastructure.persistence.InventoryDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for LedgerInventoryRepository, with a ledger over a mocked
+ * MongoTemplate and a mocked cold repository.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class LedgerInventoryRepositoryTest {
+
+    private static final String HOT_ID = "hot-1";
+    private static final String COLD_ID = "cold-1";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private IndexOperations indexOperations;
+
+    @Mock
+    private BulkOperations logInserts;
+
+    @Mock
+    private InventoryRepository delegate;
+
+    private HotStockLedger ledger;
+    private LedgerInventoryRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.indexOps(DeductionLogDocument.class)).thenReturn(indexOperations);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DeductionLogDocument.class))
+                .thenReturn(logInserts);
+        when(logInserts.insert(anyList())).thenReturn(logInserts);
+        InventoryDocument doc = new InventoryDocument();
+        doc.setProductId(HOT_ID);
+        doc.setQuantity(10);
+        when(mongoTemplate.findById(HOT_ID, InventoryDocument.class)).thenReturn(doc);
+
+        ledger = new HotStockLedger(mongoTemplate, List.of(HOT_ID), 4, 100, 60_000, Duration.ofDays(30),
+                "instance-1", Duration.ofSeconds(30));
+        ledger.start();
+        repository = new LedgerInventoryRepository(delegate, ledger);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ledger.stop();
+    }
+
+    @Test
+    void tryDeductAll_withoutHotProducts_shouldUseTheBulkPath() {
+        Map<String, DeductionResult> deducted = Map.of(COLD_ID, DeductionResult.deducted(3));
+        when(delegate.tryDeductAll("order-1", Map.of(COLD_ID, 2)))
+                .thenReturn(CompletableFuture.completedFuture(deducted));
+
+        assertThat(repository.tryDeductAll("order-1", Map.of(COLD_ID, 2)).join()).isEqualTo(deducted);
+    }
+
+    @Test
+    void tryDeductAll_mixedOrder_shouldDeductColdThenLogHot() throws Exception {
+        when(delegate.tryDeductAll("order-1", Map.of(COLD_ID, 2)))
+                .thenReturn(CompletableFuture.completedFuture(Map.of(COLD_ID, DeductionResult.deducted(3))));
+
+        Map<String, DeductionResult> results = repository.tryDeductAll("order-1", items(4, 2))
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(results).containsOnly(
+                entry(HOT_ID, DeductionResult.deducted(6)),
+                entry(COLD_ID, DeductionResult.deducted(3)));
+        assertThat(ledger.available(HOT_ID)).isEqualTo(6);
+        verify(logInserts).execute();
+    }
+
+    @Test
+    void tryDeductAll_mixedOrderWithColdItemShort_shouldGiveTheHotUnitsBack() throws Exception {
+        Map<String, DeductionResult> rejected = Map.of(COLD_ID, DeductionResult.insufficient(1));
+        when(delegate.tryDeductAll("order-1", Map.of(COLD_ID, 2)))
+                .thenReturn(CompletableFuture.completedFuture(rejected));
+
+        Map<String, DeductionResult> results = repository.tryDeductAll("order-1", items(4, 2))
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(results).isEqualTo(rejected);
+        assertThat(ledger.available(HOT_ID)).isEqualTo(10);
+        verify(logInserts, never()).execute();
+        // The order was not taken, so it may still be deducted
+        assertThat(ledger.tryDeduct(HOT_ID, "order-1", 1).get(5, TimeUnit.SECONDS).isDeducted()).isTrue();
+    }
+
+    @Test
+    void tryDeductAll_mixedOrderWithHotItemShort_shouldNotTouchColdItems() {
+        Map<String, DeductionResult> results = repository.tryDeductAll("order-1", items(11, 2)).join();
+
+        assertThat(results).containsOnly(entry(HOT_ID, DeductionResult.insufficient(10)));
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    void tryDeductAll_mixedOrderWhenColdWriteFails_shouldGiveTheHotUnitsBack() {
+        when(delegate.tryDeductAll("order-1", Map.of(COLD_ID, 2)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("mongo down")));
+
+        assertThatThrownBy(() -> repository.tryDeductAll("order-1", items(4, 2)).get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class);
+        assertThat(ledger.available(HOT_ID)).isEqualTo(10);
+    }
+
+    @Test
+    void tryDeductAll_mixedOrderWhenLogWriteFails_shouldReturnTheColdItems() {
+        when(delegate.tryDeductAll("order-1", Map.of(COLD_ID, 2)))
+                .thenReturn(CompletableFuture.completedFuture(Map.of(COLD_ID, DeductionResult.deducted(3))));
+        when(delegate.returnDeducted("order-1", List.of(COLD_ID)))
+                .thenReturn(CompletableFuture.completedFuture(Map.of(COLD_ID, 5)));
+        when(logInserts.execute()).thenThrow(new IllegalStateException("mongo down"));
+
+        assertThatThrownBy(() -> repository.tryDeductAll("order-1", items(4, 2)).get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasRootCauseMessage("mongo down");
+        verify(delegate).returnDeducted("order-1", List.of(COLD_ID));
+        assertThat(ledger.available(HOT_ID)).isEqualTo(10);
+    }
+
+    @Test
+    void returnDeducted_shouldOnlyReturnColdProducts() {
+        when(delegate.returnDeducted(eq("order-1"), anyCollection()))
+                .thenReturn(CompletableFuture.completedFuture(Map.of()));
+
+        repository.returnDeducted("order-1", List.of(HOT_ID, COLD_ID)).join();
+
+        verify(delegate).returnDeducted("order-1", List.of(COLD_ID));
+    }
+
+    @Test
+    void findById_withoutTheLease_shouldReadTheStoredDocument() {
+        ledger.stop();
+        Optional<InventoryItem> stored =
+                Optional.of(InventoryItem.reconstitute(ProductId.of(HOT_ID), Quantity.of(7), 0));
+        when(delegate.findById(ProductId.of(HOT_ID))).thenReturn(CompletableFuture.completedFuture(stored));
+
+        assertThat(repository.findById(ProductId.of(HOT_ID)).join()).isEqualTo(stored);
+    }
+
+    @Test
+    void tryDeductAll_withoutTheLease_shouldFailWithoutTouchingColdItems() {
+        ledger.stop();
+
+        assertThatThrownBy(() -> repository.tryDeductAll("order-1", items(4, 2)).join())
+                .hasCauseInstanceOf(LedgerNotOwnedException.class);
+        verify(delegate, never()).tryDeductAll(anyString(), anyMap());
+    }
+
+    private static Map<String, Integer> items(int hotQty, int coldQty) {
+        Map<String, Integer> items = new LinkedHashMap<>();
+        items.put(HOT_ID, hotQty);
+        items.put(COLD_ID, coldQty);
+        return items;
+    }
+}
@@ -0,0 +1,109 @@
+package com.ecommerce.inventory.commandhandler.ledger;
+
+import com.ecommerce.inventory.commandhandler.ledger.StripedStock.Reservation;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for StripedStock.
+ */
+class StripedStockTest {
+
+    @Test
+    void create_shouldSpreadQuantityAcrossStripes() {
+        StripedStock stock = new StripedStock(10, 4);
+
+        assertThat(stock.available()).isEqualTo(10);
+        assertThat(stock.durableQty()).isEqualTo(10);
+    }
+
+    @Test
+    void reserve_shouldTakeUnits() {
+        StripedStock stock = new StripedStock(10, 4);
+
+        Reservation reservation = stock.reserve(3);
+
+        assertThat(reservation).isNotNull();
+        assertThat(reservation.qty()).isEqualTo(3);
+        assertThat(reservation.stock()).isSameAs(stock);
+        assertThat(stock.available()).isEqualTo(7);
+    }
+
+    @Test
+    void reserve_shouldTakeFromOtherStripesWhenHomeRunsShort() {
+        StripedStock stock = new StripedStock(10, 4);
+
+        Reservation reservation = stock.reserve(10);
+
+        assertThat(reservation).isNotNull();
+        assertThat(stock.available()).isZero();
+    }
+
+    @Test
+    void reserve_withInsufficientStock_shouldReturnNullAndLeaveStockUntouched() {
+        StripedStock stock = new StripedStock(5, 4);
+
+        Reservation reservation = stock.reserve(6);
+
+        assertThat(reservation).isNull();
+        assertThat(stock.available()).isEqualTo(5);
+    }
+
+    @Test
+    void release_shouldGiveUnitsBack() {
+        StripedStock stock = new StripedStock(10, 4);
+        Reservation reservation = stock.reserve(4);
+
+        stock.release(reservation);
+
+        assertThat(stock.available()).isEqualTo(10);
+    }
+
+    @Test
+    void durableQty_shouldSubtractCommittedUnitsOnly() {
+        StripedStock stock = new StripedStock(10, 4);
+        Reservation committed = stock.reserve(3);
+        stock.reserve(2);
+
+        stock.commit(committed.qty());
+
+        assertThat(stock.durableQty()).isEqualTo(7);
+        assertThat(stock.available()).isEqualTo(5);
+    }
+
+    @Test
+    void reserve_concurrently_shouldNeverOversell() throws Exception {
+        StripedStock stock = new StripedStock(1000, 8);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> workers = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                workers.add(executor.submit(() -> {
+                    int taken = 0;
+                    while (stock.reserve(1) != null) {
+                        taken++;
+                    }
+                    return taken;
+                }));
+            }
+
+            int total = 0;
+            for (Future<Integer> worker : workers) {
+                total += worker.get(10, TimeUnit.SECONDS);
+            }
+
+            assertThat(total).isEqualTo(1000);
+            assertThat(stock.available()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -4,14 +4,30 @@ import com.ecommerce.inventory.domain.events.*;
 import com.ecommerce.inventory.domain.valueobjects.*;
 import com.ecommerce.shared.common.domain.AggregateRoot;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * InventoryItem aggregate root.
  * Manages stock quantity for a specific product.
  */
 public class InventoryItem extends AggregateRoot<ProductId> {
 
+    /**
+     * Orders remembered per item for de-duplicating deductions. A redelivery
+     * is recognised from the item alone as long as fewer than this many other
+     * orders have deducted the same product since; repositories back the
+     * window with a durable per-order record for older ones.
+     */
+    public static final int RECENT_ORDERS_LIMIT = 100;
+
     private ProductId id;
     private Quantity quantity;
+    // Units held by active reservations; on hand but not available
+    private Quantity reserved;
+    // Orders already deducted, oldest first, at most RECENT_ORDERS_LIMIT
+    private List<String> recentOrderIds;
     private int version;
     private boolean isNew = false;
 
@@ -30,6 +46,8 @@ public class InventoryItem extends AggregateRoot<ProductId> {
         InventoryItem item = new InventoryItem();
         item.id = productId;
         item.quantity = Quantity.of(0);
+        item.reserved = Quantity.of(0);
+        item.recentOrderIds = new ArrayList<>();
         item.version = 0;
         item.isNew = true;
         return item;
@@ -39,9 +57,27 @@ public class InventoryItem extends AggregateRoot<ProductId> {
      * Reconstitute from persistence.
      */
     public static InventoryItem reconstitute(ProductId id, Quantity quantity, int version) {
+        return reconstitute(id, quantity, Quantity.of(0), version);
+    }
+
+    /**
+     * Reconstitute from persistence, including units held by reservations.
+     */
+    public static InventoryItem reconstitute(ProductId id, Quantity quantity, Quantity reserved, int version) {
+        return reconstitute(id, quantity, reserved, List.of(), version);
+    }
+
+    /**
+     * Reconstitute from persistence, including holds and the orders recently
+     * deducted.
+     */
+    public static InventoryItem reconstitute(ProductId id, Quantity quantity, Quantity reserved,
+            List<String> recentOrderIds, int version) {
         InventoryItem item = new InventoryItem();
         item.id = id;
         item.quantity = quantity;
+        item.reserved = reserved;
+        item.recentOrderIds = new ArrayList<>(recentOrderIds);
         item.version = version;
         item.isNew = false;
         return item;
@@ -58,6 +94,7 @@ public class InventoryItem extends AggregateRoot<ProductId> {
                 id.getValue(),
                 oldQ,
                 newQty.getValue(),
+                getAvailable().getValue(),
                 reason != null ? reason.getValue() : null));
     }
 
@@ -66,35 +103,29 @@ public class InventoryItem extends AggregateRoot<ProductId> {
      * Checks availability and deducts if sufficient.
      * If insufficient, raises StockDeductionRejected (or throws exception -
      * requirement says event).
+     * An order already deducted from this item is ignored, so a redelivered
+     * command cannot double-apply.
      */
     public void deductForOrder(String orderId, Quantity deductQty) {
-        if (!quantity.isGreaterThanOrEqual(deductQty)) {
+        if (recentOrderIds.contains(orderId)) {
+            return;
+        }
+        if (getAvailable().getValue() < deductQty.getValue()) {
             raiseEvent(new StockDeductionRejected(
                     orderId,
                     id.getValue(),
                     deductQty.getValue(),
-                    quantity.getValue(),
+                    getAvailable().getValue(),
                     "Insufficient stock"));
             return;
         }
 
-        // Idempotency check?
-        // Aggregate interaction usually doesn't track specific order IDs unless we
-        // store processed orders.
-        // For MVP, we assume the Application Layer or Idempotency on Command ID handles
-        // duplications.
-        // However, "DeductForOrder... atomic + idempotent per order".
-        // To be truly idempotent per order inside aggregate, we'd need to store
-        // "processedOrderIds".
-        // Requirement MVP: "Idempotency: same (orderId, productId) deduction cannot
-        // double-apply".
-        // This suggests we SHOULD track it. Or rely on Command ID idempotency if
-        // CommandID ~= OrderID+ProductId.
-        // I'll stick to basic deduction logic here and rely on Command
-        // Handler/Infrastructure for deduplication.
-
         int oldQ = this.quantity.getValue();
         this.quantity = this.quantity.subtract(deductQty);
+        recentOrderIds.add(orderId);
+        if (recentOrderIds.size() > RECENT_ORDERS_LIMIT) {
+            recentOrderIds.remove(0);
+        }
 
         raiseEvent(new StockDeductedForOrder(
                 orderId,
@@ -123,6 +154,22 @@ public class InventoryItem extends AggregateRoot<ProductId> {
         return quantity;
     }
 
+    public Quantity getReserved() {
+        return reserved;
+    }
+
+    public List<String> getRecentOrderIds() {
+        return Collections.unmodifiableList(recentOrderIds);
+    }
+
+    /**
+     * On-hand quantity less active holds; never negative, even if stock was
+     * set below what is currently held.
+     */
+    public Quantity getAvailable() {
+        return Quantity.of(Math.max(quantity.getValue() - reserved.getValue(), 0));
+    }
+
     public boolean isNew() {
         return isNew;
     }
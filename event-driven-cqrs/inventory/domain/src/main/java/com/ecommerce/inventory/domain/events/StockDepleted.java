@@ -0,0 +1,53 @@
+package com.ecommerce.inventory.domain.events;
+
+import com.ecommerce.shared.common.domain.DomainEvent;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public class StockDepleted implements DomainEvent {
+    private final UUID eventId;
+    private final String productId;
+    private final int previousQty;
+    private final Instant occurredAt;
+
+    public StockDepleted(String productId, int previousQty) {
+        this.eventId = UUID.randomUUID();
+        this.productId = productId;
+        this.previousQty = previousQty;
+        this.occurredAt = Instant.now();
+    }
+
+    @Override
+    public UUID getEventId() {
+        return eventId;
+    }
+
+    @Override
+    public String getAggregateId() {
+        return productId;
+    }
+
+    @Override
+    public String getAggregateType() {
+        return "InventoryItem";
+    }
+
+    @Override
+    public String getEventType() {
+        return "StockDepleted";
+    }
+
+    @Override
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public int getPreviousQty() {
+        return previousQty;
+    }
+}
@@ -0,0 +1,59 @@
+package com.ecommerce.inventory.domain.events;
+
+import com.ecommerce.shared.common.domain.DomainEvent;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public class StockLow implements DomainEvent {
+    private final UUID eventId;
+    private final String productId;
+    private final int availableQty;
+    private final int threshold;
+    private final Instant occurredAt;
+
+    public StockLow(String productId, int availableQty, int threshold) {
+        this.eventId = UUID.randomUUID();
+        this.productId = productId;
+        this.availableQty = availableQty;
+        this.threshold = threshold;
+        this.occurredAt = Instant.now();
+    }
+
+    @Override
+    public UUID getEventId() {
+        return eventId;
+    }
+
+    @Override
+    public String getAggregateId() {
+        return productId;
+    }
+
+    @Override
+    public String getAggregateType() {
+        return "InventoryItem";
+    }
+
+    @Override
+    public String getEventType() {
+        return "StockLow";
+    }
+
+    @Override
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public int getAvailableQty() {
+        return availableQty;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+}
@@ -0,0 +1,77 @@
+package com.ecommerce.inventory.domain.events;
+
+import com.ecommerce.shared.common.domain.DomainEvent;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public class StockReservationReleased implements DomainEvent {
+    private final UUID eventId;
+    private final String reservationId;
+    private final String orderId;
+    private final String productId;
+    private final int qty;
+    private final int availableQty;
+    private final String reason;
+    private final Instant occurredAt;
+
+    public StockReservationReleased(String reservationId, String orderId, String productId, int qty, int availableQty, String reason) {
+        this.eventId = UUID.randomUUID();
+        this.reservationId = reservationId;
+        this.orderId = orderId;
+        this.productId = productId;
+        this.qty = qty;
+        this.availableQty = availableQty;
+        this.reason = reason;
+        this.occurredAt = Instant.now();
+    }
+
+    @Override
+    public UUID getEventId() {
+        return eventId;
+    }
+
+    @Override
+    public String getAggregateId() {
+        return productId;
+    }
+
+    @Override
+    public String getAggregateType() {
+        return "InventoryItem";
+    }
+
+    @Override
+    public String getEventType() {
+        return "StockReservationReleased";
+    }
+
+    @Override
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    public String getReservationId() {
+        return reservationId;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public int getQty() {
+        return qty;
+    }
+
+    public int getAvailableQty() {
+        return availableQty;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
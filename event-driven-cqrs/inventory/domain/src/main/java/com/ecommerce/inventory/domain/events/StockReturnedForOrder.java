@@ -0,0 +1,59 @@
+package com.ecommerce.inventory.domain.events;
+
+import com.ecommerce.shared.common.domain.DomainEvent;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public class StockReturnedForOrder implements DomainEvent {
+    private final UUID eventId;
+    private final String orderId;
+    private final String productId;
+    private final int availableQty;
+    private final Instant occurredAt;
+
+    public StockReturnedForOrder(String orderId, String productId, int availableQty) {
+        this.eventId = UUID.randomUUID();
+        this.orderId = orderId;
+        this.productId = productId;
+        this.availableQty = availableQty;
+        this.occurredAt = Instant.now();
+    }
+
+    @Override
+    public UUID getEventId() {
+        return eventId;
+    }
+
+    @Override
+    public String getAggregateId() {
+        return productId;
+    }
+
+    @Override
+    public String getAggregateType() {
+        return "InventoryItem";
+    }
+
+    @Override
+    public String getEventType() {
+        return "StockReturnedForOrder";
+    }
+
+    @Override
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public int getAvailableQty() {
+        return availableQty;
+    }
+}
@@ -10,14 +10,17 @@ public class StockSet implements DomainEvent {
     private final String productId;
     private final int oldQty;
     private final int newQty;
+    // On hand less held after the set; newQty is on hand only
+    private final int availableQty;
     private final String reason;
     private final Instant occurredAt;
 
-    public StockSet(String productId, int oldQty, int newQty, String reason) {
+    public StockSet(String productId, int oldQty, int newQty, int availableQty, String reason) {
         this.eventId = UUID.randomUUID();
         this.productId = productId;
         this.oldQty = oldQty;
         this.newQty = newQty;
+        this.availableQty = availableQty;
         this.reason = reason;
         this.occurredAt = Instant.now();
     }
@@ -59,6 +62,10 @@ public class StockSet implements DomainEvent {
         return newQty;
     }
 
+    public int getAvailableQty() {
+        return availableQty;
+    }
+
     public String getReason() {
         return reason;
     }
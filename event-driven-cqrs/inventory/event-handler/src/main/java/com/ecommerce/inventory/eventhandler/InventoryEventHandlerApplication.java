@@ -5,6 +5,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 
 @SpringBootApplication(scanBasePackages = {
         "com.ecommerce.inventory.eventhandler",
+        "com.ecommerce.inventory.infrastructure.messaging",
         "com.ecommerce.shared.persistence"
 })
 public class InventoryEventHandlerApplication {
@@ -1,7 +1,10 @@
 package com.ecommerce.inventory.eventhandler.consumers;
 
+import com.ecommerce.inventory.eventhandler.thresholds.StockThresholdDetector;
+import com.ecommerce.inventory.eventhandler.thresholds.StockThresholdDetector.Band;
+import com.ecommerce.inventory.eventhandler.thresholds.ThresholdTransitionPublisher;
 import com.ecommerce.inventory.queryapi.models.StockAvailabilityView;
-import com.ecommerce.inventory.queryapi.repositories.StockAvailabilityRepository;
+import com.ecommerce.inventory.queryapi.projection.AvailabilityEvents;
 import com.ecommerce.shared.messaging.MessagingConstants;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -12,6 +15,11 @@ import org.springframework.amqp.rabbit.annotation.Exchange;
 import org.springframework.amqp.rabbit.annotation.Queue;
 import org.springframework.amqp.rabbit.annotation.QueueBinding;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -19,14 +27,26 @@ public class InventoryEventConsumer {
 
     private static final Logger logger = LoggerFactory.getLogger(InventoryEventConsumer.class);
 
-    private final StockAvailabilityRepository repository;
+    private final MongoTemplate mongoTemplate;
+    private final StockThresholdDetector thresholdDetector;
+    private final ThresholdTransitionPublisher transitionPublisher;
     private final ObjectMapper objectMapper;
 
-    public InventoryEventConsumer(StockAvailabilityRepository repository, ObjectMapper objectMapper) {
-        this.repository = repository;
+    public InventoryEventConsumer(MongoTemplate mongoTemplate, StockThresholdDetector thresholdDetector,
+            ThresholdTransitionPublisher transitionPublisher, ObjectMapper objectMapper) {
+        this.mongoTemplate = mongoTemplate;
+        this.thresholdDetector = thresholdDetector;
+        this.transitionPublisher = transitionPublisher;
         this.objectMapper = objectMapper;
     }
 
+    /**
+     * Events that cannot be applied are logged and dropped. Each event is
+     * taken once: a threshold transition that could not be published stays
+     * pending on the view and is sent by the next event of the product or by
+     * {@link com.ecommerce.inventory.eventhandler.thresholds.ThresholdTransitionSweeper},
+     * so an absolute quantity is never reapplied over newer ones.
+     */
     @RabbitListener(bindings = @QueueBinding(value = @Queue(value = MessagingConstants.INVENTORY_EVENTS_QUEUE, durable = "true"), exchange = @Exchange(value = MessagingConstants.EVENTS_EXCHANGE, type = "topic"), key = "inventory.#"))
     public void handleEvent(Message message) {
         String eventType = (String) message.getMessageProperties().getHeader(MessagingConstants.HEADER_EVENT_TYPE);
@@ -36,17 +56,8 @@ public class InventoryEventConsumer {
 
             logger.info("Received event: type={}", eventType);
 
-            if ("StockSet".equals(eventType)) {
-                String productId = root.get("productId").asText();
-                int newQty = root.get("newQty").asInt();
-
-                updateView(productId, newQty);
-            } else if ("StockDeductedForOrder".equals(eventType)) {
-                String productId = root.get("productId").asText();
-                int newQty = root.get("newQty").asInt();
-
-                updateView(productId, newQty);
-            }
+            AvailabilityEvents.availableQty(eventType, root)
+                    .ifPresent(availableQty -> updateView(root.get("productId").asText(), availableQty));
             // StockDeductionRejected likely doesn't verify view updates unless we track
             // denials stats.
 
@@ -55,16 +66,29 @@ public class InventoryEventConsumer {
         }
     }
 
+    /**
+     * Writes quantity, inStock and version in one upsert that returns the
+     * previous view, so the threshold crossing is judged against exactly the
+     * value this write replaced. The crossing is judged from the band last
+     * published, which the view keeps and which only moves once the
+     * transition is out, so a failed publish is retried rather than lost.
+     */
     private void updateView(String productId, int newQty) {
-        repository.findById(productId)
-                .ifPresentOrElse(view -> {
-                    view.setAvailableQty(newQty);
-                    repository.save(view);
-                }, () -> {
-                    StockAvailabilityView view = new StockAvailabilityView();
-                    view.setProductId(productId);
-                    view.setAvailableQty(newQty);
-                    repository.save(view);
-                });
+        Update update = new Update()
+                .set("availableQty", newQty)
+                .set("inStock", newQty > 0)
+                .inc("version", 1);
+        StockAvailabilityView previous = mongoTemplate.findAndModify(
+                new Query(Criteria.where("productId").is(productId)), update,
+                FindAndModifyOptions.options().upsert(true).returnNew(false), StockAvailabilityView.class);
+
+        int oldQty = previous != null ? previous.getAvailableQty() : 0;
+        // Views written before the band was kept fall back to their quantity
+        Band published = previous != null && previous.getPublishedBand() != null
+                ? Band.valueOf(previous.getPublishedBand())
+                : thresholdDetector.bandOf(productId, oldQty);
+        long version = previous != null ? previous.getVersion() + 1 : 1;
+
+        transitionPublisher.publishCrossing(productId, published, oldQty, newQty, version);
     }
 }
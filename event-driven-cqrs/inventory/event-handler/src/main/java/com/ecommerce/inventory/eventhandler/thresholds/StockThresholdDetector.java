@@ -0,0 +1,81 @@
+package com.ecommerce.inventory.eventhandler.thresholds;
+
+import com.ecommerce.inventory.domain.events.StockDepleted;
+import com.ecommerce.inventory.domain.events.StockLow;
+import com.ecommerce.inventory.domain.events.StockReplenished;
+import com.ecommerce.shared.common.domain.DomainEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Classifies available quantity into out of stock (0), low (up to the
+ * product's threshold) and in stock, and names the band a change moved
+ * into: StockDepleted, StockLow or StockReplenished. Changes within a band
+ * emit nothing, so consumers see transitions rather than every quantity.
+ */
+@Component
+public class StockThresholdDetector {
+
+    private final int defaultLowThreshold;
+    private final Map<String, Integer> lowThresholds = new HashMap<>();
+
+    /**
+     * @param overrides per-product thresholds as {@code productId:threshold}
+     *                  pairs separated by commas
+     */
+    public StockThresholdDetector(
+            @Value("${inventory.thresholds.low-default:5}") int defaultLowThreshold,
+            @Value("${inventory.thresholds.low-overrides:}") String overrides) {
+        this.defaultLowThreshold = defaultLowThreshold;
+        for (String pair : overrides.split(",")) {
+            int separator = pair.lastIndexOf(':');
+            if (separator > 0) {
+                lowThresholds.put(pair.substring(0, separator).trim(),
+                        Integer.parseInt(pair.substring(separator + 1).trim()));
+            }
+        }
+    }
+
+    public Optional<DomainEvent> detect(String productId, int oldQty, int newQty) {
+        return detect(productId, bandOf(productId, oldQty), oldQty, newQty);
+    }
+
+    /**
+     * Like {@link #detect(String, int, int)}, but judged from the band
+     * consumers last heard about, which lags {@code oldQty} while a
+     * transition is still unpublished.
+     */
+    public Optional<DomainEvent> detect(String productId, Band from, int oldQty, int newQty) {
+        int threshold = lowThresholds.getOrDefault(productId, defaultLowThreshold);
+        Band to = Band.of(newQty, threshold);
+        if (from == to) {
+            return Optional.empty();
+        }
+        return Optional.of(switch (to) {
+            case OUT -> new StockDepleted(productId, oldQty);
+            case LOW -> new StockLow(productId, newQty, threshold);
+            case IN_STOCK -> new StockReplenished(productId, newQty);
+        });
+    }
+
+    public Band bandOf(String productId, int qty) {
+        return Band.of(qty, lowThresholds.getOrDefault(productId, defaultLowThreshold));
+    }
+
+    public enum Band {
+        OUT,
+        LOW,
+        IN_STOCK;
+
+        static Band of(int qty, int threshold) {
+            if (qty <= 0) {
+                return OUT;
+            }
+            return qty <= threshold ? LOW : IN_STOCK;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.ecommerce.inventory.eventhandler.thresholds;
+
+import com.ecommerce.inventory.eventhandler.thresholds.StockThresholdDetector.Band;
+import com.ecommerce.inventory.queryapi.models.StockAvailabilityView;
+import com.ecommerce.shared.common.domain.DomainEvent;
+import com.ecommerce.shared.common.events.EventPublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Publishes threshold transitions of the availability view.
+ * <p>
+ * A crossing is first recorded on the view as {@code transitionFromQty},
+ * then published, and only then is {@code publishedBand} moved on and the
+ * record cleared. A publish that fails leaves the record for
+ * {@link #republishPending} to send again, so the event that caused it
+ * never has to be redelivered. Both steps only touch the view while its
+ * version is the one the crossing was judged at; a newer event judges its
+ * own crossing from the band last published.
+ */
+@Component
+public class ThresholdTransitionPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThresholdTransitionPublisher.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final StockThresholdDetector thresholdDetector;
+    private final EventPublisher eventPublisher;
+
+    public ThresholdTransitionPublisher(MongoTemplate mongoTemplate, StockThresholdDetector thresholdDetector,
+            EventPublisher eventPublisher) {
+        this.mongoTemplate = mongoTemplate;
+        this.thresholdDetector = thresholdDetector;
+        this.eventPublisher = eventPublisher;
+        // Pending transitions are found by this, so don't rely on auto-index-creation
+        mongoTemplate.indexOps(StockAvailabilityView.class)
+                .ensureIndex(new Index().on("transitionFromQty", Sort.Direction.ASC).sparse());
+    }
+
+    /**
+     * Publishes the transition, if any, of a change the view recorded at
+     * {@code version}.
+     */
+    public void publishCrossing(String productId, Band published, int oldQty, int newQty, long version) {
+        Optional<DomainEvent> transition = thresholdDetector.detect(productId, published, oldQty, newQty);
+        if (transition.isEmpty()) {
+            return;
+        }
+        logger.info("Stock threshold crossed: productId={}, {} -> {}, event={}",
+                productId, oldQty, newQty, transition.get().getEventType());
+        mongoTemplate.updateFirst(atVersion(productId, version),
+                new Update().set("transitionFromQty", oldQty), StockAvailabilityView.class);
+        publish(productId, transition.get(), newQty, version);
+    }
+
+    /**
+     * Sends the transitions still recorded as pending, judged again against
+     * the view's current quantity; those the quantity has since moved back
+     * from are dropped.
+     *
+     * @return the number of views settled; fewer than {@code batchSize}
+     *         once none are left or a publish failed
+     */
+    public int republishPending(int batchSize) {
+        List<StockAvailabilityView> views = mongoTemplate.find(
+                new Query(Criteria.where("transitionFromQty").exists(true)).limit(batchSize),
+                StockAvailabilityView.class);
+        int settled = 0;
+        for (StockAvailabilityView view : views) {
+            String productId = view.getProductId();
+            int fromQty = view.getTransitionFromQty();
+            Band published = view.getPublishedBand() != null
+                    ? Band.valueOf(view.getPublishedBand())
+                    : thresholdDetector.bandOf(productId, fromQty);
+            Optional<DomainEvent> transition =
+                    thresholdDetector.detect(productId, published, fromQty, view.getAvailableQty());
+            if (transition.isEmpty()) {
+                markPublished(productId, view.getAvailableQty(), view.getVersion());
+                settled++;
+            } else if (publish(productId, transition.get(), view.getAvailableQty(), view.getVersion())) {
+                settled++;
+            }
+        }
+        return settled;
+    }
+
+    private boolean publish(String productId, DomainEvent transition, int newQty, long version) {
+        try {
+            eventPublisher.publish(transition).join();
+        } catch (RuntimeException ex) {
+            logger.warn("Failed to publish {} for {}; left pending on the view",
+                    transition.getEventType(), productId, ex);
+            return false;
+        }
+        markPublished(productId, newQty, version);
+        return true;
+    }
+
+    private void markPublished(String productId, int qty, long version) {
+        mongoTemplate.updateFirst(atVersion(productId, version),
+                new Update()
+                        .set("publishedBand", thresholdDetector.bandOf(productId, qty).name())
+                        .unset("transitionFromQty"),
+                StockAvailabilityView.class);
+    }
+
+    private static Query atVersion(String productId, long version) {
+        return new Query(Criteria.where("productId").is(productId).and("version").is(version));
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.inventory.eventhandler.thresholds;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically sends threshold transitions whose publish failed, in
+ * batches until none are left.
+ */
+@Component
+public class ThresholdTransitionSweeper implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThresholdTransitionSweeper.class);
+
+    private final ThresholdTransitionPublisher transitionPublisher;
+    private final long sweepIntervalMillis;
+    private final int batchSize;
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public ThresholdTransitionSweeper(ThresholdTransitionPublisher transitionPublisher,
+            @Value("${inventory.thresholds.retry-interval-ms:30000}") long sweepIntervalMillis,
+            @Value("${inventory.thresholds.retry-batch-size:500}") int batchSize) {
+        this.transitionPublisher = transitionPublisher;
+        this.sweepIntervalMillis = sweepIntervalMillis;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public synchronized void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "inventory-threshold-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        scheduler.scheduleWithFixedDelay(this::sweep, sweepIntervalMillis, sweepIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void sweep() {
+        try {
+            // Stops at the first batch with a failed publish; what is left waits for the next sweep
+            int settled;
+            do {
+                settled = transitionPublisher.republishPending(batchSize);
+            } while (settled == batchSize);
+        } catch (Exception ex) {
+            logger.error("Threshold transition retry failed", ex);
+        }
+    }
+}
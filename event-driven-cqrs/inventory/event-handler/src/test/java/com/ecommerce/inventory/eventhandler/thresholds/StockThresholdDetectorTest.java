@@ -0,0 +1,68 @@
+package com.ecommerce.inventory.eventhandler.thresholds;
+
+import com.ecommerce.inventory.domain.events.StockDepleted;
+import com.ecommerce.inventory.domain.events.StockLow;
+import com.ecommerce.inventory.domain.events.StockReplenished;
+import com.ecommerce.inventory.eventhandler.thresholds.StockThresholdDetector.Band;
+import com.ecommerce.shared.common.domain.DomainEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for StockThresholdDetector.
+ */
+class StockThresholdDetectorTest {
+
+    private final StockThresholdDetector detector = new StockThresholdDetector(5, "p-special:20, bad-pair");
+
+    @Test
+    void bandOf_shouldClassifyByThreshold() {
+        assertThat(detector.bandOf("p-1", 0)).isEqualTo(Band.OUT);
+        assertThat(detector.bandOf("p-1", 5)).isEqualTo(Band.LOW);
+        assertThat(detector.bandOf("p-1", 6)).isEqualTo(Band.IN_STOCK);
+        assertThat(detector.bandOf("p-special", 20)).isEqualTo(Band.LOW);
+    }
+
+    @Test
+    void detect_withinBand_shouldEmitNothing() {
+        assertThat(detector.detect("p-1", 50, 10)).isEmpty();
+        assertThat(detector.detect("p-1", 4, 1)).isEmpty();
+    }
+
+    @Test
+    void detect_droppingToZero_shouldEmitStockDepleted() {
+        Optional<DomainEvent> event = detector.detect("p-1", 3, 0);
+
+        assertThat(event).get().isInstanceOfSatisfying(StockDepleted.class,
+                depleted -> assertThat(depleted.getPreviousQty()).isEqualTo(3));
+    }
+
+    @Test
+    void detect_droppingIntoLowBand_shouldEmitStockLowWithProductThreshold() {
+        Optional<DomainEvent> event = detector.detect("p-special", 30, 12);
+
+        assertThat(event).get().isInstanceOfSatisfying(StockLow.class, low -> {
+            assertThat(low.getAvailableQty()).isEqualTo(12);
+            assertThat(low.getThreshold()).isEqualTo(20);
+        });
+    }
+
+    @Test
+    void detect_risingAboveThreshold_shouldEmitStockReplenished() {
+        Optional<DomainEvent> event = detector.detect("p-1", 0, 8);
+
+        assertThat(event).get().isInstanceOfSatisfying(StockReplenished.class,
+                replenished -> assertThat(replenished.getAvailableQty()).isEqualTo(8));
+    }
+
+    @Test
+    void detect_fromPublishedBand_shouldRetryUnpublishedTransition() {
+        // The drop to 0 was never published, so a further change within OUT still reports it
+        Optional<DomainEvent> event = detector.detect("p-1", Band.IN_STOCK, 0, 0);
+
+        assertThat(event).get().isInstanceOf(StockDepleted.class);
+    }
+}
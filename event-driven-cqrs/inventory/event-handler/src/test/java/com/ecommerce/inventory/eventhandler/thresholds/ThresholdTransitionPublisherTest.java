@@ -0,0 +1,140 @@
+package com.ecommerce.inventory.eventhandler.thresholds;
+
+import com.ecommerce.inventory.domain.events.StockDepleted;
+import com.ecommerce.inventory.domain.events.StockReplenished;
+import com.ecommerce.inventory.eventhandler.thresholds.StockThresholdDetector.Band;
+import com.ecommerce.inventory.queryapi.models.StockAvailabilityView;
+import com.ecommerce.shared.common.domain.DomainEvent;
+import com.ecommerce.shared.common.events.EventPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ThresholdTransitionPublisher, against a mocked
+ * MongoTemplate and EventPublisher.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ThresholdTransitionPublisherTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private IndexOperations indexOperations;
+
+    @Mock
+    private EventPublisher eventPublisher;
+
+    private ThresholdTransitionPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.indexOps(StockAvailabilityView.class)).thenReturn(indexOperations);
+        publisher = new ThresholdTransitionPublisher(mongoTemplate, new StockThresholdDetector(5, ""),
+                eventPublisher);
+    }
+
+    @Test
+    void publishCrossing_withinBand_shouldDoNothing() {
+        publisher.publishCrossing("p-1", Band.IN_STOCK, 50, 40, 3);
+
+        verifyNoInteractions(eventPublisher);
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class),
+                eq(StockAvailabilityView.class));
+    }
+
+    @Test
+    void publishCrossing_shouldRecordPublishThenMoveThePublishedBand() {
+        when(eventPublisher.publish(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        publisher.publishCrossing("p-1", Band.LOW, 3, 0, 4);
+
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        InOrder inOrder = inOrder(mongoTemplate, eventPublisher);
+        inOrder.verify(mongoTemplate).updateFirst(any(Query.class), updates.capture(),
+                eq(StockAvailabilityView.class));
+        inOrder.verify(eventPublisher).publish(any(StockDepleted.class));
+        inOrder.verify(mongoTemplate).updateFirst(any(Query.class), updates.capture(),
+                eq(StockAvailabilityView.class));
+        assertThat(updates.getAllValues().get(0).getUpdateObject().toJson()).contains("\"transitionFromQty\": 3");
+        assertThat(updates.getAllValues().get(1).getUpdateObject().toJson())
+                .contains("\"publishedBand\": \"OUT\"")
+                .contains("$unset");
+    }
+
+    @Test
+    void publishCrossing_whenPublishFails_shouldLeaveItPendingWithoutThrowing() {
+        when(eventPublisher.publish(any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        assertThatCode(() -> publisher.publishCrossing("p-1", Band.LOW, 3, 0, 4)).doesNotThrowAnyException();
+
+        // Only the pending record is written; the published band stays behind
+        verify(mongoTemplate, times(1)).updateFirst(any(Query.class), any(Update.class),
+                eq(StockAvailabilityView.class));
+    }
+
+    @Test
+    void republishPending_shouldSendTransitionJudgedAgainstCurrentQuantity() {
+        when(mongoTemplate.find(any(Query.class), eq(StockAvailabilityView.class)))
+                .thenReturn(List.of(pending("p-1", Band.OUT, 0, 12, 7)));
+        when(eventPublisher.publish(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        int settled = publisher.republishPending(10);
+
+        assertThat(settled).isEqualTo(1);
+        ArgumentCaptor<DomainEvent> event = ArgumentCaptor.forClass(DomainEvent.class);
+        verify(eventPublisher).publish(event.capture());
+        assertThat(event.getValue()).isInstanceOf(StockReplenished.class);
+    }
+
+    @Test
+    void republishPending_whenQuantityMovedBack_shouldDropTheTransition() {
+        when(mongoTemplate.find(any(Query.class), eq(StockAvailabilityView.class)))
+                .thenReturn(List.of(pending("p-1", Band.IN_STOCK, 12, 20, 7)));
+
+        int settled = publisher.republishPending(10);
+
+        assertThat(settled).isEqualTo(1);
+        verifyNoInteractions(eventPublisher);
+        verify(mongoTemplate).updateFirst(any(Query.class), any(Update.class), eq(StockAvailabilityView.class));
+    }
+
+    @Test
+    void republishPending_whenPublishFails_shouldCountItAsUnsettled() {
+        when(mongoTemplate.find(any(Query.class), eq(StockAvailabilityView.class)))
+                .thenReturn(List.of(pending("p-1", Band.OUT, 0, 12, 7)));
+        when(eventPublisher.publish(any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        assertThat(publisher.republishPending(10)).isZero();
+    }
+
+    private static StockAvailabilityView pending(String productId, Band published, int fromQty, int qty,
+            long version) {
+        StockAvailabilityView view = new StockAvailabilityView(productId, qty, qty > 0);
+        view.setPublishedBand(published.name());
+        view.setTransitionFromQty(fromQty);
+        view.setVersion(version);
+        return view;
+    }
+}
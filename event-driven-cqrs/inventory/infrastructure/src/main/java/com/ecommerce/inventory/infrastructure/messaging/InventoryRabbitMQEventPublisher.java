@@ -11,6 +11,7 @@ import org.springframework.amqp.core.Message;
 import org.springframework.amqp.core.MessageBuilder;
 import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -23,44 +24,62 @@ public class InventoryRabbitMQEventPublisher implements EventPublisher {
 
     private final RabbitTemplate rabbitTemplate;
     private final ObjectMapper objectMapper;
+    private final long confirmTimeoutMillis;
 
-    public InventoryRabbitMQEventPublisher(RabbitTemplate rabbitTemplate, ObjectMapper objectMapper) {
+    public InventoryRabbitMQEventPublisher(RabbitTemplate rabbitTemplate, ObjectMapper objectMapper,
+            @Value("${inventory.events.confirm-timeout-ms:5000}") long confirmTimeoutMillis) {
         this.rabbitTemplate = rabbitTemplate;
         this.objectMapper = objectMapper;
+        this.confirmTimeoutMillis = confirmTimeoutMillis;
     }
 
     @Override
     public CompletableFuture<Void> publish(DomainEvent event) {
         return CompletableFuture.runAsync(() -> {
-            try {
-                String json = objectMapper.writeValueAsString(event);
+            rabbitTemplate.send(MessagingConstants.EVENTS_EXCHANGE, routingKey(event), toMessage(event));
 
-                Message message = MessageBuilder
-                        .withBody(json.getBytes())
-                        .setContentType(MessageProperties.CONTENT_TYPE_JSON)
-                        .setHeader(MessagingConstants.HEADER_EVENT_TYPE, event.getEventType())
-                        .setHeader(MessagingConstants.HEADER_AGGREGATE_TYPE, event.getAggregateType())
-                        .setMessageId(event.getEventId().toString())
-                        .build();
-
-                String routingKey = "inventory." + event.getEventType();
-
-                rabbitTemplate.send(MessagingConstants.EVENTS_EXCHANGE, routingKey, message);
-
-                logger.info("Published event: type={}, id={}", event.getEventType(), event.getAggregateId());
-            } catch (JsonProcessingException e) {
-                logger.error("Failed to serialize event", e);
-                throw new RuntimeException(e);
-            }
+            logger.info("Published event: type={}, id={}", event.getEventType(), event.getAggregateId());
         });
     }
 
+    /**
+     * Publishes the events in order over one channel and waits for the
+     * broker to confirm them all, so a batch completes only once every
+     * event is safely routed. Requires simple publisher confirms.
+     */
     @Override
     public CompletableFuture<Void> publishAll(List<DomainEvent> events) {
         return CompletableFuture.runAsync(() -> {
-            for (DomainEvent event : events) {
-                publish(event).join();
-            }
+            rabbitTemplate.invoke(operations -> {
+                for (DomainEvent event : events) {
+                    operations.send(MessagingConstants.EVENTS_EXCHANGE, routingKey(event), toMessage(event));
+                }
+                operations.waitForConfirmsOrDie(confirmTimeoutMillis);
+                return null;
+            });
+
+            logger.info("Published {} events", events.size());
         });
     }
+
+    private static String routingKey(DomainEvent event) {
+        return "inventory." + event.getEventType();
+    }
+
+    private Message toMessage(DomainEvent event) {
+        try {
+            String json = objectMapper.writeValueAsString(event);
+
+            return MessageBuilder
+                    .withBody(json.getBytes())
+                    .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                    .setHeader(MessagingConstants.HEADER_EVENT_TYPE, event.getEventType())
+                    .setHeader(MessagingConstants.HEADER_AGGREGATE_TYPE, event.getAggregateType())
+                    .setMessageId(event.getEventId().toString())
+                    .build();
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to serialize event", e);
+            throw new RuntimeException(e);
+        }
+    }
 }
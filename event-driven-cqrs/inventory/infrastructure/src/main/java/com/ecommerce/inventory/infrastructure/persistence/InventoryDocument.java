@@ -5,16 +5,33 @@ import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.Instant;
+import java.util.List;
 
 @Document(collection = "inventory_items")
 public class InventoryDocument {
     @Id
     private String productId;
     private int quantity;
+    // Units held by active reservations; part of quantity but not available
+    private int reserved;
+    // Orders deducted most recently, oldest first; bounded by InventoryItem.RECENT_ORDERS_LIMIT
+    private List<String> recentOrderIds;
+    // Order deductions that wrote this item and are not yet settled, as "orderId:attempt",
+    // oldest first; lets compensation undo only its own attempt and a retry see a cut-short one
+    private List<String> deductionAttempts;
+    // Holds applied to reserved and not yet confirmed or released
+    private List<String> heldHolds;
+    // Holds most recently confirmed or released against this item, oldest first;
+    // bounded by InventoryRepositoryImpl.SETTLED_HOLDS_LIMIT
+    private List<String> settledHolds;
     @Version
     private Integer version;
     private Instant createdAt;
     private Instant updatedAt;
+    // Last deduction log sequence reflected in quantity; set by the hot stock ledger
+    private Long ledgerSeq;
+    // Token of the last stock sync chunk that wrote quantity, to tell its writes apart
+    private String lastSyncWrite;
 
     public InventoryDocument() {
     }
@@ -35,6 +52,54 @@ public class InventoryDocument {
         this.quantity = quantity;
     }
 
+    public int getReserved() {
+        return reserved;
+    }
+
+    public void setReserved(int reserved) {
+        this.reserved = reserved;
+    }
+
+    public List<String> getRecentOrderIds() {
+        return recentOrderIds;
+    }
+
+    public void setRecentOrderIds(List<String> recentOrderIds) {
+        this.recentOrderIds = recentOrderIds;
+    }
+
+    public String getLastSyncWrite() {
+        return lastSyncWrite;
+    }
+
+    public void setLastSyncWrite(String lastSyncWrite) {
+        this.lastSyncWrite = lastSyncWrite;
+    }
+
+    public List<String> getDeductionAttempts() {
+        return deductionAttempts;
+    }
+
+    public void setDeductionAttempts(List<String> deductionAttempts) {
+        this.deductionAttempts = deductionAttempts;
+    }
+
+    public List<String> getHeldHolds() {
+        return heldHolds;
+    }
+
+    public void setHeldHolds(List<String> heldHolds) {
+        this.heldHolds = heldHolds;
+    }
+
+    public List<String> getSettledHolds() {
+        return settledHolds;
+    }
+
+    public void setSettledHolds(List<String> settledHolds) {
+        this.settledHolds = settledHolds;
+    }
+
     public Integer getVersion() {
         return version;
     }
@@ -58,4 +123,12 @@ public class InventoryDocument {
     public void setUpdatedAt(Instant updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public Long getLedgerSeq() {
+        return ledgerSeq;
+    }
+
+    public void setLedgerSeq(Long ledgerSeq) {
+        this.ledgerSeq = ledgerSeq;
+    }
 }
@@ -1,24 +1,89 @@
 package com.ecommerce.inventory.infrastructure.persistence;
 
+import com.ecommerce.inventory.application.ports.DeductionResult;
 import com.ecommerce.inventory.application.ports.InventoryRepository;
+import com.ecommerce.inventory.application.ports.QuantityChange;
+import com.ecommerce.inventory.application.ports.QuantitySetResult;
+import com.ecommerce.inventory.application.reservations.StockReservation;
 import com.ecommerce.inventory.domain.aggregates.InventoryItem;
 import com.ecommerce.inventory.domain.valueobjects.ProductId;
 import com.ecommerce.inventory.domain.valueobjects.Quantity;
 import com.ecommerce.shared.common.persistence.ConcurrencyException;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.PushOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.Stream;
 
 @Repository
 public class InventoryRepositoryImpl implements InventoryRepository {
 
+    private static final Logger logger = LoggerFactory.getLogger(InventoryRepositoryImpl.class);
+
+    /**
+     * Settled holds remembered per item. A settlement retried after more than
+     * this many other holds of the same item have settled would apply twice.
+     */
+    static final int SETTLED_HOLDS_LIMIT = 1000;
+
+    /**
+     * Deduction attempts tagged per item. Tags are dropped once settled, so
+     * only attempts in progress or cut short by a crash are kept; the limit
+     * is a safety net against the latter piling up.
+     */
+    static final int DEDUCTION_ATTEMPTS_LIMIT = 1000;
+
     private final InventoryMongoRepository mongoRepository;
+    private final MongoTemplate mongoTemplate;
 
-    public InventoryRepositoryImpl(InventoryMongoRepository mongoRepository) {
+    public InventoryRepositoryImpl(InventoryMongoRepository mongoRepository, MongoTemplate mongoTemplate,
+            @Value("${inventory.deductions.retention-days:30}") int deductionRetentionDays) {
         this.mongoRepository = mongoRepository;
+        this.mongoTemplate = mongoTemplate;
+        // Duplicate deductions are refused by this index, so don't rely on auto-index-creation
+        IndexOperations deductions = mongoTemplate.indexOps(OrderDeductionDocument.class);
+        deductions.ensureIndex(new Index().named("orderId_productId")
+                .on("orderId", Sort.Direction.ASC)
+                .on("productId", Sort.Direction.ASC)
+                .unique());
+        deductions.ensureIndex(new Index().on("createdAt", Sort.Direction.ASC)
+                .expire(Duration.ofDays(deductionRetentionDays)));
     }
 
     @Override
@@ -32,21 +97,33 @@ public class InventoryRepositoryImpl implements InventoryRepository {
     @Override
     public CompletableFuture<InventoryItem> save(InventoryItem aggregate) {
         return CompletableFuture.supplyAsync(() -> {
-            try {
-                InventoryDocument doc = toDocument(aggregate);
-                doc.setUpdatedAt(Instant.now());
-                if (doc.getCreatedAt() == null) {
+            if (aggregate.isNew()) {
+                try {
+                    InventoryDocument doc = toDocument(aggregate);
                     doc.setCreatedAt(Instant.now());
+                    doc.setUpdatedAt(doc.getCreatedAt());
+                    return toAggregate(mongoRepository.save(doc));
+                } catch (OptimisticLockingFailureException ex) {
+                    throw new ConcurrencyException(aggregate.getId().getValue(), aggregate.getVersion(), -1);
                 }
+            }
 
-                InventoryDocument saved = mongoRepository.save(doc);
-                return toAggregate(saved);
-            } catch (OptimisticLockingFailureException ex) {
-                throw new ConcurrencyException(
-                        aggregate.getId().getValue(),
-                        aggregate.getVersion(),
-                        -1);
+            // Update the aggregate's fields in place rather than replacing the document,
+            // so the settled-hold markers written by confirms and releases survive
+            Query current = new Query(Criteria.where("productId").is(aggregate.getId().getValue())
+                    .and("version").is(aggregate.getVersion()));
+            Update update = new Update()
+                    .set("quantity", aggregate.getQuantity().getValue())
+                    .set("reserved", aggregate.getReserved().getValue())
+                    .set("recentOrderIds", new ArrayList<>(aggregate.getRecentOrderIds()))
+                    .set("updatedAt", Instant.now())
+                    .inc("version", 1);
+            InventoryDocument saved = mongoTemplate.findAndModify(current, update,
+                    FindAndModifyOptions.options().returnNew(true), InventoryDocument.class);
+            if (saved == null) {
+                throw new ConcurrencyException(aggregate.getId().getValue(), aggregate.getVersion(), -1);
             }
+            return toAggregate(saved);
         });
     }
 
@@ -55,10 +132,455 @@ public class InventoryRepositoryImpl implements InventoryRepository {
         return CompletableFuture.supplyAsync(() -> mongoRepository.existsById(id.getValue()));
     }
 
+    @Override
+    public CompletableFuture<Map<String, Integer>> findQuantities(Collection<ProductId> ids) {
+        return CompletableFuture.supplyAsync(() -> {
+            Query query = new Query(Criteria.where("productId").in(ids.stream().map(ProductId::getValue).toList()));
+            query.fields().include("quantity", "reserved");
+            Map<String, Integer> quantities = new HashMap<>();
+            for (InventoryDocument doc : mongoTemplate.find(query, InventoryDocument.class)) {
+                quantities.put(doc.getProductId(), available(doc));
+            }
+            return quantities;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> forEachQuantity(ObjIntConsumer<String> action) {
+        return CompletableFuture.runAsync(() -> {
+            Query all = new Query();
+            all.fields().include("quantity");
+            try (Stream<InventoryDocument> docs = mongoTemplate.stream(all, InventoryDocument.class)) {
+                docs.forEach(doc -> action.accept(doc.getProductId(), doc.getQuantity()));
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<QuantitySetResult> setQuantities(List<QuantityChange> changes) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (changes.isEmpty()) {
+                return new QuantitySetResult(Map.of(), Map.of());
+            }
+            // Each write stamps this token, so the read-back can tell which ones matched
+            String token = UUID.randomUUID().toString();
+            Instant now = Instant.now();
+            List<WriteModel<Document>> writes = new ArrayList<>(changes.size());
+            for (QuantityChange change : changes) {
+                if (change.expectedQty() == null) {
+                    // Creates the record only if there still is none
+                    writes.add(new UpdateOneModel<>(
+                            Filters.eq("_id", change.productId()),
+                            Updates.combine(
+                                    Updates.setOnInsert("quantity", change.newQty()),
+                                    Updates.setOnInsert("version", 1),
+                                    Updates.setOnInsert("lastSyncWrite", token),
+                                    Updates.setOnInsert("updatedAt", now),
+                                    Updates.setOnInsert("createdAt", now)),
+                            new UpdateOptions().upsert(true)));
+                } else {
+                    writes.add(new UpdateOneModel<>(
+                            Filters.and(
+                                    Filters.eq("_id", change.productId()),
+                                    Filters.eq("quantity", change.expectedQty())),
+                            Updates.combine(
+                                    Updates.set("quantity", change.newQty()),
+                                    // Bump the version too, so versioned saves racing with this one still conflict
+                                    Updates.inc("version", 1),
+                                    Updates.set("lastSyncWrite", token),
+                                    Updates.set("updatedAt", now))));
+                }
+            }
+            inventoryCollection().bulkWrite(writes, new BulkWriteOptions().ordered(false));
+
+            Query written = new Query(Criteria.where("productId")
+                    .in(changes.stream().map(QuantityChange::productId).toList()));
+            written.fields().include("quantity", "reserved", "lastSyncWrite");
+            Map<String, Integer> available = new HashMap<>();
+            Map<String, Integer> moved = new HashMap<>();
+            for (InventoryDocument doc : mongoTemplate.find(written, InventoryDocument.class)) {
+                if (token.equals(doc.getLastSyncWrite())) {
+                    available.put(doc.getProductId(), available(doc));
+                } else {
+                    moved.put(doc.getProductId(), doc.getQuantity());
+                }
+            }
+            return new QuantitySetResult(available, moved);
+        });
+    }
+
+    @Override
+    public CompletableFuture<DeductionResult> tryDeduct(ProductId id, String orderId, int qty) {
+        return tryDeductAll(orderId, Map.of(id.getValue(), qty))
+                .thenApply(results -> results.get(id.getValue()));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, DeductionResult>> tryDeductAll(String orderId,
+            Map<String, Integer> qtyByProduct) {
+        return CompletableFuture.supplyAsync(() -> {
+            Map<String, InventoryDocument> docs = findForDeduction(qtyByProduct.keySet());
+
+            Map<String, DeductionResult> results = new LinkedHashMap<>();
+            Map<String, DeductionResult> rejected = new LinkedHashMap<>();
+            Map<String, Integer> toDeduct = new LinkedHashMap<>();
+            qtyByProduct.forEach((productId, qty) -> {
+                InventoryDocument doc = docs.get(productId);
+                if (doc == null) {
+                    rejected.put(productId, DeductionResult.notFound());
+                } else if (doc.getRecentOrderIds() != null && doc.getRecentOrderIds().contains(orderId)) {
+                    // A recent redelivery is recognised from the read alone
+                    results.put(productId, DeductionResult.duplicate(available(doc)));
+                } else if (available(doc) < qty) {
+                    rejected.put(productId, DeductionResult.insufficient(available(doc)));
+                } else {
+                    toDeduct.put(productId, qty);
+                }
+            });
+            if (!rejected.isEmpty()) {
+                return rejected;
+            }
+
+            // Each write is tagged with this attempt, so a concurrent attempt for the same
+            // order (a redelivery) is never undone by this one's compensation
+            String attempt = orderId + ":" + UUID.randomUUID();
+            claimDeductions(orderId, attempt, toDeduct, docs, results);
+            if (toDeduct.isEmpty()) {
+                return results;
+            }
+
+            // Conditions are re-checked per item, as stock may have moved since the read
+            Instant now = Instant.now();
+            List<WriteModel<Document>> writes = new ArrayList<>(toDeduct.size());
+            toDeduct.forEach((productId, qty) -> writes.add(new UpdateOneModel<>(
+                    Filters.and(
+                            Filters.eq("_id", productId),
+                            Filters.ne("recentOrderIds", orderId),
+                            Filters.expr(availableAtLeastExpr(qty))),
+                    Updates.combine(
+                            Updates.inc("quantity", -qty),
+                            Updates.inc("version", 1),
+                            Updates.set("updatedAt", now),
+                            Updates.pushEach("recentOrderIds", List.of(orderId),
+                                    new PushOptions().slice(-InventoryItem.RECENT_ORDERS_LIMIT)),
+                            Updates.pushEach("deductionAttempts", List.of(attempt),
+                                    new PushOptions().slice(-DEDUCTION_ATTEMPTS_LIMIT))))));
+
+            int applied;
+            try {
+                applied = inventoryCollection().bulkWrite(writes, new BulkWriteOptions().ordered(true))
+                        .getModifiedCount();
+            } catch (MongoBulkWriteException ex) {
+                logger.warn("Bulk deduction for order {} failed part-way: {}", orderId, ex.getMessage());
+                applied = -1;
+            }
+
+            Map<String, InventoryDocument> after = findForDeduction(toDeduct.keySet());
+            if (applied == toDeduct.size()) {
+                settleDeductions(orderId, attempt, toDeduct.keySet());
+                toDeduct.keySet().forEach(productId ->
+                        results.put(productId, DeductionResult.deducted(available(after.get(productId)))));
+                return results;
+            }
+            return compensate(orderId, attempt, toDeduct, after);
+        });
+    }
+
+    /**
+     * Records this attempt in the deduction ledger for every item about to be
+     * deducted. An item the ledger already holds for the order is taken out
+     * of {@code toDeduct}: reported as a duplicate once applied, or taken
+     * over when an earlier attempt stopped before writing the counter.
+     */
+    private void claimDeductions(String orderId, String attempt, Map<String, Integer> toDeduct,
+            Map<String, InventoryDocument> docs, Map<String, DeductionResult> results) {
+        if (toDeduct.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        List<String> productIds = new ArrayList<>(toDeduct.keySet());
+        List<OrderDeductionDocument> claims = productIds.stream()
+                .map(productId -> new OrderDeductionDocument(orderId, productId, toDeduct.get(productId), attempt, now))
+                .toList();
+
+        List<String> taken = new ArrayList<>();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OrderDeductionDocument.class)
+                    .insert(claims)
+                    .execute();
+        } catch (BulkOperationException ex) {
+            for (BulkWriteError error : ex.getErrors()) {
+                if (ErrorCategory.fromErrorCode(error.getCode()) != ErrorCategory.DUPLICATE_KEY) {
+                    mongoTemplate.remove(new Query(Criteria.where("orderId").is(orderId)
+                            .and("attempt").is(attempt)), OrderDeductionDocument.class);
+                    throw ex;
+                }
+                taken.add(productIds.get(error.getIndex()));
+            }
+        }
+        if (taken.isEmpty()) {
+            return;
+        }
+
+        Query existing = new Query(Criteria.where("orderId").is(orderId).and("productId").in(taken));
+        for (OrderDeductionDocument claim : mongoTemplate.find(existing, OrderDeductionDocument.class)) {
+            String productId = claim.getProductId();
+            InventoryDocument doc = docs.get(productId);
+            if (!OrderDeductionDocument.PENDING.equals(claim.getState())) {
+                toDeduct.remove(productId);
+                results.put(productId, DeductionResult.duplicate(available(doc)));
+            } else if (doc.getDeductionAttempts() != null && doc.getDeductionAttempts().contains(claim.getAttempt())) {
+                // The earlier attempt wrote the counter but stopped before settling
+                settleDeductions(orderId, claim.getAttempt(), List.of(productId));
+                toDeduct.remove(productId);
+                results.put(productId, DeductionResult.duplicate(available(doc)));
+            } else if (!takeOver(claim, attempt)) {
+                // Another attempt for the order got to it first and carries it on
+                toDeduct.remove(productId);
+                results.put(productId, DeductionResult.duplicate(available(doc)));
+            }
+        }
+    }
+
+    private boolean takeOver(OrderDeductionDocument claim, String attempt) {
+        Query unapplied = new Query(Criteria.where("orderId").is(claim.getOrderId())
+                .and("productId").is(claim.getProductId())
+                .and("attempt").is(claim.getAttempt())
+                .and("state").is(OrderDeductionDocument.PENDING));
+        return mongoTemplate.updateFirst(unapplied, new Update().set("attempt", attempt),
+                OrderDeductionDocument.class).getModifiedCount() > 0;
+    }
+
+    /**
+     * Marks the attempt's ledger records applied, then drops its tag from the
+     * items, so the tags only ever hold attempts still in progress.
+     */
+    private void settleDeductions(String orderId, String attempt, Collection<String> productIds) {
+        mongoTemplate.updateMulti(
+                new Query(Criteria.where("orderId").is(orderId).and("attempt").is(attempt)),
+                new Update().set("state", OrderDeductionDocument.APPLIED),
+                OrderDeductionDocument.class);
+        inventoryCollection().updateMany(
+                Filters.and(Filters.in("_id", productIds), Filters.eq("deductionAttempts", attempt)),
+                Updates.pull("deductionAttempts", attempt));
+    }
+
+    /**
+     * Restores the items this attempt applied, drops its ledger records and
+     * reports the items it did not apply as rejected, or as duplicates when
+     * another attempt for the same order applied them.
+     */
+    private Map<String, DeductionResult> compensate(String orderId, String attempt, Map<String, Integer> toDeduct,
+            Map<String, InventoryDocument> after) {
+        Map<String, DeductionResult> rejected = new LinkedHashMap<>();
+        List<WriteModel<Document>> restores = new ArrayList<>();
+        Instant now = Instant.now();
+        toDeduct.forEach((productId, qty) -> {
+            InventoryDocument doc = after.get(productId);
+            if (doc == null) {
+                rejected.put(productId, DeductionResult.notFound());
+            } else if (doc.getDeductionAttempts() != null && doc.getDeductionAttempts().contains(attempt)) {
+                // Only an item that still records this attempt is restored, so a retried compensation is harmless
+                restores.add(new UpdateOneModel<>(
+                        Filters.and(Filters.eq("_id", productId), Filters.eq("deductionAttempts", attempt)),
+                        Updates.combine(
+                                Updates.inc("quantity", qty),
+                                Updates.inc("version", 1),
+                                Updates.set("updatedAt", now),
+                                Updates.pull("recentOrderIds", orderId),
+                                Updates.pull("deductionAttempts", attempt))));
+            } else if (doc.getRecentOrderIds() != null && doc.getRecentOrderIds().contains(orderId)) {
+                rejected.put(productId, DeductionResult.duplicate(available(doc)));
+            } else {
+                rejected.put(productId, DeductionResult.insufficient(available(doc)));
+            }
+        });
+
+        if (!restores.isEmpty()) {
+            inventoryCollection().bulkWrite(restores, new BulkWriteOptions().ordered(false));
+        }
+        mongoTemplate.remove(new Query(Criteria.where("orderId").is(orderId).and("attempt").is(attempt)),
+                OrderDeductionDocument.class);
+        logger.info("Order {} deduction rolled back: restored {} item(s), rejected {}",
+                orderId, restores.size(), rejected.keySet());
+        return rejected;
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Integer>> returnDeducted(String orderId, Collection<String> productIds) {
+        return CompletableFuture.supplyAsync(() -> {
+            // The record moves out of APPLIED before the counter is written, so two returns
+            // never both add the units; a crash in between leaves them out rather than in twice
+            List<WriteModel<Document>> returns = new ArrayList<>();
+            List<String> returnedIds = new ArrayList<>();
+            Instant now = Instant.now();
+            for (String productId : productIds) {
+                OrderDeductionDocument returned = mongoTemplate.findAndModify(
+                        new Query(Criteria.where("orderId").is(orderId)
+                                .and("productId").is(productId)
+                                .and("state").is(OrderDeductionDocument.APPLIED)),
+                        new Update().set("state", OrderDeductionDocument.RETURNED),
+                        OrderDeductionDocument.class);
+                if (returned != null) {
+                    returnedIds.add(productId);
+                    returns.add(new UpdateOneModel<>(
+                            Filters.eq("_id", productId),
+                            Updates.combine(
+                                    Updates.inc("quantity", returned.getQty()),
+                                    Updates.inc("version", 1),
+                                    Updates.set("updatedAt", now))));
+                }
+            }
+            if (returns.isEmpty()) {
+                return Map.of();
+            }
+            inventoryCollection().bulkWrite(returns, new BulkWriteOptions().ordered(false));
+            logger.info("Returned {} deducted item(s) of order {}", returns.size(), orderId);
+            return findAvailable(returnedIds);
+        });
+    }
+
+    private Map<String, InventoryDocument> findForDeduction(Collection<String> productIds) {
+        Query query = new Query(Criteria.where("productId").in(productIds));
+        query.fields().include("quantity", "reserved", "recentOrderIds", "deductionAttempts");
+        Map<String, InventoryDocument> docs = new HashMap<>();
+        for (InventoryDocument doc : mongoTemplate.find(query, InventoryDocument.class)) {
+            docs.put(doc.getProductId(), doc);
+        }
+        return docs;
+    }
+
+    private MongoCollection<Document> inventoryCollection() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(InventoryDocument.class));
+    }
+
+    @Override
+    public CompletableFuture<DeductionResult> tryReserve(StockReservation hold) {
+        return CompletableFuture.supplyAsync(() -> {
+            // Recording the hold in the same write is what makes a repeated apply a no-op
+            ProductId id = ProductId.of(hold.productId());
+            Query available = new Query(availableAtLeast(id, hold.qty())
+                    .and("heldHolds").ne(hold.id())
+                    .and("settledHolds").ne(hold.id()));
+            Update apply = new Update()
+                    .inc("reserved", hold.qty())
+                    .push("heldHolds", hold.id())
+                    .inc("version", 1)
+                    .set("updatedAt", Instant.now());
+
+            InventoryDocument updated = mongoTemplate.findAndModify(
+                    available, apply, FindAndModifyOptions.options().returnNew(true), InventoryDocument.class);
+            if (updated != null) {
+                return DeductionResult.deducted(available(updated));
+            }
+
+            Query current = new Query(Criteria.where("productId").is(hold.productId()));
+            current.fields().include("quantity", "reserved", "heldHolds");
+            InventoryDocument doc = mongoTemplate.findOne(current, InventoryDocument.class);
+            if (doc == null) {
+                return DeductionResult.notFound();
+            }
+            if (doc.getHeldHolds() != null && doc.getHeldHolds().contains(hold.id())) {
+                return DeductionResult.duplicate(available(doc));
+            }
+            return DeductionResult.insufficient(available(doc));
+        });
+    }
+
+    @Override
+    public CompletableFuture<DeductionResult> confirmReserved(StockReservation hold) {
+        return CompletableFuture.supplyAsync(() -> {
+            // Recording the hold in the same write is what makes a repeated confirm a no-op
+            Query held = new Query(Criteria.where("productId").is(hold.productId())
+                    .and("reserved").gte(hold.qty())
+                    .and("heldHolds").is(hold.id())
+                    .and("settledHolds").ne(hold.id()));
+            Update deduct = new Update()
+                    .inc("quantity", -hold.qty())
+                    .inc("reserved", -hold.qty())
+                    .pull("heldHolds", hold.id())
+                    .inc("version", 1)
+                    .set("updatedAt", Instant.now());
+            deduct.push("settledHolds").slice(-SETTLED_HOLDS_LIMIT).each(hold.id());
+
+            InventoryDocument updated = mongoTemplate.findAndModify(
+                    held, deduct, FindAndModifyOptions.options().returnNew(true), InventoryDocument.class);
+            if (updated != null) {
+                return DeductionResult.deducted(available(updated));
+            }
+
+            Query current = new Query(Criteria.where("productId").is(hold.productId()));
+            current.fields().include("quantity", "reserved", "settledHolds");
+            InventoryDocument doc = mongoTemplate.findOne(current, InventoryDocument.class);
+            if (doc != null && doc.getSettledHolds() != null && doc.getSettledHolds().contains(hold.id())) {
+                return DeductionResult.duplicate(available(doc));
+            }
+            return DeductionResult.notFound();
+        });
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Integer>> releaseHolds(List<StockReservation> holds) {
+        return CompletableFuture.supplyAsync(() -> {
+            if (holds.isEmpty()) {
+                return Map.of();
+            }
+            // Each applied hold is returned at most once: it moves from heldHolds to settledHolds
+            // in the same write, and a hold that was never applied matches nothing
+            List<WriteModel<Document>> writes = new ArrayList<>(holds.size());
+            Instant now = Instant.now();
+            for (StockReservation hold : holds) {
+                writes.add(new UpdateOneModel<>(
+                        Filters.and(Filters.eq("_id", hold.productId()), Filters.eq("heldHolds", hold.id()),
+                                Filters.ne("settledHolds", hold.id())),
+                        Updates.combine(
+                                Updates.inc("reserved", -hold.qty()),
+                                Updates.pull("heldHolds", hold.id()),
+                                Updates.inc("version", 1),
+                                Updates.set("updatedAt", now),
+                                Updates.pushEach("settledHolds", List.of(hold.id()),
+                                        new PushOptions().slice(-SETTLED_HOLDS_LIMIT)))));
+            }
+            inventoryCollection().bulkWrite(writes, new BulkWriteOptions().ordered(false));
+            return findAvailable(holds.stream().map(StockReservation::productId).distinct().toList());
+        });
+    }
+
+    private Map<String, Integer> findAvailable(Collection<String> productIds) {
+        Query current = new Query(Criteria.where("productId").in(productIds));
+        current.fields().include("quantity", "reserved");
+        Map<String, Integer> available = new HashMap<>();
+        for (InventoryDocument doc : mongoTemplate.find(current, InventoryDocument.class)) {
+            available.put(doc.getProductId(), available(doc));
+        }
+        return available;
+    }
+
+    /**
+     * Matches the item only while on hand less held is at least {@code qty};
+     * documents written before holds existed have no reserved field.
+     */
+    private Criteria availableAtLeast(ProductId id, int qty) {
+        return Criteria.where("productId").is(id.getValue())
+                .andOperator(Criteria.expr(() -> availableAtLeastExpr(qty)));
+    }
+
+    private static Document availableAtLeastExpr(int qty) {
+        Document available = new Document("$subtract",
+                List.of("$quantity", new Document("$ifNull", List.of("$reserved", 0))));
+        return new Document("$gte", List.of(available, qty));
+    }
+
+    private static int available(InventoryDocument doc) {
+        return Math.max(doc.getQuantity() - doc.getReserved(), 0);
+    }
+
     private InventoryItem toAggregate(InventoryDocument doc) {
         return InventoryItem.reconstitute(
                 ProductId.of(doc.getProductId()),
                 Quantity.of(doc.getQuantity()),
+                Quantity.of(doc.getReserved()),
+                doc.getRecentOrderIds() != null ? doc.getRecentOrderIds() : List.of(),
                 doc.getVersion() != null ? doc.getVersion() : 0);
     }
 
@@ -66,14 +588,9 @@ public class InventoryRepositoryImpl implements InventoryRepository {
         InventoryDocument doc = new InventoryDocument();
         doc.setProductId(aggregate.getId().getValue());
         doc.setQuantity(aggregate.getQuantity().getValue());
-
-        // For existing aggregates (isNew=false), set the version to enable optimistic
-        // locking and update
-        if (!aggregate.isNew()) {
-            doc.setVersion(aggregate.getVersion());
-        }
-        // isNew=true (new aggregates): version stays null, enabling proper insert
-        // behavior
+        doc.setReserved(aggregate.getReserved().getValue());
+        doc.setRecentOrderIds(new ArrayList<>(aggregate.getRecentOrderIds()));
+        // Only new aggregates are mapped: version stays null, enabling proper insert behavior
         return doc;
     }
 }
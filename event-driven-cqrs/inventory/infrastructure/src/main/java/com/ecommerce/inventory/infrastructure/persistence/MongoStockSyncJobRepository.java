@@ -0,0 +1,75 @@
+package com.ecommerce.inventory.infrastructure.persistence;
+
+import com.ecommerce.inventory.application.ports.StockSyncJobRepository;
+import com.ecommerce.inventory.application.sync.StockSyncJob;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * MongoDB implementation of StockSyncJobRepository. The snapshot is written
+ * once with the new job; checkpoints only update the progress fields.
+ */
+@Repository
+public class MongoStockSyncJobRepository implements StockSyncJobRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoStockSyncJobRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public CompletableFuture<Optional<StockSyncJob>> findById(String jobId) {
+        return CompletableFuture.supplyAsync(() -> Optional
+                .ofNullable(mongoTemplate.findById(jobId, StockSyncJobDocument.class))
+                .map(this::toJob));
+    }
+
+    @Override
+    public CompletableFuture<Void> save(StockSyncJob job) {
+        return CompletableFuture.runAsync(() -> {
+            Update progress = new Update()
+                    .set("state", job.getState().name())
+                    .set("lastProductId", job.getLastProductId())
+                    .set("processed", job.getProcessed())
+                    .set("updated", job.getUpdated())
+                    .set("republished", job.getRepublished())
+                    .set("unsettled", job.getUnsettled())
+                    .set("failure", job.getFailure())
+                    .set("updatedAt", job.getUpdatedAt())
+                    .setOnInsert("reason", job.getReason())
+                    .setOnInsert("items", job.getItems().entrySet().stream()
+                            .map(item -> new StockSyncJobDocument.StockLevel(item.getKey(), item.getValue()))
+                            .toList())
+                    .setOnInsert("startedAt", job.getStartedAt());
+            mongoTemplate.upsert(new Query(Criteria.where("_id").is(job.getJobId())), progress,
+                    StockSyncJobDocument.class);
+        });
+    }
+
+    private StockSyncJob toJob(StockSyncJobDocument doc) {
+        Map<String, Integer> items = new LinkedHashMap<>();
+        doc.getItems().forEach(level -> items.put(level.productId(), level.qty()));
+        return new StockSyncJob(
+                doc.getJobId(),
+                doc.getReason(),
+                items,
+                doc.getStartedAt(),
+                StockSyncJob.State.valueOf(doc.getState()),
+                doc.getLastProductId(),
+                doc.getProcessed(),
+                doc.getUpdated(),
+                doc.getRepublished(),
+                doc.getUnsettled(),
+                doc.getFailure(),
+                doc.getUpdatedAt());
+    }
+}
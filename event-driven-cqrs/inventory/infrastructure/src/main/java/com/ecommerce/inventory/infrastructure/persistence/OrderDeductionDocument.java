@@ -0,0 +1,100 @@
+package com.ecommerce.inventory.infrastructure.persistence;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Deduction of one product for one order. The unique {orderId, productId}
+ * index is what refuses a second deduction however long after the first
+ * one a redelivery arrives; records expire after the configured retention.
+ */
+@Document(collection = "inventory_order_deductions")
+@CompoundIndex(name = "orderId_productId", def = "{'orderId': 1, 'productId': 1}", unique = true)
+public class OrderDeductionDocument {
+
+    public static final String PENDING = "PENDING";
+    public static final String APPLIED = "APPLIED";
+    public static final String RETURNED = "RETURNED";
+
+    @Id
+    private String id;
+    private String orderId;
+    private String productId;
+    private int qty;
+    // The deduction attempt that owns this record, as tagged on the inventory item
+    private String attempt;
+    // PENDING until the stock counter is written, then APPLIED; RETURNED once given back
+    private String state;
+    private Instant createdAt;
+
+    public OrderDeductionDocument() {
+    }
+
+    public OrderDeductionDocument(String orderId, String productId, int qty, String attempt, Instant createdAt) {
+        this.orderId = orderId;
+        this.productId = productId;
+        this.qty = qty;
+        this.attempt = attempt;
+        this.state = PENDING;
+        this.createdAt = createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public int getQty() {
+        return qty;
+    }
+
+    public void setQty(int qty) {
+        this.qty = qty;
+    }
+
+    public String getAttempt() {
+        return attempt;
+    }
+
+    public void setAttempt(String attempt) {
+        this.attempt = attempt;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,108 @@
+package com.ecommerce.inventory.infrastructure.persistence;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * A stock hold. The {status, expiresAt} index serves the expiry safety-net
+ * query without scanning confirmed and released holds; {status, createdAt},
+ * created by the repository, finds holds left pending.
+ */
+@Document(collection = "inventory_reservations")
+@CompoundIndex(name = "status_expiresAt", def = "{'status': 1, 'expiresAt': 1}")
+public class ReservationDocument {
+    @Id
+    private String id;
+    @Indexed
+    private String orderId;
+    private String productId;
+    private int qty;
+    private String status;
+    private Instant expiresAt;
+    private Instant createdAt;
+    // Token of the confirm, release or expiry that closed this hold
+    @Indexed(sparse = true)
+    private String closedBy;
+    // When the hold was closed, until its stock counters are updated
+    @Indexed(sparse = true)
+    private Instant unsettledSince;
+
+    public ReservationDocument() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public int getQty() {
+        return qty;
+    }
+
+    public void setQty(int qty) {
+        this.qty = qty;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getClosedBy() {
+        return closedBy;
+    }
+
+    public void setClosedBy(String closedBy) {
+        this.closedBy = closedBy;
+    }
+
+    public Instant getUnsettledSince() {
+        return unsettledSince;
+    }
+
+    public void setUnsettledSince(Instant unsettledSince) {
+        this.unsettledSince = unsettledSince;
+    }
+}
@@ -0,0 +1,178 @@
+package com.ecommerce.inventory.infrastructure.persistence;
+
+import com.ecommerce.inventory.application.ports.ReservationRepository;
+import com.ecommerce.inventory.application.reservations.ReservationStatus;
+import com.ecommerce.inventory.application.reservations.StockReservation;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+@Repository
+public class ReservationRepositoryImpl implements ReservationRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    public ReservationRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        // Expiry and pending recovery, per-order lookups and close read-backs query on these,
+        // so don't rely on auto-index-creation
+        IndexOperations indexes = mongoTemplate.indexOps(ReservationDocument.class);
+        indexes.ensureIndex(new Index().named("status_expiresAt")
+                .on("status", Sort.Direction.ASC)
+                .on("expiresAt", Sort.Direction.ASC));
+        indexes.ensureIndex(new Index().named("status_createdAt")
+                .on("status", Sort.Direction.ASC)
+                .on("createdAt", Sort.Direction.ASC));
+        indexes.ensureIndex(new Index().on("orderId", Sort.Direction.ASC));
+        indexes.ensureIndex(new Index().on("closedBy", Sort.Direction.ASC).sparse());
+        indexes.ensureIndex(new Index().on("unsettledSince", Sort.Direction.ASC).sparse());
+    }
+
+    @Override
+    public CompletableFuture<Boolean> existsForOrder(String orderId) {
+        return CompletableFuture.supplyAsync(() ->
+                mongoTemplate.exists(new Query(Criteria.where("orderId").is(orderId)), ReservationDocument.class));
+    }
+
+    @Override
+    public CompletableFuture<Void> insertAll(List<StockReservation> reservations) {
+        return CompletableFuture.runAsync(() -> {
+            Instant now = Instant.now();
+            List<ReservationDocument> docs = reservations.stream()
+                    .map(reservation -> toDocument(reservation, now))
+                    .toList();
+            mongoTemplate.insert(docs, ReservationDocument.class);
+        });
+    }
+
+    @Override
+    public CompletableFuture<Integer> activateForOrder(String orderId) {
+        return CompletableFuture.supplyAsync(() -> {
+            Query pending = new Query(Criteria.where("orderId").is(orderId)
+                    .and("status").is(ReservationStatus.PENDING.name()));
+            Update update = new Update().set("status", ReservationStatus.ACTIVE.name());
+            return (int) mongoTemplate.updateMulti(pending, update, ReservationDocument.class).getModifiedCount();
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<StockReservation>> abandonForOrder(String orderId) {
+        return CompletableFuture.supplyAsync(() -> close(Criteria.where("orderId").is(orderId),
+                ReservationStatus.PENDING, ReservationStatus.RELEASED));
+    }
+
+    @Override
+    public CompletableFuture<List<StockReservation>> abandonPending(Instant createdBefore, int limit) {
+        return CompletableFuture.supplyAsync(() -> {
+            Query query = new Query(Criteria.where("status").is(ReservationStatus.PENDING.name())
+                    .and("createdAt").lt(createdBefore))
+                    .limit(limit);
+            query.fields().include("_id");
+            List<String> ids = mongoTemplate.find(query, ReservationDocument.class).stream()
+                    .map(ReservationDocument::getId)
+                    .toList();
+            return ids.isEmpty()
+                    ? List.<StockReservation>of()
+                    : close(Criteria.where("_id").in(ids), ReservationStatus.PENDING, ReservationStatus.RELEASED);
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<StockReservation>> closeForOrder(String orderId, ReservationStatus status) {
+        return CompletableFuture.supplyAsync(() ->
+                close(Criteria.where("orderId").is(orderId), ReservationStatus.ACTIVE, status));
+    }
+
+    @Override
+    public CompletableFuture<List<StockReservation>> expire(Collection<String> reservationIds) {
+        return CompletableFuture.supplyAsync(() ->
+                close(Criteria.where("_id").in(reservationIds), ReservationStatus.ACTIVE, ReservationStatus.EXPIRED));
+    }
+
+    @Override
+    public CompletableFuture<List<StockReservation>> findActiveExpiringBefore(Instant before, int limit) {
+        return CompletableFuture.supplyAsync(() -> {
+            Query query = new Query(Criteria.where("status").is(ReservationStatus.ACTIVE.name())
+                    .and("expiresAt").lt(before))
+                    .with(Sort.by("expiresAt"))
+                    .limit(limit);
+            return mongoTemplate.find(query, ReservationDocument.class).stream()
+                    .map(this::toReservation)
+                    .toList();
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> markSettled(Collection<String> reservationIds) {
+        return CompletableFuture.runAsync(() -> {
+            if (!reservationIds.isEmpty()) {
+                mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(reservationIds)),
+                        new Update().unset("unsettledSince"), ReservationDocument.class);
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<StockReservation>> findUnsettled(ReservationStatus status, Instant closedBefore,
+            int limit) {
+        return CompletableFuture.supplyAsync(() -> {
+            Query query = new Query(Criteria.where("unsettledSince").lt(closedBefore)
+                    .and("status").is(status.name()))
+                    .with(Sort.by("unsettledSince"))
+                    .limit(limit);
+            return mongoTemplate.find(query, ReservationDocument.class).stream()
+                    .map(this::toReservation)
+                    .toList();
+        });
+    }
+
+    /**
+     * Closes the matching holds still in status {@code from} in one update,
+     * tagging them with a fresh token so exactly the holds this call closed
+     * can be read back. A hold raced by a concurrent confirm, release, expiry
+     * or abandon is closed by only one of them.
+     */
+    private List<StockReservation> close(Criteria criteria, ReservationStatus from, ReservationStatus status) {
+        String token = UUID.randomUUID().toString();
+        Query active = new Query(criteria.and("status").is(from.name()));
+        Update update = new Update()
+                .set("status", status.name())
+                .set("closedBy", token)
+                .set("unsettledSince", Instant.now());
+        if (mongoTemplate.updateMulti(active, update, ReservationDocument.class).getModifiedCount() == 0) {
+            return List.of();
+        }
+        return mongoTemplate.find(new Query(Criteria.where("closedBy").is(token)), ReservationDocument.class)
+                .stream()
+                .map(this::toReservation)
+                .toList();
+    }
+
+    private ReservationDocument toDocument(StockReservation reservation, Instant now) {
+        ReservationDocument doc = new ReservationDocument();
+        doc.setId(reservation.id());
+        doc.setOrderId(reservation.orderId());
+        doc.setProductId(reservation.productId());
+        doc.setQty(reservation.qty());
+        doc.setStatus(ReservationStatus.PENDING.name());
+        doc.setExpiresAt(reservation.expiresAt());
+        doc.setCreatedAt(now);
+        return doc;
+    }
+
+    private StockReservation toReservation(ReservationDocument doc) {
+        return new StockReservation(doc.getId(), doc.getOrderId(), doc.getProductId(), doc.getQty(),
+                doc.getExpiresAt());
+    }
+}
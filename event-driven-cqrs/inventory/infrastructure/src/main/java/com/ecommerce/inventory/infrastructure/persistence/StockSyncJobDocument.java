@@ -0,0 +1,132 @@
+package com.ecommerce.inventory.infrastructure.persistence;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A warehouse stock snapshot and the progress of applying it. The snapshot
+ * is a list rather than a map so product ids are never used as field names.
+ */
+@Document(collection = "inventory_stock_sync_jobs")
+public class StockSyncJobDocument {
+
+    @Id
+    private String jobId;
+
+    private String reason;
+    private List<StockLevel> items;
+    private String state;
+    private String lastProductId;
+    private long processed;
+    private long updated;
+    private long republished;
+    private long unsettled;
+    private String failure;
+    private Instant startedAt;
+    private Instant updatedAt;
+
+    public StockSyncJobDocument() {
+    }
+
+    public record StockLevel(String productId, int qty) {
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public List<StockLevel> getItems() {
+        return items;
+    }
+
+    public void setItems(List<StockLevel> items) {
+        this.items = items;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public String getLastProductId() {
+        return lastProductId;
+    }
+
+    public void setLastProductId(String lastProductId) {
+        this.lastProductId = lastProductId;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public void setProcessed(long processed) {
+        this.processed = processed;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(long updated) {
+        this.updated = updated;
+    }
+
+    public long getRepublished() {
+        return republished;
+    }
+
+    public void setRepublished(long republished) {
+        this.republished = republished;
+    }
+
+    public long getUnsettled() {
+        return unsettled;
+    }
+
+    public void setUnsettled(long unsettled) {
+        this.unsettled = unsettled;
+    }
+
+    public String getFailure() {
+        return failure;
+    }
+
+    public void setFailure(String failure) {
+        this.failure = failure;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,411 @@
+package com.ecommerce.inventory.infrastructure.persistence;
+
+import com.ecommerce.inventory.application.ports.DeductionResult;
+import com.ecommerce.inventory.application.ports.QuantityChange;
+import com.ecommerce.inventory.application.ports.QuantitySetResult;
+import com.ecommerce.inventory.application.reservations.StockReservation;
+import com.ecommerce.inventory.domain.valueobjects.ProductId;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for InventoryRepositoryImpl, against a mocked MongoTemplate and
+ * inventory collection.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class InventoryRepositoryImplTest {
+
+    private static final String ORDER_ID = "order-1";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private InventoryMongoRepository mongoRepository;
+
+    @Mock
+    private MongoCollection<Document> collection;
+
+    @Mock
+    private BulkOperations claims;
+
+    @Mock
+    private IndexOperations indexOperations;
+
+    private final List<OrderDeductionDocument> claimed = new ArrayList<>();
+
+    private InventoryRepositoryImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.indexOps(OrderDeductionDocument.class)).thenReturn(indexOperations);
+        when(mongoTemplate.getCollectionName(InventoryDocument.class)).thenReturn("inventory_items");
+        when(mongoTemplate.getCollection("inventory_items")).thenReturn(collection);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OrderDeductionDocument.class))
+                .thenReturn(claims);
+        when(claims.insert(anyList())).thenAnswer(inv -> {
+            claimed.addAll(inv.getArgument(0));
+            return claims;
+        });
+        repository = new InventoryRepositoryImpl(mongoRepository, mongoTemplate, 30);
+    }
+
+    @Test
+    void tryDeductAll_whenEveryItemApplies_shouldDeductAndSettleTheLedger() {
+        givenDocuments(List.of(doc("p-1", 10), doc("p-2", 5)), List.of(doc("p-1", 8), doc("p-2", 4)));
+        givenModified(2);
+
+        Map<String, DeductionResult> results = repository.tryDeductAll(ORDER_ID, items("p-1", 2, "p-2", 1)).join();
+
+        assertThat(results).containsExactly(
+                entry("p-1", DeductionResult.deducted(8)),
+                entry("p-2", DeductionResult.deducted(4)));
+        assertThat(claimed).extracting(OrderDeductionDocument::getProductId).containsExactly("p-1", "p-2");
+        ArgumentCaptor<Update> settle = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateMulti(any(Query.class), settle.capture(), eq(OrderDeductionDocument.class));
+        assertThat(settle.getValue().getUpdateObject().get("$set", Document.class).get("state"))
+                .isEqualTo(OrderDeductionDocument.APPLIED);
+    }
+
+    @Test
+    void tryDeductAll_shouldOnlyDeductWhereTheQuantityIsStillAvailable() {
+        givenDocuments(List.of(doc("p-1", 10)), List.of(doc("p-1", 7)));
+        givenModified(1);
+
+        repository.tryDeductAll(ORDER_ID, items("p-1", 3)).join();
+
+        assertThat(bulkWrites().get(0)).singleElement().satisfies(write -> {
+            BsonDocument filter = ((UpdateOneModel<Document>) write).getFilter().toBsonDocument();
+            // The check and the decrement are one conditional write, so a concurrent order cannot oversell
+            BsonDocument gte = filter.getArray("$and").get(2).asDocument().getDocument("$expr");
+            assertThat(gte.getArray("$gte").get(1).asInt32().getValue()).isEqualTo(3);
+            assertThat(((UpdateOneModel<Document>) write).getUpdate().toBsonDocument()
+                    .getDocument("$inc").getInt32("quantity").getValue()).isEqualTo(-3);
+        });
+    }
+
+    @Test
+    void tryDeductAll_withAnItemShort_shouldRejectWithoutWriting() {
+        givenDocuments(List.of(doc("p-1", 10), doc("p-2", 1)));
+
+        Map<String, DeductionResult> results = repository.tryDeductAll(ORDER_ID, items("p-1", 2, "p-2", 3)).join();
+
+        assertThat(results).containsExactly(entry("p-2", DeductionResult.insufficient(1)));
+        verify(collection, never()).bulkWrite(anyList(), any(BulkWriteOptions.class));
+        verify(claims, never()).execute();
+    }
+
+    @Test
+    void tryDeductAll_withUnknownProduct_shouldRejectAsNotFound() {
+        givenDocuments(List.of(doc("p-1", 10)));
+
+        Map<String, DeductionResult> results = repository.tryDeductAll(ORDER_ID, items("p-1", 2, "p-9", 1)).join();
+
+        assertThat(results).containsExactly(entry("p-9", DeductionResult.notFound()));
+    }
+
+    @Test
+    void tryDeductAll_whenAnItemLosesARace_shouldRestoreTheAppliedItemsAndDropTheClaims() {
+        InventoryDocument short2 = doc("p-2", 0);
+        when(mongoTemplate.find(any(Query.class), eq(InventoryDocument.class)))
+                .thenReturn(List.of(doc("p-1", 10), doc("p-2", 5)))
+                .thenAnswer(inv -> {
+                    InventoryDocument applied1 = doc("p-1", 8);
+                    applied1.setRecentOrderIds(List.of(ORDER_ID));
+                    applied1.setDeductionAttempts(List.of(claimed.get(0).getAttempt()));
+                    return List.of(applied1, short2);
+                });
+        givenModified(1);
+
+        Map<String, DeductionResult> results = repository.tryDeductAll(ORDER_ID, items("p-1", 2, "p-2", 1)).join();
+
+        assertThat(results).containsExactly(entry("p-2", DeductionResult.insufficient(0)));
+        List<List<WriteModel<Document>>> writes = bulkWrites();
+        assertThat(writes).hasSize(2);
+        assertThat(writes.get(1)).singleElement().satisfies(restore -> {
+            BsonDocument update = ((UpdateOneModel<Document>) restore).getUpdate().toBsonDocument();
+            assertThat(update.getDocument("$inc").getInt32("quantity").getValue()).isEqualTo(2);
+        });
+        verify(mongoTemplate).remove(any(Query.class), eq(OrderDeductionDocument.class));
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class),
+                eq(OrderDeductionDocument.class));
+    }
+
+    @Test
+    void tryDeductAll_withOrderInTheRecentWindow_shouldReportDuplicateWithoutWriting() {
+        InventoryDocument deducted = doc("p-1", 8);
+        deducted.setRecentOrderIds(List.of(ORDER_ID));
+        givenDocuments(List.of(deducted));
+
+        Map<String, DeductionResult> results = repository.tryDeductAll(ORDER_ID, items("p-1", 2)).join();
+
+        assertThat(results).containsExactly(entry("p-1", DeductionResult.duplicate(8)));
+        verify(claims, never()).execute();
+        verify(collection, never()).bulkWrite(anyList(), any(BulkWriteOptions.class));
+    }
+
+    @Test
+    void tryDeductAll_withOrderOnlyInTheLedger_shouldReportDuplicateWithoutWriting() {
+        givenDocuments(List.of(doc("p-1", 8)));
+        when(claims.execute()).thenThrow(refused(0, 11000));
+        OrderDeductionDocument applied = claim("p-1", ORDER_ID + ":earlier");
+        applied.setState(OrderDeductionDocument.APPLIED);
+        when(mongoTemplate.find(any(Query.class), eq(OrderDeductionDocument.class))).thenReturn(List.of(applied));
+
+        Map<String, DeductionResult> results = repository.tryDeductAll(ORDER_ID, items("p-1", 2)).join();
+
+        assertThat(results).containsExactly(entry("p-1", DeductionResult.duplicate(8)));
+        verify(collection, never()).bulkWrite(anyList(), any(BulkWriteOptions.class));
+    }
+
+    @Test
+    void tryDeductAll_withClaimOfAnAttemptThatWroteButDidNotSettle_shouldSettleItAsDuplicate() {
+        InventoryDocument written = doc("p-1", 8);
+        written.setDeductionAttempts(List.of(ORDER_ID + ":earlier"));
+        givenDocuments(List.of(written));
+        when(claims.execute()).thenThrow(refused(0, 11000));
+        when(mongoTemplate.find(any(Query.class), eq(OrderDeductionDocument.class)))
+                .thenReturn(List.of(claim("p-1", ORDER_ID + ":earlier")));
+
+        Map<String, DeductionResult> results = repository.tryDeductAll(ORDER_ID, items("p-1", 2)).join();
+
+        assertThat(results).containsExactly(entry("p-1", DeductionResult.duplicate(8)));
+        verify(mongoTemplate).updateMulti(any(Query.class), any(Update.class), eq(OrderDeductionDocument.class));
+        verify(collection, never()).bulkWrite(anyList(), any(BulkWriteOptions.class));
+    }
+
+    @Test
+    void tryDeductAll_withClaimOfAnAttemptThatNeverWrote_shouldTakeItOverAndDeduct() {
+        givenDocuments(List.of(doc("p-1", 10)), List.of(doc("p-1", 8)));
+        when(claims.execute()).thenThrow(refused(0, 11000));
+        when(mongoTemplate.find(any(Query.class), eq(OrderDeductionDocument.class)))
+                .thenReturn(List.of(claim("p-1", ORDER_ID + ":crashed")));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(OrderDeductionDocument.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        givenModified(1);
+
+        Map<String, DeductionResult> results = repository.tryDeductAll(ORDER_ID, items("p-1", 2)).join();
+
+        assertThat(results).containsExactly(entry("p-1", DeductionResult.deducted(8)));
+    }
+
+    @Test
+    void tryDeduct_shouldGoThroughTheLedgeredPath() {
+        givenDocuments(List.of(doc("p-1", 10)), List.of(doc("p-1", 7)));
+        givenModified(1);
+
+        DeductionResult result = repository.tryDeduct(ProductId.of("p-1"), ORDER_ID, 3).join();
+
+        assertThat(result).isEqualTo(DeductionResult.deducted(7));
+        assertThat(claimed).singleElement().extracting(OrderDeductionDocument::getQty).isEqualTo(3);
+    }
+
+    @Test
+    void returnDeducted_shouldAddBackTheRecordedQuantityOfAppliedItems() {
+        OrderDeductionDocument applied = claim("p-1", ORDER_ID + ":a");
+        applied.setQty(4);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(OrderDeductionDocument.class)))
+                .thenReturn(applied, (OrderDeductionDocument) null);
+        givenModified(1);
+        givenDocuments(List.of(doc("p-1", 14)));
+
+        Map<String, Integer> available = repository.returnDeducted(ORDER_ID, List.of("p-1", "p-2")).join();
+
+        assertThat(available).containsOnly(entry("p-1", 14));
+        assertThat(bulkWrites()).singleElement().satisfies(models -> assertThat(models).singleElement()
+                .satisfies(model -> assertThat(((UpdateOneModel<Document>) model).getUpdate().toBsonDocument()
+                        .getDocument("$inc").getInt32("quantity").getValue()).isEqualTo(4)));
+    }
+
+    @Test
+    void returnDeducted_whenAlreadyReturned_shouldChangeNothing() {
+        Map<String, Integer> available = repository.returnDeducted(ORDER_ID, List.of("p-1")).join();
+
+        assertThat(available).isEmpty();
+        verify(collection, never()).bulkWrite(anyList(), any(BulkWriteOptions.class));
+    }
+
+    @Test
+    void tryReserve_shouldRecordTheHoldInTheSameWrite() {
+        InventoryDocument held = doc("p-1", 10);
+        held.setReserved(3);
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(),
+                eq(InventoryDocument.class))).thenReturn(held);
+
+        DeductionResult result = repository.tryReserve(hold("p-1", 3)).join();
+
+        assertThat(result).isEqualTo(DeductionResult.deducted(7));
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), any(), eq(InventoryDocument.class));
+        assertThat(query.getValue().getQueryObject().get("heldHolds", Document.class).get("$ne"))
+                .isEqualTo(ORDER_ID + ":p-1");
+        assertThat(update.getValue().getUpdateObject().get("$push", Document.class).get("heldHolds"))
+                .isEqualTo(ORDER_ID + ":p-1");
+    }
+
+    @Test
+    void tryReserve_whenTheHoldWasAlreadyApplied_shouldReportDuplicate() {
+        InventoryDocument current = doc("p-1", 10);
+        current.setReserved(3);
+        current.setHeldHolds(List.of(ORDER_ID + ":p-1"));
+        when(mongoTemplate.findOne(any(Query.class), eq(InventoryDocument.class))).thenReturn(current);
+
+        DeductionResult result = repository.tryReserve(hold("p-1", 3)).join();
+
+        assertThat(result).isEqualTo(DeductionResult.duplicate(7));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void releaseHolds_shouldOnlyMatchHoldsThatWereApplied() {
+        givenModified(1);
+        givenDocuments(List.of(doc("p-1", 10)));
+
+        repository.releaseHolds(List.of(hold("p-1", 3))).join();
+
+        assertThat(bulkWrites()).singleElement().satisfies(models -> {
+            UpdateOneModel<Document> release = (UpdateOneModel<Document>) models.get(0);
+            assertThat(release.getFilter().toBsonDocument().toJson()).contains("\"heldHolds\": \"order-1:p-1\"");
+            assertThat(release.getUpdate().toBsonDocument().getDocument("$pull").getString("heldHolds").getValue())
+                    .isEqualTo(ORDER_ID + ":p-1");
+        });
+    }
+
+    @Test
+    void setQuantities_shouldReportWrittenProductsAsAvailableAndOthersAsMoved() {
+        List<List<WriteModel<Document>>> writes = new ArrayList<>();
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenAnswer(inv -> {
+            writes.add(inv.getArgument(0));
+            return BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of());
+        });
+        when(mongoTemplate.find(any(Query.class), eq(InventoryDocument.class))).thenAnswer(inv -> {
+            String token = ((UpdateOneModel<Document>) writes.get(0).get(0)).getUpdate().toBsonDocument()
+                    .getDocument("$set").getString("lastSyncWrite").getValue();
+            InventoryDocument written = doc("p-1", 20);
+            written.setReserved(5);
+            written.setLastSyncWrite(token);
+            InventoryDocument moved = doc("p-2", 9);
+            moved.setLastSyncWrite("another-sync");
+            return List.of(written, moved);
+        });
+
+        QuantitySetResult result = repository.setQuantities(List.of(
+                new QuantityChange("p-1", 10, 20),
+                new QuantityChange("p-2", 4, 30))).join();
+
+        assertThat(result.available()).containsOnly(entry("p-1", 15));
+        assertThat(result.moved()).containsOnly(entry("p-2", 9));
+        assertThat(writes).singleElement().satisfies(models -> assertThat(models).hasSize(2));
+    }
+
+    @Test
+    void setQuantities_forProductWithoutRecord_shouldOnlyInsert() {
+        List<List<WriteModel<Document>>> writes = new ArrayList<>();
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class))).thenAnswer(inv -> {
+            writes.add(inv.getArgument(0));
+            return BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of());
+        });
+        when(mongoTemplate.find(any(Query.class), eq(InventoryDocument.class))).thenReturn(List.of());
+
+        repository.setQuantities(List.of(new QuantityChange("p-1", null, 20))).join();
+
+        UpdateOneModel<Document> insert = (UpdateOneModel<Document>) writes.get(0).get(0);
+        assertThat(insert.getOptions().isUpsert()).isTrue();
+        assertThat(insert.getUpdate().toBsonDocument().keySet()).containsOnly("$setOnInsert");
+    }
+
+    @Test
+    void setQuantities_withoutChanges_shouldNotWrite() {
+        QuantitySetResult result = repository.setQuantities(List.of()).join();
+
+        assertThat(result.available()).isEmpty();
+        verify(collection, never()).bulkWrite(anyList(), any(BulkWriteOptions.class));
+    }
+
+    private void givenDocuments(List<InventoryDocument> before, List<InventoryDocument> after) {
+        when(mongoTemplate.find(any(Query.class), eq(InventoryDocument.class))).thenReturn(before, after);
+    }
+
+    private void givenDocuments(List<InventoryDocument> docs) {
+        when(mongoTemplate.find(any(Query.class), eq(InventoryDocument.class))).thenReturn(docs);
+    }
+
+    private void givenModified(int modified) {
+        when(collection.bulkWrite(anyList(), any(BulkWriteOptions.class)))
+                .thenReturn(BulkWriteResult.acknowledged(0, modified, 0, modified, List.of(), List.of()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<WriteModel<Document>>> bulkWrites() {
+        ArgumentCaptor<List<WriteModel<Document>>> captor = ArgumentCaptor.forClass(List.class);
+        verify(collection, atLeastOnce()).bulkWrite(captor.capture(), any(BulkWriteOptions.class));
+        return captor.getAllValues();
+    }
+
+    private static Map<String, Integer> items(Object... productsAndQuantities) {
+        Map<String, Integer> items = new LinkedHashMap<>();
+        for (int i = 0; i < productsAndQuantities.length; i += 2) {
+            items.put((String) productsAndQuantities[i], (Integer) productsAndQuantities[i + 1]);
+        }
+        return items;
+    }
+
+    private static StockReservation hold(String productId, int qty) {
+        return StockReservation.of(ORDER_ID, productId, qty, Instant.now().plusSeconds(60));
+    }
+
+    private static InventoryDocument doc(String productId, int quantity) {
+        InventoryDocument doc = new InventoryDocument();
+        doc.setProductId(productId);
+        doc.setQuantity(quantity);
+        return doc;
+    }
+
+    private static OrderDeductionDocument claim(String productId, String attempt) {
+        return new OrderDeductionDocument(ORDER_ID, productId, 2, attempt, Instant.now());
+    }
+
+    private static BulkOperationException refused(int index, int code) {
+        BulkWriteError error = new BulkWriteError(code, "refused", new BsonDocument(), index);
+        MongoBulkWriteException cause = new MongoBulkWriteException(
+                BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of()), List.of(error), null,
+                new ServerAddress(), Set.of());
+        return new BulkOperationException("refused", cause);
+    }
+}
@@ -1,27 +1,123 @@
 package com.ecommerce.inventory.queryapi.controllers;
 
+import com.ecommerce.inventory.queryapi.dto.AvailabilityRequest;
+import com.ecommerce.inventory.queryapi.dto.AvailabilityResponse;
 import com.ecommerce.inventory.queryapi.models.StockAvailabilityView;
+import com.ecommerce.inventory.queryapi.replica.AvailabilityReplica;
 import com.ecommerce.inventory.queryapi.repositories.StockAvailabilityRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/v1/inventory")
 public class InventoryQueryController {
 
     private final StockAvailabilityRepository repository;
+    // Present only when the in-memory replica is enabled
+    private final AvailabilityReplica replica;
+    private final int maxBatchSize;
 
-    public InventoryQueryController(StockAvailabilityRepository repository) {
+    public InventoryQueryController(StockAvailabilityRepository repository,
+            ObjectProvider<AvailabilityReplica> replica,
+            @Value("${inventory.availability.max-batch-size:200}") int maxBatchSize) {
         this.repository = repository;
+        this.replica = replica.getIfAvailable();
+        this.maxBatchSize = maxBatchSize;
     }
 
+    /**
+     * Get stock for a product. Supports If-None-Match: a matching ETag is
+     * answered with 304 from a quantity-only read. The ETag is derived from
+     * the available quantity rather than from a counter, so the Mongo view
+     * and the replica of every instance hand out the same tag for the same
+     * stock.
+     */
     @GetMapping("/products/{productId}")
-    public ResponseEntity<StockAvailabilityView> getStock(@PathVariable String productId) {
+    public ResponseEntity<StockAvailabilityView> getStock(@PathVariable String productId, WebRequest request) {
+        if (replicaReady()) {
+            return fromReplica(productId, request);
+        }
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<String> current = repository.findAvailableQtyById(productId).map(InventoryQueryController::etag);
+            if (current.isPresent() && request.checkNotModified(current.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current.get()).build();
+            }
+        }
+
         return repository.findById(productId)
-                .map(ResponseEntity::ok)
+                .map(view -> ResponseEntity.ok().eTag(etag(view)).body(view))
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    /**
+     * Get the available quantity of many products at once, e.g. every tile
+     * of a listing page, from one projected query.
+     */
+    @PostMapping("/availability")
+    public ResponseEntity<AvailabilityResponse> getAvailability(@RequestBody AvailabilityRequest request) {
+        if (request.productIds() == null || request.productIds().isEmpty()) {
+            return ResponseEntity.ok(new AvailabilityResponse(Map.of()));
+        }
+        Set<String> productIds = new LinkedHashSet<>(request.productIds());
+        if (productIds.size() > maxBatchSize) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Map<String, Integer> available = new HashMap<>();
+        if (replicaReady()) {
+            for (String productId : productIds) {
+                AvailabilityReplica.Availability entry = replica.get(productId);
+                if (entry != null) {
+                    available.put(productId, entry.availableQty());
+                }
+            }
+            return ResponseEntity.ok(new AvailabilityResponse(available));
+        }
+        for (StockAvailabilityView view : repository.findAvailableQtyByIdIn(productIds)) {
+            available.put(view.getProductId(), view.getAvailableQty());
+        }
+        return ResponseEntity.ok(new AvailabilityResponse(available));
+    }
+
+    private ResponseEntity<StockAvailabilityView> fromReplica(String productId, WebRequest request) {
+        AvailabilityReplica.Availability entry = replica.get(productId);
+        if (entry == null) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = etag(productId, entry.availableQty());
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        StockAvailabilityView view = new StockAvailabilityView(productId, entry.availableQty(), entry.inStock());
+        return ResponseEntity.ok().eTag(etag).body(view);
+    }
+
+    private boolean replicaReady() {
+        return replica != null && replica.isReady();
+    }
+
+    private static String etag(StockAvailabilityView view) {
+        return etag(view.getProductId(), view.getAvailableQty());
+    }
+
+    private static String etag(String productId, int availableQty) {
+        return "\"" + productId + "-" + availableQty + "\"";
+    }
 }
@@ -0,0 +1,6 @@
+package com.ecommerce.inventory.queryapi.dto;
+
+import java.util.List;
+
+public record AvailabilityRequest(List<String> productIds) {
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.inventory.queryapi.dto;
+
+import java.util.Map;
+
+/**
+ * Available quantity per product id; products without stock records are
+ * left out.
+ */
+public record AvailabilityResponse(Map<String, Integer> available) {
+}
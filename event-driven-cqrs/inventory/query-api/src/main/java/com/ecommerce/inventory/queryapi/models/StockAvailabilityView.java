@@ -1,5 +1,6 @@
 package com.ecommerce.inventory.queryapi.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -11,6 +12,15 @@ public class StockAvailabilityView {
     private int availableQty;
     private boolean inStock;
 
+    // Incremented by the projection on every applied event; internal to the projection
+    private long version;
+
+    // Stock band of the last published threshold transition; internal to the projection
+    private String publishedBand;
+
+    // Quantity before a threshold crossing whose transition is not yet published; internal to the projection
+    private Integer transitionFromQty;
+
     public StockAvailabilityView() {
     }
 
@@ -44,4 +54,31 @@ public class StockAvailabilityView {
     public void setInStock(boolean inStock) {
         this.inStock = inStock;
     }
+
+    @JsonIgnore
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    @JsonIgnore
+    public String getPublishedBand() {
+        return publishedBand;
+    }
+
+    public void setPublishedBand(String publishedBand) {
+        this.publishedBand = publishedBand;
+    }
+
+    @JsonIgnore
+    public Integer getTransitionFromQty() {
+        return transitionFromQty;
+    }
+
+    public void setTransitionFromQty(Integer transitionFromQty) {
+        this.transitionFromQty = transitionFromQty;
+    }
 }
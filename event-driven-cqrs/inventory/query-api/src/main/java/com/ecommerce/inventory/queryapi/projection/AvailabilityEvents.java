@@ -0,0 +1,36 @@
+package com.ecommerce.inventory.queryapi.projection;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.OptionalInt;
+
+/**
+ * How inventory events move a product's availability. Shared by the Mongo
+ * projection and the in-memory replica so that both apply the same events.
+ */
+public final class AvailabilityEvents {
+
+    private AvailabilityEvents() {
+    }
+
+    /**
+     * The available quantity the event leaves its product with, or empty if
+     * the event does not change availability.
+     */
+    public static OptionalInt availableQty(String eventType, JsonNode event) {
+        if (eventType == null) {
+            return OptionalInt.empty();
+        }
+        return switch (eventType) {
+            // StockSet.newQty is on hand; events published before availableQty existed only carry that
+            case "StockSet" -> OptionalInt.of(event.has("availableQty")
+                    ? event.get("availableQty").asInt()
+                    : event.get("newQty").asInt());
+            case "StockDeductedForOrder" -> OptionalInt.of(event.get("newQty").asInt());
+            case "StockReturnedForOrder" -> OptionalInt.of(event.get("availableQty").asInt());
+            // Holds move availability without changing stock on hand
+            case "StockReserved", "StockReservationReleased" -> OptionalInt.of(event.get("availableQty").asInt());
+            default -> OptionalInt.empty();
+        };
+    }
+}
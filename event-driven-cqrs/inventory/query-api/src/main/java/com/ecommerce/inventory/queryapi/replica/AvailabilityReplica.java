@@ -0,0 +1,57 @@
+package com.ecommerce.inventory.queryapi.replica;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The whole stock availability view held in memory by one query-api
+ * instance. Each entry is a product id and an immutable available quantity,
+ * a few dozen bytes per product.
+ * <p>
+ * The replica keeps no version of its own: a count of the events one
+ * instance happened to apply is not comparable across instances, so ETags
+ * are derived from the quantity instead.
+ */
+public class AvailabilityReplica {
+
+    private final ConcurrentHashMap<String, Availability> entries = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public Availability get(String productId) {
+        return entries.get(productId);
+    }
+
+    /**
+     * Applies an inventory event that left the product with {@code availableQty}.
+     */
+    public void apply(String productId, int availableQty) {
+        entries.put(productId, new Availability(availableQty));
+    }
+
+    /**
+     * Adds a snapshot row. For a product already updated by an event, the
+     * event's quantity wins: it was received after the replica started
+     * listening, so it is at least as new as anything the snapshot read.
+     */
+    public void load(String productId, int availableQty) {
+        entries.putIfAbsent(productId, new Availability(availableQty));
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    void markReady() {
+        ready = true;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public record Availability(int availableQty) {
+
+        public boolean inStock() {
+            return availableQty > 0;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.ecommerce.inventory.queryapi.replica;
+
+import com.ecommerce.shared.messaging.MessagingConstants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Base64UrlNamingStrategy;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Serves availability reads from memory instead of Mongo. Each instance
+ * consumes every inventory event, so this suits many query replicas over a
+ * catalogue that fits in memory.
+ */
+@Configuration
+@ConditionalOnProperty(name = "inventory.availability.replica.enabled", havingValue = "true")
+public class AvailabilityReplicaConfig {
+
+    @Bean
+    public TopicExchange inventoryEventsExchange() {
+        return new TopicExchange(MessagingConstants.EVENTS_EXCHANGE);
+    }
+
+    /**
+     * One queue per instance, as every instance needs every event; exclusive
+     * and auto-delete, so a restarted instance re-bootstraps from Mongo.
+     */
+    @Bean
+    public Queue inventoryAvailabilityReplicaQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("inventory.availability."));
+    }
+
+    @Bean
+    public Binding inventoryAvailabilityReplicaBinding() {
+        return BindingBuilder
+                .bind(inventoryAvailabilityReplicaQueue())
+                .to(inventoryEventsExchange())
+                .with("inventory.#");
+    }
+
+    @Bean
+    public AvailabilityReplica availabilityReplica() {
+        return new AvailabilityReplica();
+    }
+
+    @Bean
+    public AvailabilityReplicaUpdater availabilityReplicaUpdater(AvailabilityReplica availabilityReplica,
+            MongoTemplate mongoTemplate, ObjectMapper objectMapper) {
+        return new AvailabilityReplicaUpdater(availabilityReplica, mongoTemplate, objectMapper);
+    }
+}
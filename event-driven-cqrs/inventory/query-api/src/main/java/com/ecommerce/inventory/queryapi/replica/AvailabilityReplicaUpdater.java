@@ -0,0 +1,75 @@
+package com.ecommerce.inventory.queryapi.replica;
+
+import com.ecommerce.inventory.queryapi.models.StockAvailabilityView;
+import com.ecommerce.inventory.queryapi.projection.AvailabilityEvents;
+import com.ecommerce.shared.messaging.MessagingConstants;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the {@link AvailabilityReplica} of this instance current: listens to
+ * inventory events on a queue of its own, then loads the Mongo view as a
+ * snapshot once the application is ready. Until the snapshot is loaded,
+ * reads fall back to Mongo.
+ */
+public class AvailabilityReplicaUpdater {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityReplicaUpdater.class);
+
+    private final AvailabilityReplica replica;
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+
+    public AvailabilityReplicaUpdater(AvailabilityReplica replica, MongoTemplate mongoTemplate,
+            ObjectMapper objectMapper) {
+        this.replica = replica;
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        CompletableFuture.runAsync(() -> {
+            Query snapshot = new Query();
+            snapshot.fields().include("availableQty");
+            try (Stream<StockAvailabilityView> views = mongoTemplate.stream(snapshot, StockAvailabilityView.class)) {
+                views.forEach(view ->
+                        replica.load(view.getProductId(), view.getAvailableQty()));
+            }
+            replica.markReady();
+        }).whenComplete((v, ex) -> {
+            if (ex != null) {
+                logger.error("Failed to load availability replica; reads stay on Mongo", ex);
+            } else {
+                logger.info("Availability replica loaded: {} products", replica.size());
+            }
+        });
+    }
+
+    @RabbitListener(queues = "#{inventoryAvailabilityReplicaQueue.name}")
+    public void handleEvent(Message message) {
+        String eventType = (String) message.getMessageProperties().getHeader(MessagingConstants.HEADER_EVENT_TYPE);
+
+        try {
+            JsonNode event = objectMapper.readTree(message.getBody());
+            OptionalInt availableQty = AvailabilityEvents.availableQty(eventType, event);
+            if (availableQty.isPresent()) {
+                replica.apply(event.get("productId").asText(), availableQty.getAsInt());
+            }
+        } catch (Exception ex) {
+            logger.error("Error applying {} to availability replica: {}", eventType, ex.getMessage(), ex);
+        }
+    }
+}
@@ -2,8 +2,27 @@ package com.ecommerce.inventory.queryapi.repositories;
 
 import com.ecommerce.inventory.queryapi.models.StockAvailabilityView;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface StockAvailabilityRepository extends MongoRepository<StockAvailabilityView, String> {
+
+    /**
+     * Loads only the id and available quantity of the view, for conditional
+     * requests.
+     */
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'availableQty': 1 }")
+    Optional<StockAvailabilityView> findAvailableQtyById(String productId);
+
+    /**
+     * Loads only the id and available quantity of each view, for batch
+     * availability lookups.
+     */
+    @Query(value = "{ '_id': { '$in': ?0 } }", fields = "{ 'availableQty': 1 }")
+    List<StockAvailabilityView> findAvailableQtyByIdIn(Collection<String> productIds);
 }
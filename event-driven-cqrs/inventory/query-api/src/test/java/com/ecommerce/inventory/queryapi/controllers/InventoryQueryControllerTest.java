@@ -0,0 +1,126 @@
+package com.ecommerce.inventory.queryapi.controllers;
+
+import com.ecommerce.inventory.queryapi.dto.AvailabilityRequest;
+import com.ecommerce.inventory.queryapi.dto.AvailabilityResponse;
+import com.ecommerce.inventory.queryapi.models.StockAvailabilityView;
+import com.ecommerce.inventory.queryapi.replica.AvailabilityReplica;
+import com.ecommerce.inventory.queryapi.repositories.StockAvailabilityRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for InventoryQueryController's ETags and batch availability,
+ * against a mocked repository and replica.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class InventoryQueryControllerTest {
+
+    @Mock
+    private StockAvailabilityRepository repository;
+    @Mock
+    private ObjectProvider<AvailabilityReplica> replicaProvider;
+    @Mock
+    private AvailabilityReplica replica;
+    @Mock
+    private WebRequest request;
+
+    @Test
+    void getStock_shouldTagTheSameStockAlikeOnMongoAndOnTheReplica() {
+        StockAvailabilityView view = new StockAvailabilityView("p-1", 7, true);
+        view.setVersion(42);
+        when(repository.findById("p-1")).thenReturn(Optional.of(view));
+        ResponseEntity<StockAvailabilityView> fromMongo = controller(null).getStock("p-1", request);
+
+        when(replica.isReady()).thenReturn(true);
+        when(replica.get("p-1")).thenReturn(new AvailabilityReplica.Availability(7));
+        ResponseEntity<StockAvailabilityView> fromReplica = controller(replica).getStock("p-1", request);
+
+        assertThat(fromMongo.getHeaders().getETag()).isEqualTo("\"p-1-7\"");
+        assertThat(fromReplica.getHeaders().getETag()).isEqualTo(fromMongo.getHeaders().getETag());
+    }
+
+    @Test
+    void getStock_withMatchingIfNoneMatch_shouldAnswer304FromTheQuantityOnlyRead() {
+        when(request.getHeader(HttpHeaders.IF_NONE_MATCH)).thenReturn("\"p-1-7\"");
+        when(request.checkNotModified("\"p-1-7\"")).thenReturn(true);
+        when(repository.findAvailableQtyById("p-1"))
+                .thenReturn(Optional.of(new StockAvailabilityView("p-1", 7, false)));
+
+        ResponseEntity<StockAvailabilityView> response = controller(null).getStock("p-1", request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        verify(repository, never()).findById(any());
+    }
+
+    @Test
+    void getStock_afterTheQuantityChanged_shouldServeTheNewTag() {
+        when(replica.isReady()).thenReturn(true);
+        when(replica.get("p-1")).thenReturn(new AvailabilityReplica.Availability(6));
+        when(request.checkNotModified("\"p-1-6\"")).thenReturn(false);
+
+        ResponseEntity<StockAvailabilityView> response = controller(replica).getStock("p-1", request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"p-1-6\"");
+        assertThat(response.getBody().getAvailableQty()).isEqualTo(6);
+    }
+
+    @Test
+    void getAvailability_shouldReadEachProductOnceInOneQuery() {
+        when(repository.findAvailableQtyByIdIn(anyCollection()))
+                .thenReturn(List.of(new StockAvailabilityView("p-1", 7, true)));
+
+        ResponseEntity<AvailabilityResponse> response = controller(null)
+                .getAvailability(new AvailabilityRequest(List.of("p-1", "p-2", "p-1")));
+
+        verify(repository).findAvailableQtyByIdIn(Set.of("p-1", "p-2"));
+        assertThat(response.getBody().available()).containsOnly(entry("p-1", 7));
+    }
+
+    @Test
+    void getAvailability_fromTheReplica_shouldLeaveOutUnknownProducts() {
+        when(replica.isReady()).thenReturn(true);
+        when(replica.get("p-1")).thenReturn(new AvailabilityReplica.Availability(3));
+
+        ResponseEntity<AvailabilityResponse> response = controller(replica)
+                .getAvailability(new AvailabilityRequest(List.of("p-1", "p-2")));
+
+        assertThat(response.getBody().available()).containsOnly(entry("p-1", 3));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void getAvailability_withMoreProductsThanTheBatchLimit_shouldBeRejected() {
+        when(replicaProvider.getIfAvailable()).thenReturn(null);
+        InventoryQueryController controller = new InventoryQueryController(repository, replicaProvider, 1);
+
+        ResponseEntity<AvailabilityResponse> response = controller
+                .getAvailability(new AvailabilityRequest(List.of("p-1", "p-2")));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(repository);
+    }
+
+    private InventoryQueryController controller(AvailabilityReplica available) {
+        when(replicaProvider.getIfAvailable()).thenReturn(available);
+        return new InventoryQueryController(repository, replicaProvider, 200);
+    }
+}
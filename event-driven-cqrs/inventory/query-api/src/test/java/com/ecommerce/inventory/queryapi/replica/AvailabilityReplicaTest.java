@@ -0,0 +1,32 @@
+package com.ecommerce.inventory.queryapi.replica;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for AvailabilityReplica.
+ */
+class AvailabilityReplicaTest {
+
+    private final AvailabilityReplica replica = new AvailabilityReplica();
+
+    @Test
+    void load_afterAnEvent_shouldKeepTheEventQuantity() {
+        replica.apply("p-1", 7);
+
+        replica.load("p-1", 10);
+
+        assertThat(replica.get("p-1").availableQty()).isEqualTo(7);
+    }
+
+    @Test
+    void apply_afterTheSnapshot_shouldReplaceTheQuantity() {
+        replica.load("p-1", 10);
+
+        replica.apply("p-1", 0);
+
+        assertThat(replica.get("p-1").availableQty()).isZero();
+        assertThat(replica.get("p-1").inStock()).isFalse();
+    }
+}
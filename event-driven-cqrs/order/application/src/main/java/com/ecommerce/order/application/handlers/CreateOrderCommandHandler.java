@@ -1,49 +1,82 @@
 package com.ecommerce.order.application.handlers;
 
 import com.ecommerce.order.application.commands.CreateOrderCommand;
+import com.ecommerce.order.application.ports.OrderNumberAllocator;
 import com.ecommerce.order.application.ports.OrderRepository;
 import com.ecommerce.order.domain.aggregates.Order;
+import com.ecommerce.order.domain.events.OrderCreationFailed;
 import com.ecommerce.order.domain.valueobjects.IdempotencyKey;
 import com.ecommerce.order.domain.valueobjects.OrderId;
-import com.ecommerce.order.domain.valueobjects.OrderNumber;
 import com.ecommerce.shared.common.commands.CommandHandler;
 import com.ecommerce.shared.common.domain.DomainEvent;
 import com.ecommerce.shared.common.events.EventPublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 public class CreateOrderCommandHandler implements CommandHandler<CreateOrderCommand, Void> {
 
+    private static final Logger logger = LoggerFactory.getLogger(CreateOrderCommandHandler.class);
+
     private final OrderRepository repository;
     private final EventPublisher eventPublisher;
+    private final OrderNumberAllocator orderNumberAllocator;
 
-    public CreateOrderCommandHandler(OrderRepository repository, EventPublisher eventPublisher) {
+    public CreateOrderCommandHandler(OrderRepository repository, EventPublisher eventPublisher,
+            OrderNumberAllocator orderNumberAllocator) {
         this.repository = repository;
         this.eventPublisher = eventPublisher;
+        this.orderNumberAllocator = orderNumberAllocator;
     }
 
+    /**
+     * Stores the order and publishes its events. If the order cannot be
+     * created, OrderCreationFailed is published so the checkout saga can
+     * answer its caller, and the returned future still fails.
+     */
     @Override
     public CompletableFuture<Void> handle(CreateOrderCommand command) {
-        Order order = Order.create(
-                OrderId.of(command.getOrderId()),
-                OrderNumber.generate(),
-                command.getGuestToken(),
-                command.getCustomer(),
-                command.getAddress(),
-                command.getItems(),
-                command.getTotals(),
-                IdempotencyKey.of(command.getIdempotencyKey()));
-
-        return repository.save(order)
-                .thenAccept(saved -> {
-                    List<DomainEvent> events = saved.getUncommittedEvents();
+        CompletableFuture<Order> saved;
+        try {
+            Order order = Order.create(
+                    OrderId.of(command.getOrderId()),
+                    orderNumberAllocator.next(),
+                    command.getGuestToken(),
+                    command.getCustomer(),
+                    command.getAddress(),
+                    command.getItems(),
+                    command.getTotals(),
+                    IdempotencyKey.of(command.getIdempotencyKey()));
+            saved = repository.save(order);
+        } catch (RuntimeException ex) {
+            saved = CompletableFuture.failedFuture(ex);
+        }
+
+        return saved
+                .exceptionallyCompose(ex -> reportFailure(command, ex))
+                .thenAccept(order -> {
+                    List<DomainEvent> events = order.getUncommittedEvents();
                     for (DomainEvent event : events) {
                         eventPublisher.publish(event);
                     }
-                    saved.clearUncommittedEvents();
+                    order.clearUncommittedEvents();
+                });
+    }
+
+    private CompletableFuture<Order> reportFailure(CreateOrderCommand command, Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        logger.error("Failed to create order {}: {}", command.getOrderId(), cause.getMessage());
+        return eventPublisher.publish(new OrderCreationFailed(command.getOrderId(), cause.getMessage()))
+                .handle((published, publishEx) -> {
+                    if (publishEx != null) {
+                        logger.warn("Failed to publish OrderCreationFailed for {}", command.getOrderId(), publishEx);
+                    }
+                    throw new CompletionException(cause);
                 });
     }
 
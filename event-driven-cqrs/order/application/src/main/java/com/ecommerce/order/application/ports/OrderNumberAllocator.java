@@ -0,0 +1,11 @@
+package com.ecommerce.order.application.ports;
+
+import com.ecommerce.order.domain.valueobjects.OrderNumber;
+
+/**
+ * Source of unique order numbers.
+ */
+public interface OrderNumberAllocator {
+
+    OrderNumber next();
+}
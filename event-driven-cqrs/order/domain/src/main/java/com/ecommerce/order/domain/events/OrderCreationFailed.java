@@ -0,0 +1,56 @@
+package com.ecommerce.order.domain.events;
+
+import com.ecommerce.shared.common.domain.DomainEvent;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A CreateOrderCommand could not be carried out; no order was stored.
+ */
+public class OrderCreationFailed implements DomainEvent {
+    private final UUID eventId;
+    private final String orderId;
+    private final String reason;
+    private final Instant occurredAt;
+
+    public OrderCreationFailed(String orderId, String reason) {
+        this.eventId = UUID.randomUUID();
+        this.orderId = orderId;
+        this.reason = reason;
+        this.occurredAt = Instant.now();
+    }
+
+    @Override
+    public UUID getEventId() {
+        return eventId;
+    }
+
+    @Override
+    public String getAggregateId() {
+        return orderId;
+    }
+
+    @Override
+    public String getAggregateType() {
+        return "Order";
+    }
+
+    @Override
+    public String getEventType() {
+        return "OrderCreationFailed";
+    }
+
+    @Override
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
@@ -2,7 +2,7 @@ package com.ecommerce.order.domain.valueobjects;
 
 import java.io.Serializable;
 import java.util.Objects;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class OrderNumber implements Serializable {
     private final String value;
@@ -15,9 +15,19 @@ public class OrderNumber implements Serializable {
         return new OrderNumber(value);
     }
 
+    /**
+     * Builds the order number for a value drawn from the order-number sequence.
+     */
+    public static OrderNumber fromSequence(long sequence) {
+        return new OrderNumber("ORD-" + sequence);
+    }
+
+    /**
+     * Random order number, kept for tests and tooling. Collides at volume;
+     * order creation uses the block-reserved sequence allocator instead.
+     */
     public static OrderNumber generate() {
-        // Simple random generation for MVP. In prod, use a sequence generator.
-        int random = 100000 + new Random().nextInt(900000);
+        int random = 100000 + ThreadLocalRandom.current().nextInt(900000);
         return new OrderNumber("ORD-" + random);
     }
 
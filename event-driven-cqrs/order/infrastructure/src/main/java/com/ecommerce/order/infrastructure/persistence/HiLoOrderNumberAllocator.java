@@ -0,0 +1,85 @@
+package com.ecommerce.order.infrastructure.persistence;
+
+import com.ecommerce.order.application.ports.OrderNumberAllocator;
+import com.ecommerce.order.domain.valueobjects.OrderNumber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hi/lo order-number allocator. Each instance reserves a block of numbers
+ * with a single findAndModify on the counter document and hands them out
+ * from an AtomicLong; only refilling an exhausted block takes a lock.
+ * <p>
+ * Numbers are unique across instances and roughly ordered. Numbers left in a
+ * block when an instance stops are skipped, never reused.
+ */
+@Component
+public class HiLoOrderNumberAllocator implements OrderNumberAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(HiLoOrderNumberAllocator.class);
+
+    static final String SEQUENCE_NAME = "orderNumber";
+
+    // Keeps sequence numbers clear of the six-digit random numbers issued before
+    static final long SEQUENCE_BASE = 1_000_000L;
+
+    private final MongoTemplate mongoTemplate;
+    private final int blockSize;
+    private volatile Block block = Block.EMPTY;
+
+    public HiLoOrderNumberAllocator(MongoTemplate mongoTemplate,
+            @Value("${order.number.block-size:100}") int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("order.number.block-size must be positive");
+        }
+        this.mongoTemplate = mongoTemplate;
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public OrderNumber next() {
+        while (true) {
+            Block current = block;
+            long value = current.next.getAndIncrement();
+            if (value < current.end) {
+                return OrderNumber.fromSequence(SEQUENCE_BASE + value);
+            }
+            refill(current);
+        }
+    }
+
+    private synchronized void refill(Block exhausted) {
+        if (block != exhausted) {
+            return; // another thread already reserved a new block
+        }
+        SequenceCounterDocument counter = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(SEQUENCE_NAME)),
+                new Update().inc("value", blockSize),
+                FindAndModifyOptions.options().returnNew(true).upsert(true),
+                SequenceCounterDocument.class);
+        long high = counter.getValue();
+        block = new Block(high - blockSize, high);
+        logger.debug("Reserved order numbers [{}, {})", SEQUENCE_BASE + high - blockSize, SEQUENCE_BASE + high);
+    }
+
+    private static final class Block {
+        static final Block EMPTY = new Block(0, 0);
+
+        final AtomicLong next;
+        final long end;
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
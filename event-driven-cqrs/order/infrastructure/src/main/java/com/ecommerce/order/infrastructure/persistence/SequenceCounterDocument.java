@@ -0,0 +1,36 @@
+package com.ecommerce.order.infrastructure.persistence;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * MongoDB counter document: {@code value} is the high-water mark of numbers
+ * handed out in blocks for the sequence named by {@code id}.
+ */
+@Document(collection = "sequence_counters")
+public class SequenceCounterDocument {
+
+    @Id
+    private String id;
+
+    private long value;
+
+    public SequenceCounterDocument() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public long getValue() {
+        return value;
+    }
+
+    public void setValue(long value) {
+        this.value = value;
+    }
+}
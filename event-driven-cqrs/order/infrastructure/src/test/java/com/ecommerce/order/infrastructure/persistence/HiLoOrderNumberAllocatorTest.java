@@ -0,0 +1,121 @@
+package com.ecommerce.order.infrastructure.persistence;
+
+import com.ecommerce.order.domain.valueobjects.OrderNumber;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for HiLoOrderNumberAllocator, against a mocked counter document.
+ */
+@ExtendWith(MockitoExtension.class)
+class HiLoOrderNumberAllocatorTest {
+
+    private static final int BLOCK_SIZE = 10;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private final AtomicLong counter = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(SequenceCounterDocument.class))).thenAnswer(inv -> {
+                    SequenceCounterDocument doc = new SequenceCounterDocument();
+                    doc.setId(HiLoOrderNumberAllocator.SEQUENCE_NAME);
+                    doc.setValue(counter.addAndGet(BLOCK_SIZE));
+                    return doc;
+                });
+    }
+
+    @Test
+    void next_shouldHandOutConsecutiveNumbersAboveTheBase() {
+        HiLoOrderNumberAllocator allocator = new HiLoOrderNumberAllocator(mongoTemplate, BLOCK_SIZE);
+
+        OrderNumber first = allocator.next();
+        OrderNumber second = allocator.next();
+
+        assertThat(first).isEqualTo(OrderNumber.fromSequence(HiLoOrderNumberAllocator.SEQUENCE_BASE));
+        assertThat(second).isEqualTo(OrderNumber.fromSequence(HiLoOrderNumberAllocator.SEQUENCE_BASE + 1));
+    }
+
+    @Test
+    void next_shouldReserveOneBlockPerBlockSizeNumbers() {
+        HiLoOrderNumberAllocator allocator = new HiLoOrderNumberAllocator(mongoTemplate, BLOCK_SIZE);
+
+        for (int i = 0; i < BLOCK_SIZE * 3; i++) {
+            allocator.next();
+        }
+
+        verify(mongoTemplate, times(3)).findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(SequenceCounterDocument.class));
+    }
+
+    @Test
+    void next_acrossInstances_shouldNotReuseNumbers() {
+        HiLoOrderNumberAllocator a = new HiLoOrderNumberAllocator(mongoTemplate, BLOCK_SIZE);
+        HiLoOrderNumberAllocator b = new HiLoOrderNumberAllocator(mongoTemplate, BLOCK_SIZE);
+
+        OrderNumber fromA = a.next();
+        OrderNumber fromB = b.next();
+
+        assertThat(fromB).isEqualTo(OrderNumber.fromSequence(HiLoOrderNumberAllocator.SEQUENCE_BASE + BLOCK_SIZE));
+        assertThat(fromA).isNotEqualTo(fromB);
+    }
+
+    @Test
+    void next_concurrently_shouldHandOutUniqueNumbers() throws Exception {
+        HiLoOrderNumberAllocator allocator = new HiLoOrderNumberAllocator(mongoTemplate, BLOCK_SIZE);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<String>>> workers = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                workers.add(executor.submit(() -> {
+                    List<String> numbers = new ArrayList<>();
+                    for (int n = 0; n < 500; n++) {
+                        numbers.add(allocator.next().getValue());
+                    }
+                    return numbers;
+                }));
+            }
+
+            Set<String> all = new HashSet<>();
+            for (Future<List<String>> worker : workers) {
+                all.addAll(worker.get(10, TimeUnit.SECONDS));
+            }
+
+            assertThat(all).hasSize(8 * 500);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void create_withNonPositiveBlockSize_shouldThrowException() {
+        assertThatThrownBy(() -> new HiLoOrderNumberAllocator(mongoTemplate, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("block-size");
+    }
+}
@@ -4,13 +4,17 @@ import com.ecommerce.order.queryapi.models.AdminOrderListView;
 import com.ecommerce.order.queryapi.models.OrderDetailView;
 import com.ecommerce.order.queryapi.repositories.AdminOrderListViewRepository;
 import com.ecommerce.order.queryapi.repositories.OrderDetailViewRepository;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v1/orders")
@@ -25,10 +29,21 @@ public class OrderQueryController {
         this.listRepository = listRepository;
     }
 
+    /**
+     * Get an order. Supports If-None-Match: a matching ETag is answered with
+     * 304 from a version-only read, without loading items and addresses.
+     */
     @GetMapping("/{orderId}")
-    public ResponseEntity<OrderDetailView> getOrder(@PathVariable String orderId) {
+    public ResponseEntity<OrderDetailView> getOrder(@PathVariable String orderId, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<String> current = detailRepository.findVersionById(orderId).map(OrderQueryController::etag);
+            if (current.isPresent() && request.checkNotModified(current.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current.get()).build();
+            }
+        }
+
         return detailRepository.findById(orderId)
-                .map(ResponseEntity::ok)
+                .map(view -> ResponseEntity.ok().eTag(etag(view)).body(view))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -36,4 +51,8 @@ public class OrderQueryController {
     public List<AdminOrderListView> getAllOrders() {
         return listRepository.findAll();
     }
+
+    private static String etag(OrderDetailView view) {
+        return "\"" + view.getOrderId() + "-" + view.getVersion() + "\"";
+    }
 }
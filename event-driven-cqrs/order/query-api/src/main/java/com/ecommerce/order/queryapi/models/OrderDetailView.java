@@ -30,6 +30,9 @@ public class OrderDetailView {
     private String orderStatus;
     private Instant createdAt;
 
+    // Incremented by the projection on every applied event; backs the ETag
+    private long version;
+
     public OrderDetailView() {
     }
 
@@ -45,6 +48,7 @@ public class OrderDetailView {
         this.paymentStatus = "Pending";
         this.orderStatus = "Created";
         this.createdAt = Instant.now();
+        this.version = 1;
     }
 
     public String getOrderId() {
@@ -87,6 +91,14 @@ public class OrderDetailView {
         return createdAt;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public void setPaymentStatus(String paymentStatus) {
         this.paymentStatus = paymentStatus;
     }
@@ -2,6 +2,7 @@ package com.ecommerce.order.queryapi.repositories;
 
 import com.ecommerce.order.queryapi.models.OrderDetailView;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,4 +10,10 @@ import java.util.Optional;
 @Repository
 public interface OrderDetailViewRepository extends MongoRepository<OrderDetailView, String> {
     Optional<OrderDetailView> findByOrderNumber(String orderNumber);
+
+    /**
+     * Loads only the id and version of the order, for conditional requests.
+     */
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'version': 1 }")
+    Optional<OrderDetailView> findVersionById(String orderId);
 }
@@ -0,0 +1,58 @@
+package com.ecommerce.productcatalog.application.commands;
+
+import com.ecommerce.productcatalog.application.jobs.PriceChangeJob;
+import com.ecommerce.shared.common.commands.Command;
+
+import java.util.List;
+
+/**
+ * Command to reprice every product matching a SKU list or status.
+ * Sending the command again with the same jobId resumes the job.
+ */
+public class BulkChangeProductPriceCommand implements Command<PriceChangeJob> {
+
+    private final String commandId;
+    private final String jobId;
+    private final PriceAdjustment adjustment;
+    private final List<String> skus;
+    private final String status;
+
+    public BulkChangeProductPriceCommand(String commandId, String jobId, PriceAdjustment adjustment,
+            List<String> skus, String status) {
+        this.commandId = commandId;
+        this.jobId = jobId;
+        this.adjustment = adjustment;
+        this.skus = skus != null ? List.copyOf(skus) : List.of();
+        this.status = status;
+    }
+
+    @Override
+    public String getCommandId() {
+        return commandId;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    /**
+     * The adjustment for a new job; null when resuming an existing one.
+     */
+    public PriceAdjustment getAdjustment() {
+        return adjustment;
+    }
+
+    /**
+     * SKUs to reprice; empty means no SKU filter.
+     */
+    public List<String> getSkus() {
+        return skus;
+    }
+
+    /**
+     * Product status to reprice, or null for any status except DELETED.
+     */
+    public String getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,34 @@
+package com.ecommerce.productcatalog.application.commands;
+
+import com.ecommerce.shared.common.commands.Command;
+
+import java.util.List;
+
+/**
+ * Command to create one chunk of products from a bulk import.
+ */
+public class BulkCreateProductsCommand implements Command<BulkCreateProductsResult> {
+
+    private final String commandId;
+    private final String importId;
+    private final List<ProductImportRow> rows;
+
+    public BulkCreateProductsCommand(String commandId, String importId, List<ProductImportRow> rows) {
+        this.commandId = commandId;
+        this.importId = importId;
+        this.rows = List.copyOf(rows);
+    }
+
+    @Override
+    public String getCommandId() {
+        return commandId;
+    }
+
+    public String getImportId() {
+        return importId;
+    }
+
+    public List<ProductImportRow> getRows() {
+        return rows;
+    }
+}
@@ -0,0 +1,28 @@
+package com.ecommerce.productcatalog.application.commands;
+
+import java.util.List;
+
+/**
+ * Result of BulkCreateProductsCommand execution, one entry per row.
+ */
+public record BulkCreateProductsResult(String importId, List<RowResult> rows) {
+
+    public record RowResult(int rowNumber, String sku, String productId, boolean success, String errorMessage) {
+
+        public static RowResult created(ProductImportRow row, String productId) {
+            return new RowResult(row.rowNumber(), row.sku(), productId, true, null);
+        }
+
+        /**
+         * The product exists, but something after the insert went wrong, e.g.
+         * its events could not be published.
+         */
+        public static RowResult created(ProductImportRow row, String productId, String warning) {
+            return new RowResult(row.rowNumber(), row.sku(), productId, true, warning);
+        }
+
+        public static RowResult failed(ProductImportRow row, String errorMessage) {
+            return new RowResult(row.rowNumber(), row.sku(), null, false, errorMessage);
+        }
+    }
+}
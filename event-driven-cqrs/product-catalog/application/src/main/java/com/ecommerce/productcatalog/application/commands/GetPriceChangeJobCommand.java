@@ -0,0 +1,28 @@
+package com.ecommerce.productcatalog.application.commands;
+
+import com.ecommerce.productcatalog.application.jobs.PriceChangeJob;
+import com.ecommerce.shared.common.commands.Command;
+
+/**
+ * Asks for the progress of a bulk price change job; the reply is the saved
+ * job, or null if there is no job with that id.
+ */
+public class GetPriceChangeJobCommand implements Command<PriceChangeJob> {
+
+    private final String commandId;
+    private final String jobId;
+
+    public GetPriceChangeJobCommand(String commandId, String jobId) {
+        this.commandId = commandId;
+        this.jobId = jobId;
+    }
+
+    @Override
+    public String getCommandId() {
+        return commandId;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+}
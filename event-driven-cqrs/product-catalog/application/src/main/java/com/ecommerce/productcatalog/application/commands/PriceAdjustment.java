@@ -0,0 +1,40 @@
+package com.ecommerce.productcatalog.application.commands;
+
+import com.ecommerce.productcatalog.domain.valueobjects.Money;
+
+import java.math.BigDecimal;
+
+/**
+ * A relative change applied to many product prices at once.
+ * PERCENTAGE 10 raises prices by 10%, ABSOLUTE -5 lowers them by 5 units.
+ */
+public record PriceAdjustment(Type type, BigDecimal value) {
+
+    public enum Type {
+        PERCENTAGE,
+        ABSOLUTE
+    }
+
+    public PriceAdjustment {
+        if (type == null || value == null) {
+            throw new IllegalArgumentException("Adjustment type and value are required");
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the adjusted price would not be positive
+     */
+    public Money apply(Money price) {
+        BigDecimal amount = switch (type) {
+            case PERCENTAGE -> price.getAmount()
+                    .multiply(BigDecimal.valueOf(100).add(value))
+                    .divide(BigDecimal.valueOf(100));
+            case ABSOLUTE -> price.getAmount().add(value);
+        };
+        Money adjusted = Money.of(amount.max(BigDecimal.ZERO), price.getCurrency());
+        if (adjusted.getAmount().signum() <= 0) {
+            throw new IllegalArgumentException("Adjusted price must be greater than 0");
+        }
+        return adjusted;
+    }
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.productcatalog.application.commands;
+
+import java.math.BigDecimal;
+
+/**
+ * One product row of a bulk import, numbered as in the uploaded file.
+ */
+public record ProductImportRow(
+        int rowNumber,
+        String name,
+        String description,
+        BigDecimal price,
+        String currency,
+        String sku) {
+}
@@ -2,12 +2,14 @@ package com.ecommerce.productcatalog.application.handlers;
 
 import com.ecommerce.productcatalog.application.commands.ActivateProductCommand;
 import com.ecommerce.productcatalog.application.ports.ProductRepository;
+import com.ecommerce.productcatalog.application.snapshots.ProductSnapshotCache;
 import com.ecommerce.productcatalog.domain.valueobjects.ProductId;
 import com.ecommerce.shared.common.commands.CommandHandler;
 import com.ecommerce.shared.common.events.EventPublisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -19,10 +21,13 @@ public class ActivateProductCommandHandler implements CommandHandler<ActivatePro
 
     private final ProductRepository productRepository;
     private final EventPublisher eventPublisher;
+    private final ProductSnapshotCache snapshotCache;
 
-    public ActivateProductCommandHandler(ProductRepository productRepository, EventPublisher eventPublisher) {
+    public ActivateProductCommandHandler(ProductRepository productRepository, EventPublisher eventPublisher,
+            ProductSnapshotCache snapshotCache) {
         this.productRepository = productRepository;
         this.eventPublisher = eventPublisher;
+        this.snapshotCache = snapshotCache;
     }
 
     @Override
@@ -42,7 +47,10 @@ public class ActivateProductCommandHandler implements CommandHandler<ActivatePro
                     var eventsToPublish = product.getUncommittedEvents();
 
                     return productRepository.save(product)
-                            .thenCompose(saved -> eventPublisher.publishAll(eventsToPublish));
+                            .thenCompose(saved -> {
+                                snapshotCache.invalidate(List.of(command.getProductId()));
+                                return eventPublisher.publishAll(eventsToPublish);
+                            });
                 });
     }
 
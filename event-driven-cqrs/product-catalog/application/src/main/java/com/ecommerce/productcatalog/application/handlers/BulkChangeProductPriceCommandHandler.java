@@ -0,0 +1,210 @@
+package com.ecommerce.productcatalog.application.handlers;
+
+import com.ecommerce.productcatalog.application.commands.BulkChangeProductPriceCommand;
+import com.ecommerce.productcatalog.application.jobs.PriceChangeJob;
+import com.ecommerce.productcatalog.application.jobs.PriceUpdate;
+import com.ecommerce.productcatalog.application.jobs.ProductPriceRow;
+import com.ecommerce.productcatalog.application.ports.PriceChangeJobRepository;
+import com.ecommerce.productcatalog.application.ports.ProductRepository;
+import com.ecommerce.productcatalog.application.snapshots.ProductSnapshotCache;
+import com.ecommerce.productcatalog.domain.events.ProductPriceChanged;
+import com.ecommerce.productcatalog.domain.valueobjects.Money;
+import com.ecommerce.shared.common.commands.CommandHandler;
+import com.ecommerce.shared.common.domain.DomainEvent;
+import com.ecommerce.shared.common.events.EventPublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Handler for BulkChangeProductPriceCommand.
+ *
+ * Handling the command only records the job; the job itself runs on a
+ * dedicated executor, so the command consumer is free as soon as the job is
+ * saved and progress can be followed through the saved job.
+ *
+ * Walks the matching products in id-ordered chunks. Each chunk is one read,
+ * one bulk write and one batched ProductPriceChanged publish, followed by a
+ * checkpoint of the job's progress. Products are tagged with the job id and
+ * the price it replaced when repriced, so a job resumed after a crash never
+ * adjusts a price twice; it only re-publishes events for the chunk that was
+ * cut short.
+ */
+public class BulkChangeProductPriceCommandHandler
+        implements CommandHandler<BulkChangeProductPriceCommand, PriceChangeJob> {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkChangeProductPriceCommandHandler.class);
+
+    private final ProductRepository productRepository;
+    private final PriceChangeJobRepository jobRepository;
+    private final EventPublisher eventPublisher;
+    private final ProductSnapshotCache snapshotCache;
+    private final Executor jobExecutor;
+    private final int chunkSize;
+    // Jobs running on this instance, so a resume sent mid-run does not start a second runner
+    private final Set<String> activeJobs = ConcurrentHashMap.newKeySet();
+
+    public BulkChangeProductPriceCommandHandler(ProductRepository productRepository,
+            PriceChangeJobRepository jobRepository, EventPublisher eventPublisher,
+            ProductSnapshotCache snapshotCache, Executor jobExecutor, int chunkSize) {
+        this.productRepository = productRepository;
+        this.jobRepository = jobRepository;
+        this.eventPublisher = eventPublisher;
+        this.snapshotCache = snapshotCache;
+        this.jobExecutor = jobExecutor;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Saves a new or resumed job and starts it in the background.
+     *
+     * @return the job as saved, before any chunk has run
+     */
+    @Override
+    public CompletableFuture<PriceChangeJob> handle(BulkChangeProductPriceCommand command) {
+        logger.info("Handling BulkChangeProductPriceCommand: commandId={}, jobId={}",
+                command.getCommandId(), command.getJobId());
+
+        return jobRepository.findById(command.getJobId())
+                .thenApply(existing -> existing.orElseGet(() -> {
+                    if (command.getAdjustment() == null) {
+                        throw new IllegalArgumentException("Unknown price change job: " + command.getJobId());
+                    }
+                    return PriceChangeJob.start(
+                            command.getJobId(), command.getAdjustment(), command.getSkus(), command.getStatus());
+                }))
+                .thenCompose(job -> {
+                    if (job.isCompleted()) {
+                        logger.info("Price change job already completed: jobId={}", job.getJobId());
+                        return CompletableFuture.completedFuture(job);
+                    }
+                    if (activeJobs.contains(job.getJobId())) {
+                        logger.info("Price change job already running: jobId={}", job.getJobId());
+                        return CompletableFuture.completedFuture(job);
+                    }
+                    job.resume();
+                    return jobRepository.save(job).thenApply(saved -> {
+                        runInBackground(job.getJobId());
+                        return job;
+                    });
+                });
+    }
+
+    private void runInBackground(String jobId) {
+        if (!activeJobs.add(jobId)) {
+            return;
+        }
+        try {
+            jobExecutor.execute(() -> {
+                try {
+                    // Run a fresh copy; the saved one is handed back to the caller
+                    jobRepository.findById(jobId).join().ifPresent(this::run);
+                } catch (RuntimeException ex) {
+                    logger.error("Could not load price change job: jobId={}", jobId, ex);
+                } finally {
+                    activeJobs.remove(jobId);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            activeJobs.remove(jobId);
+            throw ex;
+        }
+    }
+
+    private void run(PriceChangeJob job) {
+        if (job.getLastProductId() != null) {
+            logger.info("Resuming price change job: jobId={}, after={}, processed={}",
+                    job.getJobId(), job.getLastProductId(), job.getProcessed());
+        }
+
+        try {
+            while (true) {
+                List<ProductPriceRow> rows = productRepository.findPriceChunk(
+                        job.getSkus(), job.getStatus(), job.getLastProductId(), job.getJobId(), chunkSize).join();
+                if (rows.isEmpty()) {
+                    break;
+                }
+                processChunk(job, rows);
+                jobRepository.save(job).join();
+
+                logger.info("Price change job progress: jobId={}, processed={}, updated={}, republished={}, skipped={}",
+                        job.getJobId(), job.getProcessed(), job.getUpdated(), job.getRepublished(),
+                        job.getSkipped());
+            }
+
+            job.complete();
+            jobRepository.save(job).join();
+            logger.info("Price change job completed: jobId={}, updated={}, skipped={}",
+                    job.getJobId(), job.getUpdated(), job.getSkipped());
+        } catch (RuntimeException ex) {
+            // The checkpoint is intact; the job can be resumed from it
+            logger.error("Price change job failed: jobId={}, after={}", job.getJobId(), job.getLastProductId(), ex);
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            job.fail(cause.getMessage());
+            try {
+                jobRepository.save(job).join();
+            } catch (RuntimeException saveEx) {
+                logger.error("Could not record failure of price change job: jobId={}", job.getJobId(), saveEx);
+            }
+        }
+    }
+
+    private void processChunk(PriceChangeJob job, List<ProductPriceRow> rows) {
+        List<PriceUpdate> updates = new ArrayList<>(rows.size());
+        List<DomainEvent> events = new ArrayList<>();
+        int republished = 0;
+        int skipped = 0;
+
+        for (ProductPriceRow row : rows) {
+            if (row.appliedByJob()) {
+                // Written before an interruption, but its event may not have gone out
+                events.add(new ProductPriceChanged(row.productId(), row.priceBeforeJob(), row.price(),
+                        row.currency()));
+                republished++;
+                continue;
+            }
+            try {
+                Money adjusted = job.getAdjustment().apply(Money.of(row.price(), row.currency()));
+                updates.add(new PriceUpdate(row.productId(), row.version(), row.price(), adjusted.getAmount(),
+                        row.currency()));
+            } catch (IllegalArgumentException ex) {
+                logger.warn("Skipping product {} in price job {}: {}", row.productId(), job.getJobId(),
+                        ex.getMessage());
+                skipped++;
+            }
+        }
+
+        Set<String> updatedIds = updates.isEmpty()
+                ? Set.of()
+                : productRepository.applyPriceUpdates(job.getJobId(), updates).join();
+        snapshotCache.invalidate(updatedIds);
+        for (PriceUpdate update : updates) {
+            if (updatedIds.contains(update.productId())) {
+                events.add(new ProductPriceChanged(update.productId(), update.oldPrice(), update.newPrice(),
+                        update.currency()));
+            } else {
+                // Changed concurrently since the chunk was read
+                skipped++;
+            }
+        }
+
+        if (!events.isEmpty()) {
+            eventPublisher.publishAll(events).join();
+        }
+        job.chunkProcessed(rows.get(rows.size() - 1).productId(), rows.size(), updatedIds.size(), republished,
+                skipped);
+    }
+
+    @Override
+    public Class<BulkChangeProductPriceCommand> getCommandType() {
+        return BulkChangeProductPriceCommand.class;
+    }
+}
@@ -0,0 +1,190 @@
+package com.ecommerce.productcatalog.application.handlers;
+
+import com.ecommerce.productcatalog.application.commands.BulkCreateProductsCommand;
+import com.ecommerce.productcatalog.application.commands.BulkCreateProductsResult;
+import com.ecommerce.productcatalog.application.commands.BulkCreateProductsResult.RowResult;
+import com.ecommerce.productcatalog.application.commands.ProductImportRow;
+import com.ecommerce.productcatalog.application.ports.ProductRepository;
+import com.ecommerce.productcatalog.domain.aggregates.Product;
+import com.ecommerce.productcatalog.domain.valueobjects.Money;
+import com.ecommerce.productcatalog.domain.valueobjects.ProductDescription;
+import com.ecommerce.productcatalog.domain.valueobjects.ProductId;
+import com.ecommerce.productcatalog.domain.valueobjects.ProductName;
+import com.ecommerce.productcatalog.domain.valueobjects.Sku;
+import com.ecommerce.shared.common.commands.CommandHandler;
+import com.ecommerce.shared.common.domain.DomainEvent;
+import com.ecommerce.shared.common.events.EventPublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Handler for BulkCreateProductsCommand.
+ * Creates a whole chunk with one SKU lookup, one insert and one event
+ * publish instead of a round trip per product. The insert is unordered, so
+ * each row is reported on its own and the rows that were inserted are
+ * published even when others in the chunk fail.
+ */
+public class BulkCreateProductsCommandHandler
+        implements CommandHandler<BulkCreateProductsCommand, BulkCreateProductsResult> {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkCreateProductsCommandHandler.class);
+
+    private final ProductRepository productRepository;
+    private final EventPublisher eventPublisher;
+
+    public BulkCreateProductsCommandHandler(ProductRepository productRepository, EventPublisher eventPublisher) {
+        this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public CompletableFuture<BulkCreateProductsResult> handle(BulkCreateProductsCommand command) {
+        logger.info("Handling BulkCreateProductsCommand: commandId={}, importId={}, rows={}",
+                command.getCommandId(), command.getImportId(), command.getRows().size());
+
+        List<RowResult> results = new ArrayList<>();
+        List<Candidate> candidates = new ArrayList<>();
+        Set<String> skusInChunk = new HashSet<>();
+
+        for (ProductImportRow row : command.getRows()) {
+            try {
+                Product product = Product.create(
+                        ProductId.generate(),
+                        ProductName.of(row.name()),
+                        ProductDescription.of(row.description()),
+                        Money.of(row.price(), row.currency()),
+                        Sku.of(row.sku()));
+                if (!skusInChunk.add(product.getSku())) {
+                    results.add(RowResult.failed(row, "Duplicate SKU " + row.sku() + " in import"));
+                    continue;
+                }
+                candidates.add(new Candidate(row, product));
+            } catch (IllegalArgumentException ex) {
+                results.add(RowResult.failed(row, ex.getMessage()));
+            }
+        }
+
+        if (candidates.isEmpty()) {
+            return CompletableFuture.completedFuture(result(command, results));
+        }
+
+        return productRepository.findExistingSkus(skusInChunk)
+                .thenCompose(existing -> {
+                    List<Candidate> toInsert = new ArrayList<>();
+                    for (Candidate candidate : candidates) {
+                        if (existing.contains(candidate.product().getSku())) {
+                            results.add(RowResult.failed(candidate.row(),
+                                    "Product with SKU " + candidate.row().sku() + " already exists"));
+                        } else {
+                            toInsert.add(candidate);
+                        }
+                    }
+                    return insertAndPublish(toInsert, results);
+                })
+                .thenApply(v -> result(command, results))
+                .exceptionally(ex -> {
+                    logger.error("Bulk create failed: importId={}: {}", command.getImportId(), ex.getMessage(), ex);
+                    Set<Integer> reported = new HashSet<>();
+                    results.forEach(r -> reported.add(r.rowNumber()));
+                    List<RowResult> failed = new ArrayList<>(results);
+                    for (Candidate candidate : candidates) {
+                        if (!reported.contains(candidate.row().rowNumber())) {
+                            failed.add(RowResult.failed(candidate.row(), "Failed to create product: " + ex.getMessage()));
+                        }
+                    }
+                    return result(command, failed);
+                });
+    }
+
+    private CompletableFuture<Void> insertAndPublish(List<Candidate> toInsert, List<RowResult> results) {
+        if (toInsert.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        List<Product> products = toInsert.stream().map(Candidate::product).toList();
+        return productRepository.insertAll(products)
+                .exceptionallyCompose(ex -> notInserted(products, ex))
+                .thenCompose(failed -> {
+                    List<Candidate> inserted = new ArrayList<>();
+                    for (Candidate candidate : toInsert) {
+                        String error = failed.get(candidate.product().getId().getValue());
+                        if (error != null) {
+                            results.add(RowResult.failed(candidate.row(), error));
+                        } else {
+                            inserted.add(candidate);
+                        }
+                    }
+                    return publish(inserted, results);
+                });
+    }
+
+    /**
+     * The insert failed as a whole, e.g. the connection dropped, so some
+     * products may have been written anyway. Only those that cannot be found
+     * are failed.
+     */
+    private CompletableFuture<Map<String, String>> notInserted(List<Product> products, Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        logger.error("Bulk insert failed: {}", cause.getMessage(), cause);
+        List<String> ids = products.stream().map(product -> product.getId().getValue()).toList();
+        return productRepository.findSnapshotRows(ids)
+                .thenApply(rows -> {
+                    Set<String> found = new HashSet<>();
+                    rows.forEach(row -> found.add(row.productId()));
+                    Map<String, String> failed = new HashMap<>();
+                    ids.stream()
+                            .filter(id -> !found.contains(id))
+                            .forEach(id -> failed.put(id, "Failed to create product: " + cause.getMessage()));
+                    return failed;
+                });
+    }
+
+    private CompletableFuture<Void> publish(List<Candidate> inserted, List<RowResult> results) {
+        if (inserted.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        // Events of the original aggregates (repository reconstitutes without events)
+        List<DomainEvent> events = new ArrayList<>();
+        inserted.forEach(candidate -> events.addAll(candidate.product().getUncommittedEvents()));
+
+        return eventPublisher.publishAll(events)
+                .handle((v, ex) -> {
+                    if (ex != null) {
+                        // The products exist either way; say so rather than fail rows a retry would reject
+                        logger.error("Bulk created {} products but failed to publish their events: {}",
+                                inserted.size(), ex.getMessage(), ex);
+                        inserted.forEach(c -> results.add(RowResult.created(c.row(),
+                                c.product().getId().getValue(), "Created, but its events could not be published")));
+                    } else {
+                        inserted.forEach(c -> results.add(
+                                RowResult.created(c.row(), c.product().getId().getValue())));
+                        logger.info("Bulk created {} products", inserted.size());
+                    }
+                    return null;
+                });
+    }
+
+    private static BulkCreateProductsResult result(BulkCreateProductsCommand command, List<RowResult> results) {
+        List<RowResult> ordered = new ArrayList<>(results);
+        ordered.sort(Comparator.comparingInt(RowResult::rowNumber));
+        return new BulkCreateProductsResult(command.getImportId(), ordered);
+    }
+
+    @Override
+    public Class<BulkCreateProductsCommand> getCommandType() {
+        return BulkCreateProductsCommand.class;
+    }
+
+    private record Candidate(ProductImportRow row, Product product) {
+    }
+}
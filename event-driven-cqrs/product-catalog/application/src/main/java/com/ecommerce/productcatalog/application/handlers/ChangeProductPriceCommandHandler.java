@@ -2,6 +2,7 @@ package com.ecommerce.productcatalog.application.handlers;
 
 import com.ecommerce.productcatalog.application.commands.ChangeProductPriceCommand;
 import com.ecommerce.productcatalog.application.ports.ProductRepository;
+import com.ecommerce.productcatalog.application.snapshots.ProductSnapshotCache;
 import com.ecommerce.productcatalog.domain.valueobjects.Money;
 import com.ecommerce.productcatalog.domain.valueobjects.ProductId;
 import com.ecommerce.shared.common.commands.CommandHandler;
@@ -9,6 +10,7 @@ import com.ecommerce.shared.common.events.EventPublisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -20,10 +22,13 @@ public class ChangeProductPriceCommandHandler implements CommandHandler<ChangePr
 
     private final ProductRepository productRepository;
     private final EventPublisher eventPublisher;
+    private final ProductSnapshotCache snapshotCache;
 
-    public ChangeProductPriceCommandHandler(ProductRepository productRepository, EventPublisher eventPublisher) {
+    public ChangeProductPriceCommandHandler(ProductRepository productRepository, EventPublisher eventPublisher,
+            ProductSnapshotCache snapshotCache) {
         this.productRepository = productRepository;
         this.eventPublisher = eventPublisher;
+        this.snapshotCache = snapshotCache;
     }
 
     @Override
@@ -43,7 +48,10 @@ public class ChangeProductPriceCommandHandler implements CommandHandler<ChangePr
                     var eventsToPublish = product.getUncommittedEvents();
 
                     return productRepository.save(product)
-                            .thenCompose(saved -> eventPublisher.publishAll(eventsToPublish));
+                            .thenCompose(saved -> {
+                                snapshotCache.invalidate(List.of(command.getProductId()));
+                                return eventPublisher.publishAll(eventsToPublish);
+                            });
                 });
     }
 
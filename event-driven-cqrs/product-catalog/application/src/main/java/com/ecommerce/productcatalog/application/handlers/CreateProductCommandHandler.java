@@ -2,7 +2,9 @@ package com.ecommerce.productcatalog.application.handlers;
 
 import com.ecommerce.productcatalog.application.commands.CreateProductCommand;
 import com.ecommerce.productcatalog.application.commands.CreateProductResult;
+import com.ecommerce.productcatalog.application.ports.DuplicateSkuException;
 import com.ecommerce.productcatalog.application.ports.ProductRepository;
+import com.ecommerce.productcatalog.application.skus.SkuRegistry;
 import com.ecommerce.productcatalog.domain.aggregates.Product;
 import com.ecommerce.productcatalog.domain.valueobjects.Money;
 import com.ecommerce.productcatalog.domain.valueobjects.ProductId;
@@ -15,10 +17,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Handler for CreateProductCommand.
  * Orchestrates product creation following DDD patterns.
+ *
+ * SKUs already in the registry are rejected without touching the database.
+ * Anything else goes straight to an insert, and the unique SKU index
+ * catches the duplicates the registry has not seen yet. If the repository
+ * could not build that index, the SKU is checked before the insert instead.
  */
 public class CreateProductCommandHandler implements CommandHandler<CreateProductCommand, CreateProductResult> {
 
@@ -26,10 +34,13 @@ public class CreateProductCommandHandler implements CommandHandler<CreateProduct
 
     private final ProductRepository productRepository;
     private final EventPublisher eventPublisher;
+    private final SkuRegistry skuRegistry;
 
-    public CreateProductCommandHandler(ProductRepository productRepository, EventPublisher eventPublisher) {
+    public CreateProductCommandHandler(ProductRepository productRepository, EventPublisher eventPublisher,
+            SkuRegistry skuRegistry) {
         this.productRepository = productRepository;
         this.eventPublisher = eventPublisher;
+        this.skuRegistry = skuRegistry;
     }
 
     @Override
@@ -37,20 +48,20 @@ public class CreateProductCommandHandler implements CommandHandler<CreateProduct
         logger.info("Handling CreateProductCommand: commandId={}, sku={}",
                 command.getCommandId(), command.getSku());
 
-        return productRepository.existsBySku(command.getSku())
-                .thenCompose(exists -> {
-                    if (exists) {
-                        logger.warn("Product with SKU {} already exists", command.getSku());
-                        return CompletableFuture.completedFuture(
-                                CreateProductResult
-                                        .failure("Product with SKU " + command.getSku() + " already exists"));
-                    }
+        // Sku.of trims, so look up the value as it would be stored
+        if (command.getSku() != null && skuRegistry.isTaken(command.getSku().trim())) {
+            return CompletableFuture.completedFuture(duplicate(command.getSku().trim()));
+        }
 
-                    return createProduct(command);
-                })
+        return createProduct(command)
                 .exceptionally(ex -> {
-                    logger.error("Failed to create product: {}", ex.getMessage(), ex);
-                    return CreateProductResult.failure("Failed to create product: " + ex.getMessage());
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    if (cause instanceof DuplicateSkuException duplicate) {
+                        skuRegistry.add(duplicate.getSku());
+                        return duplicate(duplicate.getSku());
+                    }
+                    logger.error("Failed to create product: {}", cause.getMessage(), cause);
+                    return CreateProductResult.failure("Failed to create product: " + cause.getMessage());
                 });
     }
 
@@ -75,9 +86,11 @@ public class CreateProductCommandHandler implements CommandHandler<CreateProduct
             var eventsToPublish = product.getUncommittedEvents();
             String createdProductId = product.getId().getValue();
 
-            // Save aggregate (writes state to DB)
-            return productRepository.save(product)
+            // Insert aggregate (writes state to DB); the unique index rejects duplicate SKUs
+            return checkSku(sku.getValue())
+                    .thenCompose(v -> productRepository.insert(product))
                     .thenCompose(savedProduct -> {
+                        skuRegistry.add(savedProduct.getSku());
                         // Publish events from the original aggregate
                         return eventPublisher.publishAll(eventsToPublish)
                                 .thenApply(v -> {
@@ -92,6 +105,23 @@ public class CreateProductCommandHandler implements CommandHandler<CreateProduct
         }
     }
 
+    private CompletableFuture<Void> checkSku(String sku) {
+        if (productRepository.enforcesUniqueSku()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return productRepository.existsBySku(sku)
+                .thenAccept(exists -> {
+                    if (exists) {
+                        throw new DuplicateSkuException(sku);
+                    }
+                });
+    }
+
+    private static CreateProductResult duplicate(String sku) {
+        logger.warn("Product with SKU {} already exists", sku);
+        return CreateProductResult.failure("Product with SKU " + sku + " already exists");
+    }
+
     @Override
     public Class<CreateProductCommand> getCommandType() {
         return CreateProductCommand.class;
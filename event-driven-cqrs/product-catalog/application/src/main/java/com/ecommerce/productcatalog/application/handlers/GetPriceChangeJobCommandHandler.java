@@ -0,0 +1,32 @@
+package com.ecommerce.productcatalog.application.handlers;
+
+import com.ecommerce.productcatalog.application.commands.GetPriceChangeJobCommand;
+import com.ecommerce.productcatalog.application.jobs.PriceChangeJob;
+import com.ecommerce.productcatalog.application.ports.PriceChangeJobRepository;
+import com.ecommerce.shared.common.commands.CommandHandler;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Handler for GetPriceChangeJobCommand. Reads the job as of its last
+ * checkpoint, which is what a running job has saved so far.
+ */
+public class GetPriceChangeJobCommandHandler implements CommandHandler<GetPriceChangeJobCommand, PriceChangeJob> {
+
+    private final PriceChangeJobRepository jobRepository;
+
+    public GetPriceChangeJobCommandHandler(PriceChangeJobRepository jobRepository) {
+        this.jobRepository = jobRepository;
+    }
+
+    @Override
+    public CompletableFuture<PriceChangeJob> handle(GetPriceChangeJobCommand command) {
+        return jobRepository.findById(command.getJobId())
+                .thenApply(job -> job.orElse(null));
+    }
+
+    @Override
+    public Class<GetPriceChangeJobCommand> getCommandType() {
+        return GetPriceChangeJobCommand.class;
+    }
+}
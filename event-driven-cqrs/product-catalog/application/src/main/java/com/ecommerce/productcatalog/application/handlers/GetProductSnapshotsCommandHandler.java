@@ -2,56 +2,75 @@ package com.ecommerce.productcatalog.application.handlers;
 
 import com.ecommerce.productcatalog.application.commands.GetProductSnapshotsCommand;
 import com.ecommerce.productcatalog.application.ports.ProductRepository;
+import com.ecommerce.productcatalog.application.snapshots.ProductSnapshotCache;
+import com.ecommerce.productcatalog.application.snapshots.ProductSnapshotRow;
 import com.ecommerce.productcatalog.domain.events.ProductSnapshotsProvided;
 import com.ecommerce.shared.common.commands.CommandHandler;
 import com.ecommerce.shared.common.events.EventPublisher;
-import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.util.stream.Collectors;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 
-@Service
+/**
+ * Handler for GetProductSnapshotsCommand.
+ *
+ * Serves snapshots from a short-TTL cache and reads only the missing
+ * products, through a projection instead of full aggregates. During a sale
+ * most checkouts ask for the same few products, so most never touch the
+ * catalog collection.
+ */
 public class GetProductSnapshotsCommandHandler implements CommandHandler<GetProductSnapshotsCommand, Void> {
 
+    private static final Logger logger = LoggerFactory.getLogger(GetProductSnapshotsCommandHandler.class);
+
     private final ProductRepository repository;
     private final EventPublisher eventPublisher;
+    private final ProductSnapshotCache snapshotCache;
 
-    public GetProductSnapshotsCommandHandler(ProductRepository repository, EventPublisher eventPublisher) {
+    public GetProductSnapshotsCommandHandler(ProductRepository repository, EventPublisher eventPublisher,
+            ProductSnapshotCache snapshotCache) {
         this.repository = repository;
         this.eventPublisher = eventPublisher;
+        this.snapshotCache = snapshotCache;
     }
 
     @Override
     public CompletableFuture<Void> handle(GetProductSnapshotsCommand command) {
-        // Naive implementation: fetch one by one or filter all.
-        // Better: add findByIdIn(List<String> ids) to repo.
-        // For MVP, if repo doesn't support batch, we stream.
-
-        // Assuming we need repo update to support batch find, but let's try parallel
-        // individual fetch for now or Repo update.
-        // Let's implement valid logic:
-
-        // Wait, repo interface is in domain. Check repository capabilities.
-        // If needed I'll update the repo interface.
-
-        return CompletableFuture.completedFuture(null).thenCompose(v -> {
-            // For now, let's assume we can fetch data.
-            // Actually, to do this properly I should check the Repo interface.
-            // But to save steps, I will just emit what I find.
-            return repository.findByIds(command.getProductIds()) // Assuming this exists or I will add it shortly
-                    .thenCompose(products -> {
-                        var snapshots = products.stream().map(p -> new ProductSnapshotsProvided.ProductSnapshot(
-                                p.getId().getValue(),
-                                p.getName().getValue(),
-                                p.getSku().getValue(),
-                                p.getPrice().getAmount(),
-                                p.isActive())).toList();
-
-                        ProductSnapshotsProvided event = new ProductSnapshotsProvided(
-                                command.getOrderId(),
-                                snapshots);
-                        return eventPublisher.publish(event);
-                    });
+        List<String> productIds = command.getProductIds();
+        Map<String, ProductSnapshotRow> cached = snapshotCache.getAll(productIds);
+        List<String> missing = productIds.stream()
+                .filter(id -> !cached.containsKey(id))
+                .distinct()
+                .toList();
+
+        logger.debug("Resolving product snapshots: orderId={}, requested={}, cached={}",
+                command.getOrderId(), productIds.size(), cached.size());
+
+        long readStartedAt = System.nanoTime();
+        CompletableFuture<List<ProductSnapshotRow>> loaded = missing.isEmpty()
+                ? CompletableFuture.completedFuture(List.of())
+                : repository.findSnapshotRows(missing);
+
+        return loaded.thenCompose(rows -> {
+            snapshotCache.putAll(rows, readStartedAt);
+
+            Map<String, ProductSnapshotRow> byId = new HashMap<>(cached);
+            rows.forEach(row -> byId.put(row.productId(), row));
+
+            // Keep the requested order; unknown ids are left out as before
+            var snapshots = productIds.stream()
+                    .distinct()
+                    .map(byId::get)
+                    .filter(Objects::nonNull)
+                    .map(ProductSnapshotRow::toSnapshot)
+                    .toList();
+
+            return eventPublisher.publish(new ProductSnapshotsProvided(command.getOrderId(), snapshots));
         });
     }
 
@@ -2,6 +2,7 @@ package com.ecommerce.productcatalog.application.handlers;
 
 import com.ecommerce.productcatalog.application.commands.UpdateProductDetailsCommand;
 import com.ecommerce.productcatalog.application.ports.ProductRepository;
+import com.ecommerce.productcatalog.application.snapshots.ProductSnapshotCache;
 import com.ecommerce.productcatalog.domain.valueobjects.ProductDescription;
 import com.ecommerce.productcatalog.domain.valueobjects.ProductId;
 import com.ecommerce.productcatalog.domain.valueobjects.ProductName;
@@ -10,6 +11,7 @@ import com.ecommerce.shared.common.events.EventPublisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -21,10 +23,13 @@ public class UpdateProductDetailsCommandHandler implements CommandHandler<Update
 
     private final ProductRepository productRepository;
     private final EventPublisher eventPublisher;
+    private final ProductSnapshotCache snapshotCache;
 
-    public UpdateProductDetailsCommandHandler(ProductRepository productRepository, EventPublisher eventPublisher) {
+    public UpdateProductDetailsCommandHandler(ProductRepository productRepository, EventPublisher eventPublisher,
+            ProductSnapshotCache snapshotCache) {
         this.productRepository = productRepository;
         this.eventPublisher = eventPublisher;
+        this.snapshotCache = snapshotCache;
     }
 
     @Override
@@ -46,7 +51,10 @@ public class UpdateProductDetailsCommandHandler implements CommandHandler<Update
                     var eventsToPublish = product.getUncommittedEvents();
 
                     return productRepository.save(product)
-                            .thenCompose(saved -> eventPublisher.publishAll(eventsToPublish));
+                            .thenCompose(saved -> {
+                                snapshotCache.invalidate(List.of(command.getProductId()));
+                                return eventPublisher.publishAll(eventsToPublish);
+                            });
                 });
     }
 
@@ -0,0 +1,150 @@
+package com.ecommerce.productcatalog.application.jobs;
+
+import com.ecommerce.productcatalog.application.commands.PriceAdjustment;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Progress of a bulk price change. Products are processed in id order, so
+ * {@code lastProductId} is the checkpoint a resumed job continues after.
+ */
+public class PriceChangeJob {
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String jobId;
+    private final PriceAdjustment adjustment;
+    private final List<String> skus;
+    private final String status;
+    private final Instant startedAt;
+    private State state;
+    private String lastProductId;
+    private long processed;
+    private long updated;
+    private long republished;
+    private long skipped;
+    private String failure;
+    private Instant updatedAt;
+
+    public PriceChangeJob(String jobId, PriceAdjustment adjustment, List<String> skus, String status,
+            Instant startedAt, State state, String lastProductId, long processed, long updated, long republished,
+            long skipped, String failure, Instant updatedAt) {
+        this.jobId = jobId;
+        this.adjustment = adjustment;
+        this.skus = skus;
+        this.status = status;
+        this.startedAt = startedAt;
+        this.state = state;
+        this.lastProductId = lastProductId;
+        this.processed = processed;
+        this.updated = updated;
+        this.republished = republished;
+        this.skipped = skipped;
+        this.failure = failure;
+        this.updatedAt = updatedAt;
+    }
+
+    public static PriceChangeJob start(String jobId, PriceAdjustment adjustment, List<String> skus, String status) {
+        Instant now = Instant.now();
+        return new PriceChangeJob(jobId, adjustment, skus, status, now, State.RUNNING, null, 0, 0, 0, 0, null, now);
+    }
+
+    /**
+     * Records a finished chunk and moves the checkpoint past it.
+     *
+     * @param republished products this job had already repriced before an
+     *                    interruption, whose events were only sent again
+     */
+    public void chunkProcessed(String lastProductId, int processed, int updated, int republished, int skipped) {
+        this.lastProductId = lastProductId;
+        this.processed += processed;
+        this.updated += updated;
+        this.republished += republished;
+        this.skipped += skipped;
+        this.updatedAt = Instant.now();
+    }
+
+    public void complete() {
+        this.state = State.COMPLETED;
+        this.updatedAt = Instant.now();
+    }
+
+    /**
+     * Stops the job at its last checkpoint; resuming continues from there.
+     */
+    public void fail(String failure) {
+        this.state = State.FAILED;
+        this.failure = failure;
+        this.updatedAt = Instant.now();
+    }
+
+    public void resume() {
+        this.state = State.RUNNING;
+        this.failure = null;
+        this.updatedAt = Instant.now();
+    }
+
+    public boolean isCompleted() {
+        return state == State.COMPLETED;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public PriceAdjustment getAdjustment() {
+        return adjustment;
+    }
+
+    public List<String> getSkus() {
+        return skus;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public String getLastProductId() {
+        return lastProductId;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public long getRepublished() {
+        return republished;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Why the job stopped, while it is FAILED.
+     */
+    public String getFailure() {
+        return failure;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,10 @@
+package com.ecommerce.productcatalog.application.jobs;
+
+import java.math.BigDecimal;
+
+/**
+ * A single price write within a bulk price job, guarded by the version read.
+ */
+public record PriceUpdate(String productId, int expectedVersion, BigDecimal oldPrice, BigDecimal newPrice,
+        String currency) {
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.productcatalog.application.jobs;
+
+import java.math.BigDecimal;
+
+/**
+ * Price fields of one product as read by a bulk price job.
+ *
+ * @param appliedByJob   true if this job already wrote the current price (a
+ *                       chunk that was interrupted before its checkpoint)
+ * @param priceBeforeJob the price this job replaced, when appliedByJob
+ */
+public record ProductPriceRow(String productId, BigDecimal price, String currency, int version,
+        boolean appliedByJob, BigDecimal priceBeforeJob) {
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.productcatalog.application.ports;
+
+/**
+ * Thrown by {@link ProductRepository#insert} when the SKU is already taken.
+ */
+public class DuplicateSkuException extends RuntimeException {
+
+    private final String sku;
+
+    public DuplicateSkuException(String sku) {
+        this(sku, null);
+    }
+
+    public DuplicateSkuException(String sku, Throwable cause) {
+        super("Product with SKU " + sku + " already exists", cause);
+        this.sku = sku;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+}
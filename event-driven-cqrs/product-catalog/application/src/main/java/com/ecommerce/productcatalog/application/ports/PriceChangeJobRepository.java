@@ -0,0 +1,16 @@
+package com.ecommerce.productcatalog.application.ports;
+
+import com.ecommerce.productcatalog.application.jobs.PriceChangeJob;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Stores bulk price change progress so interrupted jobs can resume.
+ */
+public interface PriceChangeJobRepository {
+
+    CompletableFuture<Optional<PriceChangeJob>> findById(String jobId);
+
+    CompletableFuture<Void> save(PriceChangeJob job);
+}
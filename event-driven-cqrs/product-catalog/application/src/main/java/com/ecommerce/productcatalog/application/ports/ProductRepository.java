@@ -1,11 +1,18 @@
 package com.ecommerce.productcatalog.application.ports;
 
+import com.ecommerce.productcatalog.application.jobs.PriceUpdate;
+import com.ecommerce.productcatalog.application.jobs.ProductPriceRow;
+import com.ecommerce.productcatalog.application.snapshots.ProductSnapshotRow;
 import com.ecommerce.productcatalog.domain.aggregates.Product;
 import com.ecommerce.productcatalog.domain.valueobjects.ProductId;
 import com.ecommerce.shared.common.persistence.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Repository interface for Product aggregate.
@@ -18,23 +25,60 @@ public interface ProductRepository extends Repository<Product, ProductId> {
      */
     CompletableFuture<Boolean> existsBySku(String sku);
 
-    // Assuming save and findById are inherited from Repository,
-    // but the instruction implies they might be explicitly declared or
-    // the new method should be placed relative to them.
-    // Given the instruction "Add findByIds method" and the snippet,
-    // the most direct interpretation is to add the new method.
-    // The snippet also implies the need for Optional and List imports.
+    /**
+     * Whether the store itself rejects duplicate SKUs on insert. When it does
+     * not, callers have to check {@link #existsBySku} first.
+     */
+    boolean enforcesUniqueSku();
 
-    // The following methods are typically part of the Repository interface,
-    // but are included here based on the structure implied by the user's snippet
-    // if they were to be explicitly declared or if the snippet was meant to show
-    // the full interface content.
-    // However, since ProductRepository extends Repository, these are already
-    // available.
-    // I will only add the explicitly requested findByIds method.
+    /**
+     * Inserts a new product in a single write.
+     * Completes exceptionally with {@link DuplicateSkuException} if the SKU is taken.
+     */
+    CompletableFuture<Product> insert(Product product);
+
+    /**
+     * Streams every stored SKU to {@code action}, without loading the products.
+     */
+    CompletableFuture<Void> forEachSku(Consumer<String> action);
 
     /**
      * Finds products by a list of IDs.
      */
     CompletableFuture<List<Product>> findByIds(List<String> ids);
+
+    /**
+     * Reads only the snapshot fields of the given products, without
+     * reconstituting aggregates. Unknown ids are left out.
+     */
+    CompletableFuture<List<ProductSnapshotRow>> findSnapshotRows(Collection<String> ids);
+
+    /**
+     * Returns which of the given SKUs are already taken, in a single query.
+     */
+    CompletableFuture<Set<String>> findExistingSkus(Collection<String> skus);
+
+    /**
+     * Inserts new products in one unordered batch, so a product that is
+     * rejected does not stop the ones after it.
+     *
+     * @return error message per id of a product that was not inserted
+     */
+    CompletableFuture<Map<String, String>> insertAll(List<Product> products);
+
+    /**
+     * Next chunk of non-deleted products in id order, after {@code afterProductId}.
+     * Empty {@code skus} and null {@code status} mean no filter.
+     */
+    CompletableFuture<List<ProductPriceRow>> findPriceChunk(List<String> skus, String status,
+            String afterProductId, String jobId, int limit);
+
+    /**
+     * Applies the updates in one bulk write, tagging each product with the job
+     * id and the price it replaced.
+     * Updates whose version no longer matches are skipped.
+     *
+     * @return ids of the products that were updated
+     */
+    CompletableFuture<Set<String>> applyPriceUpdates(String jobId, List<PriceUpdate> updates);
 }
@@ -0,0 +1,28 @@
+package com.ecommerce.productcatalog.application.skus;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process set of SKUs known to be taken.
+ *
+ * SKUs are never released (deleted products keep theirs), so a hit is
+ * always a real duplicate. A miss proves nothing: the registry may still be
+ * loading or behind on events, and the unique index stays the authority.
+ */
+public class SkuRegistry {
+
+    private final Set<String> skus = ConcurrentHashMap.newKeySet();
+
+    public boolean isTaken(String sku) {
+        return skus.contains(sku);
+    }
+
+    public void add(String sku) {
+        skus.add(sku);
+    }
+
+    public int size() {
+        return skus.size();
+    }
+}
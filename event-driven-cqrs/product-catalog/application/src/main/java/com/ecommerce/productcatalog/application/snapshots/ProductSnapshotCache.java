@@ -0,0 +1,93 @@
+package com.ecommerce.productcatalog.application.snapshots;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived cache of product snapshot rows, keyed by product id.
+ *
+ * A row is served for at most {@code ttl} after the read that produced it
+ * started. Writes made by this service invalidate the ids they touched, so a
+ * price or status change is seen by the next checkout; changes made elsewhere
+ * still reach checkouts within the TTL. When two reads race, the row with the
+ * higher version wins and an older one never replaces it.
+ */
+public class ProductSnapshotCache {
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    public ProductSnapshotCache(Duration ttl, int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the fresh rows for the given ids; ids missing from the result
+     * must be read from the repository.
+     */
+    public Map<String, ProductSnapshotRow> getAll(Collection<String> productIds) {
+        long now = System.nanoTime();
+        Map<String, ProductSnapshotRow> found = new HashMap<>();
+        for (String id : productIds) {
+            Entry entry = entries.get(id);
+            if (entry != null && entry.row() != null && now - entry.loadedAt() < ttlNanos) {
+                found.put(id, entry.row());
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Caches rows read from the repository.
+     *
+     * @param readStartedAt {@link System#nanoTime()} taken before the read was
+     *                      issued; a row is dropped if one of its ids was
+     *                      invalidated after that, since the read may have
+     *                      missed the write
+     */
+    public void putAll(Collection<ProductSnapshotRow> rows, long readStartedAt) {
+        if (entries.size() + rows.size() > maxEntries) {
+            evictExpired();
+        }
+        for (ProductSnapshotRow row : rows) {
+            entries.merge(row.productId(), new Entry(row, readStartedAt), ProductSnapshotCache::newer);
+        }
+    }
+
+    /**
+     * Drops the given ids after this service changed them. A marker stays
+     * behind for one TTL so that a read already in flight cannot put the old
+     * row back.
+     */
+    public void invalidate(Collection<String> productIds) {
+        long now = System.nanoTime();
+        for (String id : productIds) {
+            entries.put(id, new Entry(null, now));
+        }
+    }
+
+    private static Entry newer(Entry current, Entry loaded) {
+        if (current.row() == null) {
+            return loaded.loadedAt() > current.loadedAt() ? loaded : current;
+        }
+        return loaded.row().version() >= current.row().version() ? loaded : current;
+    }
+
+    private void evictExpired() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> now - entry.loadedAt() >= ttlNanos);
+        if (entries.size() >= maxEntries) {
+            // Everything is still fresh; with a TTL this short a full reload is cheap
+            entries.clear();
+        }
+    }
+
+    /** A null row marks an invalidated id. */
+    private record Entry(ProductSnapshotRow row, long loadedAt) {
+    }
+}
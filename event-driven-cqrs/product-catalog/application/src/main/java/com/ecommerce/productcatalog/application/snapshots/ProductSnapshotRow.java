@@ -0,0 +1,17 @@
+package com.ecommerce.productcatalog.application.snapshots;
+
+import com.ecommerce.productcatalog.domain.events.ProductSnapshotsProvided.ProductSnapshot;
+
+import java.math.BigDecimal;
+
+/**
+ * The fields of one product that a checkout snapshot needs, read without
+ * rebuilding the aggregate.
+ */
+public record ProductSnapshotRow(String productId, String name, String sku, BigDecimal price, String status,
+        int version) {
+
+    public ProductSnapshot toSnapshot() {
+        return new ProductSnapshot(productId, name, sku, price, "ACTIVE".equals(status));
+    }
+}
@@ -0,0 +1,63 @@
+package com.ecommerce.productcatalog.application.commands;
+
+import com.ecommerce.productcatalog.domain.valueobjects.Money;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for PriceAdjustment.
+ */
+class PriceAdjustmentTest {
+
+    @Test
+    void apply_percentage_shouldScalePrice() {
+        PriceAdjustment adjustment = new PriceAdjustment(PriceAdjustment.Type.PERCENTAGE, BigDecimal.valueOf(10));
+
+        Money result = adjustment.apply(Money.usd(200.0));
+
+        assertThat(result.getAmount()).isEqualByComparingTo(BigDecimal.valueOf(220.0));
+        assertThat(result.getCurrencyCode()).isEqualTo("USD");
+    }
+
+    @Test
+    void apply_negativePercentage_shouldLowerPrice() {
+        PriceAdjustment adjustment = new PriceAdjustment(PriceAdjustment.Type.PERCENTAGE, BigDecimal.valueOf(-25));
+
+        Money result = adjustment.apply(Money.usd(80.0));
+
+        assertThat(result.getAmount()).isEqualByComparingTo(BigDecimal.valueOf(60.0));
+    }
+
+    @Test
+    void apply_absolute_shouldAddValue() {
+        PriceAdjustment adjustment = new PriceAdjustment(PriceAdjustment.Type.ABSOLUTE, BigDecimal.valueOf(-5));
+
+        Money result = adjustment.apply(Money.usd(20.0));
+
+        assertThat(result.getAmount()).isEqualByComparingTo(BigDecimal.valueOf(15.0));
+    }
+
+    @Test
+    void apply_resultingInZeroOrLess_shouldThrowException() {
+        PriceAdjustment toZero = new PriceAdjustment(PriceAdjustment.Type.PERCENTAGE, BigDecimal.valueOf(-100));
+        PriceAdjustment belowZero = new PriceAdjustment(PriceAdjustment.Type.ABSOLUTE, BigDecimal.valueOf(-50));
+
+        assertThatThrownBy(() -> toZero.apply(Money.usd(10.0)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("greater than 0");
+        assertThatThrownBy(() -> belowZero.apply(Money.usd(10.0)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("greater than 0");
+    }
+
+    @Test
+    void create_withoutTypeOrValue_shouldThrowException() {
+        assertThatThrownBy(() -> new PriceAdjustment(null, BigDecimal.ONE))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PriceAdjustment(PriceAdjustment.Type.ABSOLUTE, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,99 @@
+package com.ecommerce.productcatalog.application.handlers;
+
+import com.ecommerce.productcatalog.application.commands.CreateProductCommand;
+import com.ecommerce.productcatalog.application.commands.CreateProductResult;
+import com.ecommerce.productcatalog.application.ports.DuplicateSkuException;
+import com.ecommerce.productcatalog.application.ports.ProductRepository;
+import com.ecommerce.productcatalog.application.skus.SkuRegistry;
+import com.ecommerce.productcatalog.domain.aggregates.Product;
+import com.ecommerce.shared.common.events.EventPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CreateProductCommandHandler, against a mocked repository
+ * and a real SKU registry.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class CreateProductCommandHandlerTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private EventPublisher eventPublisher;
+
+    private final SkuRegistry skuRegistry = new SkuRegistry();
+    private CreateProductCommandHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        when(productRepository.enforcesUniqueSku()).thenReturn(true);
+        when(productRepository.insert(any())).thenAnswer(inv ->
+                CompletableFuture.completedFuture(inv.<Product>getArgument(0)));
+        when(eventPublisher.publishAll(any())).thenReturn(CompletableFuture.completedFuture(null));
+        handler = new CreateProductCommandHandler(productRepository, eventPublisher, skuRegistry);
+    }
+
+    @Test
+    void handle_withSkuInTheRegistry_shouldRejectWithoutTouchingTheRepository() {
+        skuRegistry.add("D-1");
+
+        CreateProductResult result = handler.handle(command(" D-1 ")).join();
+
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.getErrorMessage()).contains("D-1");
+        verifyNoInteractions(productRepository, eventPublisher);
+    }
+
+    @Test
+    void handle_shouldInsertPublishAndRegisterTheSku() {
+        CreateProductResult result = handler.handle(command("D-1")).join();
+
+        assertThat(result.isSuccess()).isTrue();
+        verify(productRepository, never()).existsBySku(anyString());
+        verify(eventPublisher).publishAll(anyList());
+        assertThat(skuRegistry.isTaken("D-1")).isTrue();
+    }
+
+    @Test
+    void handle_whenTheUniqueIndexRejectsTheSku_shouldReportADuplicateAndRegisterIt() {
+        doReturn(CompletableFuture.failedFuture(new DuplicateSkuException("D-1")))
+                .when(productRepository).insert(any());
+
+        CreateProductResult result = handler.handle(command("D-1")).join();
+
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.getErrorMessage()).isEqualTo("Product with SKU D-1 already exists");
+        assertThat(skuRegistry.isTaken("D-1")).isTrue();
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void handle_withoutAUniqueIndex_shouldCheckTheSkuBeforeInserting() {
+        doReturn(false).when(productRepository).enforcesUniqueSku();
+        when(productRepository.existsBySku("D-1")).thenReturn(CompletableFuture.completedFuture(true));
+
+        CreateProductResult result = handler.handle(command("D-1")).join();
+
+        assertThat(result.isSuccess()).isFalse();
+        verify(productRepository, never()).insert(any());
+        assertThat(skuRegistry.isTaken("D-1")).isTrue();
+    }
+
+    private static CreateProductCommand command(String sku) {
+        return new CreateProductCommand("cmd-1", "Desk", "Oak desk", new BigDecimal("10.00"), "EUR", sku);
+    }
+}
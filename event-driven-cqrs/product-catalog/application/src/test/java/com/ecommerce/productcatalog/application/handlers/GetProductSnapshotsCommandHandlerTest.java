@@ -0,0 +1,93 @@
+package com.ecommerce.productcatalog.application.handlers;
+
+import com.ecommerce.productcatalog.application.commands.GetProductSnapshotsCommand;
+import com.ecommerce.productcatalog.application.ports.ProductRepository;
+import com.ecommerce.productcatalog.application.snapshots.ProductSnapshotCache;
+import com.ecommerce.productcatalog.application.snapshots.ProductSnapshotRow;
+import com.ecommerce.productcatalog.domain.events.ProductSnapshotsProvided;
+import com.ecommerce.shared.common.events.EventPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for GetProductSnapshotsCommandHandler, against a mocked
+ * repository and a real snapshot cache.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class GetProductSnapshotsCommandHandlerTest {
+
+    @Mock
+    private ProductRepository repository;
+    @Mock
+    private EventPublisher eventPublisher;
+
+    private final ProductSnapshotCache cache = new ProductSnapshotCache(Duration.ofMinutes(1), 100);
+    private GetProductSnapshotsCommandHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        when(eventPublisher.publish(any())).thenReturn(CompletableFuture.completedFuture(null));
+        handler = new GetProductSnapshotsCommandHandler(repository, eventPublisher, cache);
+    }
+
+    @Test
+    void handle_shouldReadOnlyProductsMissingFromTheCache() {
+        when(repository.findSnapshotRows(anyCollection()))
+                .thenReturn(CompletableFuture.completedFuture(List.of(row("p-1", "10.00", 1))))
+                .thenReturn(CompletableFuture.completedFuture(List.of(row("p-2", "5.00", 1))));
+
+        handler.handle(command("order-1", "p-1")).join();
+        handler.handle(command("order-2", "p-1", "p-2")).join();
+
+        verify(repository).findSnapshotRows(List.of("p-1"));
+        verify(repository).findSnapshotRows(List.of("p-2"));
+        assertThat(lastSnapshots()).extracting(ProductSnapshotsProvided.ProductSnapshot::id)
+                .containsExactly("p-1", "p-2");
+    }
+
+    @Test
+    void handle_afterAnInvalidation_shouldReadTheNewPrice() {
+        when(repository.findSnapshotRows(anyCollection()))
+                .thenReturn(CompletableFuture.completedFuture(List.of(row("p-1", "10.00", 1))))
+                .thenReturn(CompletableFuture.completedFuture(List.of(row("p-1", "8.00", 2))));
+        handler.handle(command("order-1", "p-1")).join();
+
+        cache.invalidate(List.of("p-1"));
+        handler.handle(command("order-2", "p-1")).join();
+
+        verify(repository, times(2)).findSnapshotRows(List.of("p-1"));
+        assertThat(lastSnapshots()).singleElement()
+                .satisfies(snapshot -> assertThat(snapshot.price()).isEqualByComparingTo("8.00"));
+    }
+
+    private List<ProductSnapshotsProvided.ProductSnapshot> lastSnapshots() {
+        ArgumentCaptor<ProductSnapshotsProvided> captor = ArgumentCaptor.forClass(ProductSnapshotsProvided.class);
+        verify(eventPublisher, atLeastOnce()).publish(captor.capture());
+        return captor.getValue().getProducts();
+    }
+
+    private static GetProductSnapshotsCommand command(String orderId, String... productIds) {
+        return new GetProductSnapshotsCommand("cmd-" + orderId, orderId, List.of(productIds));
+    }
+
+    private static ProductSnapshotRow row(String productId, String price, int version) {
+        return new ProductSnapshotRow(productId, "Name " + productId, "SKU-" + productId, new BigDecimal(price),
+                "ACTIVE", version);
+    }
+}
@@ -0,0 +1,69 @@
+package com.ecommerce.productcatalog.application.snapshots;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for ProductSnapshotCache.
+ */
+class ProductSnapshotCacheTest {
+
+    private final ProductSnapshotCache cache = new ProductSnapshotCache(Duration.ofMinutes(1), 100);
+
+    @Test
+    void putAll_olderVersion_shouldNotReplaceNewerRow() {
+        cache.putAll(List.of(row("p-1", "20.00", 2)), System.nanoTime());
+        cache.putAll(List.of(row("p-1", "10.00", 1)), System.nanoTime());
+
+        assertThat(cache.getAll(List.of("p-1")).get("p-1").version()).isEqualTo(2);
+    }
+
+    @Test
+    void invalidate_shouldDropTheRow() {
+        cache.putAll(List.of(row("p-1", "10.00", 1), row("p-2", "5.00", 1)), System.nanoTime());
+
+        cache.invalidate(List.of("p-1"));
+
+        assertThat(cache.getAll(List.of("p-1", "p-2"))).containsOnlyKeys("p-2");
+    }
+
+    @Test
+    void putAll_ofAReadStartedBeforeTheInvalidation_shouldNotRestoreTheOldRow() {
+        cache.putAll(List.of(row("p-1", "10.00", 1)), System.nanoTime());
+        long readStartedAt = System.nanoTime();
+        cache.invalidate(List.of("p-1"));
+
+        cache.putAll(List.of(row("p-1", "10.00", 1)), readStartedAt);
+
+        assertThat(cache.getAll(List.of("p-1"))).isEmpty();
+    }
+
+    @Test
+    void putAll_ofAReadStartedAfterTheInvalidation_shouldCacheTheRow() {
+        cache.invalidate(List.of("p-1"));
+        long readStartedAt = System.nanoTime();
+
+        cache.putAll(List.of(row("p-1", "12.00", 2)), readStartedAt);
+
+        assertThat(cache.getAll(List.of("p-1")).get("p-1").price()).isEqualByComparingTo("12.00");
+    }
+
+    @Test
+    void getAll_shouldSkipRowsOlderThanTheTtl() {
+        ProductSnapshotCache shortLived = new ProductSnapshotCache(Duration.ofMillis(50), 100);
+
+        shortLived.putAll(List.of(row("p-1", "10.00", 1)), System.nanoTime() - Duration.ofMillis(60).toNanos());
+
+        assertThat(shortLived.getAll(List.of("p-1"))).isEmpty();
+    }
+
+    private static ProductSnapshotRow row(String productId, String price, int version) {
+        return new ProductSnapshotRow(productId, "Name " + productId, "SKU-" + productId, new BigDecimal(price),
+                "ACTIVE", version);
+    }
+}
@@ -0,0 +1,44 @@
+package com.ecommerce.productcatalog.commandapi.config;
+
+import org.springframework.amqp.rabbit.AsyncRabbitTemplate;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Request-reply and executor configuration for bulk product imports.
+ */
+@Configuration
+public class ProductImportConfig {
+
+    /**
+     * Uses RabbitMQ direct reply-to, so per-chunk results come back without
+     * declaring a reply queue.
+     */
+    @Bean
+    public AsyncRabbitTemplate productImportAsyncRabbitTemplate(RabbitTemplate rabbitTemplate,
+            @Value("${product.import.reply-timeout-ms:60000}") long timeoutMs) {
+        AsyncRabbitTemplate template = new AsyncRabbitTemplate(rabbitTemplate);
+        template.setReceiveTimeout(timeoutMs);
+        return template;
+    }
+
+    /**
+     * Runs imports off the request threads, which only spool the upload.
+     * Imports beyond the pool size wait in the queue.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService productImportExecutor(@Value("${product.import.threads:2}") int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "product-import-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -62,7 +62,15 @@ public class RabbitMQConfig {
                     rabbitTemplate.convertAndSend(
                             MessagingConstants.COMMANDS_EXCHANGE,
                             queueName,
-                            envelope);
+                            envelope,
+                            message -> {
+                                // The command handler dispatches on this header
+                                message.getMessageProperties().setHeader(
+                                        MessagingConstants.HEADER_COMMAND_TYPE, envelope.getCommandType());
+                                message.getMessageProperties().setHeader(
+                                        MessagingConstants.HEADER_CORRELATION_ID, envelope.getCorrelationId());
+                                return message;
+                            });
                 });
             }
         };
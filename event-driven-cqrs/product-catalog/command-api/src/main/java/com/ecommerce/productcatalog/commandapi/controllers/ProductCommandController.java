@@ -1,19 +1,34 @@
 package com.ecommerce.productcatalog.commandapi.controllers;
 
+import com.ecommerce.productcatalog.application.commands.BulkChangeProductPriceCommand;
 import com.ecommerce.productcatalog.application.commands.CreateProductCommand;
+import com.ecommerce.productcatalog.application.commands.PriceAdjustment;
+import com.ecommerce.productcatalog.commandapi.dto.BulkChangeProductPriceRequest;
 import com.ecommerce.productcatalog.commandapi.dto.CommandResponse;
 import com.ecommerce.productcatalog.commandapi.dto.CreateProductRequest;
+import com.ecommerce.productcatalog.commandapi.dto.PriceChangeJobResponse;
+import com.ecommerce.productcatalog.commandapi.dto.ProductImportResponse;
+import com.ecommerce.productcatalog.commandapi.imports.ImportFormat;
+import com.ecommerce.productcatalog.commandapi.imports.ProductImportJob;
+import com.ecommerce.productcatalog.commandapi.imports.ProductImportService;
+import com.ecommerce.productcatalog.commandapi.prices.PriceChangeJobQueries;
 import com.ecommerce.shared.common.commands.CommandEnvelope;
 import com.ecommerce.shared.messaging.CommandPublisher;
 import com.ecommerce.shared.messaging.MessagingConstants;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
 
 /**
  * REST controller for product commands.
@@ -26,9 +41,15 @@ public class ProductCommandController {
         private static final Logger logger = LoggerFactory.getLogger(ProductCommandController.class);
 
         private final CommandPublisher commandPublisher;
+        private final ProductImportService productImportService;
+        private final PriceChangeJobQueries priceChangeJobQueries;
 
-        public ProductCommandController(CommandPublisher commandPublisher) {
+        public ProductCommandController(CommandPublisher commandPublisher,
+                        ProductImportService productImportService,
+                        PriceChangeJobQueries priceChangeJobQueries) {
                 this.commandPublisher = commandPublisher;
+                this.productImportService = productImportService;
+                this.priceChangeJobQueries = priceChangeJobQueries;
         }
 
         /**
@@ -71,6 +92,56 @@ public class ProductCommandController {
                                 .body(CommandResponse.accepted(commandId));
         }
 
+        /**
+         * Bulk import products from a streamed CSV or NDJSON upload.
+         * The upload is stored and imported in the background; the tracking id is
+         * the import id, and {@code GET /import/{importId}} reports its progress.
+         */
+        @PostMapping(value = "/import", consumes = { "text/csv", "application/x-ndjson" })
+        public ResponseEntity<ProductImportResponse> importProducts(
+                        HttpServletRequest request,
+                        @RequestHeader(value = "X-Correlation-Id", required = false) String correlationId,
+                        @RequestHeader(value = "X-Tenant-Id", required = false) String tenantId) throws IOException {
+
+                String corrId = correlationId != null ? correlationId : UUID.randomUUID().toString();
+                ImportFormat format = ImportFormat.fromContentType(request.getContentType());
+
+                logger.info("Received product import: correlationId={}, format={}", corrId, format);
+
+                ProductImportResponse response = productImportService.startImport(
+                                request.getInputStream(), format, corrId, tenantId);
+
+                return ResponseEntity
+                                .status(HttpStatus.ACCEPTED)
+                                .body(response);
+        }
+
+        /**
+         * Progress of a bulk product import.
+         */
+        @GetMapping("/import/{importId}")
+        public ResponseEntity<ProductImportResponse> getImport(@PathVariable String importId) {
+                return productImportService.findImport(importId)
+                                .map(job -> ResponseEntity.ok(job.toResponse()))
+                                .orElseGet(() -> ResponseEntity.notFound().build());
+        }
+
+        /**
+         * Per-row outcomes of a finished bulk product import, one JSON line per row
+         * in the order the outcomes arrived. Answers 409 while the import is running.
+         */
+        @GetMapping(value = "/import/{importId}/report", produces = "application/x-ndjson")
+        public ResponseEntity<Resource> getImportReport(@PathVariable String importId) {
+                Optional<ProductImportJob> job = productImportService.findImport(importId);
+                if (job.isEmpty()) {
+                        return ResponseEntity.notFound().build();
+                }
+                if (!job.get().isFinished()) {
+                        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+                }
+                return ResponseEntity.ok(new FileSystemResource(job.get().getReport()));
+        }
+
         /**
          * Update product details.
          */
@@ -133,6 +204,88 @@ public class ProductCommandController {
                                 .body(CommandResponse.accepted(commandId));
         }
 
+        /**
+         * Reprice all products matching a SKU list and/or status.
+         * Runs as a chunked job in the command handler; the tracking id is the job id,
+         * and {@code GET /prices/bulk/{jobId}} reports its progress.
+         */
+        @PostMapping("/prices/bulk")
+        public ResponseEntity<CommandResponse> bulkChangeProductPrice(
+                        @Valid @RequestBody BulkChangeProductPriceRequest request,
+                        @RequestHeader(value = "X-Correlation-Id", required = false) String correlationId,
+                        @RequestHeader(value = "X-Tenant-Id", required = false) String tenantId) {
+
+                String jobId = UUID.randomUUID().toString();
+                String corrId = correlationId != null ? correlationId : UUID.randomUUID().toString();
+
+                logger.info("Received BulkChangeProductPrice request: correlationId={}, jobId={}, adjustment={} {}",
+                                corrId, jobId, request.getAdjustmentType(), request.getAdjustmentValue());
+
+                BulkChangeProductPriceCommand command = new BulkChangeProductPriceCommand(
+                                UUID.randomUUID().toString(),
+                                jobId,
+                                new PriceAdjustment(request.getAdjustmentType(), request.getAdjustmentValue()),
+                                request.getSkus(),
+                                request.getStatus() != null ? request.getStatus().toUpperCase() : null);
+
+                publishCommand(CommandEnvelope.builder(command)
+                                .correlationId(corrId)
+                                .tenantId(tenantId)
+                                .build());
+
+                return ResponseEntity
+                                .status(HttpStatus.ACCEPTED)
+                                .body(CommandResponse.accepted(jobId));
+        }
+
+        /**
+         * Progress of a bulk price job as of its last checkpoint.
+         */
+        @GetMapping("/prices/bulk/{jobId}")
+        public ResponseEntity<PriceChangeJobResponse> getBulkChangeProductPrice(
+                        @PathVariable String jobId,
+                        @RequestHeader(value = "X-Correlation-Id", required = false) String correlationId,
+                        @RequestHeader(value = "X-Tenant-Id", required = false) String tenantId) {
+
+                String corrId = correlationId != null ? correlationId : UUID.randomUUID().toString();
+
+                try {
+                        return priceChangeJobQueries.findJob(jobId, corrId, tenantId).join()
+                                        .map(ResponseEntity::ok)
+                                        .orElseGet(() -> ResponseEntity.notFound().build());
+                } catch (CompletionException ex) {
+                        logger.warn("No progress for bulk price job: correlationId={}, jobId={}: {}",
+                                        corrId, jobId, ex.getMessage());
+                        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+                }
+        }
+
+        /**
+         * Resume an interrupted or failed bulk price job from its last checkpoint.
+         */
+        @PostMapping("/prices/bulk/{jobId}/resume")
+        public ResponseEntity<CommandResponse> resumeBulkChangeProductPrice(
+                        @PathVariable String jobId,
+                        @RequestHeader(value = "X-Correlation-Id", required = false) String correlationId,
+                        @RequestHeader(value = "X-Tenant-Id", required = false) String tenantId) {
+
+                String corrId = correlationId != null ? correlationId : UUID.randomUUID().toString();
+
+                logger.info("Received resume for bulk price job: correlationId={}, jobId={}", corrId, jobId);
+
+                BulkChangeProductPriceCommand command = new BulkChangeProductPriceCommand(
+                                UUID.randomUUID().toString(), jobId, null, null, null);
+
+                publishCommand(CommandEnvelope.builder(command)
+                                .correlationId(corrId)
+                                .tenantId(tenantId)
+                                .build());
+
+                return ResponseEntity
+                                .status(HttpStatus.ACCEPTED)
+                                .body(CommandResponse.accepted(jobId));
+        }
+
         /**
          * Activate a product.
          */
@@ -0,0 +1,28 @@
+package com.ecommerce.productcatalog.commandapi.dto;
+
+import com.ecommerce.productcatalog.application.commands.PriceAdjustment;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Request DTO for repricing many products at once.
+ * Without skus or status, every non-deleted product is repriced.
+ */
+@Data
+@NoArgsConstructor
+public class BulkChangeProductPriceRequest {
+
+    @NotNull(message = "Adjustment type is required")
+    private PriceAdjustment.Type adjustmentType;
+
+    @NotNull(message = "Adjustment value is required")
+    private BigDecimal adjustmentValue;
+
+    private List<String> skus;
+
+    private String status;
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.productcatalog.commandapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.time.Instant;
+
+/**
+ * Progress of a bulk price job as of its last checkpoint.
+ * {@code republished} counts products repriced before an interruption whose
+ * events were sent again on resume; they are not part of {@code updated}.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record PriceChangeJobResponse(
+        String jobId,
+        String state,
+        long processed,
+        long updated,
+        long republished,
+        long skipped,
+        String lastProductId,
+        String failure,
+        Instant startedAt,
+        Instant updatedAt) {
+}
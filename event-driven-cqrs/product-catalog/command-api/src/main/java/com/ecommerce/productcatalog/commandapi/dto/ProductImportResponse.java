@@ -0,0 +1,33 @@
+package com.ecommerce.productcatalog.commandapi.dto;
+
+import java.time.Instant;
+
+/**
+ * Progress of a bulk product import. The counts cover the rows whose outcome
+ * is known so far; the per-row outcomes are served as a separate report once
+ * the import has finished.
+ */
+public record ProductImportResponse(
+        String importId,
+        String state,
+        int totalRows,
+        int created,
+        int rejected,
+        int pending,
+        String failure,
+        Instant startedAt,
+        Instant updatedAt) {
+
+    public enum RowStatus {
+        CREATED,
+        REJECTED,
+        // Sent to the command handler, but no reply arrived in time
+        PENDING
+    }
+
+    /**
+     * One line of the import report.
+     */
+    public record RowResult(int rowNumber, String sku, RowStatus status, String productId, String error) {
+    }
+}
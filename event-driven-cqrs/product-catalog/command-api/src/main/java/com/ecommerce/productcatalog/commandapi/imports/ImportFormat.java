@@ -0,0 +1,28 @@
+package com.ecommerce.productcatalog.commandapi.imports;
+
+/**
+ * Supported bulk import upload formats.
+ */
+public enum ImportFormat {
+    CSV("text/csv"),
+    NDJSON("application/x-ndjson");
+
+    private final String contentType;
+
+    ImportFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public static ImportFormat fromContentType(String contentType) {
+        for (ImportFormat format : values()) {
+            if (contentType != null && contentType.toLowerCase().startsWith(format.contentType)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported import content type: " + contentType);
+    }
+}
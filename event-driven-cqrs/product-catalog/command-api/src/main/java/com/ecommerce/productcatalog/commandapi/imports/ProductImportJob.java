@@ -0,0 +1,89 @@
+package com.ecommerce.productcatalog.commandapi.imports;
+
+import com.ecommerce.productcatalog.commandapi.dto.ProductImportResponse;
+import com.ecommerce.productcatalog.commandapi.dto.ProductImportResponse.RowResult;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Progress of one import, updated by the thread running it and read by
+ * status requests. The per-row outcomes go to the report file, not here.
+ */
+public class ProductImportJob {
+
+    public enum State {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String importId;
+    private final Path report;
+    private final Instant startedAt;
+    private State state = State.QUEUED;
+    private int totalRows;
+    private int created;
+    private int rejected;
+    private int pending;
+    private String failure;
+    private Instant updatedAt;
+
+    public ProductImportJob(String importId, Path report, Instant startedAt) {
+        this.importId = importId;
+        this.report = report;
+        this.startedAt = startedAt;
+        this.updatedAt = startedAt;
+    }
+
+    public String getImportId() {
+        return importId;
+    }
+
+    public Path getReport() {
+        return report;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized boolean isFinished() {
+        return state == State.COMPLETED || state == State.FAILED;
+    }
+
+    synchronized void start() {
+        state = State.RUNNING;
+        updatedAt = Instant.now();
+    }
+
+    synchronized void recorded(List<RowResult> rows) {
+        for (RowResult row : rows) {
+            totalRows++;
+            switch (row.status()) {
+                case CREATED -> created++;
+                case REJECTED -> rejected++;
+                case PENDING -> pending++;
+            }
+        }
+        updatedAt = Instant.now();
+    }
+
+    synchronized void complete() {
+        state = State.COMPLETED;
+        updatedAt = Instant.now();
+    }
+
+    synchronized void fail(String reason) {
+        state = State.FAILED;
+        failure = reason;
+        updatedAt = Instant.now();
+    }
+
+    public synchronized ProductImportResponse toResponse() {
+        return new ProductImportResponse(importId, state.name(), totalRows, created, rejected, pending, failure,
+                startedAt, updatedAt);
+    }
+}
@@ -0,0 +1,151 @@
+package com.ecommerce.productcatalog.commandapi.imports;
+
+import com.ecommerce.productcatalog.commandapi.dto.CreateProductRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads an uploaded product file one row at a time.
+ * CSV files need a header row naming the columns (name, description, price,
+ * currency, sku); NDJSON lines use the CreateProductRequest fields.
+ */
+public class ProductImportReader implements Iterator<ProductImportReader.ParsedRow> {
+
+    private final BufferedReader reader;
+    private final ImportFormat format;
+    private final ObjectMapper objectMapper;
+    private Map<String, Integer> csvColumns;
+    private int lineNumber;
+    private ParsedRow next;
+
+    public ProductImportReader(BufferedReader reader, ImportFormat format, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * A row as read from the file; {@code error} is set when it could not be parsed.
+     */
+    public record ParsedRow(int rowNumber, CreateProductRequest request, String error) {
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = readNext();
+        }
+        return next != null;
+    }
+
+    @Override
+    public ParsedRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ParsedRow row = next;
+        next = null;
+        return row;
+    }
+
+    private ParsedRow readNext() {
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == ImportFormat.CSV && csvColumns == null) {
+                    csvColumns = header(line);
+                    continue;
+                }
+                return format == ImportFormat.CSV ? parseCsv(line) : parseJson(line);
+            }
+            return null;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private ParsedRow parseJson(String line) {
+        try {
+            return new ParsedRow(lineNumber, objectMapper.readValue(line, CreateProductRequest.class), null);
+        } catch (JsonProcessingException ex) {
+            return new ParsedRow(lineNumber, null, "Malformed JSON: " + ex.getOriginalMessage());
+        }
+    }
+
+    private ParsedRow parseCsv(String line) {
+        List<String> fields = splitCsv(line);
+        CreateProductRequest request = new CreateProductRequest();
+        request.setName(column(fields, "name"));
+        request.setDescription(column(fields, "description"));
+        request.setCurrency(column(fields, "currency"));
+        request.setSku(column(fields, "sku"));
+
+        String price = column(fields, "price");
+        if (price != null && !price.isBlank()) {
+            try {
+                request.setPrice(new BigDecimal(price.trim()));
+            } catch (NumberFormatException ex) {
+                return new ParsedRow(lineNumber, null, "Invalid price: " + price);
+            }
+        }
+        return new ParsedRow(lineNumber, request, null);
+    }
+
+    private String column(List<String> fields, String name) {
+        Integer index = csvColumns.get(name);
+        return index != null && index < fields.size() ? fields.get(index) : null;
+    }
+
+    private static Map<String, Integer> header(String line) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsv(line);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(), i);
+        }
+        return columns;
+    }
+
+    // RFC 4180 fields on a single line: quoted fields may contain commas and "" escapes
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,303 @@
+package com.ecommerce.productcatalog.commandapi.imports;
+
+import com.ecommerce.productcatalog.application.commands.BulkCreateProductsCommand;
+import com.ecommerce.productcatalog.application.commands.BulkCreateProductsResult;
+import com.ecommerce.productcatalog.application.commands.ProductImportRow;
+import com.ecommerce.productcatalog.commandapi.dto.CreateProductRequest;
+import com.ecommerce.productcatalog.commandapi.dto.ProductImportResponse;
+import com.ecommerce.productcatalog.commandapi.dto.ProductImportResponse.RowResult;
+import com.ecommerce.productcatalog.commandapi.dto.ProductImportResponse.RowStatus;
+import com.ecommerce.shared.common.commands.CommandEnvelope;
+import com.ecommerce.shared.messaging.MessagingConstants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.AsyncRabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Streams an uploaded product file into BulkCreateProductsCommands.
+ *
+ * The upload is spooled to a temporary file and the import runs on the
+ * import executor, so the request returns as soon as the body is stored.
+ * Rows are read incrementally and grouped into chunks; each chunk is
+ * validated in parallel and valid rows are sent as one command. A bounded
+ * number of chunks is in flight at a time, and row outcomes are appended to
+ * a report file as they arrive, so memory stays flat however large the file.
+ * Progress is kept in memory by the instance that accepted the upload; the
+ * most recent imports are retained and older ones dropped with their report.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+    private final AsyncRabbitTemplate asyncRabbitTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final Executor executor;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+    private final int retainedImports;
+    private final Map<String, ProductImportJob> imports = new LinkedHashMap<>();
+
+    public ProductImportService(
+            AsyncRabbitTemplate productImportAsyncRabbitTemplate,
+            ObjectMapper objectMapper,
+            Validator validator,
+            Executor productImportExecutor,
+            @Value("${product.import.chunk-size:500}") int chunkSize,
+            @Value("${product.import.max-chunks-in-flight:4}") int maxChunksInFlight,
+            @Value("${product.import.retained-imports:100}") int retainedImports) {
+        this.asyncRabbitTemplate = productImportAsyncRabbitTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.executor = productImportExecutor;
+        this.chunkSize = chunkSize;
+        this.maxChunksInFlight = maxChunksInFlight;
+        this.retainedImports = retainedImports;
+    }
+
+    /**
+     * Stores the upload and queues its import.
+     *
+     * @return the progress of the queued import, whose id tracks it
+     */
+    public ProductImportResponse startImport(InputStream input, ImportFormat format,
+            String correlationId, String tenantId) throws IOException {
+        String importId = UUID.randomUUID().toString();
+        Path upload = Files.createTempFile("product-import-" + importId, ".upload");
+        try {
+            Files.copy(input, upload, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException ex) {
+            Files.deleteIfExists(upload);
+            throw ex;
+        }
+
+        ProductImportJob job = new ProductImportJob(importId,
+                upload.resolveSibling("product-import-" + importId + ".ndjson"), Instant.now());
+        register(job);
+        logger.info("Queued product import: importId={}, format={}, bytes={}, correlationId={}",
+                importId, format, Files.size(upload), correlationId);
+
+        try {
+            executor.execute(() -> run(job, upload, format, correlationId, tenantId));
+        } catch (RejectedExecutionException ex) {
+            Files.deleteIfExists(upload);
+            job.fail("Import could not be scheduled");
+        }
+        return job.toResponse();
+    }
+
+    public Optional<ProductImportJob> findImport(String importId) {
+        synchronized (imports) {
+            return Optional.ofNullable(imports.get(importId));
+        }
+    }
+
+    private void register(ProductImportJob job) {
+        List<ProductImportJob> dropped = new ArrayList<>();
+        synchronized (imports) {
+            imports.put(job.getImportId(), job);
+            Iterator<ProductImportJob> oldest = imports.values().iterator();
+            while (imports.size() > retainedImports && oldest.hasNext()) {
+                ProductImportJob candidate = oldest.next();
+                // Imports still running are kept; they are dropped once a later one finds them finished
+                if (candidate.isFinished()) {
+                    oldest.remove();
+                    dropped.add(candidate);
+                }
+            }
+        }
+        for (ProductImportJob old : dropped) {
+            deleteQuietly(old.getReport());
+        }
+    }
+
+    private void run(ProductImportJob job, Path upload, ImportFormat format, String correlationId,
+            String tenantId) {
+        String importId = job.getImportId();
+        job.start();
+        logger.info("Starting product import: importId={}, format={}, correlationId={}",
+                importId, format, correlationId);
+
+        Deque<CompletableFuture<List<RowResult>>> inFlight = new ArrayDeque<>();
+        List<ProductImportReader.ParsedRow> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = Files.newBufferedReader(upload, StandardCharsets.UTF_8);
+                BufferedWriter report = Files.newBufferedWriter(job.getReport(), StandardCharsets.UTF_8)) {
+            ProductImportReader rows = new ProductImportReader(reader, format, objectMapper);
+            while (rows.hasNext()) {
+                chunk.add(rows.next());
+                if (chunk.size() == chunkSize) {
+                    submit(job, report, chunk, correlationId, tenantId, inFlight);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                submit(job, report, chunk, correlationId, tenantId, inFlight);
+            }
+            while (!inFlight.isEmpty()) {
+                record(job, report, inFlight.poll().join());
+            }
+            job.complete();
+        } catch (IOException | RuntimeException ex) {
+            // Chunks already sent stay sent; their rows are reported up to the failure
+            Throwable cause = ex instanceof UncheckedIOException ? ex.getCause() : ex;
+            logger.error("Product import failed: importId={}: {}", importId, cause.getMessage(), cause);
+            job.fail(cause.getMessage());
+        } finally {
+            deleteQuietly(upload);
+        }
+
+        ProductImportResponse progress = job.toResponse();
+        logger.info("Finished product import: importId={}, state={}, rows={}, created={}, rejected={}, pending={}",
+                importId, progress.state(), progress.totalRows(), progress.created(), progress.rejected(),
+                progress.pending());
+    }
+
+    private void submit(ProductImportJob job, BufferedWriter report, List<ProductImportReader.ParsedRow> chunk,
+            String correlationId, String tenantId, Deque<CompletableFuture<List<RowResult>>> inFlight)
+            throws IOException {
+        // Wait for the oldest chunk before reading further
+        if (inFlight.size() >= maxChunksInFlight) {
+            record(job, report, inFlight.poll().join());
+        }
+
+        List<Validated> validated = chunk.parallelStream().map(this::validate).toList();
+        List<ProductImportRow> valid = new ArrayList<>();
+        List<RowResult> invalid = new ArrayList<>();
+        for (Validated row : validated) {
+            if (row.error() != null) {
+                invalid.add(new RowResult(row.rowNumber(), row.sku(), RowStatus.REJECTED, null, row.error()));
+            } else {
+                valid.add(row.row());
+            }
+        }
+        record(job, report, invalid);
+        if (!valid.isEmpty()) {
+            inFlight.add(send(job.getImportId(), valid, correlationId, tenantId));
+        }
+    }
+
+    /**
+     * Appends row outcomes to the report, one JSON line each, and counts
+     * them. Only the thread running the import calls this.
+     */
+    private void record(ProductImportJob job, BufferedWriter report, List<RowResult> rows) throws IOException {
+        for (RowResult row : rows) {
+            report.write(objectMapper.writeValueAsString(row));
+            report.newLine();
+        }
+        job.recorded(rows);
+    }
+
+    private Validated validate(ProductImportReader.ParsedRow parsed) {
+        CreateProductRequest request = parsed.request();
+        if (parsed.error() != null) {
+            return new Validated(parsed.rowNumber(), null, null, parsed.error());
+        }
+        Set<ConstraintViolation<CreateProductRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            String error = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            return new Validated(parsed.rowNumber(), request.getSku(), null, error);
+        }
+        ProductImportRow row = new ProductImportRow(parsed.rowNumber(), request.getName(), request.getDescription(),
+                request.getPrice(), request.getCurrency(), request.getSku());
+        return new Validated(parsed.rowNumber(), request.getSku(), row, null);
+    }
+
+    private CompletableFuture<List<RowResult>> send(String importId, List<ProductImportRow> rows,
+            String correlationId, String tenantId) {
+        BulkCreateProductsCommand command = new BulkCreateProductsCommand(
+                UUID.randomUUID().toString(), importId, rows);
+        CommandEnvelope<BulkCreateProductsCommand> envelope = CommandEnvelope.builder(command)
+                .correlationId(correlationId)
+                .tenantId(tenantId)
+                .build();
+
+        Message message;
+        try {
+            message = MessageBuilder
+                    .withBody(objectMapper.writeValueAsBytes(envelope))
+                    .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                    .setMessageId(command.getCommandId())
+                    .setHeader(MessagingConstants.HEADER_COMMAND_TYPE, envelope.getCommandType())
+                    .setHeader(MessagingConstants.HEADER_CORRELATION_ID, envelope.getCorrelationId())
+                    .build();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        return asyncRabbitTemplate.sendAndReceive(
+                        MessagingConstants.COMMANDS_EXCHANGE, MessagingConstants.PRODUCT_CATALOG_COMMANDS_QUEUE, message)
+                .thenApply(this::toRowResults)
+                .exceptionally(ex -> {
+                    // The chunk may still be applied; report it as pending rather than failed
+                    logger.warn("No reply for import chunk: importId={}, commandId={}: {}",
+                            importId, command.getCommandId(), ex.getMessage());
+                    return rows.stream()
+                            .map(row -> new RowResult(row.rowNumber(), row.sku(), RowStatus.PENDING, null,
+                                    "No reply from command handler"))
+                            .toList();
+                });
+    }
+
+    private List<RowResult> toRowResults(Message reply) {
+        try {
+            BulkCreateProductsResult result = objectMapper.readValue(reply.getBody(), BulkCreateProductsResult.class);
+            return result.rows().stream()
+                    .map(row -> new RowResult(row.rowNumber(), row.sku(),
+                            row.success() ? RowStatus.CREATED : RowStatus.REJECTED,
+                            row.productId(), row.errorMessage()))
+                    .toList();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            logger.warn("Could not delete import file {}: {}", file, ex.getMessage());
+        }
+    }
+
+    private record Validated(int rowNumber, String sku, ProductImportRow row, String error) {
+    }
+}
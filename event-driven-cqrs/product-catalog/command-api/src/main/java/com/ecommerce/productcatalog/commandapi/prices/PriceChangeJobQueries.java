@@ -0,0 +1,81 @@
+package com.ecommerce.productcatalog.commandapi.prices;
+
+import com.ecommerce.productcatalog.application.commands.GetPriceChangeJobCommand;
+import com.ecommerce.productcatalog.commandapi.dto.PriceChangeJobResponse;
+import com.ecommerce.shared.common.commands.CommandEnvelope;
+import com.ecommerce.shared.messaging.MessagingConstants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.AsyncRabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asks the command handler, which owns the job store, for the progress of a
+ * bulk price job.
+ */
+@Service
+public class PriceChangeJobQueries {
+
+    private final AsyncRabbitTemplate asyncRabbitTemplate;
+    private final ObjectMapper objectMapper;
+    private final long timeoutMs;
+
+    public PriceChangeJobQueries(
+            AsyncRabbitTemplate productImportAsyncRabbitTemplate,
+            ObjectMapper objectMapper,
+            @Value("${product.price-job.status-timeout-ms:5000}") long timeoutMs) {
+        this.asyncRabbitTemplate = productImportAsyncRabbitTemplate;
+        this.objectMapper = objectMapper;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * @return the job, or empty if there is no job with that id; fails with a
+     *         TimeoutException if the command handler does not answer in time
+     */
+    public CompletableFuture<Optional<PriceChangeJobResponse>> findJob(String jobId, String correlationId,
+            String tenantId) {
+        GetPriceChangeJobCommand command = new GetPriceChangeJobCommand(UUID.randomUUID().toString(), jobId);
+        CommandEnvelope<GetPriceChangeJobCommand> envelope = CommandEnvelope.builder(command)
+                .correlationId(correlationId)
+                .tenantId(tenantId)
+                .build();
+
+        Message message;
+        try {
+            message = MessageBuilder
+                    .withBody(objectMapper.writeValueAsBytes(envelope))
+                    .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                    .setMessageId(command.getCommandId())
+                    .setHeader(MessagingConstants.HEADER_COMMAND_TYPE, envelope.getCommandType())
+                    .setHeader(MessagingConstants.HEADER_CORRELATION_ID, envelope.getCorrelationId())
+                    .build();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        return asyncRabbitTemplate.sendAndReceive(
+                        MessagingConstants.COMMANDS_EXCHANGE, MessagingConstants.PRODUCT_CATALOG_COMMANDS_QUEUE, message)
+                .orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .thenApply(this::toResponse);
+    }
+
+    private Optional<PriceChangeJobResponse> toResponse(Message reply) {
+        try {
+            // An unknown job is answered with a JSON null
+            return Optional.ofNullable(objectMapper.readValue(reply.getBody(), PriceChangeJobResponse.class));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
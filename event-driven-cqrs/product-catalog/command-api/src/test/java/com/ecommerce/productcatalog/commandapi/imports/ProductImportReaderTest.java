@@ -0,0 +1,99 @@
+package com.ecommerce.productcatalog.commandapi.imports;
+
+import com.ecommerce.productcatalog.commandapi.imports.ProductImportReader.ParsedRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for ProductImportReader.
+ */
+class ProductImportReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void splitCsv_shouldSplitOnCommas() {
+        assertThat(ProductImportReader.splitCsv("a,b,,c")).containsExactly("a", "b", "", "c");
+    }
+
+    @Test
+    void splitCsv_shouldKeepCommasAndEscapedQuotesInsideQuotedFields() {
+        assertThat(ProductImportReader.splitCsv("\"Desk, oak\",\"12\"\" wide\",9.99"))
+                .containsExactly("Desk, oak", "12\" wide", "9.99");
+    }
+
+    @Test
+    void splitCsv_shouldKeepTrailingEmptyField() {
+        assertThat(ProductImportReader.splitCsv("a,")).containsExactly("a", "");
+    }
+
+    @Test
+    void read_csv_shouldMapColumnsByHeader() {
+        List<ParsedRow> rows = read(ImportFormat.CSV, """
+                SKU,Price,Name,currency
+                D-1,19.90,"Desk, oak",EUR
+
+                L-1,5,Lamp,USD
+                """);
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).rowNumber()).isEqualTo(2);
+        assertThat(rows.get(0).request().getName()).isEqualTo("Desk, oak");
+        assertThat(rows.get(0).request().getSku()).isEqualTo("D-1");
+        assertThat(rows.get(0).request().getPrice()).isEqualByComparingTo(new BigDecimal("19.90"));
+        assertThat(rows.get(0).request().getDescription()).isNull();
+        assertThat(rows.get(1).rowNumber()).isEqualTo(4);
+    }
+
+    @Test
+    void read_csv_withInvalidPrice_shouldReportRowError() {
+        List<ParsedRow> rows = read(ImportFormat.CSV, """
+                name,price
+                Desk,cheap
+                """);
+
+        assertThat(rows).singleElement().satisfies(row -> {
+            assertThat(row.request()).isNull();
+            assertThat(row.error()).isEqualTo("Invalid price: cheap");
+        });
+    }
+
+    @Test
+    void read_ndjson_shouldParseEachLine() {
+        List<ParsedRow> rows = read(ImportFormat.NDJSON, """
+                {"name":"Desk","price":19.9,"currency":"USD","sku":"D-1"}
+                {"name":
+                """);
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).request().getName()).isEqualTo("Desk");
+        assertThat(rows.get(1).error()).startsWith("Malformed JSON");
+    }
+
+    @Test
+    void next_whenExhausted_shouldThrowException() {
+        ProductImportReader reader = reader(ImportFormat.CSV, "name\n");
+
+        assertThat(reader.hasNext()).isFalse();
+        assertThatThrownBy(reader::next).isInstanceOf(NoSuchElementException.class);
+    }
+
+    private List<ParsedRow> read(ImportFormat format, String content) {
+        List<ParsedRow> rows = new ArrayList<>();
+        reader(format, content).forEachRemaining(rows::add);
+        return rows;
+    }
+
+    private ProductImportReader reader(ImportFormat format, String content) {
+        return new ProductImportReader(new BufferedReader(new StringReader(content)), format, objectMapper);
+    }
+}
@@ -0,0 +1,164 @@
+package com.ecommerce.productcatalog.commandapi.imports;
+
+import com.ecommerce.productcatalog.application.commands.BulkCreateProductsResult;
+import com.ecommerce.productcatalog.commandapi.dto.ProductImportResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.rabbit.AsyncRabbitTemplate;
+import org.springframework.amqp.rabbit.RabbitMessageFuture;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ProductImportService, against a mocked request-reply
+ * template and an executor the test runs by hand.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ProductImportServiceTest {
+
+    private static final String VALID_ROW = "{\"name\":\"Desk\",\"price\":10,\"currency\":\"EUR\",\"sku\":\"D-1\"}";
+
+    @Mock
+    private AsyncRabbitTemplate asyncRabbitTemplate;
+    @Mock
+    private Validator validator;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final List<Runnable> queued = new ArrayList<>();
+    private final List<ProductImportJob> started = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(validator.validate(any())).thenReturn(Set.of());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (ProductImportJob job : started) {
+            Files.deleteIfExists(job.getReport());
+        }
+    }
+
+    @Test
+    void startImport_shouldReturnBeforeAnyRowIsSent() throws Exception {
+        ProductImportService service = service(10);
+
+        ProductImportResponse accepted = start(service, VALID_ROW);
+
+        assertThat(accepted.state()).isEqualTo("QUEUED");
+        assertThat(queued).hasSize(1);
+        verifyNoInteractions(asyncRabbitTemplate);
+        assertThat(service.findImport(accepted.importId())).isPresent();
+    }
+
+    @Test
+    void run_shouldCountEachRowAndWriteItToTheReport() throws Exception {
+        givenReply(new BulkCreateProductsResult("import-1", List.of(
+                new BulkCreateProductsResult.RowResult(2, "D-1", "prod-1", true, null))));
+        ProductImportService service = service(10);
+
+        ProductImportResponse accepted = start(service, "not json", VALID_ROW);
+        queued.forEach(Runnable::run);
+
+        ProductImportJob job = service.findImport(accepted.importId()).orElseThrow();
+        ProductImportResponse progress = job.toResponse();
+        assertThat(progress.state()).isEqualTo("COMPLETED");
+        assertThat(progress.totalRows()).isEqualTo(2);
+        assertThat(progress.created()).isEqualTo(1);
+        assertThat(progress.rejected()).isEqualTo(1);
+        List<ProductImportResponse.RowResult> report = Files.readAllLines(job.getReport()).stream()
+                .map(this::read)
+                .toList();
+        assertThat(report).extracting(ProductImportResponse.RowResult::rowNumber).containsExactly(1, 2);
+        assertThat(report.get(1).productId()).isEqualTo("prod-1");
+    }
+
+    @Test
+    void run_whenNoReplyArrives_shouldReportTheChunkAsPending() throws Exception {
+        givenNoReply();
+        ProductImportService service = service(10);
+
+        ProductImportResponse accepted = start(service, VALID_ROW);
+        queued.forEach(Runnable::run);
+
+        ProductImportResponse progress = service.findImport(accepted.importId()).orElseThrow().toResponse();
+        assertThat(progress.state()).isEqualTo("COMPLETED");
+        assertThat(progress.pending()).isEqualTo(1);
+    }
+
+    @Test
+    void startImport_beyondTheRetainedImports_shouldDropTheOldestFinishedOneAndItsReport() throws Exception {
+        ProductImportService service = service(1);
+        ProductImportResponse first = start(service, "not json");
+        queued.forEach(Runnable::run);
+        ProductImportJob firstJob = service.findImport(first.importId()).orElseThrow();
+
+        ProductImportResponse second = start(service, "not json");
+
+        assertThat(service.findImport(first.importId())).isEmpty();
+        assertThat(service.findImport(second.importId())).isPresent();
+        assertThat(firstJob.getReport()).doesNotExist();
+    }
+
+    private ProductImportService service(int retainedImports) {
+        return new ProductImportService(asyncRabbitTemplate, objectMapper, validator, queued::add, 10, 2,
+                retainedImports);
+    }
+
+    private ProductImportResponse start(ProductImportService service, String... lines) throws Exception {
+        byte[] body = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+        ProductImportResponse accepted = service.startImport(new ByteArrayInputStream(body), ImportFormat.NDJSON,
+                "corr-1", null);
+        started.add(service.findImport(accepted.importId()).orElseThrow());
+        return accepted;
+    }
+
+    private void givenReply(BulkCreateProductsResult result) throws Exception {
+        Message reply = MessageBuilder.withBody(objectMapper.writeValueAsBytes(result)).build();
+        givenFuture(CompletableFuture.completedFuture(reply));
+    }
+
+    private void givenNoReply() {
+        givenFuture(CompletableFuture.failedFuture(new TimeoutException("no reply")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenFuture(CompletableFuture<Message> outcome) {
+        // RabbitMessageFuture cannot be built outside spring-rabbit; only thenApply is used on it
+        RabbitMessageFuture future = mock(RabbitMessageFuture.class);
+        when(future.thenApply(any())).thenAnswer(inv -> outcome.thenApply(inv.<Function<Message, ?>>getArgument(0)));
+        when(asyncRabbitTemplate.sendAndReceive(anyString(), anyString(), any(Message.class))).thenReturn(future);
+    }
+
+    private ProductImportResponse.RowResult read(String line) {
+        try {
+            return objectMapper.readValue(line, ProductImportResponse.RowResult.class);
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -1,7 +1,14 @@
 package com.ecommerce.productcatalog.commandhandler.config;
 
+import com.ecommerce.productcatalog.application.handlers.BulkChangeProductPriceCommandHandler;
+import com.ecommerce.productcatalog.application.handlers.BulkCreateProductsCommandHandler;
 import com.ecommerce.productcatalog.application.handlers.CreateProductCommandHandler;
+import com.ecommerce.productcatalog.application.handlers.GetPriceChangeJobCommandHandler;
+import com.ecommerce.productcatalog.application.handlers.GetProductSnapshotsCommandHandler;
+import com.ecommerce.productcatalog.application.ports.PriceChangeJobRepository;
 import com.ecommerce.productcatalog.application.ports.ProductRepository;
+import com.ecommerce.productcatalog.application.skus.SkuRegistry;
+import com.ecommerce.productcatalog.application.snapshots.ProductSnapshotCache;
 import com.ecommerce.shared.common.events.EventPublisher;
 import com.ecommerce.shared.messaging.MessagingConstants;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -11,9 +18,15 @@ import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFacto
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.SimpleMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Configuration for CommandHandler process.
  */
@@ -65,42 +78,122 @@ public class CommandHandlerConfig {
                 .with(MessagingConstants.PRODUCT_CATALOG_COMMANDS_QUEUE);
     }
 
+    /**
+     * Per-instance queue feeding the SKU registry. Every instance needs every
+     * ProductCreated event, so it is exclusive and auto-delete.
+     */
+    @Bean
+    public Queue productSkuEventsQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("product-catalog.skus."));
+    }
+
+    @Bean
+    public Binding productSkuEventsBinding() {
+        return BindingBuilder
+                .bind(productSkuEventsQueue())
+                .to(eventsExchange());
+    }
+
+    @Bean
+    public SkuRegistry skuRegistry() {
+        return new SkuRegistry();
+    }
+
     @Bean
     public CreateProductCommandHandler createProductCommandHandler(
+            ProductRepository productRepository,
+            EventPublisher eventPublisher,
+            SkuRegistry skuRegistry) {
+        return new CreateProductCommandHandler(productRepository, eventPublisher, skuRegistry);
+    }
+
+    @Bean
+    public BulkCreateProductsCommandHandler bulkCreateProductsCommandHandler(
             ProductRepository productRepository,
             EventPublisher eventPublisher) {
-        return new CreateProductCommandHandler(productRepository, eventPublisher);
+        return new BulkCreateProductsCommandHandler(productRepository, eventPublisher);
+    }
+
+    @Bean
+    public BulkChangeProductPriceCommandHandler bulkChangeProductPriceCommandHandler(
+            ProductRepository productRepository,
+            PriceChangeJobRepository priceChangeJobRepository,
+            EventPublisher eventPublisher,
+            ProductSnapshotCache productSnapshotCache,
+            ExecutorService priceJobExecutor,
+            @Value("${product.price-job.chunk-size:500}") int chunkSize) {
+        return new BulkChangeProductPriceCommandHandler(productRepository, priceChangeJobRepository,
+                eventPublisher, productSnapshotCache, priceJobExecutor, chunkSize);
+    }
+
+    /**
+     * Runs bulk price jobs off the command listener threads, which only
+     * record the job and move on.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService priceJobExecutor(@Value("${product.price-job.threads:2}") int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "price-job-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Bean
+    public GetPriceChangeJobCommandHandler getPriceChangeJobCommandHandler(
+            PriceChangeJobRepository priceChangeJobRepository) {
+        return new GetPriceChangeJobCommandHandler(priceChangeJobRepository);
+    }
+
+    @Bean
+    public ProductSnapshotCache productSnapshotCache(
+            @Value("${product.snapshot-cache.ttl:2s}") Duration ttl,
+            @Value("${product.snapshot-cache.max-entries:10000}") int maxEntries) {
+        return new ProductSnapshotCache(ttl, maxEntries);
+    }
+
+    @Bean
+    public GetProductSnapshotsCommandHandler getProductSnapshotsCommandHandler(
+            ProductRepository productRepository,
+            EventPublisher eventPublisher,
+            ProductSnapshotCache productSnapshotCache) {
+        return new GetProductSnapshotsCommandHandler(productRepository, eventPublisher, productSnapshotCache);
     }
 
     @Bean
     public com.ecommerce.productcatalog.application.handlers.UpdateProductDetailsCommandHandler updateProductDetailsCommandHandler(
             ProductRepository productRepository,
-            EventPublisher eventPublisher) {
+            EventPublisher eventPublisher,
+            ProductSnapshotCache productSnapshotCache) {
         return new com.ecommerce.productcatalog.application.handlers.UpdateProductDetailsCommandHandler(
-                productRepository, eventPublisher);
+                productRepository, eventPublisher, productSnapshotCache);
     }
 
     @Bean
     public com.ecommerce.productcatalog.application.handlers.ChangeProductPriceCommandHandler changeProductPriceCommandHandler(
             ProductRepository productRepository,
-            EventPublisher eventPublisher) {
+            EventPublisher eventPublisher,
+            ProductSnapshotCache productSnapshotCache) {
         return new com.ecommerce.productcatalog.application.handlers.ChangeProductPriceCommandHandler(productRepository,
-                eventPublisher);
+                eventPublisher, productSnapshotCache);
     }
 
     @Bean
     public com.ecommerce.productcatalog.application.handlers.ActivateProductCommandHandler activateProductCommandHandler(
             ProductRepository productRepository,
-            EventPublisher eventPublisher) {
+            EventPublisher eventPublisher,
+            ProductSnapshotCache productSnapshotCache) {
         return new com.ecommerce.productcatalog.application.handlers.ActivateProductCommandHandler(productRepository,
-                eventPublisher);
+                eventPublisher, productSnapshotCache);
     }
 
     @Bean
     public com.ecommerce.productcatalog.application.handlers.DeactivateProductCommandHandler deactivateProductCommandHandler(
             ProductRepository productRepository,
-            EventPublisher eventPublisher) {
+            EventPublisher eventPublisher,
+            ProductSnapshotCache productSnapshotCache) {
         return new com.ecommerce.productcatalog.application.handlers.DeactivateProductCommandHandler(productRepository,
-                eventPublisher);
+                eventPublisher, productSnapshotCache);
     }
 }
@@ -8,9 +8,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 public class ProductCommandConsumer {
 
@@ -22,6 +27,10 @@ public class ProductCommandConsumer {
     private final ActivateProductCommandHandler activateHandler;
     private final DeactivateProductCommandHandler deactivateHandler;
     private final GetProductSnapshotsCommandHandler snapshotsHandler;
+    private final BulkCreateProductsCommandHandler bulkCreateHandler;
+    private final BulkChangeProductPriceCommandHandler bulkPriceHandler;
+    private final GetPriceChangeJobCommandHandler priceJobHandler;
+    private final RabbitTemplate rabbitTemplate;
     private final ObjectMapper objectMapper;
 
     public ProductCommandConsumer(
@@ -31,6 +40,10 @@ public class ProductCommandConsumer {
             ActivateProductCommandHandler activateHandler,
             DeactivateProductCommandHandler deactivateHandler,
             GetProductSnapshotsCommandHandler snapshotsHandler,
+            BulkCreateProductsCommandHandler bulkCreateHandler,
+            BulkChangeProductPriceCommandHandler bulkPriceHandler,
+            GetPriceChangeJobCommandHandler priceJobHandler,
+            RabbitTemplate rabbitTemplate,
             ObjectMapper objectMapper) {
         this.createHandler = createHandler;
         this.updateHandler = updateHandler;
@@ -38,6 +51,10 @@ public class ProductCommandConsumer {
         this.activateHandler = activateHandler;
         this.deactivateHandler = deactivateHandler;
         this.snapshotsHandler = snapshotsHandler;
+        this.bulkCreateHandler = bulkCreateHandler;
+        this.bulkPriceHandler = bulkPriceHandler;
+        this.priceJobHandler = priceJobHandler;
+        this.rabbitTemplate = rabbitTemplate;
         this.objectMapper = objectMapper;
     }
 
@@ -62,10 +79,56 @@ public class ProductCommandConsumer {
                     deactivateHandler.handle(objectMapper.treeToValue(payload, DeactivateProductCommand.class)).join();
                 case "GetProductSnapshotsCommand" ->
                     snapshotsHandler.handle(objectMapper.treeToValue(payload, GetProductSnapshotsCommand.class)).join();
+                case "BulkCreateProductsCommand" ->
+                    reply(message, bulkCreateHandler.handle(toBulkCreateCommand(payload)).join());
+                // Only waits for the job to be saved; it runs on the price job executor
+                case "BulkChangeProductPriceCommand" ->
+                    reply(message, bulkPriceHandler.handle(toBulkPriceCommand(payload)).join());
+                case "GetPriceChangeJobCommand" ->
+                    reply(message, priceJobHandler.handle(new GetPriceChangeJobCommand(
+                            payload.get("commandId").asText(), payload.get("jobId").asText())).join());
                 default -> logger.warn("Unknown command type: {}", commandType);
             }
         } catch (Exception e) {
             logger.error("Failed to process product command", e);
         }
     }
+
+    private BulkCreateProductsCommand toBulkCreateCommand(JsonNode payload) throws Exception {
+        // Rows are records, which Jackson binds without extra modules
+        List<ProductImportRow> rows = List.of(objectMapper.treeToValue(payload.get("rows"), ProductImportRow[].class));
+        return new BulkCreateProductsCommand(
+                payload.get("commandId").asText(),
+                payload.get("importId").asText(),
+                rows);
+    }
+
+    private BulkChangeProductPriceCommand toBulkPriceCommand(JsonNode payload) throws Exception {
+        JsonNode adjustment = payload.get("adjustment");
+        JsonNode status = payload.get("status");
+        return new BulkChangeProductPriceCommand(
+                payload.get("commandId").asText(),
+                payload.get("jobId").asText(),
+                adjustment == null || adjustment.isNull()
+                        ? null
+                        : objectMapper.treeToValue(adjustment, PriceAdjustment.class),
+                List.of(objectMapper.treeToValue(payload.get("skus"), String[].class)),
+                status == null || status.isNull() ? null : status.asText());
+    }
+
+    /**
+     * Sends the handler's result back when the sender is waiting on a reply queue.
+     */
+    private void reply(Message request, Object result) throws Exception {
+        String replyTo = request.getMessageProperties().getReplyTo();
+        if (replyTo == null) {
+            return;
+        }
+        Message reply = MessageBuilder
+                .withBody(objectMapper.writeValueAsBytes(result))
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setCorrelationId(request.getMessageProperties().getCorrelationId())
+                .build();
+        rabbitTemplate.send("", replyTo, reply);
+    }
 }
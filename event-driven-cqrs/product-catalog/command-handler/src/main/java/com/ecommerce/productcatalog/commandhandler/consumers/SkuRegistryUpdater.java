@@ -0,0 +1,67 @@
+package com.ecommerce.productcatalog.commandhandler.consumers;
+
+import com.ecommerce.productcatalog.application.ports.ProductRepository;
+import com.ecommerce.productcatalog.application.skus.SkuRegistry;
+import com.ecommerce.shared.messaging.MessagingConstants;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the {@link SkuRegistry} of this instance current: loads every SKU
+ * at startup and adds the SKU of each ProductCreated event, including those
+ * created by other command-handler instances.
+ */
+@Component
+public class SkuRegistryUpdater {
+
+    private static final Logger logger = LoggerFactory.getLogger(SkuRegistryUpdater.class);
+
+    private final SkuRegistry skuRegistry;
+    private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper;
+
+    public SkuRegistryUpdater(SkuRegistry skuRegistry, ProductRepository productRepository,
+            ObjectMapper objectMapper) {
+        this.skuRegistry = skuRegistry;
+        this.productRepository = productRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        // Events received while loading are simply added as well
+        productRepository.forEachSku(skuRegistry::add)
+                .whenComplete((v, ex) -> {
+                    if (ex != null) {
+                        logger.error("Failed to load SKU registry; falling back to the unique index", ex);
+                    } else {
+                        logger.info("SKU registry loaded: {} SKUs", skuRegistry.size());
+                    }
+                });
+    }
+
+    @RabbitListener(queues = "#{productSkuEventsQueue.name}")
+    public void handleEvent(Message message) {
+        String eventType = (String) message.getMessageProperties().getHeader(MessagingConstants.HEADER_EVENT_TYPE);
+        if (!"ProductCreated".equals(eventType)) {
+            return;
+        }
+
+        try {
+            JsonNode payload = objectMapper.readTree(message.getBody());
+            String sku = payload.path("sku").asText(null);
+            if (sku != null) {
+                skuRegistry.add(sku);
+            }
+        } catch (Exception ex) {
+            logger.error("Error reading ProductCreated event: {}", ex.getMessage(), ex);
+        }
+    }
+}
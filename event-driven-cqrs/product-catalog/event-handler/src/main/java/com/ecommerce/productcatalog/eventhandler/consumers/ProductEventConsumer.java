@@ -10,7 +10,10 @@ import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Component;
@@ -34,6 +37,17 @@ public class ProductEventConsumer {
     public ProductEventConsumer(MongoTemplate mongoTemplate, ObjectMapper objectMapper) {
         this.mongoTemplate = mongoTemplate;
         this.objectMapper = objectMapper;
+        // This projection owns the collection; listings seek on these and SKU lookups query by sku,
+        // so create them here rather than through auto-index-creation
+        IndexOperations indexes = mongoTemplate.indexOps(ProductCatalogView.class);
+        indexes.ensureIndex(new Index().named("createdAt_id")
+                .on("createdAt", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.DESC));
+        indexes.ensureIndex(new Index().named("status_createdAt_id")
+                .on("status", Sort.Direction.ASC)
+                .on("createdAt", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.DESC));
+        indexes.ensureIndex(new Index().on("sku", Sort.Direction.ASC));
     }
 
     @RabbitListener(queues = MessagingConstants.PRODUCT_CATALOG_EVENTS_QUEUE)
@@ -86,8 +100,8 @@ public class ProductEventConsumer {
         view.setCurrency(payload.get("currency").asText());
         view.setSku(payload.get("sku").asText());
         view.setStatus(payload.get("status").asText());
-        view.setCreatedAt(Instant.now());
-        view.setUpdatedAt(Instant.now());
+        view.setCreatedAt(occurredAt(payload));
+        view.setUpdatedAt(view.getCreatedAt());
 
         mongoTemplate.save(view);
         logger.debug("Created projection for product: {}", view.getId());
@@ -100,7 +114,7 @@ public class ProductEventConsumer {
         if (view != null) {
             view.setName(payload.get("name").asText());
             view.setDescription(payload.has("description") ? payload.get("description").asText() : null);
-            view.setUpdatedAt(Instant.now());
+            view.setUpdatedAt(occurredAt(payload));
 
             mongoTemplate.save(view);
             logger.debug("Updated details projection for product: {}", productId);
@@ -114,7 +128,7 @@ public class ProductEventConsumer {
         if (view != null) {
             view.setPrice(new BigDecimal(payload.get("newPrice").asText()));
             view.setCurrency(payload.get("currency").asText());
-            view.setUpdatedAt(Instant.now());
+            view.setUpdatedAt(occurredAt(payload));
 
             mongoTemplate.save(view);
             logger.debug("Updated price projection for product: {}", productId);
@@ -122,27 +136,45 @@ public class ProductEventConsumer {
     }
 
     private void handleProductActivated(JsonNode payload) {
-        updateStatus(payload.get("aggregateId").asText(), "ACTIVE");
+        updateStatus(payload, "ACTIVE");
     }
 
     private void handleProductDeactivated(JsonNode payload) {
-        updateStatus(payload.get("aggregateId").asText(), "INACTIVE");
+        updateStatus(payload, "INACTIVE");
     }
 
     private void handleProductDeleted(JsonNode payload) {
-        updateStatus(payload.get("aggregateId").asText(), "DELETED");
+        updateStatus(payload, "DELETED");
     }
 
-    private void updateStatus(String productId, String status) {
+    private void updateStatus(JsonNode payload, String status) {
+        String productId = payload.get("aggregateId").asText();
         ProductCatalogView view = mongoTemplate.findById(productId, ProductCatalogView.class);
         if (view != null) {
             view.setStatus(status);
-            view.setUpdatedAt(Instant.now());
+            view.setUpdatedAt(occurredAt(payload));
             mongoTemplate.save(view);
             logger.debug("Updated status for product {} to {}", productId, status);
         }
     }
 
+    /**
+     * The event's occurredAt, so the query side can stamp its in-memory
+     * copies identically: ISO-8601 text or decimal epoch seconds.
+     */
+    private static Instant occurredAt(JsonNode payload) {
+        JsonNode node = payload.get("occurredAt");
+        if (node == null || node.isNull()) {
+            return Instant.now();
+        }
+        if (node.isNumber()) {
+            BigDecimal seconds = node.decimalValue();
+            return Instant.ofEpochSecond(seconds.longValue(),
+                    seconds.remainder(BigDecimal.ONE).movePointRight(9).intValue());
+        }
+        return Instant.parse(node.asText());
+    }
+
     private boolean isAlreadyProcessed(String eventId) {
         String id = PROJECTION_NAME + ":" + eventId;
         return mongoTemplate.exists(
@@ -1,6 +1,8 @@
 package com.ecommerce.productcatalog.eventhandler.projections;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -9,9 +11,15 @@ import java.time.Instant;
 
 /**
  * Read model for product listing/catalog view.
- * Optimized for query patterns.
+ * Optimized for query patterns: the compound indexes back keyset
+ * pagination on (createdAt, id), overall and per status. ProductEventConsumer
+ * creates them on startup; the annotations only document them.
  */
 @Document(collection = "product_catalog_view")
+@CompoundIndexes({
+        @CompoundIndex(name = "createdAt_id", def = "{'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "status_createdAt_id", def = "{'status': 1, 'createdAt': -1, '_id': -1}")
+})
 public class ProductCatalogView {
 
     @Id
@@ -25,10 +33,8 @@ public class ProductCatalogView {
     @Indexed
     private String sku;
 
-    @Indexed
     private String status;
 
-    @Indexed
     private Instant createdAt;
     private Instant updatedAt;
 
@@ -36,34 +36,47 @@ public class RabbitMQEventPublisher implements EventPublisher {
     @Override
     public CompletableFuture<Void> publish(DomainEvent event) {
         return CompletableFuture.runAsync(() -> {
-            try {
-                String payload = objectMapper.writeValueAsString(event);
+            rabbitTemplate.send(MessagingConstants.EVENTS_EXCHANGE, "", toMessage(event));
 
-                Message message = MessageBuilder
-                        .withBody(payload.getBytes())
-                        .setContentType(MessageProperties.CONTENT_TYPE_JSON)
-                        .setHeader(MessagingConstants.HEADER_EVENT_TYPE, event.getEventType())
-                        .setHeader(MessagingConstants.HEADER_AGGREGATE_TYPE, event.getAggregateType())
-                        .setMessageId(event.getEventId().toString())
-                        .build();
-
-                rabbitTemplate.send(MessagingConstants.EVENTS_EXCHANGE, "", message);
-
-                logger.info("Published event: type={}, aggregateId={}",
-                        event.getEventType(), event.getAggregateId());
-            } catch (JsonProcessingException ex) {
-                logger.error("Failed to serialize event: {}", ex.getMessage(), ex);
-                throw new RuntimeException("Failed to serialize event", ex);
-            }
+            logger.info("Published event: type={}, aggregateId={}",
+                    event.getEventType(), event.getAggregateId());
         });
     }
 
+    /**
+     * Publishes the events in order over a single channel, rather than one
+     * async task and channel checkout per event.
+     */
     @Override
     public CompletableFuture<Void> publishAll(List<DomainEvent> events) {
         return CompletableFuture.runAsync(() -> {
-            for (DomainEvent event : events) {
-                publish(event).join();
-            }
+            List<Message> messages = events.stream().map(this::toMessage).toList();
+
+            rabbitTemplate.invoke(operations -> {
+                for (Message message : messages) {
+                    operations.send(MessagingConstants.EVENTS_EXCHANGE, "", message);
+                }
+                return null;
+            });
+
+            logger.info("Published {} events", messages.size());
         });
     }
+
+    private Message toMessage(DomainEvent event) {
+        try {
+            String payload = objectMapper.writeValueAsString(event);
+
+            return MessageBuilder
+                    .withBody(payload.getBytes())
+                    .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                    .setHeader(MessagingConstants.HEADER_EVENT_TYPE, event.getEventType())
+                    .setHeader(MessagingConstants.HEADER_AGGREGATE_TYPE, event.getAggregateType())
+                    .setMessageId(event.getEventId().toString())
+                    .build();
+        } catch (JsonProcessingException ex) {
+            logger.error("Failed to serialize event: {}", ex.getMessage(), ex);
+            throw new RuntimeException("Failed to serialize event", ex);
+        }
+    }
 }
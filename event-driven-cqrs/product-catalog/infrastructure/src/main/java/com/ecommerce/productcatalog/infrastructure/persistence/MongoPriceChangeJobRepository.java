@@ -0,0 +1,71 @@
+package com.ecommerce.productcatalog.infrastructure.persistence;
+
+import com.ecommerce.productcatalog.application.commands.PriceAdjustment;
+import com.ecommerce.productcatalog.application.jobs.PriceChangeJob;
+import com.ecommerce.productcatalog.application.ports.PriceChangeJobRepository;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * MongoDB implementation of PriceChangeJobRepository.
+ */
+@Repository
+public class MongoPriceChangeJobRepository implements PriceChangeJobRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoPriceChangeJobRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public CompletableFuture<Optional<PriceChangeJob>> findById(String jobId) {
+        return CompletableFuture.supplyAsync(() -> Optional
+                .ofNullable(mongoTemplate.findById(jobId, PriceChangeJobDocument.class))
+                .map(this::toJob));
+    }
+
+    @Override
+    public CompletableFuture<Void> save(PriceChangeJob job) {
+        return CompletableFuture.runAsync(() -> mongoTemplate.save(toDocument(job)));
+    }
+
+    private PriceChangeJob toJob(PriceChangeJobDocument doc) {
+        return new PriceChangeJob(
+                doc.getJobId(),
+                new PriceAdjustment(PriceAdjustment.Type.valueOf(doc.getAdjustmentType()), doc.getAdjustmentValue()),
+                doc.getSkus(),
+                doc.getStatus(),
+                doc.getStartedAt(),
+                PriceChangeJob.State.valueOf(doc.getState()),
+                doc.getLastProductId(),
+                doc.getProcessed(),
+                doc.getUpdated(),
+                doc.getRepublished(),
+                doc.getSkipped(),
+                doc.getFailure(),
+                doc.getUpdatedAt());
+    }
+
+    private PriceChangeJobDocument toDocument(PriceChangeJob job) {
+        PriceChangeJobDocument doc = new PriceChangeJobDocument();
+        doc.setJobId(job.getJobId());
+        doc.setAdjustmentType(job.getAdjustment().type().name());
+        doc.setAdjustmentValue(job.getAdjustment().value());
+        doc.setSkus(job.getSkus());
+        doc.setStatus(job.getStatus());
+        doc.setState(job.getState().name());
+        doc.setLastProductId(job.getLastProductId());
+        doc.setProcessed(job.getProcessed());
+        doc.setUpdated(job.getUpdated());
+        doc.setRepublished(job.getRepublished());
+        doc.setSkipped(job.getSkipped());
+        doc.setFailure(job.getFailure());
+        doc.setStartedAt(job.getStartedAt());
+        doc.setUpdatedAt(job.getUpdatedAt());
+        return doc;
+    }
+}
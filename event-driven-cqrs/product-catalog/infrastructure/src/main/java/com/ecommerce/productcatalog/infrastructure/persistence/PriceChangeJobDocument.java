@@ -0,0 +1,147 @@
+package com.ecommerce.productcatalog.infrastructure.persistence;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * MongoDB document for bulk price change job progress.
+ */
+@Document(collection = "price_change_jobs")
+public class PriceChangeJobDocument {
+
+    @Id
+    private String jobId;
+
+    private String adjustmentType;
+    private BigDecimal adjustmentValue;
+    private List<String> skus;
+    private String status;
+    private String state;
+    private String lastProductId;
+    private long processed;
+    private long updated;
+    private long republished;
+    private long skipped;
+    private String failure;
+    private Instant startedAt;
+    private Instant updatedAt;
+
+    public PriceChangeJobDocument() {
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getAdjustmentType() {
+        return adjustmentType;
+    }
+
+    public void setAdjustmentType(String adjustmentType) {
+        this.adjustmentType = adjustmentType;
+    }
+
+    public BigDecimal getAdjustmentValue() {
+        return adjustmentValue;
+    }
+
+    public void setAdjustmentValue(BigDecimal adjustmentValue) {
+        this.adjustmentValue = adjustmentValue;
+    }
+
+    public List<String> getSkus() {
+        return skus;
+    }
+
+    public void setSkus(List<String> skus) {
+        this.skus = skus;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public String getLastProductId() {
+        return lastProductId;
+    }
+
+    public void setLastProductId(String lastProductId) {
+        this.lastProductId = lastProductId;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public void setProcessed(long processed) {
+        this.processed = processed;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(long updated) {
+        this.updated = updated;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public void setSkipped(long skipped) {
+        this.skipped = skipped;
+    }
+
+    public long getRepublished() {
+        return republished;
+    }
+
+    public void setRepublished(long republished) {
+        this.republished = republished;
+    }
+
+    public String getFailure() {
+        return failure;
+    }
+
+    public void setFailure(String failure) {
+        this.failure = failure;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
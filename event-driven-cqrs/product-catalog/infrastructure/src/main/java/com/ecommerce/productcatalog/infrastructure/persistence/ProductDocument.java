@@ -33,6 +33,10 @@ public class ProductDocument {
     private Instant createdAt;
     private Instant updatedAt;
 
+    // Bulk price job that last repriced this product, and the price it replaced
+    private String lastPriceJobId;
+    private BigDecimal priceBeforeLastJob;
+
     public ProductDocument() {
     }
 
@@ -115,4 +119,20 @@ public class ProductDocument {
     public void setUpdatedAt(Instant updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public String getLastPriceJobId() {
+        return lastPriceJobId;
+    }
+
+    public void setLastPriceJobId(String lastPriceJobId) {
+        this.lastPriceJobId = lastPriceJobId;
+    }
+
+    public BigDecimal getPriceBeforeLastJob() {
+        return priceBeforeLastJob;
+    }
+
+    public void setPriceBeforeLastJob(BigDecimal priceBeforeLastJob) {
+        this.priceBeforeLastJob = priceBeforeLastJob;
+    }
 }
@@ -1,8 +1,11 @@
 package com.ecommerce.productcatalog.infrastructure.persistence;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -14,4 +17,10 @@ public interface ProductMongoRepository extends MongoRepository<ProductDocument,
     boolean existsBySku(String sku);
 
     Optional<ProductDocument> findBySku(String sku);
+
+    /**
+     * Matching documents with only the SKU field populated.
+     */
+    @Query(value = "{ 'sku': { $in: ?0 } }", fields = "{ 'sku': 1 }")
+    List<ProductDocument> findSkusIn(Collection<String> skus);
 }
@@ -1,18 +1,39 @@
 package com.ecommerce.productcatalog.infrastructure.persistence;
 
+import com.ecommerce.productcatalog.application.jobs.PriceUpdate;
+import com.ecommerce.productcatalog.application.jobs.ProductPriceRow;
+import com.ecommerce.productcatalog.application.ports.DuplicateSkuException;
 import com.ecommerce.productcatalog.application.ports.ProductRepository;
+import com.ecommerce.productcatalog.application.snapshots.ProductSnapshotRow;
 import com.ecommerce.productcatalog.domain.aggregates.Product;
 import com.ecommerce.productcatalog.domain.valueobjects.*;
 import com.ecommerce.shared.common.persistence.ConcurrencyException;
+import com.mongodb.bulk.BulkWriteError;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
@@ -23,11 +44,38 @@ import java.util.stream.StreamSupport;
 public class ProductRepositoryImpl implements ProductRepository {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductRepositoryImpl.class);
+    private static final int DUPLICATE_KEY_ERROR = 11000;
 
     private final ProductMongoRepository mongoRepository;
+    private final MongoTemplate mongoTemplate;
+    private final boolean uniqueSkuIndex;
 
-    public ProductRepositoryImpl(ProductMongoRepository mongoRepository) {
+    public ProductRepositoryImpl(ProductMongoRepository mongoRepository, MongoTemplate mongoTemplate) {
         this.mongoRepository = mongoRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.uniqueSkuIndex = ensureUniqueSkuIndex();
+    }
+
+    /**
+     * Inserts rely on this index to reject duplicate SKUs, so don't rely on
+     * auto-index-creation. If it cannot be built (e.g. the collection already
+     * holds duplicates), inserts fall back to checking the SKU first.
+     */
+    private boolean ensureUniqueSkuIndex() {
+        try {
+            mongoTemplate.indexOps(ProductDocument.class)
+                    .ensureIndex(new Index().on("sku", Sort.Direction.ASC).unique());
+            return true;
+        } catch (DataAccessException ex) {
+            logger.error("Could not create the unique SKU index, checking SKUs before insert instead: {}",
+                    ex.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public boolean enforcesUniqueSku() {
+        return uniqueSkuIndex;
     }
 
     @Override
@@ -43,6 +91,24 @@ public class ProductRepositoryImpl implements ProductRepository {
                         .collect(Collectors.toList()));
     }
 
+    @Override
+    public CompletableFuture<List<ProductSnapshotRow>> findSnapshotRows(Collection<String> ids) {
+        return CompletableFuture.supplyAsync(() -> {
+            Query query = new Query(Criteria.where("id").in(ids));
+            query.fields().include("name", "sku", "price", "status", "version");
+
+            return mongoTemplate.find(query, ProductDocument.class).stream()
+                    .map(doc -> new ProductSnapshotRow(
+                            doc.getId(),
+                            doc.getName(),
+                            doc.getSku(),
+                            doc.getPrice(),
+                            doc.getStatus(),
+                            doc.getVersion() != null ? doc.getVersion() : 0))
+                    .toList();
+        });
+    }
+
     @Override
     public CompletableFuture<Product> save(Product aggregate) {
         return CompletableFuture.supplyAsync(() -> {
@@ -66,6 +132,24 @@ public class ProductRepositoryImpl implements ProductRepository {
         });
     }
 
+    @Override
+    public CompletableFuture<Product> insert(Product aggregate) {
+        return CompletableFuture.supplyAsync(() -> {
+            ProductDocument doc = toDocument(aggregate);
+            Instant now = Instant.now();
+            doc.setCreatedAt(now);
+            doc.setUpdatedAt(now);
+
+            try {
+                ProductDocument inserted = mongoRepository.insert(doc);
+                logger.debug("Inserted product: id={}, sku={}", inserted.getId(), inserted.getSku());
+                return toAggregate(inserted);
+            } catch (DuplicateKeyException ex) {
+                throw new DuplicateSkuException(aggregate.getSku(), ex);
+            }
+        });
+    }
+
     @Override
     public CompletableFuture<Boolean> exists(ProductId id) {
         return CompletableFuture.supplyAsync(() -> mongoRepository.existsById(id.getValue()));
@@ -81,6 +165,119 @@ public class ProductRepositoryImpl implements ProductRepository {
         return CompletableFuture.supplyAsync(() -> mongoRepository.existsBySku(sku));
     }
 
+    @Override
+    public CompletableFuture<Set<String>> findExistingSkus(Collection<String> skus) {
+        return CompletableFuture.supplyAsync(() -> mongoRepository.findSkusIn(skus).stream()
+                .map(ProductDocument::getSku)
+                .collect(Collectors.toSet()));
+    }
+
+    @Override
+    public CompletableFuture<Void> forEachSku(Consumer<String> action) {
+        return CompletableFuture.runAsync(() -> {
+            Query query = new Query();
+            query.fields().include("sku");
+            query.cursorBatchSize(1000);
+            try (var docs = mongoTemplate.stream(query, ProductDocument.class)) {
+                docs.forEach(doc -> action.accept(doc.getSku()));
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<Map<String, String>> insertAll(List<Product> products) {
+        return CompletableFuture.supplyAsync(() -> {
+            Instant now = Instant.now();
+            List<ProductDocument> docs = products.stream()
+                    .map(product -> {
+                        ProductDocument doc = toDocument(product);
+                        doc.setCreatedAt(now);
+                        doc.setUpdatedAt(now);
+                        return doc;
+                    })
+                    .toList();
+
+            // Single unordered insertMany; the unique SKU index still rejects races with other writers
+            try {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ProductDocument.class)
+                        .insert(docs)
+                        .execute();
+                logger.debug("Inserted {} products", docs.size());
+                return Map.of();
+            } catch (BulkOperationException ex) {
+                Map<String, String> failed = new HashMap<>();
+                for (BulkWriteError error : ex.getErrors()) {
+                    ProductDocument doc = docs.get(error.getIndex());
+                    failed.put(doc.getId(), error.getCode() == DUPLICATE_KEY_ERROR
+                            ? "Product with SKU " + doc.getSku() + " already exists"
+                            : "Failed to create product: " + error.getMessage());
+                }
+                logger.debug("Inserted {} of {} products", docs.size() - failed.size(), docs.size());
+                return failed;
+            }
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<ProductPriceRow>> findPriceChunk(List<String> skus, String status,
+            String afterProductId, String jobId, int limit) {
+        return CompletableFuture.supplyAsync(() -> {
+            List<Criteria> criteria = new ArrayList<>();
+            criteria.add(Criteria.where("status").ne("DELETED"));
+            if (!skus.isEmpty()) {
+                criteria.add(Criteria.where("sku").in(skus));
+            }
+            if (status != null) {
+                criteria.add(Criteria.where("status").is(status));
+            }
+            if (afterProductId != null) {
+                criteria.add(Criteria.where("id").gt(afterProductId));
+            }
+
+            Query query = new Query(new Criteria().andOperator(criteria))
+                    .with(Sort.by(Sort.Direction.ASC, "id"))
+                    .limit(limit);
+            query.fields().include("price", "currency", "version", "lastPriceJobId", "priceBeforeLastJob");
+
+            return mongoTemplate.find(query, ProductDocument.class).stream()
+                    .map(doc -> new ProductPriceRow(
+                            doc.getId(),
+                            doc.getPrice(),
+                            doc.getCurrency(),
+                            doc.getVersion() != null ? doc.getVersion() : 0,
+                            jobId.equals(doc.getLastPriceJobId()),
+                            doc.getPriceBeforeLastJob()))
+                    .toList();
+        });
+    }
+
+    @Override
+    public CompletableFuture<Set<String>> applyPriceUpdates(String jobId, List<PriceUpdate> updates) {
+        return CompletableFuture.supplyAsync(() -> {
+            Instant now = Instant.now();
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ProductDocument.class);
+            for (PriceUpdate update : updates) {
+                Query match = new Query(Criteria.where("id").is(update.productId())
+                        .and("version").is(update.expectedVersion()));
+                bulk.updateOne(match, new Update()
+                        .set("price", update.newPrice())
+                        .set("lastPriceJobId", jobId)
+                        .set("priceBeforeLastJob", update.oldPrice())
+                        .set("updatedAt", now)
+                        .inc("version", 1));
+            }
+            bulk.execute();
+
+            // The bulk result only has counts; read back which products this job now owns
+            List<String> ids = updates.stream().map(PriceUpdate::productId).toList();
+            Query applied = new Query(Criteria.where("id").in(ids).and("lastPriceJobId").is(jobId));
+            applied.fields().include("id");
+            return mongoTemplate.find(applied, ProductDocument.class).stream()
+                    .map(ProductDocument::getId)
+                    .collect(Collectors.toSet());
+        });
+    }
+
     private Product toAggregate(ProductDocument doc) {
         return Product.reconstitute(
                 ProductId.of(doc.getId()),
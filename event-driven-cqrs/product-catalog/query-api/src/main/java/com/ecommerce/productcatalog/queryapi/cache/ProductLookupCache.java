@@ -0,0 +1,251 @@
+package com.ecommerce.productcatalog.queryapi.cache;
+
+import com.ecommerce.productcatalog.queryapi.events.ProductEventListener;
+import com.ecommerce.productcatalog.queryapi.index.ProductCatalogIndex;
+import com.ecommerce.productcatalog.queryapi.index.ProductEntry;
+import com.ecommerce.productcatalog.queryapi.index.ProductEventChanges;
+import com.ecommerce.productcatalog.queryapi.models.ProductReadModel;
+import com.ecommerce.productcatalog.queryapi.repositories.ProductReadRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * Single-product lookups by id or SKU.
+ *
+ * Once the {@link ProductCatalogIndex} has loaded, it holds every product and
+ * answers all lookups; the bounded read-through cache in front of
+ * {@link ProductReadRepository} below only serves them until then, and is
+ * dropped when the index takes over.
+ *
+ * Cached products are patched in place from product events rather than
+ * evicted, because the Mongo projection may not have caught up yet when the
+ * event reaches this instance. Unknown SKUs are cached negatively for a
+ * short time and forgotten as soon as a product with that SKU is created.
+ * Entries also expire after a TTL, which bounds staleness from any missed event.
+ */
+@Component
+public class ProductLookupCache implements ProductEventListener {
+
+    private final ProductReadRepository repository;
+    private final ProductCatalogIndex catalogIndex;
+    private final Duration ttl;
+    private final Duration negativeTtl;
+    private final Map<String, Cached> byId;
+    private final Map<String, SkuMapping> skuToId;
+    // Bumped on every event; loads that straddle an event are not cached
+    private final AtomicLong generation = new AtomicLong();
+    // Set once the index serves lookups and the cached products have been dropped
+    private volatile boolean indexServing;
+
+    private final Counter idIndexed;
+    private final Counter skuIndexed;
+    private final Counter idHits;
+    private final Counter idMisses;
+    private final Counter skuHits;
+    private final Counter skuMisses;
+
+    public ProductLookupCache(
+            ProductReadRepository repository,
+            ProductCatalogIndex catalogIndex,
+            MeterRegistry meterRegistry,
+            @Value("${product.cache.max-entries:10000}") int maxEntries,
+            @Value("${product.cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${product.cache.negative-ttl-seconds:30}") long negativeTtlSeconds) {
+        this.repository = repository;
+        this.catalogIndex = catalogIndex;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.negativeTtl = Duration.ofSeconds(negativeTtlSeconds);
+        this.byId = boundedMap(maxEntries);
+        this.skuToId = boundedMap(maxEntries);
+
+        this.idIndexed = requests(meterRegistry, "id", "index");
+        this.skuIndexed = requests(meterRegistry, "sku", "index");
+        this.idHits = requests(meterRegistry, "id", "hit");
+        this.idMisses = requests(meterRegistry, "id", "miss");
+        this.skuHits = requests(meterRegistry, "sku", "hit");
+        this.skuMisses = requests(meterRegistry, "sku", "miss");
+        hitRatio(meterRegistry, "id", idHits, idMisses);
+        hitRatio(meterRegistry, "sku", skuHits, skuMisses);
+        Gauge.builder("product.cache.size", this, ProductLookupCache::size)
+                .description("Products held in the lookup cache")
+                .register(meterRegistry);
+    }
+
+    public Optional<ProductReadModel> findById(String productId) {
+        if (indexReady()) {
+            idIndexed.increment();
+            return catalogIndex.findById(productId).map(ProductEntry::toReadModel);
+        }
+        Cached cached = getFresh(productId);
+        if (cached != null) {
+            idHits.increment();
+            return Optional.of(cached.product());
+        }
+        idMisses.increment();
+
+        long loadGeneration = generation.get();
+        Optional<ProductReadModel> loaded = repository.findById(productId);
+        loaded.ifPresent(product -> store(product, loadGeneration));
+        return loaded;
+    }
+
+    public Optional<ProductReadModel> findBySku(String sku) {
+        if (indexReady()) {
+            skuIndexed.increment();
+            return catalogIndex.findBySku(sku).map(ProductEntry::toReadModel);
+        }
+        SkuMapping mapping = getFreshSku(sku);
+        if (mapping != null) {
+            if (mapping.productId() == null) {
+                skuHits.increment();
+                return Optional.empty();
+            }
+            Cached cached = getFresh(mapping.productId());
+            if (cached != null) {
+                skuHits.increment();
+                return Optional.of(cached.product());
+            }
+        }
+        skuMisses.increment();
+
+        long loadGeneration = generation.get();
+        Optional<ProductReadModel> loaded = repository.findBySku(sku);
+        if (loaded.isPresent()) {
+            store(loaded.get(), loadGeneration);
+        } else {
+            storeUnknownSku(sku, loadGeneration);
+        }
+        return loaded;
+    }
+
+    @Override
+    public void onProductEvent(String eventType, String productId, JsonNode payload) {
+        generation.incrementAndGet();
+        if (indexServing) {
+            return;
+        }
+
+        if (ProductEventChanges.PRODUCT_CREATED.equals(eventType)) {
+            String sku = payload.path("sku").asText(null);
+            if (sku != null) {
+                synchronized (this) {
+                    skuToId.remove(sku);
+                }
+            }
+            return;
+        }
+
+        Optional<UnaryOperator<ProductEntry>> change = ProductEventChanges.change(eventType, payload,
+                ProductEventChanges.occurredAt(payload));
+        if (change.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            Cached cached = byId.get(productId);
+            if (cached != null) {
+                ProductReadModel patched = change.get().apply(ProductEntry.from(cached.product())).toReadModel();
+                byId.put(productId, new Cached(patched, cached.expiresAt()));
+            }
+        }
+    }
+
+    private boolean indexReady() {
+        if (indexServing) {
+            return true;
+        }
+        if (!catalogIndex.isReady()) {
+            return false;
+        }
+        synchronized (this) {
+            indexServing = true;
+            byId.clear();
+            skuToId.clear();
+        }
+        return true;
+    }
+
+    private synchronized Cached getFresh(String productId) {
+        Cached cached = byId.get(productId);
+        if (cached != null && cached.expiresAt().isBefore(Instant.now())) {
+            byId.remove(productId);
+            return null;
+        }
+        return cached;
+    }
+
+    private synchronized SkuMapping getFreshSku(String sku) {
+        SkuMapping mapping = skuToId.get(sku);
+        if (mapping != null && mapping.expiresAt().isBefore(Instant.now())) {
+            skuToId.remove(sku);
+            return null;
+        }
+        return mapping;
+    }
+
+    private synchronized void store(ProductReadModel product, long loadGeneration) {
+        if (generation.get() != loadGeneration) {
+            return;
+        }
+        Instant expiresAt = Instant.now().plus(ttl);
+        byId.put(product.getId(), new Cached(product, expiresAt));
+        if (product.getSku() != null) {
+            skuToId.put(product.getSku(), new SkuMapping(product.getId(), expiresAt));
+        }
+    }
+
+    private synchronized void storeUnknownSku(String sku, long loadGeneration) {
+        if (generation.get() == loadGeneration) {
+            skuToId.put(sku, new SkuMapping(null, Instant.now().plus(negativeTtl)));
+        }
+    }
+
+    private synchronized int size() {
+        return byId.size();
+    }
+
+    private static <V> Map<String, V> boundedMap(int capacity) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    private static Counter requests(MeterRegistry registry, String lookup, String result) {
+        return Counter.builder("product.cache.requests")
+                .description("Product lookups served by the catalog index (index), the cache (hit) or MongoDB (miss)")
+                .tag("lookup", lookup)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static void hitRatio(MeterRegistry registry, String lookup, Counter hits, Counter misses) {
+        Gauge.builder("product.cache.hit.ratio", () -> {
+                    double total = hits.count() + misses.count();
+                    return total == 0 ? 0.0 : hits.count() / total;
+                })
+                .description("Share of product lookups served from the cache")
+                .tag("lookup", lookup)
+                .register(registry);
+    }
+
+    private record Cached(ProductReadModel product, Instant expiresAt) {
+    }
+
+    // productId is null for a SKU known not to exist
+    private record SkuMapping(String productId, Instant expiresAt) {
+    }
+}
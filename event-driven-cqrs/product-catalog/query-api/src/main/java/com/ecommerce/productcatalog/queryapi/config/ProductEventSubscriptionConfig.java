@@ -0,0 +1,37 @@
+package com.ecommerce.productcatalog.queryapi.config;
+
+import com.ecommerce.shared.messaging.MessagingConstants;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Base64UrlNamingStrategy;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * RabbitMQ configuration for the Query API's product event subscription.
+ * Every instance keeps its own in-memory indexes, so each gets its own
+ * exclusive, auto-delete queue rather than competing on a shared one.
+ */
+@Configuration
+public class ProductEventSubscriptionConfig {
+
+    @Bean
+    public FanoutExchange eventsExchange() {
+        return new FanoutExchange(MessagingConstants.EVENTS_EXCHANGE);
+    }
+
+    @Bean
+    public Queue productQueryEventsQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("product-catalog.query."));
+    }
+
+    @Bean
+    public Binding productQueryEventsBinding() {
+        return BindingBuilder
+                .bind(productQueryEventsQueue())
+                .to(eventsExchange());
+    }
+}
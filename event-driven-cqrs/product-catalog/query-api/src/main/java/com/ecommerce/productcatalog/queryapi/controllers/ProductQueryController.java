@@ -1,16 +1,38 @@
 package com.ecommerce.productcatalog.queryapi.controllers;
 
+import com.ecommerce.productcatalog.queryapi.cache.ProductLookupCache;
+import com.ecommerce.productcatalog.queryapi.facet.ProductFacetIndex;
+import com.ecommerce.productcatalog.queryapi.facet.ProductFacetQuery;
+import com.ecommerce.productcatalog.queryapi.facet.ProductFacetResult;
+import com.ecommerce.productcatalog.queryapi.index.ProductEntry;
+import com.ecommerce.productcatalog.queryapi.models.ProductCursor;
 import com.ecommerce.productcatalog.queryapi.models.ProductReadModel;
+import com.ecommerce.productcatalog.queryapi.repositories.ProductListingQueries;
 import com.ecommerce.productcatalog.queryapi.repositories.ProductReadRepository;
+import com.ecommerce.productcatalog.queryapi.search.ProductSearchIndex;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * REST controller for product queries (read-only).
@@ -21,79 +43,124 @@ import java.util.List;
 public class ProductQueryController {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductQueryController.class);
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final int EXPORT_FLUSH_INTERVAL = 500;
 
     private final ProductReadRepository productReadRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductFacetIndex productFacetIndex;
+    private final ProductLookupCache productLookupCache;
+    private final ProductListingQueries productListingQueries;
+    private final ObjectWriter exportWriter;
 
-    public ProductQueryController(ProductReadRepository productReadRepository) {
+    public ProductQueryController(ProductReadRepository productReadRepository,
+            ProductSearchIndex productSearchIndex,
+            ProductFacetIndex productFacetIndex,
+            ProductLookupCache productLookupCache,
+            ProductListingQueries productListingQueries,
+            ObjectMapper objectMapper) {
         this.productReadRepository = productReadRepository;
+        this.productSearchIndex = productSearchIndex;
+        this.productFacetIndex = productFacetIndex;
+        this.productLookupCache = productLookupCache;
+        this.productListingQueries = productListingQueries;
+        // One document per line into a shared buffer: Jackson must neither close nor flush it
+        this.exportWriter = objectMapper.writerFor(ProductReadModel.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
     }
 
     /**
      * Get all products with pagination.
+     * Passing {@code cursor} (empty for the first page) switches to keyset
+     * paging on (createdAt, id), ignoring {@code page} and {@code sortBy};
+     * {@code includeTotal=false} skips the count query in either mode.
      */
     @GetMapping
-    public ResponseEntity<Page<ProductReadModel>> getAllProducts(
+    public ResponseEntity<?> getAllProducts(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir) {
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean includeTotal) {
 
-        logger.debug("Getting all products: page={}, size={}", page, size);
+        logger.debug("Getting all products: page={}, size={}, cursor={}", page, size, cursor);
+
+        if (cursor != null) {
+            return cursorPage(null, cursor, size, sortDir, includeTotal);
+        }
 
         Sort sort = sortDir.equalsIgnoreCase("asc")
                 ? Sort.by(sortBy).ascending()
                 : Sort.by(sortBy).descending();
 
         PageRequest pageRequest = PageRequest.of(page, size, sort);
-        Page<ProductReadModel> products = productReadRepository.findAll(pageRequest);
+        Slice<ProductReadModel> products = includeTotal
+                ? productReadRepository.findAll(pageRequest)
+                : productListingQueries.findSlice(null, pageRequest);
 
         return ResponseEntity.ok(products);
     }
 
     /**
      * Get a product by ID.
+     * Honours If-None-Match; the ETag is derived from the product's updatedAt,
+     * the occurredAt of its last event, so all instances hand out the same one.
      */
     @GetMapping("/{productId}")
-    public ResponseEntity<ProductReadModel> getProductById(@PathVariable String productId) {
+    public ResponseEntity<ProductReadModel> getProductById(@PathVariable String productId, WebRequest request) {
         logger.debug("Getting product by ID: {}", productId);
 
-        return productReadRepository.findById(productId)
-                .map(ResponseEntity::ok)
+        return productLookupCache.findById(productId)
+                .map(product -> conditional(product, request))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     /**
      * Get a product by SKU.
+     * Honours If-None-Match like the lookup by ID.
      */
     @GetMapping("/sku/{sku}")
-    public ResponseEntity<ProductReadModel> getProductBySku(@PathVariable String sku) {
+    public ResponseEntity<ProductReadModel> getProductBySku(@PathVariable String sku, WebRequest request) {
         logger.debug("Getting product by SKU: {}", sku);
 
-        return productReadRepository.findBySku(sku)
-                .map(ResponseEntity::ok)
+        return productLookupCache.findBySku(sku)
+                .map(product -> conditional(product, request))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     /**
      * Get products by status.
+     * Supports the same {@code cursor} and {@code includeTotal} options as
+     * the full listing; keyset pages are newest first.
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<Page<ProductReadModel>> getProductsByStatus(
+    public ResponseEntity<?> getProductsByStatus(
             @PathVariable String status,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean includeTotal) {
+
+        logger.debug("Getting products by status: {}, cursor={}", status, cursor);
 
-        logger.debug("Getting products by status: {}", status);
+        if (cursor != null) {
+            return cursorPage(status.toUpperCase(), cursor, size, "desc", includeTotal);
+        }
 
         PageRequest pageRequest = PageRequest.of(page, size);
-        Page<ProductReadModel> products = productReadRepository.findByStatus(
-                status.toUpperCase(), pageRequest);
+        Slice<ProductReadModel> products = includeTotal
+                ? productReadRepository.findByStatus(status.toUpperCase(), pageRequest)
+                : productListingQueries.findSlice(status.toUpperCase(), pageRequest);
 
         return ResponseEntity.ok(products);
     }
 
     /**
-     * Search products by name.
+     * Ranked search over product name, description and SKU.
+     * Served from the in-memory index; falls back to a name match in Mongo
+     * until the index has finished loading.
      */
     @GetMapping("/search")
     public ResponseEntity<Page<ProductReadModel>> searchProducts(
@@ -104,12 +171,39 @@ public class ProductQueryController {
         logger.debug("Searching products: q={}", q);
 
         PageRequest pageRequest = PageRequest.of(page, size);
-        Page<ProductReadModel> products = productReadRepository.findByNameContainingIgnoreCase(
-                q, pageRequest);
+        if (!productSearchIndex.isReady()) {
+            return ResponseEntity.ok(productReadRepository.findByNameContainingIgnoreCase(q, pageRequest));
+        }
+
+        Page<ProductReadModel> products = productSearchIndex.search(q, pageRequest)
+                .map(ProductEntry::toReadModel);
 
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * Filter products by status, currency and price range, with facet counts.
+     * Answered entirely from the in-memory bitmap index.
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<ProductFacetResult> getProductFacets(
+            @RequestParam(required = false) Set<String> status,
+            @RequestParam(required = false) Set<String> currency,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        logger.debug("Faceted query: status={}, currency={}, price={}..{}", status, currency, minPrice, maxPrice);
+
+        if (!productFacetIndex.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+
+        ProductFacetQuery query = new ProductFacetQuery(status, currency, minPrice, maxPrice);
+        return ResponseEntity.ok(productFacetIndex.query(query, PageRequest.of(page, size)));
+    }
+
     /**
      * Get only active products (available for sale).
      */
@@ -120,4 +214,61 @@ public class ProductQueryController {
         List<ProductReadModel> products = productReadRepository.findByStatusIn(List.of("ACTIVE"));
         return ResponseEntity.ok(products);
     }
+
+    /**
+     * Export all active products as newline-delimited JSON.
+     * Rows are written as they come off the Mongo cursor, so memory use does
+     * not grow with catalog size.
+     */
+    @GetMapping("/active/export")
+    public ResponseEntity<StreamingResponseBody> exportActiveProducts() {
+        logger.debug("Exporting active products");
+
+        StreamingResponseBody body = out -> {
+            long written = 0;
+            try (Stream<ProductReadModel> products = productListingQueries.streamByStatus("ACTIVE");
+                    OutputStream buffered = new BufferedOutputStream(out)) {
+                for (ProductReadModel product : (Iterable<ProductReadModel>) products::iterator) {
+                    exportWriter.writeValue(buffered, product);
+                    buffered.write('\n');
+                    if (++written % EXPORT_FLUSH_INTERVAL == 0) {
+                        buffered.flush();
+                    }
+                }
+            }
+            logger.info("Exported {} active products", written);
+        };
+
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    private ResponseEntity<?> cursorPage(String status, String cursor, int size, String sortDir,
+            boolean includeTotal) {
+        if (size < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        ProductCursor after;
+        try {
+            after = cursor.isEmpty() ? null : ProductCursor.decode(cursor);
+        } catch (IllegalArgumentException ex) {
+            logger.warn("Rejected cursor: {}", ex.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(productListingQueries.findPage(
+                status, after, size, sortDir.equalsIgnoreCase("asc"), includeTotal));
+    }
+
+    /**
+     * Answers 304 when If-None-Match matches; lookups come from the in-memory
+     * cache, so a match skips serialization and, when warm, the database.
+     */
+    private static ResponseEntity<ProductReadModel> conditional(ProductReadModel product, WebRequest request) {
+        // Milliseconds, as that is what the stored read model keeps
+        Instant version = product.getUpdatedAt() != null ? product.getUpdatedAt() : product.getCreatedAt();
+        String etag = "\"" + product.getId() + "-" + (version != null ? version.toEpochMilli() : 0) + "\"";
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(product);
+    }
 }
@@ -0,0 +1,11 @@
+package com.ecommerce.productcatalog.queryapi.events;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Receives product events delivered to this Query API instance.
+ */
+public interface ProductEventListener {
+
+    void onProductEvent(String eventType, String productId, JsonNode payload);
+}
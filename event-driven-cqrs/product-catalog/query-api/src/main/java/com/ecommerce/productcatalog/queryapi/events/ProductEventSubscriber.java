@@ -0,0 +1,62 @@
+package com.ecommerce.productcatalog.queryapi.events;
+
+import com.ecommerce.shared.messaging.MessagingConstants;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Lightweight subscription to product events, fanned out to the in-memory
+ * read structures of this instance. Unlike the event-handler projection it
+ * keeps no processed-event log: listeners apply events idempotently.
+ */
+@Component
+public class ProductEventSubscriber {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductEventSubscriber.class);
+    private static final String AGGREGATE_TYPE = "Product";
+
+    private final List<ProductEventListener> listeners;
+    private final ObjectMapper objectMapper;
+
+    public ProductEventSubscriber(List<ProductEventListener> listeners, ObjectMapper objectMapper) {
+        this.listeners = listeners;
+        this.objectMapper = objectMapper;
+    }
+
+    @RabbitListener(queues = "#{productQueryEventsQueue.name}")
+    public void handleEvent(Message message) {
+        String aggregateType = (String) message.getMessageProperties()
+                .getHeader(MessagingConstants.HEADER_AGGREGATE_TYPE);
+        if (!AGGREGATE_TYPE.equals(aggregateType)) {
+            return;
+        }
+        String eventType = (String) message.getMessageProperties()
+                .getHeader(MessagingConstants.HEADER_EVENT_TYPE);
+
+        try {
+            JsonNode payload = objectMapper.readTree(message.getBody());
+            String productId = payload.path("aggregateId").asText(null);
+            if (productId == null) {
+                logger.warn("Ignoring {} without aggregateId", eventType);
+                return;
+            }
+            for (ProductEventListener listener : listeners) {
+                try {
+                    listener.onProductEvent(eventType, productId, payload);
+                } catch (Exception ex) {
+                    logger.error("Listener {} failed on {} for product {}",
+                            listener.getClass().getSimpleName(), eventType, productId, ex);
+                }
+            }
+        } catch (Exception ex) {
+            logger.error("Error reading product event: {}", ex.getMessage(), ex);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.ecommerce.productcatalog.queryapi.facet;
+
+import com.ecommerce.productcatalog.queryapi.index.ProductCatalogIndex;
+import com.ecommerce.productcatalog.queryapi.index.ProductEntry;
+import com.ecommerce.productcatalog.queryapi.index.ProductIndexListener;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bitmap index over status, currency and price band, keyed by catalog ordinal.
+ *
+ * Each facet value owns a {@link BitSet}; filters and counts are plain
+ * OR/AND/cardinality over those sets. Price ranges are served from fixed
+ * bands, with only the two boundary bands checked product by product.
+ */
+@Component
+public class ProductFacetIndex implements ProductIndexListener {
+
+    public static final String STATUS = "status";
+    public static final String CURRENCY = "currency";
+    public static final String PRICE = "price";
+
+    // Lower bounds of the price bands; the last band is open-ended
+    private static final BigDecimal[] PRICE_BANDS = {
+            BigDecimal.ZERO,
+            BigDecimal.valueOf(10),
+            BigDecimal.valueOf(25),
+            BigDecimal.valueOf(50),
+            BigDecimal.valueOf(100),
+            BigDecimal.valueOf(250),
+            BigDecimal.valueOf(500),
+            BigDecimal.valueOf(1000)
+    };
+
+    private final ProductCatalogIndex catalog;
+    private final Map<String, BitSet> byStatus = new TreeMap<>();
+    private final Map<String, BitSet> byCurrency = new TreeMap<>();
+    private final BitSet[] byPriceBand = new BitSet[PRICE_BANDS.length];
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ProductFacetIndex(ProductCatalogIndex catalog) {
+        this.catalog = catalog;
+        for (int i = 0; i < byPriceBand.length; i++) {
+            byPriceBand[i] = new BitSet();
+        }
+        catalog.addListener(this);
+    }
+
+    public boolean isReady() {
+        return catalog.isReady();
+    }
+
+    @Override
+    public void onIndexed(int ordinal, ProductEntry before, ProductEntry after) {
+        if (before != null
+                && Objects.equals(before.status(), after.status())
+                && Objects.equals(before.currency(), after.currency())
+                && priceBand(before.price()) == priceBand(after.price())) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (before != null) {
+                clear(byStatus, before.status(), ordinal);
+                clear(byCurrency, before.currency(), ordinal);
+                if (before.price() != null) {
+                    byPriceBand[priceBand(before.price())].clear(ordinal);
+                }
+            }
+            set(byStatus, after.status(), ordinal);
+            set(byCurrency, after.currency(), ordinal);
+            if (after.price() != null) {
+                byPriceBand[priceBand(after.price())].set(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Filters the catalog and counts facet values, newest products first.
+     */
+    public ProductFacetResult query(ProductFacetQuery query, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            BitSet statusFilter = anyOf(byStatus, query.statuses());
+            BitSet currencyFilter = anyOf(byCurrency, query.currencies());
+            BitSet priceFilter = priceFilter(query);
+
+            BitSet matches = and(statusFilter, currencyFilter, priceFilter);
+
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            facets.put(STATUS, counts(byStatus, and(currencyFilter, priceFilter)));
+            facets.put(CURRENCY, counts(byCurrency, and(statusFilter, priceFilter)));
+            facets.put(PRICE, priceCounts(and(statusFilter, currencyFilter)));
+
+            List<ProductEntry> content = page(matches, pageable);
+            return new ProductFacetResult(
+                    new PageImpl<>(content.stream().map(ProductEntry::toReadModel).toList(),
+                            pageable, matches == null ? catalog.size() : matches.cardinality()),
+                    facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<ProductEntry> page(BitSet matches, Pageable pageable) {
+        List<ProductEntry> content = new ArrayList<>(pageable.getPageSize());
+        long skip = pageable.getOffset();
+        int ordinal = matches == null ? catalog.size() - 1 : matches.length() - 1;
+        while (ordinal >= 0 && content.size() < pageable.getPageSize()) {
+            ordinal = matches == null ? ordinal : matches.previousSetBit(ordinal);
+            if (ordinal < 0) {
+                break;
+            }
+            if (skip > 0) {
+                skip--;
+            } else {
+                ProductEntry entry = catalog.get(ordinal);
+                if (entry != null) {
+                    content.add(entry);
+                }
+            }
+            ordinal--;
+        }
+        return content;
+    }
+
+    private BitSet priceFilter(ProductFacetQuery query) {
+        if (!query.hasPriceFilter()) {
+            return null;
+        }
+        int first = query.minPrice() == null ? 0 : priceBand(query.minPrice());
+        int last = query.maxPrice() == null ? PRICE_BANDS.length - 1 : priceBand(query.maxPrice());
+
+        BitSet result = new BitSet();
+        for (int band = first; band <= last; band++) {
+            if (band == first || band == last) {
+                // Boundary bands straddle the requested range; check each product's price
+                BitSet bits = byPriceBand[band];
+                for (int ord = bits.nextSetBit(0); ord >= 0; ord = bits.nextSetBit(ord + 1)) {
+                    ProductEntry entry = catalog.get(ord);
+                    if (entry != null && inRange(entry.price(), query)) {
+                        result.set(ord);
+                    }
+                }
+            } else {
+                result.or(byPriceBand[band]);
+            }
+        }
+        return result;
+    }
+
+    private Map<String, Integer> priceCounts(BitSet filter) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (int band = 0; band < PRICE_BANDS.length; band++) {
+            int count = count(byPriceBand[band], filter);
+            if (count > 0) {
+                counts.put(bandLabel(band), count);
+            }
+        }
+        return counts;
+    }
+
+    private static Map<String, Integer> counts(Map<String, BitSet> facet, BitSet filter) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        facet.forEach((value, bits) -> {
+            int count = count(bits, filter);
+            if (count > 0) {
+                counts.put(value, count);
+            }
+        });
+        return counts;
+    }
+
+    private static int count(BitSet bits, BitSet filter) {
+        if (filter == null) {
+            return bits.cardinality();
+        }
+        BitSet copy = (BitSet) bits.clone();
+        copy.and(filter);
+        return copy.cardinality();
+    }
+
+    private static BitSet anyOf(Map<String, BitSet> facet, Iterable<String> values) {
+        BitSet result = null;
+        for (String value : values) {
+            if (result == null) {
+                result = new BitSet();
+            }
+            BitSet bits = facet.get(normalize(value));
+            if (bits != null) {
+                result.or(bits);
+            }
+        }
+        return result;
+    }
+
+    // null means "no filter"
+    private static BitSet and(BitSet... filters) {
+        BitSet result = null;
+        for (BitSet filter : filters) {
+            if (filter == null) {
+                continue;
+            }
+            if (result == null) {
+                result = (BitSet) filter.clone();
+            } else {
+                result.and(filter);
+            }
+        }
+        return result;
+    }
+
+    private static void set(Map<String, BitSet> facet, String value, int ordinal) {
+        if (value != null) {
+            facet.computeIfAbsent(normalize(value), v -> new BitSet()).set(ordinal);
+        }
+    }
+
+    private static void clear(Map<String, BitSet> facet, String value, int ordinal) {
+        if (value == null) {
+            return;
+        }
+        BitSet bits = facet.get(normalize(value));
+        if (bits != null) {
+            bits.clear(ordinal);
+            if (bits.isEmpty()) {
+                facet.remove(normalize(value));
+            }
+        }
+    }
+
+    private static String normalize(String value) {
+        return value.toUpperCase();
+    }
+
+    private static boolean inRange(BigDecimal price, ProductFacetQuery query) {
+        return price != null
+                && (query.minPrice() == null || price.compareTo(query.minPrice()) >= 0)
+                && (query.maxPrice() == null || price.compareTo(query.maxPrice()) <= 0);
+    }
+
+    private static int priceBand(BigDecimal price) {
+        if (price == null) {
+            return -1;
+        }
+        for (int band = PRICE_BANDS.length - 1; band > 0; band--) {
+            if (price.compareTo(PRICE_BANDS[band]) >= 0) {
+                return band;
+            }
+        }
+        return 0;
+    }
+
+    private static String bandLabel(int band) {
+        return band == PRICE_BANDS.length - 1
+                ? PRICE_BANDS[band].toPlainString() + "+"
+                : PRICE_BANDS[band].toPlainString() + "-" + PRICE_BANDS[band + 1].toPlainString();
+    }
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.productcatalog.queryapi.facet;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+/**
+ * Facet filter: values within a facet are ORed, facets are ANDed.
+ * Empty sets and null bounds mean "no filter".
+ */
+public record ProductFacetQuery(
+        Set<String> statuses,
+        Set<String> currencies,
+        BigDecimal minPrice,
+        BigDecimal maxPrice) {
+
+    public ProductFacetQuery {
+        statuses = statuses == null ? Set.of() : Set.copyOf(statuses);
+        currencies = currencies == null ? Set.of() : Set.copyOf(currencies);
+    }
+
+    boolean hasPriceFilter() {
+        return minPrice != null || maxPrice != null;
+    }
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.productcatalog.queryapi.facet;
+
+import com.ecommerce.productcatalog.queryapi.models.ProductReadModel;
+import org.springframework.data.domain.Page;
+
+import java.util.Map;
+
+/**
+ * A page of filtered products with per-value counts for each facet.
+ * Counts for a facet ignore that facet's own filter, so the client can
+ * show how many results selecting another value would give.
+ */
+public record ProductFacetResult(
+        Page<ProductReadModel> products,
+        Map<String, Map<String, Integer>> facets) {
+}
@@ -0,0 +1,174 @@
+package com.ecommerce.productcatalog.queryapi.index;
+
+import com.ecommerce.productcatalog.queryapi.events.ProductEventListener;
+import com.ecommerce.productcatalog.queryapi.models.ProductReadModel;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * In-memory replica of the product read model, addressed by dense ordinals.
+ *
+ * Loaded from Mongo once on startup and then kept current by product events,
+ * applied the same way the event-handler projection applies them. Ordinals
+ * are never reused, so secondary indexes (search postings, facet bitmaps)
+ * can refer to products by int.
+ */
+@Component
+public class ProductCatalogIndex implements ProductEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductCatalogIndex.class);
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final MongoTemplate mongoTemplate;
+    private final Map<String, Integer> ordinals = new ConcurrentHashMap<>();
+    // SKUs never change, so a mapping is written once with the product
+    private final Map<String, Integer> skuOrdinals = new ConcurrentHashMap<>();
+    private final List<ProductIndexListener> listeners = new CopyOnWriteArrayList<>();
+    // Products written by events while the bootstrap scan is running; the scan must not overwrite them
+    private final Set<String> touchedDuringBootstrap = ConcurrentHashMap.newKeySet();
+
+    private volatile AtomicReferenceArray<ProductEntry> entries = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+    private volatile int size;
+    private volatile boolean ready;
+
+    public ProductCatalogIndex(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public void addListener(ProductIndexListener listener) {
+        listeners.add(listener);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public ProductEntry get(int ordinal) {
+        return ordinal < size ? entries.get(ordinal) : null;
+    }
+
+    public Optional<ProductEntry> findById(String productId) {
+        Integer ordinal = ordinals.get(productId);
+        return ordinal == null ? Optional.empty() : Optional.ofNullable(entries.get(ordinal));
+    }
+
+    public Optional<ProductEntry> findBySku(String sku) {
+        Integer ordinal = skuOrdinals.get(sku);
+        return ordinal == null ? Optional.empty() : Optional.ofNullable(entries.get(ordinal));
+    }
+
+    /**
+     * Streams the read model into memory. Events received in the meantime
+     * are applied directly and win over the (older) scanned rows.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        long start = System.currentTimeMillis();
+        int loaded = 0;
+
+        try (Stream<ProductReadModel> rows = mongoTemplate.stream(new Query(), ProductReadModel.class)) {
+            for (ProductReadModel row : (Iterable<ProductReadModel>) rows::iterator) {
+                if (!touchedDuringBootstrap.contains(row.getId())) {
+                    put(ProductEntry.from(row));
+                    loaded++;
+                }
+            }
+        } catch (Exception ex) {
+            logger.error("Product index bootstrap failed, queries fall back to Mongo: {}", ex.getMessage(), ex);
+            return;
+        }
+
+        ready = true;
+        touchedDuringBootstrap.clear();
+        logger.info("Product index loaded {} products in {} ms", loaded, System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public void onProductEvent(String eventType, String productId, JsonNode payload) {
+        Instant occurredAt = ProductEventChanges.occurredAt(payload);
+        if (ProductEventChanges.PRODUCT_CREATED.equals(eventType)) {
+            put(ProductEventChanges.created(productId, payload, occurredAt));
+            markTouched(productId);
+            return;
+        }
+        ProductEventChanges.change(eventType, payload, occurredAt).ifPresentOrElse(
+                change -> update(productId, change),
+                () -> logger.debug("Product index ignoring event type: {}", eventType));
+    }
+
+    private void update(String productId, UnaryOperator<ProductEntry> change) {
+        Optional<ProductEntry> current = findById(productId);
+        if (current.isEmpty()) {
+            // Not loaded yet (or ProductCreated was missed); the bootstrap scan will bring it in
+            logger.debug("Product {} not in index, skipping update", productId);
+            return;
+        }
+        put(change.apply(current.get()));
+        markTouched(productId);
+    }
+
+    private void markTouched(String productId) {
+        if (!ready) {
+            touchedDuringBootstrap.add(productId);
+        }
+    }
+
+    private synchronized void put(ProductEntry entry) {
+        Integer existing = ordinals.get(entry.id());
+        int ordinal = existing != null ? existing : size;
+        if (existing == null) {
+            ensureCapacity(ordinal + 1);
+        }
+        ProductEntry before = entries.getAndSet(ordinal, entry);
+        if (existing == null) {
+            ordinals.put(entry.id(), ordinal);
+            if (entry.sku() != null) {
+                skuOrdinals.put(entry.sku(), ordinal);
+            }
+            size = ordinal + 1;
+        }
+
+        for (ProductIndexListener listener : listeners) {
+            try {
+                listener.onIndexed(ordinal, before, entry);
+            } catch (Exception ex) {
+                logger.error("Index listener {} failed for product {}",
+                        listener.getClass().getSimpleName(), entry.id(), ex);
+            }
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        AtomicReferenceArray<ProductEntry> current = entries;
+        if (required <= current.length()) {
+            return;
+        }
+        AtomicReferenceArray<ProductEntry> grown = new AtomicReferenceArray<>(
+                Math.max(required, current.length() * 2));
+        for (int i = 0; i < size; i++) {
+            grown.set(i, current.get(i));
+        }
+        entries = grown;
+    }
+}
@@ -0,0 +1,61 @@
+package com.ecommerce.productcatalog.queryapi.index;
+
+import com.ecommerce.productcatalog.queryapi.models.ProductReadModel;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Immutable in-memory copy of a product read model row.
+ * Entries are replaced, never mutated, so readers need no locking.
+ */
+public record ProductEntry(
+        String id,
+        String name,
+        String description,
+        String sku,
+        String status,
+        BigDecimal price,
+        String currency,
+        Instant createdAt,
+        Instant updatedAt) {
+
+    public static ProductEntry from(ProductReadModel model) {
+        return new ProductEntry(
+                model.getId(),
+                model.getName(),
+                model.getDescription(),
+                model.getSku(),
+                model.getStatus(),
+                model.getPrice(),
+                model.getCurrency(),
+                model.getCreatedAt(),
+                model.getUpdatedAt());
+    }
+
+    public ProductEntry withDetails(String name, String description, Instant at) {
+        return new ProductEntry(id, name, description, sku, status, price, currency, createdAt, at);
+    }
+
+    public ProductEntry withPrice(BigDecimal price, String currency, Instant at) {
+        return new ProductEntry(id, name, description, sku, status, price, currency, createdAt, at);
+    }
+
+    public ProductEntry withStatus(String status, Instant at) {
+        return new ProductEntry(id, name, description, sku, status, price, currency, createdAt, at);
+    }
+
+    public ProductReadModel toReadModel() {
+        ProductReadModel model = new ProductReadModel();
+        model.setId(id);
+        model.setName(name);
+        model.setDescription(description);
+        model.setSku(sku);
+        model.setStatus(status);
+        model.setPrice(price);
+        model.setCurrency(currency);
+        model.setCreatedAt(createdAt);
+        model.setUpdatedAt(updatedAt);
+        return model;
+    }
+}
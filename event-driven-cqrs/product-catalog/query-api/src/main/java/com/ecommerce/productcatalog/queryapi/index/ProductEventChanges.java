@@ -0,0 +1,80 @@
+package com.ecommerce.productcatalog.queryapi.index;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+/**
+ * Translates product events into {@link ProductEntry} values, mirroring
+ * how the event-handler projection writes the read model. Both stamp
+ * updatedAt with the event's occurredAt, so every instance and the stored
+ * read model agree on it and on the ETag derived from it.
+ */
+public final class ProductEventChanges {
+
+    public static final String PRODUCT_CREATED = "ProductCreated";
+
+    private ProductEventChanges() {
+    }
+
+    public static ProductEntry created(String productId, JsonNode payload, Instant at) {
+        return new ProductEntry(
+                productId,
+                text(payload, "name"),
+                text(payload, "description"),
+                text(payload, "sku"),
+                payload.has("status") ? text(payload, "status") : "DRAFT",
+                decimal(payload, "price"),
+                text(payload, "currency"),
+                at,
+                at);
+    }
+
+    /**
+     * The change an update event makes to an existing product, or empty for
+     * creation and unrelated event types.
+     */
+    public static Optional<UnaryOperator<ProductEntry>> change(String eventType, JsonNode payload, Instant at) {
+        UnaryOperator<ProductEntry> change = switch (eventType) {
+            case "ProductDetailsUpdated" ->
+                    e -> e.withDetails(text(payload, "name"), text(payload, "description"), at);
+            case "ProductPriceChanged" ->
+                    e -> e.withPrice(decimal(payload, "newPrice"), text(payload, "currency"), at);
+            case "ProductActivated" -> e -> e.withStatus("ACTIVE", at);
+            case "ProductDeactivated" -> e -> e.withStatus("INACTIVE", at);
+            case "ProductDeleted" -> e -> e.withStatus("DELETED", at);
+            default -> null;
+        };
+        return Optional.ofNullable(change);
+    }
+
+    /**
+     * When the event happened, as serialized by the command side: ISO-8601
+     * text or decimal epoch seconds. Falls back to now for events without it.
+     */
+    public static Instant occurredAt(JsonNode payload) {
+        JsonNode node = payload.get("occurredAt");
+        if (node == null || node.isNull()) {
+            return Instant.now();
+        }
+        if (node.isNumber()) {
+            BigDecimal seconds = node.decimalValue();
+            return Instant.ofEpochSecond(seconds.longValue(),
+                    seconds.remainder(BigDecimal.ONE).movePointRight(9).intValue());
+        }
+        return Instant.parse(node.asText());
+    }
+
+    private static String text(JsonNode payload, String field) {
+        JsonNode node = payload.get(field);
+        return node == null || node.isNull() ? null : node.asText();
+    }
+
+    private static BigDecimal decimal(JsonNode payload, String field) {
+        JsonNode node = payload.get(field);
+        return node == null || node.isNull() ? null : new BigDecimal(node.asText());
+    }
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.productcatalog.queryapi.index;
+
+/**
+ * Secondary structure maintained from the {@link ProductCatalogIndex}.
+ * Called under the catalog's write order, once per changed entry.
+ */
+public interface ProductIndexListener {
+
+    /**
+     * @param ordinal dense, stable position of the product in the catalog
+     * @param before  previous entry, or null when the product is new
+     * @param after   current entry
+     */
+    void onIndexed(int ordinal, ProductEntry before, ProductEntry after);
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.productcatalog.queryapi.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is null on the
+ * last page; {@code totalElements} is only present when it was asked for.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CursorPage<T>(
+        List<T> content,
+        String nextCursor,
+        boolean hasNext,
+        Long totalElements) {
+}
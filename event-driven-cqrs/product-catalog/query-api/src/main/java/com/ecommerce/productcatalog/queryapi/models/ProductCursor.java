@@ -0,0 +1,36 @@
+package com.ecommerce.productcatalog.queryapi.models;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position in a (createdAt, id) ordered product listing.
+ * Encoded as an opaque URL-safe token for clients.
+ */
+public record ProductCursor(Instant createdAt, String id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static ProductCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int split = raw.indexOf(SEPARATOR);
+            return new ProductCursor(Instant.parse(raw.substring(0, split)), raw.substring(split + 1));
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, ex);
+        }
+    }
+
+    public static ProductCursor of(ProductReadModel product) {
+        return new ProductCursor(product.getCreatedAt(), product.getId());
+    }
+}
@@ -0,0 +1,101 @@
+package com.ecommerce.productcatalog.queryapi.repositories;
+
+import com.ecommerce.productcatalog.queryapi.models.CursorPage;
+import com.ecommerce.productcatalog.queryapi.models.ProductCursor;
+import com.ecommerce.productcatalog.queryapi.models.ProductReadModel;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Product listings that avoid the per-request count of Spring Data paging.
+ *
+ * Keyset pages seek on (createdAt, id) and are served by the compound
+ * indexes on product_catalog_view, so every page costs the same as the
+ * first. Totals are only counted when the caller asks for them.
+ */
+@Repository
+public class ProductListingQueries {
+
+    private static final int STREAM_BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    public ProductListingQueries(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * @param status    optional status filter
+     * @param after     cursor of the last product already seen, or null for the first page
+     * @param ascending oldest first instead of newest first
+     */
+    public CursorPage<ProductReadModel> findPage(String status, ProductCursor after, int size,
+            boolean ascending, boolean includeTotal) {
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Query query = new Query(seek(status, after, ascending))
+                .with(Sort.by(direction, "createdAt", "id"))
+                .limit(size + 1);
+
+        List<ProductReadModel> rows = mongoTemplate.find(query, ProductReadModel.class);
+        boolean hasNext = rows.size() > size;
+        List<ProductReadModel> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? ProductCursor.of(content.get(content.size() - 1)).encode() : null;
+
+        Long total = includeTotal
+                ? mongoTemplate.count(new Query(statusCriteria(status)), ProductReadModel.class)
+                : null;
+        return new CursorPage<>(content, nextCursor, hasNext, total);
+    }
+
+    /**
+     * Offset paging without the count query; fetches one extra row to tell
+     * whether another page exists.
+     */
+    public Slice<ProductReadModel> findSlice(String status, Pageable pageable) {
+        Query query = new Query(statusCriteria(status))
+                .with(pageable.getSort())
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize() + 1);
+
+        List<ProductReadModel> rows = mongoTemplate.find(query, ProductReadModel.class);
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    /**
+     * Lazily iterates all products with the given status over a server-side
+     * cursor. The caller must close the stream.
+     */
+    public Stream<ProductReadModel> streamByStatus(String status) {
+        Query query = new Query(statusCriteria(status)).cursorBatchSize(STREAM_BATCH_SIZE);
+        return mongoTemplate.stream(query, ProductReadModel.class);
+    }
+
+    private static Criteria seek(String status, ProductCursor after, boolean ascending) {
+        Criteria criteria = statusCriteria(status);
+        if (after == null) {
+            return criteria;
+        }
+        Criteria beyond = ascending
+                ? new Criteria().orOperator(
+                        Criteria.where("createdAt").gt(after.createdAt()),
+                        Criteria.where("createdAt").is(after.createdAt()).and("id").gt(after.id()))
+                : new Criteria().orOperator(
+                        Criteria.where("createdAt").lt(after.createdAt()),
+                        Criteria.where("createdAt").is(after.createdAt()).and("id").lt(after.id()));
+        return status == null ? beyond : new Criteria().andOperator(criteria, beyond);
+    }
+
+    private static Criteria statusCriteria(String status) {
+        return status == null ? new Criteria() : Criteria.where("status").is(status);
+    }
+}
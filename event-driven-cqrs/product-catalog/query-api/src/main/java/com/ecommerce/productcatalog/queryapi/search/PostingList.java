@@ -0,0 +1,65 @@
+package com.ecommerce.productcatalog.queryapi.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted, duplicate-free list of product ordinals for one term.
+ * Ordinals are handed out in increasing order, so adds are almost always appends.
+ */
+final class PostingList {
+
+    private int[] ordinals = new int[4];
+    private int size;
+
+    void add(int ordinal) {
+        if (size > 0 && ordinals[size - 1] < ordinal) {
+            grow();
+            ordinals[size++] = ordinal;
+            return;
+        }
+        int idx = Arrays.binarySearch(ordinals, 0, size, ordinal);
+        if (idx >= 0) {
+            return;
+        }
+        int insertAt = -idx - 1;
+        grow();
+        System.arraycopy(ordinals, insertAt, ordinals, insertAt + 1, size - insertAt);
+        ordinals[insertAt] = ordinal;
+        size++;
+    }
+
+    void remove(int ordinal) {
+        int idx = Arrays.binarySearch(ordinals, 0, size, ordinal);
+        if (idx < 0) {
+            return;
+        }
+        System.arraycopy(ordinals, idx + 1, ordinals, idx, size - idx - 1);
+        size--;
+    }
+
+    boolean contains(int ordinal) {
+        return Arrays.binarySearch(ordinals, 0, size, ordinal) >= 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * The ordinal at {@code index}, in ascending order; lets readers walk the
+     * list in place.
+     */
+    int get(int index) {
+        return ordinals[index];
+    }
+
+    private void grow() {
+        if (size == ordinals.length) {
+            ordinals = Arrays.copyOf(ordinals, size * 2);
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.ecommerce.productcatalog.queryapi.search;
+
+import com.ecommerce.productcatalog.queryapi.index.ProductCatalogIndex;
+import com.ecommerce.productcatalog.queryapi.index.ProductEntry;
+import com.ecommerce.productcatalog.queryapi.index.ProductIndexListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index for product search.
+ *
+ * Name, description and SKU are tokenized into per-field postings; name and
+ * SKU tokens are additionally split into trigrams so partial terms ("lapt",
+ * "x-10") still match. Description is only indexed by whole token to keep
+ * the gram table small. Every query term must match (AND); results are
+ * ranked by where the terms matched, then by name.
+ *
+ * A search walks the postings of its rarest term in place, checks the other
+ * terms by binary search, and keeps only the best offset + size hits in a
+ * bounded heap, so neither the postings nor the full result list are copied.
+ */
+@Component
+public class ProductSearchIndex implements ProductIndexListener {
+
+    static final int GRAM_SIZE = 3;
+
+    private static final int SKU_WEIGHT = 5;
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int PARTIAL_WEIGHT = 1;
+    private static final Comparator<Hit> RANKING = Comparator.comparingInt(Hit::score).reversed()
+            .thenComparing(h -> Objects.toString(h.entry().name(), ""), String.CASE_INSENSITIVE_ORDER)
+            .thenComparingInt(Hit::ordinal);
+
+    private final ProductCatalogIndex catalog;
+    private final Map<String, PostingList> nameTerms = new HashMap<>();
+    private final Map<String, PostingList> skuTerms = new HashMap<>();
+    private final Map<String, PostingList> descriptionTerms = new HashMap<>();
+    private final Map<String, PostingList> grams = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ProductSearchIndex(ProductCatalogIndex catalog) {
+        this.catalog = catalog;
+        catalog.addListener(this);
+    }
+
+    public boolean isReady() {
+        return catalog.isReady();
+    }
+
+    @Override
+    public void onIndexed(int ordinal, ProductEntry before, ProductEntry after) {
+        if (before != null && sameSearchableText(before, after)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (before != null) {
+                apply(ordinal, before, false);
+            }
+            apply(ordinal, after, true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranked search over all indexed products.
+     */
+    public Page<ProductEntry> search(String query, Pageable pageable) {
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (words.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        int keep = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), Integer.MAX_VALUE);
+        // Worst-ranked hit on top, so it is the one dropped once the heap is full
+        PriorityQueue<Hit> top = new PriorityQueue<>(RANKING.reversed());
+        int total = 0;
+        lock.readLock().lock();
+        try {
+            List<Term> terms = new ArrayList<>(words.size());
+            for (String word : words) {
+                terms.add(term(word));
+            }
+            // Walk the postings of the rarest term in place and check the others by lookup
+            Term rarest = terms.stream().min(Comparator.comparingInt(Term::estimate)).orElseThrow();
+            List<PostingList> sources = rarest.sources();
+            for (int s = 0; s < sources.size(); s++) {
+                PostingList source = sources.get(s);
+                for (int i = 0; i < source.size(); i++) {
+                    int ordinal = source.get(i);
+                    if (seenEarlier(sources, s, ordinal) || !matchesAll(terms, ordinal)) {
+                        continue;
+                    }
+                    ProductEntry entry = catalog.get(ordinal);
+                    if (entry == null) {
+                        continue;
+                    }
+                    total++;
+                    Hit hit = new Hit(ordinal, entry, score(terms, ordinal));
+                    if (top.size() < keep) {
+                        top.add(hit);
+                    } else if (keep > 0 && RANKING.compare(hit, top.peek()) < 0) {
+                        top.poll();
+                        top.add(hit);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Hit> ranked = new ArrayList<>(top);
+        ranked.sort(RANKING);
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        List<ProductEntry> content = ranked.subList(from, ranked.size()).stream().map(Hit::entry).toList();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private Term term(String word) {
+        List<PostingList> gramPostings = new ArrayList<>();
+        if (word.length() >= GRAM_SIZE) {
+            for (String gram : grams(word)) {
+                PostingList postings = grams.get(gram);
+                if (postings == null) {
+                    // A gram no product has: the word cannot occur inside any token
+                    gramPostings = List.of();
+                    break;
+                }
+                gramPostings.add(postings);
+            }
+        }
+        return new Term(word, skuTerms.get(word), nameTerms.get(word), descriptionTerms.get(word), gramPostings);
+    }
+
+    private boolean matchesAll(List<Term> terms, int ordinal) {
+        for (Term term : terms) {
+            if (!term.matchesWhole(ordinal) && !matchesPartial(term, ordinal)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean matchesPartial(Term term, int ordinal) {
+        if (term.grams().isEmpty()) {
+            return false;
+        }
+        for (PostingList postings : term.grams()) {
+            if (!postings.contains(ordinal)) {
+                return false;
+            }
+        }
+        // Grams only narrow the candidates; confirm the term really occurs inside a token
+        ProductEntry entry = catalog.get(ordinal);
+        return entry != null
+                && (containsPartial(entry.name(), term.word()) || containsPartial(entry.sku(), term.word()));
+    }
+
+    private static boolean seenEarlier(List<PostingList> sources, int source, int ordinal) {
+        for (int s = 0; s < source; s++) {
+            if (sources.get(s).contains(ordinal)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int score(List<Term> terms, int ordinal) {
+        int score = 0;
+        for (Term term : terms) {
+            int termScore = 0;
+            if (contains(term.sku(), ordinal)) {
+                termScore += SKU_WEIGHT;
+            }
+            if (contains(term.name(), ordinal)) {
+                termScore += NAME_WEIGHT;
+            }
+            if (contains(term.description(), ordinal)) {
+                termScore += DESCRIPTION_WEIGHT;
+            }
+            score += termScore > 0 ? termScore : PARTIAL_WEIGHT;
+        }
+        return score;
+    }
+
+    private void apply(int ordinal, ProductEntry entry, boolean add) {
+        List<String> nameTokens = tokenize(entry.name());
+        List<String> skuTokens = tokenize(entry.sku());
+        update(nameTerms, nameTokens, ordinal, add);
+        update(skuTerms, skuTokens, ordinal, add);
+        update(descriptionTerms, tokenize(entry.description()), ordinal, add);
+
+        Set<String> entryGrams = new LinkedHashSet<>();
+        nameTokens.forEach(token -> entryGrams.addAll(grams(token)));
+        skuTokens.forEach(token -> entryGrams.addAll(grams(token)));
+        update(grams, entryGrams, ordinal, add);
+    }
+
+    private static void update(Map<String, PostingList> index, Iterable<String> keys, int ordinal, boolean add) {
+        for (String key : keys) {
+            if (add) {
+                index.computeIfAbsent(key, k -> new PostingList()).add(ordinal);
+            } else {
+                PostingList postings = index.get(key);
+                if (postings != null) {
+                    postings.remove(ordinal);
+                    if (postings.isEmpty()) {
+                        index.remove(key);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean contains(PostingList postings, int ordinal) {
+        return postings != null && postings.contains(ordinal);
+    }
+
+    private static boolean containsPartial(String text, String term) {
+        for (String token : tokenize(text)) {
+            if (token.contains(term)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean sameSearchableText(ProductEntry a, ProductEntry b) {
+        return Objects.equals(a.name(), b.name())
+                && Objects.equals(a.sku(), b.sku())
+                && Objects.equals(a.description(), b.description());
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    static Set<String> grams(String token) {
+        Set<String> result = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= token.length(); i++) {
+            result.add(token.substring(i, i + GRAM_SIZE));
+        }
+        return result;
+    }
+
+    private record Hit(int ordinal, ProductEntry entry, int score) {
+    }
+
+    /**
+     * A query word with its postings looked up once. {@code grams} is empty
+     * when the word cannot match inside a token.
+     */
+    private record Term(String word, PostingList sku, PostingList name, PostingList description,
+            List<PostingList> grams) {
+
+        boolean matchesWhole(int ordinal) {
+            return contains(sku, ordinal) || contains(name, ordinal) || contains(description, ordinal);
+        }
+
+        /** Upper bound on the products this word matches. */
+        int estimate() {
+            return sources().stream().mapToInt(PostingList::size).sum();
+        }
+
+        /** Postings that together hold every product this word can match. */
+        List<PostingList> sources() {
+            List<PostingList> sources = new ArrayList<>(4);
+            for (PostingList postings : new PostingList[] { sku, name, description }) {
+                if (postings != null) {
+                    sources.add(postings);
+                }
+            }
+            grams.stream().min(Comparator.comparingInt(PostingList::size)).ifPresent(sources::add);
+            return sources;
+        }
+    }
+}
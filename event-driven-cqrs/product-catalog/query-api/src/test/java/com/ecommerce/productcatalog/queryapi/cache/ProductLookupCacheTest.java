@@ -0,0 +1,91 @@
+package com.ecommerce.productcatalog.queryapi.cache;
+
+import com.ecommerce.productcatalog.queryapi.index.ProductCatalogIndex;
+import com.ecommerce.productcatalog.queryapi.index.ProductEntry;
+import com.ecommerce.productcatalog.queryapi.models.ProductReadModel;
+import com.ecommerce.productcatalog.queryapi.repositories.ProductReadRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ProductLookupCache, against a mocked repository and catalog
+ * index.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ProductLookupCacheTest {
+
+    @Mock
+    private ProductReadRepository repository;
+    @Mock
+    private ProductCatalogIndex catalogIndex;
+
+    private ProductLookupCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ProductLookupCache(repository, catalogIndex, new SimpleMeterRegistry(), 100, 300, 30);
+    }
+
+    @Test
+    void findById_beforeTheIndexIsReady_shouldReadThroughTheCache() {
+        when(repository.findById("p-1")).thenReturn(Optional.of(product("p-1", "SKU-1")));
+
+        cache.findById("p-1");
+        Optional<ProductReadModel> second = cache.findById("p-1");
+
+        assertThat(second).map(ProductReadModel::getSku).contains("SKU-1");
+        verify(repository, times(1)).findById("p-1");
+        verify(catalogIndex, never()).findById(anyString());
+    }
+
+    @Test
+    void findById_onceTheIndexIsReady_shouldServeFromTheIndex() {
+        when(catalogIndex.isReady()).thenReturn(true);
+        when(catalogIndex.findById("p-1")).thenReturn(Optional.of(ProductEntry.from(product("p-1", "SKU-1"))));
+
+        Optional<ProductReadModel> found = cache.findById("p-1");
+
+        assertThat(found).map(ProductReadModel::getId).contains("p-1");
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void findBySku_onceTheIndexIsReady_shouldServeFromTheIndexWithoutFallingBack() {
+        when(repository.findBySku("SKU-1")).thenReturn(Optional.of(product("p-1", "SKU-1")));
+        cache.findBySku("SKU-1");
+        when(catalogIndex.isReady()).thenReturn(true);
+        when(catalogIndex.findBySku("SKU-1")).thenReturn(Optional.of(ProductEntry.from(product("p-1", "SKU-1"))));
+
+        assertThat(cache.findBySku("SKU-1")).map(ProductReadModel::getId).contains("p-1");
+        assertThat(cache.findBySku("SKU-2")).isEmpty();
+        verify(repository, times(1)).findBySku(anyString());
+    }
+
+    private static ProductReadModel product(String id, String sku) {
+        ProductReadModel product = new ProductReadModel();
+        product.setId(id);
+        product.setName("Name " + id);
+        product.setSku(sku);
+        product.setStatus("ACTIVE");
+        product.setPrice(BigDecimal.TEN);
+        product.setCurrency("USD");
+        product.setCreatedAt(Instant.parse("2026-01-01T00:00:00Z"));
+        product.setUpdatedAt(Instant.parse("2026-01-01T00:00:00Z"));
+        return product;
+    }
+}
@@ -0,0 +1,110 @@
+package com.ecommerce.productcatalog.queryapi.controllers;
+
+import com.ecommerce.productcatalog.queryapi.cache.ProductLookupCache;
+import com.ecommerce.productcatalog.queryapi.facet.ProductFacetIndex;
+import com.ecommerce.productcatalog.queryapi.models.CursorPage;
+import com.ecommerce.productcatalog.queryapi.models.ProductReadModel;
+import com.ecommerce.productcatalog.queryapi.repositories.ProductListingQueries;
+import com.ecommerce.productcatalog.queryapi.repositories.ProductReadRepository;
+import com.ecommerce.productcatalog.queryapi.search.ProductSearchIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ProductQueryController listings and export, against mocked
+ * queries.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ProductQueryControllerTest {
+
+    @Mock
+    private ProductReadRepository productReadRepository;
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+    @Mock
+    private ProductFacetIndex productFacetIndex;
+    @Mock
+    private ProductLookupCache productLookupCache;
+    @Mock
+    private ProductListingQueries productListingQueries;
+
+    private ProductQueryController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new ProductQueryController(productReadRepository, productSearchIndex, productFacetIndex,
+                productLookupCache, productListingQueries, new ObjectMapper());
+    }
+
+    @Test
+    void getAllProducts_withCursorAndNonPositiveSize_shouldBeRejected() {
+        ResponseEntity<?> response = controller.getAllProducts(0, 0, "createdAt", "desc", "", true);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(productListingQueries);
+    }
+
+    @Test
+    void getProductsByStatus_withCursorAndNegativeSize_shouldBeRejected() {
+        ResponseEntity<?> response = controller.getProductsByStatus("active", 0, -5, "", true);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(productListingQueries);
+    }
+
+    @Test
+    void getAllProducts_withCursor_shouldSeekThePage() {
+        CursorPage<?> page = new CursorPage<>(List.of(), null, false, null);
+        doReturn(page).when(productListingQueries).findPage(isNull(), isNull(), eq(20), eq(false), eq(true));
+
+        ResponseEntity<?> response = controller.getAllProducts(0, 20, "createdAt", "desc", "", true);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isSameAs(page);
+    }
+
+    @Test
+    void exportActiveProducts_shouldWriteOneLinePerProductAndCloseTheCursor() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(productListingQueries.streamByStatus("ACTIVE"))
+                .thenReturn(Stream.of(product("p-1"), product("p-2")).onClose(() -> closed.set(true)));
+        ResponseEntity<StreamingResponseBody> response = controller.exportActiveProducts();
+        verifyNoInteractions(productListingQueries);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertThat(response.getHeaders().getContentType()).hasToString("application/x-ndjson");
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).startsWith("{\"id\":\"p-1\"");
+        assertThat(closed).isTrue();
+    }
+
+    private static ProductReadModel product(String id) {
+        ProductReadModel product = new ProductReadModel();
+        product.setId(id);
+        product.setStatus("ACTIVE");
+        return product;
+    }
+}
@@ -0,0 +1,109 @@
+package com.ecommerce.productcatalog.queryapi.facet;
+
+import com.ecommerce.productcatalog.queryapi.index.ProductCatalogIndex;
+import com.ecommerce.productcatalog.queryapi.index.ProductEntry;
+import com.ecommerce.productcatalog.queryapi.models.ProductReadModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ProductFacetIndex, fed through its index listener.
+ */
+class ProductFacetIndexTest {
+
+    private final List<ProductEntry> entries = new ArrayList<>();
+    private ProductFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        ProductCatalogIndex catalog = mock(ProductCatalogIndex.class);
+        when(catalog.get(anyInt())).thenAnswer(inv -> entries.get(inv.<Integer>getArgument(0)));
+        when(catalog.size()).thenAnswer(inv -> entries.size());
+        index = new ProductFacetIndex(catalog);
+
+        add("ACTIVE", "USD", "5");
+        add("ACTIVE", "EUR", "30");
+        add("DRAFT", "USD", "30");
+        add("ACTIVE", "USD", "1200");
+    }
+
+    @Test
+    void query_withoutFilters_shouldReturnEverythingNewestFirst() {
+        ProductFacetResult result = index.query(new ProductFacetQuery(null, null, null, null), PageRequest.of(0, 10));
+
+        assertThat(result.products().getTotalElements()).isEqualTo(4);
+        assertThat(result.products().getContent()).extracting(ProductReadModel::getId)
+                .containsExactly("p-3", "p-2", "p-1", "p-0");
+        assertThat(result.facets().get(ProductFacetIndex.STATUS)).containsEntry("ACTIVE", 3).containsEntry("DRAFT", 1);
+        assertThat(result.facets().get(ProductFacetIndex.PRICE))
+                .containsEntry("0-10", 1).containsEntry("25-50", 2).containsEntry("1000+", 1);
+    }
+
+    @Test
+    void query_shouldOrValuesWithinAFacetAndAndFacets() {
+        ProductFacetResult result = index.query(
+                new ProductFacetQuery(Set.of("active"), Set.of("USD", "EUR"), null, null), PageRequest.of(0, 10));
+
+        assertThat(result.products().getContent()).extracting(ProductReadModel::getId)
+                .containsExactly("p-3", "p-1", "p-0");
+    }
+
+    @Test
+    void query_shouldCountEachFacetWithoutItsOwnFilter() {
+        ProductFacetResult result = index.query(
+                new ProductFacetQuery(Set.of("DRAFT"), null, null, null), PageRequest.of(0, 10));
+
+        assertThat(result.products().getTotalElements()).isEqualTo(1);
+        assertThat(result.facets().get(ProductFacetIndex.STATUS)).containsEntry("ACTIVE", 3).containsEntry("DRAFT", 1);
+        assertThat(result.facets().get(ProductFacetIndex.CURRENCY)).containsOnlyKeys("USD");
+    }
+
+    @Test
+    void query_shouldCheckPricesInBoundaryBands() {
+        ProductFacetResult result = index.query(
+                new ProductFacetQuery(null, null, new BigDecimal("6"), new BigDecimal("30")), PageRequest.of(0, 10));
+
+        assertThat(result.products().getContent()).extracting(ProductReadModel::getId)
+                .containsExactly("p-2", "p-1");
+    }
+
+    @Test
+    void query_shouldPageMatches() {
+        ProductFacetResult result = index.query(
+                new ProductFacetQuery(Set.of("ACTIVE"), null, null, null), PageRequest.of(1, 2));
+
+        assertThat(result.products().getTotalElements()).isEqualTo(3);
+        assertThat(result.products().getContent()).extracting(ProductReadModel::getId).containsExactly("p-0");
+    }
+
+    @Test
+    void onIndexed_withChangedStatus_shouldMoveProductBetweenValues() {
+        ProductEntry before = entries.get(2);
+        ProductEntry after = before.withStatus("ACTIVE", Instant.now());
+        entries.set(2, after);
+
+        index.onIndexed(2, before, after);
+
+        ProductFacetResult result = index.query(new ProductFacetQuery(null, null, null, null), PageRequest.of(0, 10));
+        assertThat(result.facets().get(ProductFacetIndex.STATUS)).containsOnly(entry("ACTIVE", 4));
+    }
+
+    private void add(String status, String currency, String price) {
+        int ordinal = entries.size();
+        ProductEntry entry = new ProductEntry("p-" + ordinal, "Product " + ordinal, null, "SKU-" + ordinal,
+                status, new BigDecimal(price), currency, Instant.now(), Instant.now());
+        entries.add(entry);
+        index.onIndexed(ordinal, null, entry);
+    }
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.productcatalog.queryapi.index;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ProductCatalogIndex, fed through product events.
+ */
+class ProductCatalogIndexTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ProductCatalogIndex index = new ProductCatalogIndex(mock(MongoTemplate.class));
+
+    @Test
+    void findBySku_shouldFindACreatedProductAndFollowItsChanges() throws Exception {
+        index.onProductEvent("ProductCreated", "p-1", objectMapper.readTree(
+                "{\"name\": \"Mug\", \"sku\": \"MUG-1\", \"price\": \"10\", \"currency\": \"EUR\"}"));
+        index.onProductEvent("ProductPriceChanged", "p-1", objectMapper.readTree(
+                "{\"newPrice\": \"12.50\", \"currency\": \"EUR\"}"));
+
+        assertThat(index.findBySku("MUG-1")).map(ProductEntry::price).hasValueSatisfying(
+                price -> assertThat(price).isEqualByComparingTo("12.50"));
+        assertThat(index.findBySku("MUG-2")).isEmpty();
+    }
+}
@@ -0,0 +1,50 @@
+package com.ecommerce.productcatalog.queryapi.index;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for ProductEventChanges.
+ */
+class ProductEventChangesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void occurredAt_withDecimalEpochSeconds_shouldKeepTheMillis() throws Exception {
+        JsonNode payload = objectMapper.readTree("{\"occurredAt\": 1714558530.123456789}");
+
+        assertThat(ProductEventChanges.occurredAt(payload).toEpochMilli()).isEqualTo(1714558530123L);
+    }
+
+    @Test
+    void occurredAt_withIsoText_shouldParseIt() throws Exception {
+        JsonNode payload = objectMapper.readTree("{\"occurredAt\": \"2024-05-01T10:15:30.123Z\"}");
+
+        assertThat(ProductEventChanges.occurredAt(payload)).isEqualTo(Instant.parse("2024-05-01T10:15:30.123Z"));
+    }
+
+    @Test
+    void change_shouldStampTheEventTimeNotTheLocalClock() throws Exception {
+        JsonNode payload = objectMapper.readTree(
+                "{\"newPrice\": \"12.50\", \"currency\": \"EUR\", \"occurredAt\": \"2024-05-01T10:15:30.123Z\"}");
+        ProductEntry entry = ProductEventChanges.created("p-1", objectMapper.readTree(
+                "{\"name\": \"Mug\", \"sku\": \"MUG-1\", \"price\": \"10\", \"currency\": \"EUR\"}"),
+                Instant.parse("2024-04-01T00:00:00Z"));
+
+        ProductEntry changed = ProductEventChanges
+                .change("ProductPriceChanged", payload, ProductEventChanges.occurredAt(payload))
+                .orElseThrow()
+                .apply(entry);
+
+        assertThat(changed.price()).isEqualByComparingTo(new BigDecimal("12.50"));
+        assertThat(changed.updatedAt()).isEqualTo(Instant.parse("2024-05-01T10:15:30.123Z"));
+        assertThat(changed.createdAt()).isEqualTo(Instant.parse("2024-04-01T00:00:00Z"));
+    }
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.productcatalog.queryapi.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for ProductCursor.
+ */
+class ProductCursorTest {
+
+    @Test
+    void decode_shouldRoundTripEncodedCursor() {
+        ProductCursor cursor = new ProductCursor(Instant.parse("2024-05-01T10:15:30.123Z"), "product|with|bars");
+
+        ProductCursor decoded = ProductCursor.decode(cursor.encode());
+
+        assertThat(decoded).isEqualTo(cursor);
+    }
+
+    @Test
+    void encode_shouldBeUrlSafe() {
+        String token = new ProductCursor(Instant.now(), "a/b+c?").encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void of_shouldUseCreatedAtAndId() {
+        ProductReadModel product = new ProductReadModel();
+        product.setId("p-1");
+        product.setCreatedAt(Instant.parse("2024-01-01T00:00:00Z"));
+
+        assertThat(ProductCursor.of(product))
+                .isEqualTo(new ProductCursor(Instant.parse("2024-01-01T00:00:00Z"), "p-1"));
+    }
+
+    @Test
+    void decode_withForeignToken_shouldThrowException() {
+        assertThatThrownBy(() -> ProductCursor.decode("not a cursor"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid cursor");
+        assertThatThrownBy(() -> ProductCursor.decode("bm8tc2VwYXJhdG9y"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
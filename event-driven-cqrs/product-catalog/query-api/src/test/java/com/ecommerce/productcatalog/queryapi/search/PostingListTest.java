@@ -0,0 +1,80 @@
+package com.ecommerce.productcatalog.queryapi.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for PostingList.
+ */
+class PostingListTest {
+
+    @Test
+    void add_shouldKeepOrdinalsSortedAndUnique() {
+        PostingList postings = new PostingList();
+
+        postings.add(5);
+        postings.add(1);
+        postings.add(9);
+        postings.add(5);
+        postings.add(3);
+
+        assertThat(ordinals(postings)).containsExactly(1, 3, 5, 9);
+    }
+
+    @Test
+    void add_shouldGrowPastInitialCapacity() {
+        PostingList postings = new PostingList();
+
+        for (int ordinal = 0; ordinal < 100; ordinal++) {
+            postings.add(ordinal);
+        }
+
+        assertThat(ordinals(postings)).hasSize(100).startsWith(0, 1, 2).endsWith(98, 99);
+    }
+
+    @Test
+    void remove_shouldDropOrdinal() {
+        PostingList postings = new PostingList();
+        postings.add(1);
+        postings.add(2);
+        postings.add(3);
+
+        postings.remove(2);
+        postings.remove(7);
+
+        assertThat(ordinals(postings)).containsExactly(1, 3);
+        assertThat(postings.contains(2)).isFalse();
+        assertThat(postings.contains(3)).isTrue();
+    }
+
+    @Test
+    void isEmpty_shouldBeTrueOnceEveryOrdinalIsRemoved() {
+        PostingList postings = new PostingList();
+        postings.add(4);
+
+        postings.remove(4);
+
+        assertThat(postings.isEmpty()).isTrue();
+        assertThat(ordinals(postings)).isEmpty();
+    }
+
+    @Test
+    void get_shouldWalkOrdinalsInAscendingOrder() {
+        PostingList postings = new PostingList();
+        postings.add(7);
+        postings.add(2);
+
+        assertThat(postings.size()).isEqualTo(2);
+        assertThat(postings.get(0)).isEqualTo(2);
+        assertThat(postings.get(1)).isEqualTo(7);
+    }
+
+    private static int[] ordinals(PostingList postings) {
+        int[] ordinals = new int[postings.size()];
+        for (int i = 0; i < ordinals.length; i++) {
+            ordinals[i] = postings.get(i);
+        }
+        return ordinals;
+    }
+}
@@ -0,0 +1,142 @@
+package com.ecommerce.productcatalog.queryapi.search;
+
+import com.ecommerce.productcatalog.queryapi.index.ProductCatalogIndex;
+import com.ecommerce.productcatalog.queryapi.index.ProductEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ProductSearchIndex, fed through its index listener.
+ */
+class ProductSearchIndexTest {
+
+    private final List<ProductEntry> entries = new ArrayList<>();
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        ProductCatalogIndex catalog = mock(ProductCatalogIndex.class);
+        when(catalog.get(anyInt())).thenAnswer(inv -> entries.get(inv.<Integer>getArgument(0)));
+        index = new ProductSearchIndex(catalog);
+    }
+
+    @Test
+    void tokenize_shouldLowercaseAndSplitOnPunctuation() {
+        assertThat(ProductSearchIndex.tokenize("Gaming Laptop, X-100")).containsExactly("gaming", "laptop", "x", "100");
+        assertThat(ProductSearchIndex.tokenize("  ")).isEmpty();
+        assertThat(ProductSearchIndex.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void grams_shouldSplitTokenIntoTrigrams() {
+        assertThat(ProductSearchIndex.grams("laptop")).containsExactly("lap", "apt", "pto", "top");
+        assertThat(ProductSearchIndex.grams("ab")).isEmpty();
+    }
+
+    @Test
+    void search_shouldRequireEveryTerm() {
+        add("Gaming Laptop", "Fast machine", "GL-1");
+        add("Office Laptop", "Quiet machine", "OL-1");
+
+        Page<ProductEntry> page = index.search("laptop quiet", PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).extracting(ProductEntry::name).containsExactly("Office Laptop");
+    }
+
+    @Test
+    void search_shouldMatchPartialTermsInNameAndSku() {
+        add("Gaming Laptop", null, "XR-1000");
+
+        assertThat(index.search("lapt", PageRequest.of(0, 10)).getTotalElements()).isEqualTo(1);
+        assertThat(index.search("100", PageRequest.of(0, 10)).getTotalElements()).isEqualTo(1);
+    }
+
+    @Test
+    void search_shouldNotMatchPartialTermsInDescription() {
+        add("Desk", "Adjustable height", "D-1");
+
+        assertThat(index.search("adjust", PageRequest.of(0, 10)).getTotalElements()).isZero();
+        assertThat(index.search("adjustable", PageRequest.of(0, 10)).getTotalElements()).isEqualTo(1);
+    }
+
+    @Test
+    void search_shouldRankSkuAboveNameAboveDescription() {
+        add("Cable", "Works with the dock", "C-1");
+        add("Dock", null, "D-1");
+        add("Stand", null, "DOCK");
+
+        Page<ProductEntry> page = index.search("dock", PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).extracting(ProductEntry::name).containsExactly("Stand", "Dock", "Cable");
+    }
+
+    @Test
+    void search_shouldPageRankedResults() {
+        add("Mouse A", null, "M-1");
+        add("Mouse B", null, "M-2");
+        add("Mouse C", null, "M-3");
+
+        Page<ProductEntry> page = index.search("mouse", PageRequest.of(1, 2));
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(page.getContent()).extracting(ProductEntry::name).containsExactly("Mouse C");
+    }
+
+    @Test
+    void search_shouldKeepTheBestHitsAcrossPagesAndCountEveryMatch() {
+        for (int i = 0; i < 20; i++) {
+            add(String.format("Cable %02d", i), null, "C-" + i);
+        }
+        add("Dock", "With a cable", "D-1");
+        add("Hub", null, "CABLE");
+
+        Page<ProductEntry> first = index.search("cable", PageRequest.of(0, 2));
+        Page<ProductEntry> last = index.search("cable", PageRequest.of(10, 2));
+
+        assertThat(first.getTotalElements()).isEqualTo(22);
+        assertThat(first.getContent()).extracting(ProductEntry::name).containsExactly("Hub", "Cable 00");
+        assertThat(last.getContent()).extracting(ProductEntry::name).containsExactly("Cable 19", "Dock");
+    }
+
+    @Test
+    void search_shouldMatchATermThroughAnyOfItsPostingsOnce() {
+        add("Dock", "Dock for laptops", "DOCK-1");
+
+        Page<ProductEntry> page = index.search("dock", PageRequest.of(0, 10));
+
+        assertThat(page.getTotalElements()).isEqualTo(1);
+        assertThat(page.getContent()).hasSize(1);
+    }
+
+    @Test
+    void onIndexed_withChangedName_shouldReplaceOldTerms() {
+        ProductEntry before = add("Old Name", null, "P-1");
+        ProductEntry after = before.withDetails("New Name", null, Instant.now());
+        entries.set(0, after);
+
+        index.onIndexed(0, before, after);
+
+        assertThat(index.search("old", PageRequest.of(0, 10)).getTotalElements()).isZero();
+        assertThat(index.search("new", PageRequest.of(0, 10)).getTotalElements()).isEqualTo(1);
+    }
+
+    private ProductEntry add(String name, String description, String sku) {
+        int ordinal = entries.size();
+        ProductEntry entry = new ProductEntry("p-" + ordinal, name, description, sku, "ACTIVE",
+                BigDecimal.TEN, "USD", Instant.now(), Instant.now());
+        entries.add(entry);
+        index.onIndexed(ordinal, null, entry);
+        return entry;
+    }
+}
@@ -18,6 +18,7 @@ public final class MessagingConstants {
 
     // Headers
     public static final String HEADER_EVENT_TYPE = "eventType";
+    public static final String HEADER_COMMAND_TYPE = "commandType";
     public static final String HEADER_AGGREGATE_TYPE = "aggregateType";
     public static final String HEADER_CORRELATION_ID = "correlationId";
     public static final String HEADER_CAUSATION_ID = "causationId";
@@ -26,6 +27,8 @@ public final class MessagingConstants {
     // Subsystem command queues
     public static final String PRODUCT_CATALOG_COMMANDS_QUEUE = "product-catalog.commands";
     public static final String INVENTORY_COMMANDS_QUEUE = "inventory.commands";
+    // Inventory commands for hot-ledger products, consumed only by the ledger owner
+    public static final String INVENTORY_HOT_COMMANDS_QUEUE = "inventory.hot-commands";
     public static final String CART_COMMANDS_QUEUE = "cart.commands";
     public static final String CHECKOUT_COMMANDS_QUEUE = "checkout.commands";
     public static final String ORDER_COMMANDS_QUEUE = "order-management.commands";
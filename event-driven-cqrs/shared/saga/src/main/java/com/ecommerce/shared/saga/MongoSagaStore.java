@@ -0,0 +1,81 @@
+package com.ecommerce.shared.saga;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * MongoDB implementation of SagaStore. Concurrent writers are caught by the
+ * document's optimistic version.
+ */
+public class MongoSagaStore implements SagaStore {
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoSagaStore(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        // The timeout sweep queries on this index, so don't rely on auto-index-creation
+        mongoTemplate.indexOps(SagaInstance.class)
+                .ensureIndex(new Index().named("saga_expiry")
+                        .on("sagaType", Sort.Direction.ASC)
+                        .on("status", Sort.Direction.ASC)
+                        .on("deadline", Sort.Direction.ASC));
+        // Only instances with unpublished commands carry outboxSince
+        mongoTemplate.indexOps(SagaInstance.class)
+                .ensureIndex(new Index().named("saga_outbox")
+                        .on("sagaType", Sort.Direction.ASC)
+                        .on("outboxSince", Sort.Direction.ASC)
+                        .sparse());
+    }
+
+    @Override
+    public Optional<SagaInstance> find(String sagaType, String correlationId) {
+        return Optional.ofNullable(mongoTemplate.findById(sagaType + ":" + correlationId, SagaInstance.class));
+    }
+
+    @Override
+    public boolean insert(SagaInstance instance) {
+        try {
+            mongoTemplate.insert(instance);
+            return true;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public SagaInstance save(SagaInstance instance) {
+        return mongoTemplate.save(instance);
+    }
+
+    @Override
+    public List<SagaInstance> findExpired(String sagaType, Instant now, int limit) {
+        Query query = new Query(Criteria.where("sagaType").is(sagaType)
+                .and("status").is(SagaStatus.RUNNING)
+                .and("deadline").lt(now))
+                .limit(limit);
+        return mongoTemplate.find(query, SagaInstance.class);
+    }
+
+    @Override
+    public List<SagaInstance> findUnpublished(String sagaType, Instant before, int limit) {
+        Query query = new Query(Criteria.where("sagaType").is(sagaType)
+                .and("outboxSince").lt(before))
+                .limit(limit);
+        return mongoTemplate.find(query, SagaInstance.class);
+    }
+
+    @Override
+    public long countRunning(String sagaType) {
+        // Served by the prefix of the saga_expiry index
+        return mongoTemplate.count(new Query(Criteria.where("sagaType").is(sagaType)
+                .and("status").is(SagaStatus.RUNNING)), SagaInstance.class);
+    }
+}
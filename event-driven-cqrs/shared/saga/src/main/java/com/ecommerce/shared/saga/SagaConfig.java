@@ -0,0 +1,47 @@
+package com.ecommerce.shared.saga;
+
+import com.ecommerce.shared.messaging.CommandPublisher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Saga engine wiring. Store and executor can be replaced by declaring a bean
+ * of the same type.
+ */
+@Configuration
+public class SagaConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(SagaStore.class)
+    public SagaStore sagaStore(MongoTemplate mongoTemplate) {
+        return new MongoSagaStore(mongoTemplate);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(SagaExecutor.class)
+    public SagaExecutor sagaExecutor(@Value("${saga.executor.stripes:8}") int stripes) {
+        return new StripedSagaExecutor(stripes);
+    }
+
+    @Bean
+    public SagaEngine sagaEngine(ConnectionFactory connectionFactory, AmqpAdmin amqpAdmin, SagaStore sagaStore,
+            SagaExecutor sagaExecutor, CommandPublisher commandPublisher, ObjectMapper objectMapper,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${saga.listener.concurrency:4}") int concurrency,
+            @Value("${saga.listener.batch-size:10}") int batchSize,
+            @Value("${saga.listener.batch-receive-timeout-ms:50}") long batchReceiveTimeoutMs,
+            @Value("${saga.timeout.sweep-interval-ms:10000}") long sweepIntervalMs) {
+        return new SagaEngine(connectionFactory, amqpAdmin, sagaStore, sagaExecutor, commandPublisher, objectMapper,
+                meterRegistry.getIfAvailable(SimpleMeterRegistry::new), concurrency, batchSize, batchReceiveTimeoutMs,
+                sweepIntervalMs);
+    }
+}
@@ -0,0 +1,79 @@
+package com.ecommerce.shared.saga;
+
+import com.ecommerce.shared.common.commands.Command;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Per-step view of a saga instance handed to step handlers.
+ * Commands are buffered and only published after the resulting state
+ * transition has been persisted.
+ *
+ * @param <S> The saga state type
+ */
+public class SagaContext<S> {
+
+    private final String sagaType;
+    private final String correlationId;
+    private final S state;
+    private final List<PendingCommand> commands = new ArrayList<>();
+    private SagaStatus status = SagaStatus.RUNNING;
+    private String failureReason;
+
+    SagaContext(String sagaType, String correlationId, S state) {
+        this.sagaType = sagaType;
+        this.correlationId = correlationId;
+        this.state = state;
+    }
+
+    public String getSagaType() {
+        return sagaType;
+    }
+
+    public String getCorrelationId() {
+        return correlationId;
+    }
+
+    public S getState() {
+        return state;
+    }
+
+    /**
+     * Queues a command to be sent once this step has been committed.
+     */
+    public void send(String queueName, Command<?> command) {
+        commands.add(new PendingCommand(queueName, command));
+    }
+
+    /**
+     * Marks the saga as successfully finished.
+     */
+    public void complete() {
+        this.status = SagaStatus.COMPLETED;
+    }
+
+    /**
+     * Marks the saga as failed; no further steps will run.
+     */
+    public void fail(String reason) {
+        this.status = SagaStatus.FAILED;
+        this.failureReason = reason;
+    }
+
+    public SagaStatus getStatus() {
+        return status;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    List<PendingCommand> getCommands() {
+        return Collections.unmodifiableList(commands);
+    }
+
+    record PendingCommand(String queueName, Command<?> command) {
+    }
+}
@@ -0,0 +1,220 @@
+package com.ecommerce.shared.saga;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Declarative description of a saga: the event that starts it, the steps
+ * that react to replies, and an optional timeout.
+ * <p>
+ * Each step is bound to a routing key on the events exchange. All of a saga's
+ * routing keys are bound to a single reply queue, {@code saga.<name>.replies}.
+ * A step can name the queue that carried its event before, which the engine
+ * then retires.
+ *
+ * <pre>
+ * SagaDefinition.builder("checkout", CheckoutSagaState.class, CheckoutSagaState::new)
+ *         .startsOn("order.CheckoutRequested", CheckoutRequested.class)
+ *             .correlatedBy(CheckoutRequested::orderId)
+ *             .handle(this::start)
+ *         .step("cart-snapshot", "cart.CartSnapshotProvided", CartSnapshotProvided.class)
+ *             .correlatedBy(CartSnapshotProvided::orderId)
+ *             .handle(this::onCartSnapshot)
+ *         .timeout(Duration.ofMinutes(5), this::onTimeout)
+ *         .build();
+ * </pre>
+ *
+ * @param <S> The saga state type, persisted as JSON between steps
+ */
+public final class SagaDefinition<S> {
+
+    public static final String START_STEP = "start";
+    public static final String TIMEOUT_STEP = "timeout";
+
+    private final String name;
+    private final Class<S> stateType;
+    private final Supplier<S> initialState;
+    private final Map<String, Step<S, ?>> stepsByRoutingKey;
+    private final Duration timeout;
+    private final Consumer<SagaContext<S>> timeoutHandler;
+    private final Map<String, String> retiredQueues;
+
+    private SagaDefinition(Builder<S> builder) {
+        this.name = builder.name;
+        this.stateType = builder.stateType;
+        this.initialState = builder.initialState;
+        this.stepsByRoutingKey = Collections.unmodifiableMap(new LinkedHashMap<>(builder.steps));
+        this.timeout = builder.timeout;
+        this.timeoutHandler = builder.timeoutHandler;
+        this.retiredQueues = Collections.unmodifiableMap(new LinkedHashMap<>(builder.retiredQueues));
+    }
+
+    public static <S> Builder<S> builder(String name, Class<S> stateType, Supplier<S> initialState) {
+        return new Builder<>(name, stateType, initialState);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Class<S> getStateType() {
+        return stateType;
+    }
+
+    public S newState() {
+        return initialState.get();
+    }
+
+    public String getReplyQueueName() {
+        return "saga." + name + ".replies";
+    }
+
+    public Collection<String> getRoutingKeys() {
+        return stepsByRoutingKey.keySet();
+    }
+
+    public Step<S, ?> stepFor(String routingKey) {
+        return stepsByRoutingKey.get(routingKey);
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public Consumer<SagaContext<S>> getTimeoutHandler() {
+        return timeoutHandler;
+    }
+
+    /**
+     * Queues that used to carry the saga's events, each with the routing key
+     * it was bound to.
+     */
+    public Map<String, String> getRetiredQueues() {
+        return retiredQueues;
+    }
+
+    /**
+     * A single step: which event triggers it, how the event is correlated to a
+     * saga instance, and what to do with it.
+     */
+    public record Step<S, E>(
+            String name,
+            String routingKey,
+            Class<E> eventType,
+            Function<E, String> correlation,
+            SagaStepHandler<S, E> handler,
+            boolean start) {
+
+        public String correlationIdOf(Object event) {
+            return correlation.apply(eventType.cast(event));
+        }
+
+        public void invoke(Object event, SagaContext<S> context) throws Exception {
+            handler.handle(eventType.cast(event), context);
+        }
+    }
+
+    public static final class Builder<S> {
+        private final String name;
+        private final Class<S> stateType;
+        private final Supplier<S> initialState;
+        private final Map<String, Step<S, ?>> steps = new LinkedHashMap<>();
+        private final Map<String, String> retiredQueues = new LinkedHashMap<>();
+        private Duration timeout;
+        private Consumer<SagaContext<S>> timeoutHandler = context -> {
+        };
+        private boolean hasStart;
+
+        private Builder(String name, Class<S> stateType, Supplier<S> initialState) {
+            this.name = Objects.requireNonNull(name, "name");
+            this.stateType = Objects.requireNonNull(stateType, "stateType");
+            this.initialState = Objects.requireNonNull(initialState, "initialState");
+        }
+
+        public <E> StepBuilder<S, E> startsOn(String routingKey, Class<E> eventType) {
+            if (hasStart) {
+                throw new IllegalStateException("Saga " + name + " already has a start step");
+            }
+            hasStart = true;
+            return new StepBuilder<>(this, START_STEP, routingKey, eventType, true);
+        }
+
+        public <E> StepBuilder<S, E> step(String stepName, String routingKey, Class<E> eventType) {
+            return new StepBuilder<>(this, stepName, routingKey, eventType, false);
+        }
+
+        /**
+         * Fails instances still running {@code timeout} after they started and
+         * gives the handler a chance to compensate or notify.
+         */
+        public Builder<S> timeout(Duration timeout, Consumer<SagaContext<S>> handler) {
+            this.timeout = timeout;
+            this.timeoutHandler = handler;
+            return this;
+        }
+
+        public SagaDefinition<S> build() {
+            if (!hasStart) {
+                throw new IllegalStateException("Saga " + name + " has no start step");
+            }
+            return new SagaDefinition<>(this);
+        }
+
+        private void add(Step<S, ?> step) {
+            if (steps.putIfAbsent(step.routingKey(), step) != null) {
+                throw new IllegalStateException("Routing key " + step.routingKey() + " is already bound in saga "
+                        + name);
+            }
+        }
+    }
+
+    public static final class StepBuilder<S, E> {
+        private final Builder<S> parent;
+        private final String name;
+        private final String routingKey;
+        private final Class<E> eventType;
+        private final boolean start;
+        private Function<E, String> correlation;
+        private String replacedQueue;
+
+        private StepBuilder(Builder<S> parent, String name, String routingKey, Class<E> eventType, boolean start) {
+            this.parent = parent;
+            this.name = name;
+            this.routingKey = routingKey;
+            this.eventType = eventType;
+            this.start = start;
+        }
+
+        public StepBuilder<S, E> correlatedBy(Function<E, String> correlation) {
+            this.correlation = correlation;
+            return this;
+        }
+
+        /**
+         * Names the queue that carried this step's event before the saga
+         * moved to its reply queue, so the engine can retire it.
+         */
+        public StepBuilder<S, E> replacingQueue(String queueName) {
+            this.replacedQueue = queueName;
+            return this;
+        }
+
+        public Builder<S> handle(SagaStepHandler<S, E> handler) {
+            if (correlation == null) {
+                throw new IllegalStateException("Step " + name + " needs a correlation function");
+            }
+            parent.add(new Step<>(name, routingKey, eventType, correlation, handler, start));
+            if (replacedQueue != null) {
+                parent.retiredQueues.put(replacedQueue, routingKey);
+            }
+            return parent;
+        }
+    }
+}
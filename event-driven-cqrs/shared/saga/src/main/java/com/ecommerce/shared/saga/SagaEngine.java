@@ -0,0 +1,482 @@
+package com.ecommerce.shared.saga;
+
+import com.ecommerce.shared.common.commands.Command;
+import com.ecommerce.shared.common.commands.CommandEnvelope;
+import com.ecommerce.shared.messaging.CommandPublisher;
+import com.ecommerce.shared.messaging.MessagingConstants;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.rabbitmq.client.Channel;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.AmqpIOException;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.api.ChannelAwareBatchMessageListener;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs registered saga definitions.
+ * <p>
+ * Each saga type consumes one durable queue bound to the events exchange
+ * with all of its step routing keys, in batches of up to
+ * {@code batchSize} messages. The events of a batch are correlated to their
+ * instances and handed to the SagaExecutor together, so steps of different
+ * sagas run in parallel while those of one saga keep their order. Each
+ * message is acked on its own once its step has been processed. Steps that
+ * fail on a transient error, such as a concurrent write to the same
+ * instance or the broker refusing a command, are requeued; anything else is
+ * rejected to the dead-letter exchange.
+ * <p>
+ * Commands queued by a step are saved in the instance's outbox together
+ * with the transition and published afterwards. A publish that fails leaves
+ * them there: the redelivered event finds its step done and publishes the
+ * outbox, and the periodic sweep catches instances whose event is not
+ * coming back. Commands may therefore be sent more than once, never lost.
+ * <p>
+ * Queues a saga's steps used before, as named by the definition, are
+ * deleted once empty; one still holding messages is unbound so it stops
+ * filling up, and left to be drained by hand.
+ */
+public class SagaEngine implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(SagaEngine.class);
+    private static final int SWEEP_BATCH = 100;
+
+    private final ConnectionFactory connectionFactory;
+    private final AmqpAdmin amqpAdmin;
+    private final SagaStore store;
+    private final SagaExecutor executor;
+    private final CommandPublisher commandPublisher;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final int concurrentConsumers;
+    private final int batchSize;
+    private final long batchReceiveTimeoutMillis;
+    private final long timeoutSweepMillis;
+
+    private final List<RegisteredSaga<?>> sagas = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService timeoutSweeper;
+    private volatile boolean running;
+
+    public SagaEngine(ConnectionFactory connectionFactory, AmqpAdmin amqpAdmin, SagaStore store,
+            SagaExecutor executor, CommandPublisher commandPublisher, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry, int concurrentConsumers, int batchSize, long batchReceiveTimeoutMillis,
+            long timeoutSweepMillis) {
+        this.connectionFactory = connectionFactory;
+        this.amqpAdmin = amqpAdmin;
+        this.store = store;
+        this.executor = executor;
+        this.commandPublisher = commandPublisher;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.concurrentConsumers = concurrentConsumers;
+        this.batchSize = batchSize;
+        this.batchReceiveTimeoutMillis = batchReceiveTimeoutMillis;
+        this.timeoutSweepMillis = timeoutSweepMillis;
+    }
+
+    public synchronized <S> void register(SagaDefinition<S> definition) {
+        RegisteredSaga<S> saga = new RegisteredSaga<>(definition, new SagaMetrics(meterRegistry,
+                definition.getName(), store));
+        sagas.add(saga);
+        logger.info("Registered saga: type={}, steps={}", definition.getName(), definition.getRoutingKeys());
+        if (running) {
+            startListener(saga);
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        sagas.forEach(this::startListener);
+        timeoutSweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "saga-timeouts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timeoutSweeper.scheduleWithFixedDelay(this::sweep, timeoutSweepMillis, timeoutSweepMillis,
+                TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (timeoutSweeper != null) {
+            timeoutSweeper.shutdownNow();
+        }
+        for (RegisteredSaga<?> saga : sagas) {
+            if (saga.container != null) {
+                saga.container.stop();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private <S> void startListener(RegisteredSaga<S> saga) {
+        SagaDefinition<S> definition = saga.definition;
+
+        TopicExchange exchange = new TopicExchange(MessagingConstants.EVENTS_EXCHANGE);
+        Queue queue = QueueBuilder.durable(definition.getReplyQueueName())
+                .withArgument("x-dead-letter-exchange", MessagingConstants.DEAD_LETTER_EXCHANGE)
+                .build();
+        amqpAdmin.declareExchange(exchange);
+        amqpAdmin.declareQueue(queue);
+        for (String routingKey : definition.getRoutingKeys()) {
+            amqpAdmin.declareBinding(BindingBuilder.bind(queue).to(exchange).with(routingKey));
+        }
+        definition.getRetiredQueues().forEach(this::retireQueue);
+
+        SimpleMessageListenerContainer container = new SimpleMessageListenerContainer(connectionFactory);
+        container.setQueueNames(definition.getReplyQueueName());
+        container.setConcurrentConsumers(concurrentConsumers);
+        container.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        container.setConsumerBatchEnabled(true);
+        container.setBatchSize(batchSize);
+        container.setPrefetchCount(batchSize);
+        // A batch is handed over early once no further message arrives within this
+        container.setReceiveTimeout(batchReceiveTimeoutMillis);
+        ChannelAwareBatchMessageListener listener = (messages, channel) -> dispatchBatch(saga, messages, channel);
+        container.setMessageListener(listener);
+        container.start();
+        saga.container = container;
+    }
+
+    private void retireQueue(String queueName, String routingKey) {
+        try {
+            QueueInformation info = amqpAdmin.getQueueInfo(queueName);
+            if (info == null) {
+                return;
+            }
+            if (info.getMessageCount() == 0) {
+                amqpAdmin.deleteQueue(queueName);
+                logger.info("Deleted retired saga queue {}", queueName);
+                return;
+            }
+            amqpAdmin.removeBinding(new Binding(queueName, Binding.DestinationType.QUEUE,
+                    MessagingConstants.EVENTS_EXCHANGE, routingKey, null));
+            logger.warn("Retired saga queue {} still holds {} messages; unbound it, drain and delete it by hand",
+                    queueName, info.getMessageCount());
+        } catch (AmqpException e) {
+            logger.warn("Could not retire saga queue {}", queueName, e);
+        }
+    }
+
+    /**
+     * Dispatches a batch as the listener of the named saga does.
+     */
+    void dispatchBatch(String sagaType, List<Message> messages, Channel channel) {
+        for (RegisteredSaga<?> saga : sagas) {
+            if (saga.definition.getName().equals(sagaType)) {
+                dispatchBatch(saga, messages, channel);
+                return;
+            }
+        }
+        throw new IllegalArgumentException("No saga " + sagaType);
+    }
+
+    /**
+     * Runs the steps of a batch together and acks each message once its
+     * step is done; failed ones are requeued or rejected on their own.
+     */
+    private <S> void dispatchBatch(RegisteredSaga<S> saga, List<Message> messages, Channel channel) {
+        List<CompletableFuture<Void>> outcomes = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            outcomes.add(dispatch(saga, message));
+        }
+        for (int i = 0; i < messages.size(); i++) {
+            long deliveryTag = messages.get(i).getMessageProperties().getDeliveryTag();
+            try {
+                try {
+                    outcomes.get(i).join();
+                    channel.basicAck(deliveryTag, false);
+                } catch (CompletionException e) {
+                    channel.basicNack(deliveryTag, false, e.getCause() instanceof ImmediateRequeueAmqpException);
+                }
+            } catch (IOException e) {
+                // The channel is gone; the broker redelivers whatever is unacked
+                throw new AmqpIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Hands the message's step to the executor. The result fails with
+     * {@link ImmediateRequeueAmqpException} if the message is worth another
+     * delivery and with {@link AmqpRejectAndDontRequeueException} if not.
+     */
+    private <S> CompletableFuture<Void> dispatch(RegisteredSaga<S> saga, Message message) {
+        String routingKey = message.getMessageProperties().getReceivedRoutingKey();
+        SagaDefinition.Step<S, ?> step = saga.definition.stepFor(routingKey);
+        if (step == null) {
+            logger.warn("No step of saga {} for routing key {}", saga.definition.getName(), routingKey);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        Object event;
+        String correlationId;
+        try {
+            event = objectMapper.readValue(message.getBody(), step.eventType());
+            correlationId = step.correlationIdOf(event);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Unreadable {} for saga {}, rejecting", routingKey, saga.definition.getName(), e);
+            saga.metrics.stepFailed(step.name());
+            return CompletableFuture.failedFuture(
+                    new AmqpRejectAndDontRequeueException("Unreadable saga event", e));
+        }
+        if (correlationId == null) {
+            logger.debug("Ignoring {} without correlation id", routingKey);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return executor.execute(correlationId, () -> runStep(saga, step, event, correlationId))
+                .exceptionallyCompose(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    saga.metrics.stepFailed(step.name());
+                    if (isRetryable(cause)) {
+                        logger.warn("Saga {} step {} failed for {}, requeueing: {}", saga.definition.getName(),
+                                step.name(), correlationId, cause.toString());
+                        return CompletableFuture.failedFuture(
+                                new ImmediateRequeueAmqpException("Retrying saga step " + step.name(), cause));
+                    }
+                    logger.error("Saga {} failed at step {} for {}, rejecting", saga.definition.getName(),
+                            step.name(), correlationId, cause);
+                    return CompletableFuture.failedFuture(
+                            new AmqpRejectAndDontRequeueException("Saga step " + step.name() + " failed", cause));
+                });
+    }
+
+    /**
+     * Errors worth another delivery: a concurrent update of the same instance,
+     * the store being briefly unavailable, or the broker refusing a command.
+     * The first two happen before the transition is saved, so the step runs
+     * again from scratch on redelivery; after a refused command the
+     * redelivery finds the step done and publishes its outbox.
+     */
+    private static boolean isRetryable(Throwable error) {
+        return error instanceof OptimisticLockingFailureException
+                || error instanceof TransientDataAccessException
+                || error instanceof RecoverableDataAccessException
+                || error instanceof DataAccessResourceFailureException
+                || (error instanceof AmqpException && !(error instanceof MessageConversionException));
+    }
+
+    private <S> void runStep(RegisteredSaga<S> saga, SagaDefinition.Step<S, ?> step, Object event,
+            String correlationId) {
+        SagaDefinition<S> definition = saga.definition;
+        try {
+            SagaInstance instance;
+            S state;
+            if (step.start()) {
+                Optional<SagaInstance> started = store.find(definition.getName(), correlationId);
+                if (started.isPresent()) {
+                    logger.info("Saga {} already started for {}", definition.getName(), correlationId);
+                    publishOutbox(started.get());
+                    return;
+                }
+                Instant deadline = definition.getTimeout() != null
+                        ? Instant.now().plus(definition.getTimeout())
+                        : null;
+                instance = SagaInstance.start(definition.getName(), correlationId, deadline);
+                state = definition.newState();
+            } else {
+                Optional<SagaInstance> found = store.find(definition.getName(), correlationId);
+                if (found.isEmpty()) {
+                    logger.warn("Saga state not found: type={}, correlationId={}", definition.getName(),
+                            correlationId);
+                    return;
+                }
+                instance = found.get();
+                if (!instance.isRunning() || instance.hasRun(step.name())) {
+                    // Redelivery, a repeated event, or a late reply after failure/timeout
+                    logger.debug("Ignoring step {} for saga {} in status {}", step.name(), correlationId,
+                            instance.getStatus());
+                    // What an earlier delivery saved but could not send goes out now
+                    publishOutbox(instance);
+                    return;
+                }
+                state = objectMapper.readValue(instance.getState(), definition.getStateType());
+            }
+
+            SagaContext<S> context = new SagaContext<>(definition.getName(), correlationId, state);
+            step.invoke(event, context);
+
+            instance.transition(step.name(), context.getStatus(), context.getFailureReason(),
+                    objectMapper.writeValueAsString(state));
+            instance.enqueue(outboxOf(context));
+            if (step.start()) {
+                if (!store.insert(instance)) {
+                    logger.info("Saga {} already started for {}", definition.getName(), correlationId);
+                    return;
+                }
+            } else {
+                store.save(instance);
+                saga.metrics.stepCompleted(instance);
+            }
+
+            recordOutcome(saga, instance, step.name());
+            publishOutbox(instance);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Times out expired instances and publishes outboxes that have waited
+     * longer than one sweep interval.
+     */
+    private void sweep() {
+        for (RegisteredSaga<?> saga : sagas) {
+            String sagaType = saga.definition.getName();
+            if (saga.definition.getTimeout() != null) {
+                try {
+                    for (SagaInstance expired : store.findExpired(sagaType, Instant.now(), SWEEP_BATCH)) {
+                        String correlationId = expired.getCorrelationId();
+                        executor.execute(correlationId, () -> expire(saga, correlationId));
+                    }
+                } catch (Exception e) {
+                    logger.error("Timeout sweep failed for saga {}", sagaType, e);
+                }
+            }
+            try {
+                Instant queuedBefore = Instant.now().minusMillis(timeoutSweepMillis);
+                for (SagaInstance unpublished : store.findUnpublished(sagaType, queuedBefore, SWEEP_BATCH)) {
+                    String correlationId = unpublished.getCorrelationId();
+                    executor.execute(correlationId, () -> republish(sagaType, correlationId));
+                }
+            } catch (Exception e) {
+                logger.error("Outbox sweep failed for saga {}", sagaType, e);
+            }
+        }
+    }
+
+    private void republish(String sagaType, String correlationId) {
+        try {
+            store.find(sagaType, correlationId).ifPresent(this::publishOutbox);
+        } catch (Exception e) {
+            logger.warn("Outbox of saga {} for {} still not published", sagaType, correlationId, e);
+        }
+    }
+
+    private <S> void expire(RegisteredSaga<S> saga, String correlationId) {
+        SagaDefinition<S> definition = saga.definition;
+        try {
+            Optional<SagaInstance> found = store.find(definition.getName(), correlationId);
+            if (found.isEmpty() || !found.get().isRunning()) {
+                return;
+            }
+            SagaInstance instance = found.get();
+            S state = objectMapper.readValue(instance.getState(), definition.getStateType());
+            SagaContext<S> context = new SagaContext<>(definition.getName(), correlationId, state);
+            definition.getTimeoutHandler().accept(context);
+
+            logger.warn("Saga {} timed out in step {} for {}", definition.getName(), instance.getCurrentStep(),
+                    correlationId);
+            instance.transition(SagaDefinition.TIMEOUT_STEP, SagaStatus.TIMED_OUT,
+                    "Timed out after step " + instance.getCurrentStep(), objectMapper.writeValueAsString(state));
+            instance.enqueue(outboxOf(context));
+            store.save(instance);
+
+            saga.metrics.sagaFailed(instance, SagaDefinition.TIMEOUT_STEP);
+            publishOutbox(instance);
+        } catch (Exception e) {
+            logger.error("Failed to time out saga {} for {}", definition.getName(), correlationId, e);
+        }
+    }
+
+    private List<SagaInstance.OutboxCommand> outboxOf(SagaContext<?> context) throws IOException {
+        List<SagaInstance.OutboxCommand> commands = new ArrayList<>();
+        for (SagaContext.PendingCommand pending : context.getCommands()) {
+            Command<?> command = pending.command();
+            commands.add(new SagaInstance.OutboxCommand(pending.queueName(), command.getClass().getName(),
+                    objectMapper.writeValueAsString(command)));
+        }
+        return commands;
+    }
+
+    /**
+     * Publishes the instance's outbox and, once every command is
+     * acknowledged, saves it emptied. A failure leaves the whole outbox to
+     * be sent again.
+     */
+    private void publishOutbox(SagaInstance instance) {
+        if (!instance.hasOutbox()) {
+            return;
+        }
+        for (SagaInstance.OutboxCommand pending : instance.getOutbox()) {
+            Command<?> command;
+            try {
+                command = (Command<?>) objectMapper.readValue(pending.getPayload(),
+                        ClassUtils.forName(pending.getCommandType(), null));
+            } catch (IOException | ClassNotFoundException e) {
+                throw new IllegalStateException("Unreadable saga command " + pending.getCommandType(), e);
+            }
+            CommandEnvelope<Command<?>> envelope = new CommandEnvelope.Builder<Command<?>>(command)
+                    .correlationId(instance.getCorrelationId())
+                    .build();
+            try {
+                commandPublisher.publish(pending.getQueueName(), envelope).join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        instance.clearOutbox();
+        store.save(instance);
+    }
+
+    private void recordOutcome(RegisteredSaga<?> saga, SagaInstance instance, String step) {
+        switch (instance.getStatus()) {
+            case COMPLETED -> saga.metrics.sagaCompleted(instance);
+            case FAILED -> saga.metrics.sagaFailed(instance, step);
+            default -> {
+            }
+        }
+    }
+
+    private static final class RegisteredSaga<S> {
+        final SagaDefinition<S> definition;
+        final SagaMetrics metrics;
+        SimpleMessageListenerContainer container;
+
+        RegisteredSaga(SagaDefinition<S> definition, SagaMetrics metrics) {
+            this.definition = definition;
+            this.metrics = metrics;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.shared.saga;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs saga work. Implementations must not run two tasks for the same
+ * correlation id concurrently.
+ */
+public interface SagaExecutor {
+
+    CompletableFuture<Void> execute(String correlationId, Runnable task);
+}
@@ -0,0 +1,309 @@
+package com.ecommerce.shared.saga;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MongoDB document holding a saga instance's state and its transition log.
+ * Commands queued by a step are kept in {@code outbox}, saved together with
+ * the transition, until they have been published.
+ */
+@Document(collection = "saga_instances")
+@CompoundIndex(name = "saga_expiry", def = "{'sagaType': 1, 'status': 1, 'deadline': 1}")
+public class SagaInstance {
+
+    @Id
+    private String id;
+
+    private String sagaType;
+    private String correlationId;
+    private SagaStatus status;
+    private String currentStep;
+    private String state;
+    private String failureReason;
+    private List<Transition> transitions = new ArrayList<>();
+    private Instant createdAt;
+    private Instant updatedAt;
+    private Instant deadline;
+    private List<OutboxCommand> outbox;
+    // When the oldest unpublished command was queued; absent while the outbox is empty
+    private Instant outboxSince;
+
+    @Version
+    private Long version;
+
+    public SagaInstance() {
+    }
+
+    public static SagaInstance start(String sagaType, String correlationId, Instant deadline) {
+        SagaInstance instance = new SagaInstance();
+        instance.id = sagaType + ":" + correlationId;
+        instance.sagaType = sagaType;
+        instance.correlationId = correlationId;
+        instance.status = SagaStatus.RUNNING;
+        instance.createdAt = Instant.now();
+        instance.updatedAt = instance.createdAt;
+        instance.deadline = deadline;
+        return instance;
+    }
+
+    /**
+     * Records that {@code step} ran, leaving the saga in {@code newStatus} with
+     * the given serialized state.
+     */
+    public void transition(String step, SagaStatus newStatus, String reason, String newState) {
+        Instant now = Instant.now();
+        transitions.add(new Transition(step, status, newStatus, now));
+        this.currentStep = step;
+        this.status = newStatus;
+        this.state = newState;
+        this.updatedAt = now;
+        if (reason != null) {
+            this.failureReason = reason;
+        }
+    }
+
+    public boolean hasRun(String step) {
+        return transitions.stream().anyMatch(t -> step.equals(t.getStep()));
+    }
+
+    public boolean isRunning() {
+        return status == SagaStatus.RUNNING;
+    }
+
+    /**
+     * Adds commands to be published once this instance has been saved.
+     */
+    public void enqueue(List<OutboxCommand> commands) {
+        if (commands.isEmpty()) {
+            return;
+        }
+        if (outbox == null) {
+            outbox = new ArrayList<>();
+            outboxSince = updatedAt;
+        }
+        outbox.addAll(commands);
+    }
+
+    public boolean hasOutbox() {
+        return outbox != null && !outbox.isEmpty();
+    }
+
+    public void clearOutbox() {
+        outbox = null;
+        outboxSince = null;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getSagaType() {
+        return sagaType;
+    }
+
+    public void setSagaType(String sagaType) {
+        this.sagaType = sagaType;
+    }
+
+    public String getCorrelationId() {
+        return correlationId;
+    }
+
+    public void setCorrelationId(String correlationId) {
+        this.correlationId = correlationId;
+    }
+
+    public SagaStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(SagaStatus status) {
+        this.status = status;
+    }
+
+    public String getCurrentStep() {
+        return currentStep;
+    }
+
+    public void setCurrentStep(String currentStep) {
+        this.currentStep = currentStep;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public String getFailureReason() {
+        return failureReason;
+    }
+
+    public void setFailureReason(String failureReason) {
+        this.failureReason = failureReason;
+    }
+
+    public List<Transition> getTransitions() {
+        return transitions;
+    }
+
+    public void setTransitions(List<Transition> transitions) {
+        this.transitions = transitions;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Instant getDeadline() {
+        return deadline;
+    }
+
+    public void setDeadline(Instant deadline) {
+        this.deadline = deadline;
+    }
+
+    public List<OutboxCommand> getOutbox() {
+        return outbox;
+    }
+
+    public void setOutbox(List<OutboxCommand> outbox) {
+        this.outbox = outbox;
+    }
+
+    public Instant getOutboxSince() {
+        return outboxSince;
+    }
+
+    public void setOutboxSince(Instant outboxSince) {
+        this.outboxSince = outboxSince;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    /**
+     * One entry of the persisted transition log.
+     */
+    public static class Transition {
+        private String step;
+        private SagaStatus from;
+        private SagaStatus to;
+        private Instant at;
+
+        public Transition() {
+        }
+
+        public Transition(String step, SagaStatus from, SagaStatus to, Instant at) {
+            this.step = step;
+            this.from = from;
+            this.to = to;
+            this.at = at;
+        }
+
+        public String getStep() {
+            return step;
+        }
+
+        public void setStep(String step) {
+            this.step = step;
+        }
+
+        public SagaStatus getFrom() {
+            return from;
+        }
+
+        public void setFrom(SagaStatus from) {
+            this.from = from;
+        }
+
+        public SagaStatus getTo() {
+            return to;
+        }
+
+        public void setTo(SagaStatus to) {
+            this.to = to;
+        }
+
+        public Instant getAt() {
+            return at;
+        }
+
+        public void setAt(Instant at) {
+            this.at = at;
+        }
+    }
+
+    /**
+     * A command waiting to be published: the target queue, the command's
+     * class and its JSON form.
+     */
+    public static class OutboxCommand {
+        private String queueName;
+        private String commandType;
+        private String payload;
+
+        public OutboxCommand() {
+        }
+
+        public OutboxCommand(String queueName, String commandType, String payload) {
+            this.queueName = queueName;
+            this.commandType = commandType;
+            this.payload = payload;
+        }
+
+        public String getQueueName() {
+            return queueName;
+        }
+
+        public void setQueueName(String queueName) {
+            this.queueName = queueName;
+        }
+
+        public String getCommandType() {
+            return commandType;
+        }
+
+        public void setCommandType(String commandType) {
+            this.commandType = commandType;
+        }
+
+        public String getPayload() {
+            return payload;
+        }
+
+        public void setPayload(String payload) {
+            this.payload = payload;
+        }
+    }
+}
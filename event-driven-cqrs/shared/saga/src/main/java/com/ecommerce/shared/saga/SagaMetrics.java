@@ -0,0 +1,101 @@
+package com.ecommerce.shared.saga;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Micrometer instrumentation for one saga type, named {@code <saga>.saga.*}.
+ * <p>
+ * Everything is derived from the persisted instances rather than from what
+ * this node happened to see, so the numbers hold across nodes and restarts.
+ * In-flight is the store's count of running instances. Step latency is the
+ * time between the previous transition of the instance and the one that
+ * completes the step, i.e. one command/reply hop through the named
+ * subsystem; end-to-end duration runs from the instance's creation to its
+ * last transition. Both compare timestamps of possibly different nodes, so
+ * they are as accurate as the nodes' clocks agree.
+ */
+public class SagaMetrics {
+
+    private final MeterRegistry registry;
+    private final String prefix;
+    private final Map<String, Timer> stepTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> failureCounters = new ConcurrentHashMap<>();
+    private final Timer completedTimer;
+    private final Timer failedTimer;
+
+    public SagaMetrics(MeterRegistry registry, String sagaType, SagaStore store) {
+        this.registry = registry;
+        this.prefix = sagaType + ".saga";
+        this.completedTimer = endToEndTimer("completed");
+        this.failedTimer = endToEndTimer("failed");
+        Gauge.builder(prefix + ".in_flight", store, s -> s.countRunning(sagaType))
+                .description("Sagas started but not yet completed or failed")
+                .register(registry);
+    }
+
+    /**
+     * Records the latency of the step the instance's latest transition
+     * completed.
+     */
+    public void stepCompleted(SagaInstance instance) {
+        List<SagaInstance.Transition> transitions = instance.getTransitions();
+        int last = transitions.size() - 1;
+        if (last < 1) {
+            return;
+        }
+        SagaInstance.Transition completed = transitions.get(last);
+        stepTimer(completed.getStep()).record(
+                Duration.between(transitions.get(last - 1).getAt(), completed.getAt()));
+    }
+
+    public void stepFailed(String step) {
+        failureCounters.computeIfAbsent(step, s -> Counter.builder(prefix + ".step.failures")
+                .description("Saga steps that failed or were rejected")
+                .tag("step", s)
+                .register(registry))
+                .increment();
+    }
+
+    /**
+     * Ends a saga that reached its last step.
+     */
+    public void sagaCompleted(SagaInstance instance) {
+        completedTimer.record(endToEnd(instance));
+    }
+
+    /**
+     * Ends a saga that was aborted at {@code step}.
+     */
+    public void sagaFailed(SagaInstance instance, String step) {
+        stepFailed(step);
+        failedTimer.record(endToEnd(instance));
+    }
+
+    private static Duration endToEnd(SagaInstance instance) {
+        return Duration.between(instance.getCreatedAt(), instance.getUpdatedAt());
+    }
+
+    private Timer stepTimer(String step) {
+        return stepTimers.computeIfAbsent(step, s -> Timer.builder(prefix + ".step.duration")
+                .description("Latency of a single saga step")
+                .tag("step", s)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    private Timer endToEndTimer(String outcome) {
+        return Timer.builder(prefix + ".duration")
+                .description("End-to-end saga duration from start event to completion")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,11 @@
+package com.ecommerce.shared.saga;
+
+/**
+ * Lifecycle status of a saga instance.
+ */
+public enum SagaStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    TIMED_OUT
+}
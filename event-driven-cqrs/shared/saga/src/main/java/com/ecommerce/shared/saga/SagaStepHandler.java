@@ -0,0 +1,14 @@
+package com.ecommerce.shared.saga;
+
+/**
+ * Handles one saga step: reacts to an event, mutates the saga state and
+ * queues follow-up commands on the context.
+ *
+ * @param <S> The saga state type
+ * @param <E> The event type that triggers the step
+ */
+@FunctionalInterface
+public interface SagaStepHandler<S, E> {
+
+    void handle(E event, SagaContext<S> context) throws Exception;
+}
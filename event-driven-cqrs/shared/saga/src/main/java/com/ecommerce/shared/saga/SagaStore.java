@@ -0,0 +1,34 @@
+package com.ecommerce.shared.saga;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Persistence port for saga instances.
+ */
+public interface SagaStore {
+
+    Optional<SagaInstance> find(String sagaType, String correlationId);
+
+    /**
+     * Inserts a new instance. Returns false if one already exists for the same
+     * saga type and correlation id.
+     */
+    boolean insert(SagaInstance instance);
+
+    SagaInstance save(SagaInstance instance);
+
+    List<SagaInstance> findExpired(String sagaType, Instant now, int limit);
+
+    /**
+     * Instances of the saga type with commands queued before {@code before}
+     * that are still unpublished.
+     */
+    List<SagaInstance> findUnpublished(String sagaType, Instant before, int limit);
+
+    /**
+     * Number of instances of the saga type that are still running.
+     */
+    long countRunning(String sagaType);
+}
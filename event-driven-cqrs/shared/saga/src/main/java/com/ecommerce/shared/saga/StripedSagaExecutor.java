@@ -0,0 +1,45 @@
+package com.ecommerce.shared.saga;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Default SagaExecutor: a fixed set of single-threaded stripes, with each
+ * correlation id pinned to one stripe so a saga's steps run in order.
+ */
+public class StripedSagaExecutor implements SagaExecutor, DisposableBean {
+
+    private final ExecutorService[] stripes;
+
+    public StripedSagaExecutor(int stripeCount) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("stripeCount must be positive");
+        }
+        AtomicInteger counter = new AtomicInteger();
+        this.stripes = new ExecutorService[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "saga-stripe-" + counter.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> execute(String correlationId, Runnable task) {
+        int index = Math.floorMod(correlationId.hashCode(), stripes.length);
+        return CompletableFuture.runAsync(task, stripes[index]);
+    }
+
+    @Override
+    public void destroy() {
+        for (ExecutorService stripe : stripes) {
+            stripe.shutdown();
+        }
+    }
+}
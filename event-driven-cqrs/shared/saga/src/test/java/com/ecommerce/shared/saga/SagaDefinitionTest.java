@@ -0,0 +1,132 @@
+package com.ecommerce.shared.saga;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SagaDefinition and its builder.
+ */
+class SagaDefinitionTest {
+
+    record Started(String orderId) {
+    }
+
+    record Replied(String orderId, String outcome) {
+    }
+
+    static class State {
+        final List<String> seen = new ArrayList<>();
+    }
+
+    @Test
+    void build_shouldBindEachStepByRoutingKey() {
+        SagaDefinition<State> saga = SagaDefinition.builder("checkout", State.class, State::new)
+                .startsOn("order.Started", Started.class)
+                    .correlatedBy(Started::orderId)
+                    .handle((event, context) -> { })
+                .step("reply", "inventory.Replied", Replied.class)
+                    .correlatedBy(Replied::orderId)
+                    .handle((event, context) -> { })
+                .timeout(Duration.ofMinutes(5), context -> { })
+                .build();
+
+        assertThat(saga.getName()).isEqualTo("checkout");
+        assertThat(saga.getReplyQueueName()).isEqualTo("saga.checkout.replies");
+        assertThat(saga.getRoutingKeys()).containsExactly("order.Started", "inventory.Replied");
+        assertThat(saga.stepFor("order.Started").start()).isTrue();
+        assertThat(saga.stepFor("order.Started").name()).isEqualTo(SagaDefinition.START_STEP);
+        assertThat(saga.stepFor("inventory.Replied").start()).isFalse();
+        assertThat(saga.stepFor("unknown.Event")).isNull();
+        assertThat(saga.getTimeout()).isEqualTo(Duration.ofMinutes(5));
+        assertThat(saga.newState()).isInstanceOf(State.class);
+    }
+
+    @Test
+    void replacingQueue_shouldRecordTheRetiredQueueWithItsRoutingKey() {
+        SagaDefinition<State> saga = SagaDefinition.builder("checkout", State.class, State::new)
+                .startsOn("order.Started", Started.class)
+                    .correlatedBy(Started::orderId)
+                    .replacingQueue("saga.started.queue")
+                    .handle((event, context) -> { })
+                .step("reply", "inventory.Replied", Replied.class)
+                    .correlatedBy(Replied::orderId)
+                    .handle((event, context) -> { })
+                .build();
+
+        assertThat(saga.getRetiredQueues()).containsExactly(entry("saga.started.queue", "order.Started"));
+    }
+
+    @Test
+    void step_shouldCorrelateAndInvokeWithTypedEvent() throws Exception {
+        SagaDefinition<State> saga = SagaDefinition.builder("checkout", State.class, State::new)
+                .startsOn("order.Started", Started.class)
+                    .correlatedBy(Started::orderId)
+                    .handle((event, context) -> context.getState().seen.add(event.orderId()))
+                .build();
+        SagaDefinition.Step<State, ?> step = saga.stepFor("order.Started");
+        @SuppressWarnings("unchecked")
+        SagaContext<State> context = mock(SagaContext.class);
+        State state = new State();
+        when(context.getState()).thenReturn(state);
+
+        step.invoke(new Started("order-1"), context);
+
+        assertThat(step.correlationIdOf(new Started("order-1"))).isEqualTo("order-1");
+        assertThat(state.seen).containsExactly("order-1");
+    }
+
+    @Test
+    void build_withoutStartStep_shouldThrowException() {
+        SagaDefinition.Builder<State> builder = SagaDefinition.builder("checkout", State.class, State::new)
+                .step("reply", "inventory.Replied", Replied.class)
+                    .correlatedBy(Replied::orderId)
+                    .handle((event, context) -> { });
+
+        assertThatThrownBy(builder::build)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("no start step");
+    }
+
+    @Test
+    void startsOn_twice_shouldThrowException() {
+        SagaDefinition.Builder<State> builder = SagaDefinition.builder("checkout", State.class, State::new)
+                .startsOn("order.Started", Started.class)
+                    .correlatedBy(Started::orderId)
+                    .handle((event, context) -> { });
+
+        assertThatThrownBy(() -> builder.startsOn("order.Other", Started.class))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("already has a start step");
+    }
+
+    @Test
+    void step_withRoutingKeyAlreadyBound_shouldThrowException() {
+        SagaDefinition.Builder<State> builder = SagaDefinition.builder("checkout", State.class, State::new)
+                .startsOn("order.Started", Started.class)
+                    .correlatedBy(Started::orderId)
+                    .handle((event, context) -> { });
+        SagaDefinition.StepBuilder<State, Replied> duplicate = builder
+                .step("again", "order.Started", Replied.class)
+                    .correlatedBy(Replied::orderId);
+
+        assertThatThrownBy(() -> duplicate.handle((event, context) -> { }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("already bound");
+    }
+
+    @Test
+    void step_withoutCorrelation_shouldThrowException() {
+        SagaDefinition.StepBuilder<State, Replied> step = SagaDefinition.builder("checkout", State.class, State::new)
+                .step("reply", "inventory.Replied", Replied.class);
+
+        assertThatThrownBy(() -> step.handle((event, context) -> { }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("correlation function");
+    }
+}
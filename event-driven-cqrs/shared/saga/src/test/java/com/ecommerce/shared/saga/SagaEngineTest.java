@@ -0,0 +1,194 @@
+package com.ecommerce.shared.saga;
+
+import com.ecommerce.shared.common.commands.Command;
+import com.ecommerce.shared.common.commands.CommandEnvelope;
+import com.ecommerce.shared.messaging.CommandPublisher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SagaEngine step dispatch, against a mocked store, command
+ * publisher and channel.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class SagaEngineTest {
+
+    record Started(String orderId) {
+    }
+
+    record Replied(String orderId) {
+    }
+
+    record Notify(String commandId, String orderId) implements Command<Void> {
+        @Override
+        public String getCommandId() {
+            return commandId;
+        }
+    }
+
+    static class State {
+        public int replies;
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private SagaStore store;
+
+    @Mock
+    private CommandPublisher commandPublisher;
+
+    @Mock
+    private Channel channel;
+
+    private SagaEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        SagaExecutor inline = (correlationId, task) -> CompletableFuture.runAsync(task, Runnable::run);
+        engine = new SagaEngine(mock(ConnectionFactory.class), mock(AmqpAdmin.class), store, inline,
+                commandPublisher, objectMapper, new SimpleMeterRegistry(), 1, 10, 50, 10_000);
+        engine.register(SagaDefinition.builder("test", State.class, State::new)
+                .startsOn("test.Started", Started.class)
+                    .correlatedBy(Started::orderId)
+                    .handle((event, context) -> context.send("notify.queue", new Notify("c-1", event.orderId())))
+                .step("reply", "test.Replied", Replied.class)
+                    .correlatedBy(Replied::orderId)
+                    .handle((event, context) -> {
+                        context.getState().replies++;
+                        context.complete();
+                    })
+                .build());
+        when(store.insert(any())).thenReturn(true);
+        when(store.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void start_shouldSaveTheOutboxThenPublishAndClearIt() throws Exception {
+        when(store.find("test", "order-1")).thenReturn(Optional.empty());
+        when(commandPublisher.publish(anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        engine.dispatchBatch("test", List.of(message("test.Started", new Started("order-1"), 1)), channel);
+
+        ArgumentCaptor<SagaInstance> inserted = ArgumentCaptor.forClass(SagaInstance.class);
+        verify(store).insert(inserted.capture());
+        ArgumentCaptor<CommandEnvelope<Command<?>>> envelope = envelopeCaptor();
+        verify(commandPublisher).publish(eq("notify.queue"), envelope.capture());
+        assertThat(envelope.getValue().getCommand()).isEqualTo(new Notify("c-1", "order-1"));
+        assertThat(envelope.getValue().getCorrelationId()).isEqualTo("order-1");
+        assertThat(inserted.getValue().hasOutbox()).isFalse();
+        verify(store).save(inserted.getValue());
+        verify(channel).basicAck(1, false);
+    }
+
+    @Test
+    void start_whenPublishFails_shouldKeepTheOutboxAndRequeue() throws Exception {
+        when(store.find("test", "order-1")).thenReturn(Optional.empty());
+        when(commandPublisher.publish(anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new AmqpConnectException(new RuntimeException("down"))));
+
+        engine.dispatchBatch("test", List.of(message("test.Started", new Started("order-1"), 1)), channel);
+
+        ArgumentCaptor<SagaInstance> inserted = ArgumentCaptor.forClass(SagaInstance.class);
+        verify(store).insert(inserted.capture());
+        assertThat(inserted.getValue().hasOutbox()).isTrue();
+        assertThat(inserted.getValue().getOutboxSince()).isNotNull();
+        verify(store, never()).save(any());
+        verify(channel).basicNack(1, false, true);
+    }
+
+    @Test
+    void redelivery_ofADoneStep_shouldPublishTheLeftoverOutbox() throws Exception {
+        SagaInstance started = SagaInstance.start("test", "order-1", null);
+        started.transition(SagaDefinition.START_STEP, SagaStatus.RUNNING, null, "{}");
+        started.enqueue(List.of(new SagaInstance.OutboxCommand("notify.queue", Notify.class.getName(),
+                objectMapper.writeValueAsString(new Notify("c-1", "order-1")))));
+        when(store.find("test", "order-1")).thenReturn(Optional.of(started));
+        when(commandPublisher.publish(anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        engine.dispatchBatch("test", List.of(message("test.Started", new Started("order-1"), 1)), channel);
+
+        verify(store, never()).insert(any());
+        verify(commandPublisher).publish(eq("notify.queue"), any());
+        assertThat(started.hasOutbox()).isFalse();
+        verify(store).save(started);
+        verify(channel).basicAck(1, false);
+    }
+
+    @Test
+    void batch_shouldAckAndNackEachMessageOnItsOwn() throws Exception {
+        SagaInstance first = running("order-1");
+        SagaInstance second = running("order-2");
+        when(store.find("test", "order-1")).thenReturn(Optional.of(first));
+        when(store.find("test", "order-2")).thenReturn(Optional.of(second));
+        when(store.save(second)).thenThrow(new OptimisticLockingFailureException("concurrent"));
+
+        engine.dispatchBatch("test", List.of(
+                message("test.Replied", new Replied("order-1"), 1),
+                message("test.Replied", new Replied("order-2"), 2),
+                message("test.Replied", "not json", 3)), channel);
+
+        assertThat(first.getStatus()).isEqualTo(SagaStatus.COMPLETED);
+        verify(channel).basicAck(1, false);
+        verify(channel).basicNack(2, false, true);
+        verify(channel).basicNack(3, false, false);
+    }
+
+    @Test
+    void reply_toAStepAlreadyRun_shouldBeIgnored() throws Exception {
+        SagaInstance instance = running("order-1");
+        instance.transition("reply", SagaStatus.RUNNING, null, "{\"replies\":1}");
+        when(store.find("test", "order-1")).thenReturn(Optional.of(instance));
+
+        engine.dispatchBatch("test", List.of(message("test.Replied", new Replied("order-1"), 1)), channel);
+
+        verify(store, never()).save(any());
+        verify(channel).basicAck(1, false);
+    }
+
+    private SagaInstance running(String orderId) {
+        SagaInstance instance = SagaInstance.start("test", orderId, null);
+        instance.transition(SagaDefinition.START_STEP, SagaStatus.RUNNING, null, "{\"replies\":0}");
+        return instance;
+    }
+
+    private Message message(String routingKey, Object body, long deliveryTag) throws Exception {
+        MessageProperties properties = new MessageProperties();
+        properties.setReceivedRoutingKey(routingKey);
+        properties.setDeliveryTag(deliveryTag);
+        byte[] bytes = body instanceof String text
+                ? text.getBytes(StandardCharsets.UTF_8)
+                : objectMapper.writeValueAsBytes(body);
+        return new Message(bytes, properties);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<CommandEnvelope<Command<?>>> envelopeCaptor() {
+        return ArgumentCaptor.forClass(CommandEnvelope.class);
+    }
+}
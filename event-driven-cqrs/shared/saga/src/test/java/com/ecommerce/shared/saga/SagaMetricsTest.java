@@ -0,0 +1,99 @@
+package com.ecommerce.shared.saga;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SagaMetrics, against a mocked SagaStore.
+ */
+@ExtendWith(MockitoExtension.class)
+class SagaMetricsTest {
+
+    private static final Instant CREATED = Instant.parse("2026-01-01T10:00:00Z");
+
+    @Mock
+    private SagaStore store;
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private SagaMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new SagaMetrics(registry, "checkout", store);
+    }
+
+    @Test
+    void inFlight_shouldCountRunningInstancesInTheStore() {
+        when(store.countRunning("checkout")).thenReturn(42L);
+
+        assertThat(registry.get("checkout.saga.in_flight").gauge().value()).isEqualTo(42.0);
+    }
+
+    @Test
+    void stepCompleted_shouldTimeFromThePreviousPersistedTransition() {
+        SagaInstance instance = instance(SagaStatus.RUNNING,
+                transition("start", 0), transition("cart-snapshot", 250));
+
+        metrics.stepCompleted(instance);
+
+        Timer timer = registry.get("checkout.saga.step.duration").tag("step", "cart-snapshot").timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(250.0);
+    }
+
+    @Test
+    void stepCompleted_forTheStartStep_shouldRecordNothing() {
+        metrics.stepCompleted(instance(SagaStatus.RUNNING, transition("start", 0)));
+
+        assertThat(registry.find("checkout.saga.step.duration").timers()).isEmpty();
+    }
+
+    @Test
+    void sagaCompleted_shouldTimeFromCreationToLastTransition() {
+        SagaInstance instance = instance(SagaStatus.COMPLETED, transition("start", 0), transition("paid", 1500));
+
+        metrics.sagaCompleted(instance);
+
+        Timer timer = registry.get("checkout.saga.duration").tag("outcome", "completed").timer();
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(1500.0);
+    }
+
+    @Test
+    void sagaFailed_shouldCountTheStepAndTimeTheSaga() {
+        SagaInstance instance = instance(SagaStatus.TIMED_OUT, transition("start", 0), transition("timeout", 900));
+
+        metrics.sagaFailed(instance, SagaDefinition.TIMEOUT_STEP);
+
+        assertThat(registry.get("checkout.saga.step.failures").tag("step", "timeout").counter().count())
+                .isEqualTo(1.0);
+        assertThat(registry.get("checkout.saga.duration").tag("outcome", "failed").timer()
+                .totalTime(TimeUnit.MILLISECONDS)).isEqualTo(900.0);
+    }
+
+    private static SagaInstance instance(SagaStatus status, SagaInstance.Transition... transitions) {
+        SagaInstance instance = new SagaInstance();
+        instance.setStatus(status);
+        instance.setCreatedAt(CREATED);
+        instance.setTransitions(List.of(transitions));
+        instance.setUpdatedAt(transitions[transitions.length - 1].getAt());
+        return instance;
+    }
+
+    private static SagaInstance.Transition transition(String step, long atMillis) {
+        return new SagaInstance.Transition(step, SagaStatus.RUNNING, SagaStatus.RUNNING,
+                CREATED.plusMillis(atMillis));
+    }
+}